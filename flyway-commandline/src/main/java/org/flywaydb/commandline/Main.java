@@ -137,6 +137,8 @@ public class Main {
             LOG.info("\n" + MigrationInfoDumper.dumpToAsciiTable(flyway.info().all()));
         } else if ("repair".equals(operation)) {
             flyway.repair();
+        } else if ("watch".equals(operation)) {
+            flyway.watch();
         } else {
             LOG.error("Invalid operation: " + operation);
             printUsage();
@@ -205,6 +207,7 @@ public class Main {
         LOG.info("validate : Validates the applied migrations against the ones on the classpath");
         LOG.info("baseline : Baselines an existing database at the baselineVersion");
         LOG.info("repair   : Repairs the metadata table");
+        LOG.info("watch    : Migrates, then migrates again whenever migrations change (Ctrl-C to stop)");
         LOG.info("");
         LOG.info("Options (Format: -key=value)");
         LOG.info("-------");
@@ -232,6 +235,8 @@ public class Main {
         LOG.info("baselineVersion        : Version to tag schema with when executing baseline");
         LOG.info("baselineDescription    : Description to tag schema with when executing baseline");
         LOG.info("baselineOnMigrate      : Baseline on migrate against uninitialized non-empty schema");
+        LOG.info("checksumCacheFile      : File caching migration checksums between runs");
+        LOG.info("watchInterval          : Interval in ms at which watch polls for changes");
         LOG.info("configFile             : Config file to use (default: conf/flyway.properties)");
         LOG.info("configFileEncoding     : Encoding of the config file (default: UTF-8)");
         LOG.info("jarDirs                : Dirs for Jdbc drivers & Java migrations (default: jars)");
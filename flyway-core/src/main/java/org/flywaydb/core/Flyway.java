@@ -24,9 +24,11 @@ import org.flywaydb.core.api.resolver.MigrationResolver;
 import org.flywaydb.core.internal.callback.SqlScriptFlywayCallback;
 import org.flywaydb.core.internal.command.DbBaseline;
 import org.flywaydb.core.internal.command.DbClean;
+import org.flywaydb.core.internal.command.DbFollow;
 import org.flywaydb.core.internal.command.DbMigrate;
 import org.flywaydb.core.internal.command.DbRepair;
 import org.flywaydb.core.internal.command.DbSchemas;
+import org.flywaydb.core.internal.command.DbSnapshot;
 import org.flywaydb.core.internal.command.DbValidate;
 import org.flywaydb.core.internal.dbsupport.DbSupport;
 import org.flywaydb.core.internal.dbsupport.DbSupportFactory;
@@ -34,8 +36,11 @@ import org.flywaydb.core.internal.dbsupport.Schema;
 import org.flywaydb.core.internal.info.MigrationInfoServiceImpl;
 import org.flywaydb.core.internal.metadatatable.MetaDataTable;
 import org.flywaydb.core.internal.metadatatable.MetaDataTableImpl;
+import org.flywaydb.core.internal.metadatatable.MigrationLease;
+import org.flywaydb.core.internal.metadatatable.UpToDateCheck;
 import org.flywaydb.core.internal.resolver.CompositeMigrationResolver;
 import org.flywaydb.core.internal.util.ClassUtils;
+import org.flywaydb.core.internal.util.Location;
 import org.flywaydb.core.internal.util.Locations;
 import org.flywaydb.core.internal.util.PlaceholderReplacer;
 import org.flywaydb.core.internal.util.StringUtils;
@@ -46,8 +51,14 @@ import org.flywaydb.core.internal.util.jdbc.TransactionCallback;
 import org.flywaydb.core.internal.util.jdbc.TransactionTemplate;
 import org.flywaydb.core.internal.util.logging.Log;
 import org.flywaydb.core.internal.util.logging.LogFactory;
+import org.flywaydb.core.internal.util.scanner.ChecksumCache;
+import org.flywaydb.core.internal.util.scanner.Scanner;
+import org.flywaydb.core.internal.util.scanner.filesystem.FileSystemScanner;
+import org.flywaydb.core.internal.util.scanner.filesystem.FileSystemWatcher;
 
 import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -55,6 +66,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 
 /**
  * This is the centre point of Flyway, and for most users, the only class they will ever have to deal with.
@@ -70,6 +82,21 @@ public class Flyway {
      */
     private static final String PLACEHOLDERS_PROPERTY_PREFIX = "flyway.placeholders.";
 
+    /**
+     * Suffix of the name of the migration lease table, next to the metadata table.
+     */
+    private static final String LEASE_TABLE_SUFFIX = "_lease";
+
+    /**
+     * Suffix of the name of the table holding the digests of the up to date check, next to the metadata table.
+     */
+    private static final String DIGEST_TABLE_SUFFIX = "_digest";
+
+    /**
+     * Suffixes of the names of the tables Flyway keeps next to the metadata table.
+     */
+    private static final String[] AUXILIARY_TABLE_SUFFIXES = {LEASE_TABLE_SUFFIX, DIGEST_TABLE_SUFFIX};
+
     /**
      * The locations to scan recursively for migrations.
      * <p/>
@@ -217,6 +244,139 @@ public class Flyway {
      */
     private boolean outOfOrder;
 
+    /**
+     * Whether to coordinate concurrent migrations using a heartbeated lease row instead of locking the metadata table.
+     * <p>The lease lives in a separate table next to the metadata table and is only ever acquired and renewed in short
+     * transactions, so no transaction on the metadata table stays open while migrations are running. All nodes
+     * migrating the same schema must use the same setting.</p>
+     * <p>(default: {@code false})</p>
+     */
+    private boolean leaseLock;
+
+    /**
+     * The time (in seconds) after which a migration lease that is no longer renewed by its owner expires and can be
+     * taken over by another node. (default: 60)
+     */
+    private int leaseTimeout = 60;
+
+    /**
+     * Whether to use a lightweight database advisory lock instead of locking the metadata table while migrating, on
+     * databases that support it (PostgreSQL, MySQL, SQL Server and Oracle). Unlike a table lock, an advisory lock
+     * doesn't block other readers of the metadata table. Other databases fall back to locking the metadata table.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean advisoryLock;
+
+    /**
+     * Whether to keep the version_rank column of the metadata table in version order when inserting rows, for older
+     * Flyway clients still relying on it. Flyway itself derives the version ranks when reading the metadata table.
+     * Without this, rows are inserted without touching any existing row. With it, every out of order migration reads
+     * all versions and rewrites the version rank of every later row.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean legacyVersionRank;
+
+    /**
+     * Whether nodes that find the migration lease held by another node should wait for that node to finish instead of
+     * queuing up for the lease. Followers only poll the latest row of the metadata table and return without taking the
+     * lease once the latest migration has been applied. Only effective together with {@code leaseLock}.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean followerMode;
+
+    /**
+     * Whether to skip the full comparison of resolved and applied migrations when nothing changed since the last
+     * successful run. A digest of the resolved migrations is stored in a small table next to the metadata table at the
+     * end of every successful migrate or validate, and compared together with the latest installed rank on the next
+     * run.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean upToDateCheck;
+
+    /**
+     * Whether to stream sql migrations when executing them. Streamed migrations are read one line at a time and each
+     * statement is executed as soon as it is terminated, so memory usage is bounded by the largest statement instead of
+     * by the size of the script. As placeholders are then replaced line by line, placeholder values must not span
+     * multiple lines.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean stream;
+
+    /**
+     * Whether to send runs of consecutive DML statements (INSERT, UPDATE and DELETE) in sql migrations to the database
+     * as JDBC batches instead of one statement at a time. All other statements are still executed on their own, as are
+     * all statements when the driver doesn't support batch updates.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean batch;
+
+    /**
+     * The maximum number of statements to send to the database in a single batch when batching is enabled.
+     * <p>(default: 100)</p>
+     */
+    private int batchSize = 100;
+
+    /**
+     * Whether to cache the migrations resolved from the configured locations for the lifetime of the ClassLoader, so
+     * that subsequent commands (from this or any other Flyway instance) don't need to scan the locations again. Cached
+     * migrations are discarded as soon as the files they were resolved from change on disk. Locations that are not
+     * on the file system are never cached.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean cacheMigrations;
+
+    /**
+     * The number of threads to use for walking the directory trees of filesystem: locations. Only worth increasing for
+     * very large trees, or for trees on network filesystems where listing a directory is slow.
+     * <p>(default: 1, which walks the trees sequentially)</p>
+     */
+    private int fileSystemScanThreads = 1;
+
+    /**
+     * The file in which to cache the checksums of the migrations found on disk between runs, so that migrations which
+     * didn't change aren't read again. Mostly useful for the command-line tool, which starts from scratch on every
+     * invocation. {@code null} to not cache checksums.
+     * <p>(default: {@code null})</p>
+     */
+    private String checksumCacheFile;
+
+    /**
+     * The interval at which {@link #watch()} polls the filesystem locations for changes (in ms).
+     * <p>(default: 500)</p>
+     */
+    private long watchInterval = 500;
+
+    /**
+     * Whether to drop the objects of the schemas in as few round trips as possible when cleaning. Where the database
+     * allows it, up to {@code batchSize} objects are dropped with a single statement. All other drop statements are sent
+     * as JDBC batches of up to {@code batchSize} statements.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean cleanBatch;
+
+    /**
+     * The maximum number of schemas to clean in parallel, each on its own connection from the DataSource, in the order
+     * of the references between them. The objects within a schema are still dropped one after the other, so this only
+     * speeds up cleaning several schemas.
+     * <p>(default: 1)</p>
+     */
+    private int schemaCleanThreads = 1;
+
+    /**
+     * Whether clean may reset a schema by dropping and recreating it as a whole, instead of dropping its objects one by
+     * one.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean recreateOnClean;
+
+    /**
+     * The directory in which snapshots of fully migrated schemas are stored. {@code null} to use the
+     * {@code .flyway/snapshots} directory inside the home directory of the user. It must belong to the user and must
+     * not be writable by other users.
+     * <p>(default: {@code null})</p>
+     */
+    private File snapshotDir;
+
     /**
      * This is a list of callbacks that fire before and after tasks are executed.  You can
      * add as many custom callbacks as you want.
@@ -482,6 +642,172 @@ public class Flyway {
         return outOfOrder;
     }
 
+    /**
+     * Whether to coordinate concurrent migrations using a heartbeated lease row instead of locking the metadata table.
+     * <p>The lease lives in a separate table next to the metadata table and is only ever acquired and renewed in short
+     * transactions, so no transaction on the metadata table stays open while migrations are running.</p>
+     *
+     * @return {@code true} if a lease should be used, {@code false} to lock the metadata table. (default: {@code false})
+     */
+    public boolean isLeaseLock() {
+        return leaseLock;
+    }
+
+    /**
+     * Retrieves the time after which a migration lease that is no longer renewed by its owner expires.
+     *
+     * @return The lease timeout in seconds. (default: 60)
+     */
+    public int getLeaseTimeout() {
+        return leaseTimeout;
+    }
+
+    /**
+     * Whether to use a lightweight database advisory lock instead of locking the metadata table while migrating, on
+     * databases that support it (PostgreSQL, MySQL, SQL Server and Oracle).
+     *
+     * @return {@code true} to use an advisory lock where supported, {@code false} to always lock the metadata table.
+     * (default: {@code false})
+     */
+    public boolean isAdvisoryLock() {
+        return advisoryLock;
+    }
+
+    /**
+     * Whether to keep the version_rank column of the metadata table in version order when inserting rows, for older
+     * Flyway clients still relying on it.
+     *
+     * @return {@code true} to maintain the stored version ranks, {@code false} to insert rows without touching any
+     * existing row. (default: {@code false})
+     */
+    public boolean isLegacyVersionRank() {
+        return legacyVersionRank;
+    }
+
+    /**
+     * Whether nodes that find the migration lease held by another node should wait for that node to finish instead of
+     * queuing up for the lease. Only effective together with {@code leaseLock}.
+     *
+     * @return {@code true} to follow the node holding the lease, {@code false} to wait for the lease. (default: {@code false})
+     */
+    public boolean isFollowerMode() {
+        return followerMode;
+    }
+
+    /**
+     * Whether to skip the full comparison of resolved and applied migrations when nothing changed since the last
+     * successful run.
+     *
+     * @return {@code true} to use the up to date fast path, {@code false} to always perform a full run.
+     * (default: {@code false})
+     */
+    public boolean isUpToDateCheck() {
+        return upToDateCheck;
+    }
+
+    /**
+     * Whether to stream sql migrations when executing them instead of loading them completely upfront.
+     *
+     * @return {@code true} to stream sql migrations, {@code false} to load them upfront. (default: {@code false})
+     */
+    public boolean isStream() {
+        return stream;
+    }
+
+    /**
+     * Whether to send runs of consecutive DML statements in sql migrations to the database as JDBC batches.
+     *
+     * @return {@code true} to batch DML statements, {@code false} to execute them one at a time. (default: {@code false})
+     */
+    public boolean isBatch() {
+        return batch;
+    }
+
+    /**
+     * Retrieves the maximum number of statements to send to the database in a single batch.
+     *
+     * @return The maximum batch size. (default: 100)
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Whether to cache the migrations resolved from the configured locations for the lifetime of the ClassLoader.
+     *
+     * @return {@code true} to cache resolved migrations, {@code false} to resolve them again for every command.
+     * (default: {@code false})
+     */
+    public boolean isCacheMigrations() {
+        return cacheMigrations;
+    }
+
+    /**
+     * The number of threads to use for walking the directory trees of filesystem: locations.
+     *
+     * @return The number of threads. (default: 1, which walks the trees sequentially)
+     */
+    public int getFileSystemScanThreads() {
+        return fileSystemScanThreads;
+    }
+
+    /**
+     * Retrieves the file in which to cache the checksums of the migrations found on disk between runs.
+     *
+     * @return The path of the cache file. {@code null} if checksums aren't cached. (default: {@code null})
+     */
+    public String getChecksumCacheFile() {
+        return checksumCacheFile;
+    }
+
+    /**
+     * Retrieves the interval at which {@link #watch()} polls the filesystem locations for changes.
+     *
+     * @return The interval in ms. (default: 500)
+     */
+    public long getWatchInterval() {
+        return watchInterval;
+    }
+
+    /**
+     * Whether to drop the objects of the schemas in as few round trips as possible when cleaning.
+     *
+     * @return {@code true} to drop them in batches, {@code false} to drop them one at a time. (default: {@code false})
+     */
+    public boolean isCleanBatch() {
+        return cleanBatch;
+    }
+
+    /**
+     * Retrieves the maximum number of schemas to clean in parallel, each on its own connection from the DataSource.
+     *
+     * @return The maximum number of schemas to clean in parallel. (default: 1)
+     */
+    public int getSchemaCleanThreads() {
+        return schemaCleanThreads;
+    }
+
+    /**
+     * Whether clean may reset a schema by dropping and recreating it as a whole, instead of dropping its objects one by
+     * one.
+     *
+     * @return {@code true} to recreate schemas where possible, {@code false} to always drop their objects one by one.
+     * (default: {@code false})
+     */
+    public boolean isRecreateOnClean() {
+        return recreateOnClean;
+    }
+
+    /**
+     * Retrieves the directory in which snapshots of fully migrated schemas are stored.
+     *
+     * @return The snapshot directory. {@code null} to use the {@code .flyway/snapshots} directory inside the home
+     * directory of the user. (default: {@code null})
+     */
+    public File getSnapshotDir() {
+        return snapshotDir;
+    }
+
     /**
      * Retrieves the The custom MigrationResolvers to be used in addition to the built-in ones for resolving Migrations to apply.
      *
@@ -797,6 +1123,217 @@ public class Flyway {
         this.outOfOrder = outOfOrder;
     }
 
+    /**
+     * Whether to coordinate concurrent migrations using a heartbeated lease row instead of locking the metadata table.
+     * <p>The lease lives in a separate table next to the metadata table and is only ever acquired and renewed in short
+     * transactions, so no transaction on the metadata table stays open while migrations are running. All nodes
+     * migrating the same schema must use the same setting.</p>
+     *
+     * @param leaseLock {@code true} if a lease should be used, {@code false} to lock the metadata table. (default: {@code false})
+     */
+    public void setLeaseLock(boolean leaseLock) {
+        this.leaseLock = leaseLock;
+    }
+
+    /**
+     * Sets the time after which a migration lease that is no longer renewed by its owner expires and can be taken over
+     * by another node. The clocks of all nodes must be in sync to well within this time.
+     *
+     * @param leaseTimeout The lease timeout in seconds. (default: 60)
+     */
+    public void setLeaseTimeout(int leaseTimeout) {
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * Whether to use a lightweight database advisory lock instead of locking the metadata table while migrating, on
+     * databases that support it (PostgreSQL, MySQL, SQL Server and Oracle). Unlike a table lock, an advisory lock
+     * doesn't block other readers of the metadata table. Other databases fall back to locking the metadata table.
+     * All nodes migrating the same schema must use the same setting. On Oracle this requires EXECUTE privileges on
+     * SYS.DBMS_LOCK.
+     *
+     * @param advisoryLock {@code true} to use an advisory lock where supported, {@code false} to always lock the
+     *                     metadata table. (default: {@code false})
+     */
+    public void setAdvisoryLock(boolean advisoryLock) {
+        this.advisoryLock = advisoryLock;
+    }
+
+    /**
+     * Whether to keep the version_rank column of the metadata table in version order when inserting rows, for older
+     * Flyway clients still relying on it. Flyway itself derives the version ranks when reading the metadata table, so
+     * this is only needed while such clients share the metadata table. It comes at a cost: every out of order
+     * migration then reads all versions and rewrites the version rank of every later row.
+     *
+     * @param legacyVersionRank {@code true} to maintain the stored version ranks, {@code false} to insert rows without
+     *                          touching any existing row. (default: {@code false})
+     */
+    public void setLegacyVersionRank(boolean legacyVersionRank) {
+        this.legacyVersionRank = legacyVersionRank;
+    }
+
+    /**
+     * Whether nodes that find the migration lease held by another node should wait for that node to finish instead of
+     * queuing up for the lease. Followers only poll the latest row of the metadata table and return without taking the
+     * lease once the latest migration has been applied. They fall back to a regular migration if the node holding the
+     * lease fails or releases it before that. Only effective together with {@code leaseLock}. Once the latest migration
+     * has been applied, followers still validate the migrations if {@code validateOnMigrate} is set and invoke the
+     * migrate callbacks, just like any other node.
+     *
+     * @param followerMode {@code true} to follow the node holding the lease, {@code false} to wait for the lease.
+     *                     (default: {@code false})
+     */
+    public void setFollowerMode(boolean followerMode) {
+        this.followerMode = followerMode;
+    }
+
+    /**
+     * Whether to skip the full comparison of resolved and applied migrations when nothing changed since the last
+     * successful run. A digest of the resolved migrations is stored in a small table next to the metadata table at the
+     * end of every successful migrate or validate. When the digest of the next run matches and the metadata table has
+     * not changed since, validate and migrate return after a single query instead of reading the whole metadata table.
+     *
+     * @param upToDateCheck {@code true} to use the up to date fast path, {@code false} to always perform a full run.
+     *                      (default: {@code false})
+     */
+    public void setUpToDateCheck(boolean upToDateCheck) {
+        this.upToDateCheck = upToDateCheck;
+    }
+
+    /**
+     * Whether to stream sql migrations when executing them. Streamed migrations are read one line at a time and each
+     * statement is executed as soon as it is terminated, so memory usage is bounded by the largest statement instead of
+     * by the size of the script. This is useful for very large migrations, such as seed data.
+     *
+     * @param stream {@code true} to stream sql migrations, {@code false} to load them upfront. (default: {@code false})
+     */
+    public void setStream(boolean stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Whether to send runs of consecutive DML statements (INSERT, UPDATE and DELETE) in sql migrations to the database
+     * as JDBC batches instead of one statement at a time. This greatly reduces the number of round trips for
+     * migrations containing lots of data. All other statements are still executed on their own, as are all statements
+     * when the driver doesn't support batch updates. Errors are still reported with the line of the failed statement.
+     *
+     * @param batch {@code true} to batch DML statements, {@code false} to execute them one at a time.
+     *              (default: {@code false})
+     */
+    public void setBatch(boolean batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Sets the maximum number of statements to send to the database in a single batch when batching is enabled. A
+     * batch size of 1 effectively disables batching.
+     *
+     * @param batchSize The maximum batch size. (default: 100)
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Whether to cache the migrations resolved from the configured locations for the lifetime of the ClassLoader, so
+     * that subsequent commands (from this or any other Flyway instance) don't need to scan the locations again. Cached
+     * migrations are discarded as soon as the files they were resolved from change on disk. Locations that are not
+     * on the file system are never cached.
+     *
+     * @param cacheMigrations {@code true} to cache resolved migrations, {@code false} to resolve them again for every
+     *                        command. (default: {@code false})
+     */
+    public void setCacheMigrations(boolean cacheMigrations) {
+        this.cacheMigrations = cacheMigrations;
+    }
+
+    /**
+     * The number of threads to use for walking the directory trees of filesystem: locations. Only worth increasing for
+     * very large trees, or for trees on network filesystems where listing a directory is slow.
+     *
+     * @param fileSystemScanThreads The number of threads. (default: 1, which walks the trees sequentially)
+     */
+    public void setFileSystemScanThreads(int fileSystemScanThreads) {
+        this.fileSystemScanThreads = fileSystemScanThreads;
+    }
+
+    /**
+     * Sets the file in which to cache the checksums of the migrations found on disk between runs, so that migrations
+     * which didn't change aren't read again. Mostly useful for the command-line tool, which starts from scratch on
+     * every invocation.
+     *
+     * @param checksumCacheFile The path of the cache file. {@code null} to not cache checksums. (default: {@code null})
+     */
+    public void setChecksumCacheFile(String checksumCacheFile) {
+        this.checksumCacheFile = checksumCacheFile;
+    }
+
+    /**
+     * Sets the interval at which {@link #watch()} polls the filesystem locations for changes.
+     *
+     * @param watchInterval The interval in ms. (default: 500)
+     */
+    public void setWatchInterval(long watchInterval) {
+        this.watchInterval = watchInterval;
+    }
+
+    /**
+     * Sets whether to drop the objects of the schemas in as few round trips as possible when cleaning. Where the
+     * database allows it, up to {@code batchSize} objects are dropped with a single statement (Ex.: {@code DROP TABLE
+     * a, b, c CASCADE} on PostgreSQL). All other drop statements are sent as JDBC batches of up to {@code batchSize}
+     * statements. This greatly speeds up cleaning large schemas on remote databases. It is supported for H2, MySQL,
+     * Oracle, PostgreSQL and SQL Server. Other databases always drop their objects one at a time.
+     *
+     * @param cleanBatch {@code true} to drop them in batches, {@code false} to drop them one at a time.
+     */
+    public void setCleanBatch(boolean cleanBatch) {
+        this.cleanBatch = cleanBatch;
+    }
+
+    /**
+     * Sets the maximum number of schemas to clean in parallel, each on its own connection from the DataSource. This is
+     * a parallel per-schema clean: the objects within a schema are still dropped one after the other, so it only helps
+     * setups with several schemas and gives no speedup when cleaning a single schema. The references between the
+     * schemas (foreign keys, views, synonyms, ...) are read from the data dictionary first, and a schema is only
+     * cleaned once all schemas referring to it have been. Schemas that don't depend on each other are cleaned
+     * concurrently. This is supported for H2, Oracle, PostgreSQL and SQL Server. Other databases clean the schemas one
+     * after the other regardless of this setting. The callbacks are still invoked once, on the main connection.
+     *
+     * @param schemaCleanThreads The maximum number of schemas to clean in parallel. 1 cleans them one after the other.
+     *                           (default: 1)
+     */
+    public void setSchemaCleanThreads(int schemaCleanThreads) {
+        this.schemaCleanThreads = schemaCleanThreads;
+    }
+
+    /**
+     * Sets whether clean may reset a schema by dropping and recreating it as a whole, instead of dropping its objects
+     * one by one. This takes milliseconds instead of minutes for large schemas. It is supported for H2 ({@code DROP ALL
+     * OBJECTS} for the PUBLIC schema of a database without other schemas, users and roles, or dropping and recreating
+     * any other schema), PostgreSQL ({@code DROP SCHEMA ... CASCADE}, then recreating it with its owner, grants and
+     * comment, unless it contains extensions or default privileges) and MySQL (dropping and recreating the database
+     * with its default character set and collation). In all other cases, the objects are still dropped one by one.
+     *
+     * @param recreateOnClean {@code true} to recreate schemas where possible, {@code false} to always drop their
+     *                        objects one by one. (default: {@code false})
+     */
+    public void setRecreateOnClean(boolean recreateOnClean) {
+        this.recreateOnClean = recreateOnClean;
+    }
+
+    /**
+     * Sets the directory in which snapshots of fully migrated schemas are stored. Snapshots outlive the process, so
+     * successive test runs can share them. As snapshots contain all data of the schemas and are executed when
+     * restoring them, the directory must belong to the user and must not be writable by other users. A directory
+     * created by Flyway is only accessible by the user.
+     *
+     * @param snapshotDir The snapshot directory. {@code null} to use the {@code .flyway/snapshots} directory inside
+     *                    the home directory of the user. (default: {@code null})
+     */
+    public void setSnapshotDir(File snapshotDir) {
+        this.snapshotDir = snapshotDir;
+    }
+
     /**
      * Gets the callbacks for lifecycle notifications.
      *
@@ -854,54 +1391,198 @@ public class Flyway {
      */
     public int migrate() throws FlywayException {
         return execute(new Command<Integer>() {
-            public Integer execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table));
+            public Integer execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas, Scanner scanner) {
+                MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), advisoryLock,
+                        legacyVersionRank);
+                MigrationResolver migrationResolver = createMigrationResolver(dbSupport, scanner);
+                return migrate(connectionMetaDataTable, connectionUserObjects, dbSupport, migrationResolver,
+                        metaDataTable, schemas);
+            }
+        });
+    }
 
-                MigrationResolver migrationResolver = createMigrationResolver(dbSupport);
-                if (validateOnMigrate) {
-                    doValidate(connectionMetaDataTable, dbSupport, migrationResolver, metaDataTable, schemas, true);
-                }
+    /**
+     * Migrates the database, coordinating with other nodes through the migration lease and taking the up to date fast
+     * path if so configured.
+     *
+     * @param connectionMetaDataTable The database connection for the metadata table.
+     * @param connectionUserObjects   The database connection for user objects.
+     * @param dbSupport               The database-specific support.
+     * @param migrationResolver       The migration resolver.
+     * @param metaDataTable           The metadata table.
+     * @param schemas                 The schemas managed by Flyway.
+     * @return The number of successfully applied migrations.
+     */
+    private int migrate(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport,
+                        MigrationResolver migrationResolver, MetaDataTable metaDataTable, Schema[] schemas) {
+        UpToDateCheck upToDateCheck = createUpToDateCheck(dbSupport, schemas, migrationResolver, "migrate");
 
-                new DbSchemas(connectionMetaDataTable, schemas, metaDataTable).create();
+        if (!leaseLock) {
+            return doMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, migrationResolver,
+                    metaDataTable, schemas, null, upToDateCheck, false);
+        }
+
+        Connection connectionLease = JdbcUtils.openConnection(dataSource);
+        try {
+            DbSupport dbSupportLease = DbSupportFactory.createDbSupport(connectionLease, false);
+            MigrationLease lease = new MigrationLease(dbSupportLease,
+                    dbSupportLease.getSchema(schemas[0].getName()).getTable(table + LEASE_TABLE_SUFFIX), leaseTimeout);
+            boolean followed = followerMode && new DbFollow(metaDataTable, lease, migrationResolver, target).follow();
+            return doMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, migrationResolver,
+                    metaDataTable, schemas, lease, upToDateCheck, followed);
+        } finally {
+            JdbcUtils.closeConnection(connectionLease);
+        }
+    }
+
+    /**
+     * <p>Migrates the database, then keeps watching the filesystem locations for changes and migrates the database again
+     * as soon as sql migrations are added or modified. Meant for development: the database connection, the scan of the
+     * classpath locations and the checksums of the unchanged migrations are reused between runs. Failures are logged
+     * and the watch continues, so a broken migration can simply be fixed and saved again.</p>
+     * <p>Every run migrates exactly like {@link #migrate()}, including the migration lease and the up to date check
+     * when they are enabled. It resolves all migrations of all locations again: only the checksums of unchanged sql
+     * migrations are reused, the changed files are not resolved on their own.</p>
+     * <p>This method only returns once the current thread has been interrupted.</p>
+     *
+     * @return The number of successfully applied migrations.
+     * @throws FlywayException when no filesystem location is configured or when the locations could not be watched.
+     */
+    public int watch() throws FlywayException {
+        final List<String> paths = new ArrayList<String>();
+        for (Location location : locations.getLocations()) {
+            if (location.isFileSystem()) {
+                paths.add(location.getPath());
+            }
+        }
+        if (paths.isEmpty()) {
+            throw new FlywayException("Unable to watch for changes: no filesystem location configured");
+        }
 
-                if (!metaDataTable.hasSchemasMarker() && !metaDataTable.hasBaselineMarker() && !metaDataTable.hasAppliedMigrations()) {
-                    List<Schema> nonEmptySchemas = new ArrayList<Schema>();
-                    for (Schema schema : schemas) {
-                        if (!schema.empty()) {
-                            nonEmptySchemas.add(schema);
+        return execute(new Command<Integer>() {
+            public Integer execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas, Scanner scanner) {
+                MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), advisoryLock,
+                        legacyVersionRank);
+                ChecksumCache checksumCache = scanner.getChecksumCache();
+                Scanner watchScanner = new Scanner(classLoader, fileSystemScanThreads,
+                        checksumCache == null ? new ChecksumCache() : checksumCache);
+
+                FileSystemWatcher watcher;
+                try {
+                    watcher = new FileSystemWatcher(new FileSystemScanner(fileSystemScanThreads), paths, sqlMigrationSuffix);
+                } catch (IOException e) {
+                    throw new FlywayException("Unable to watch for changes in " + paths, e);
+                }
+
+                int applied = 0;
+                boolean changed = true;
+                while (!Thread.currentThread().isInterrupted()) {
+                    if (changed) {
+                        try {
+                            MigrationResolver migrationResolver = createMigrationResolver(dbSupport, watchScanner);
+                            applied += migrate(connectionMetaDataTable, connectionUserObjects, dbSupport,
+                                    migrationResolver, metaDataTable, schemas);
+                        } catch (FlywayException e) {
+                            LOG.error(e.getMessage());
                         }
+                        LOG.info("Watching " + paths + " for changes ...");
                     }
 
-                    if (baselineOnMigrate || nonEmptySchemas.isEmpty()) {
-                        if (baselineOnMigrate && !nonEmptySchemas.isEmpty()) {
-                            new DbBaseline(connectionMetaDataTable, dbSupport, metaDataTable, schemas[0], baselineVersion, baselineDescription, callbacks).baseline();
-                        }
-                    } else {
-                        if (nonEmptySchemas.size() == 1) {
-                            Schema schema = nonEmptySchemas.get(0);
-                            //Check whether we only have an empty metadata table in an otherwise empty schema
-                            if (schema.allTables().length != 1 || !schema.getTable(table).exists()) {
-                                throw new FlywayException("Found non-empty schema " + schema
-                                        + " without metadata table! Use baseline()"
-                                        + " or set baselineOnMigrate to true to initialize the metadata table.");
-                            }
-                        } else {
-                            throw new FlywayException("Found non-empty schemas "
-                                    + StringUtils.collectionToCommaDelimitedString(nonEmptySchemas)
-                                    + " without metadata table! Use baseline()"
-                                    + " or set baselineOnMigrate to true to initialize the metadata table.");
-                        }
+                    try {
+                        Thread.sleep(watchInterval);
+                        changed = watcher.poll();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (IOException e) {
+                        throw new FlywayException("Unable to watch for changes in " + paths, e);
                     }
                 }
-
-                DbMigrate dbMigrate =
-                        new DbMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, metaDataTable,
-                                schemas[0], migrationResolver, target, ignoreFailedFutureMigration, outOfOrder, callbacks);
-                return dbMigrate.migrate();
+                return applied;
             }
         });
     }
 
+    /**
+     * Performs the actual migration. All set up must have taken place beforehand.
+     *
+     * @param connectionMetaDataTable The database connection for the metadata table.
+     * @param connectionUserObjects   The database connection for user objects.
+     * @param dbSupport               The database-specific support.
+     * @param migrationResolver       The migration resolver.
+     * @param metaDataTable           The metadata table.
+     * @param schemas                 The schemas managed by Flyway.
+     * @param lease                   The migration lease to hold while migrating. {@code null} to lock the metadata
+     *                                table instead.
+     * @param upToDateCheck           The fast path check for an up to date schema. {@code null} to always perform a
+     *                                full migration run.
+     * @param followed                Whether another node has already applied all migrations while this node was
+     *                                following it, so only the validation and the callbacks remain.
+     * @return The number of successfully applied migrations.
+     */
+    private int doMigrate(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport,
+                          MigrationResolver migrationResolver, MetaDataTable metaDataTable, Schema[] schemas,
+                          MigrationLease lease, UpToDateCheck upToDateCheck, boolean followed) {
+        if (validateOnMigrate) {
+            doValidate(connectionMetaDataTable, dbSupport, migrationResolver, metaDataTable, schemas, true, upToDateCheck);
+        }
+
+        if (!followed && ((upToDateCheck == null) || !upToDateCheck.isUpToDate())) {
+            prepareSchemas(connectionMetaDataTable, dbSupport, metaDataTable, schemas);
+        }
+
+        DbMigrate dbMigrate =
+                new DbMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, metaDataTable,
+                        schemas[0], migrationResolver, target, ignoreFailedFutureMigration, outOfOrder, callbacks, lease,
+                        upToDateCheck);
+        if (followed) {
+            return dbMigrate.migrateFollowed();
+        }
+        return dbMigrate.migrate();
+    }
+
+    /**
+     * Creates the schemas if necessary and checks whether they can be migrated, baselining them if configured to.
+     *
+     * @param connectionMetaDataTable The database connection for the metadata table.
+     * @param dbSupport               The database-specific support.
+     * @param metaDataTable           The metadata table.
+     * @param schemas                 The schemas managed by Flyway.
+     */
+    private void prepareSchemas(Connection connectionMetaDataTable, DbSupport dbSupport, MetaDataTable metaDataTable,
+                                Schema[] schemas) {
+        new DbSchemas(connectionMetaDataTable, schemas, metaDataTable).create();
+
+        if (!metaDataTable.hasSchemasMarker() && !metaDataTable.hasBaselineMarker() && !metaDataTable.hasAppliedMigrations()) {
+            List<Schema> nonEmptySchemas = new ArrayList<Schema>();
+            for (Schema schema : schemas) {
+                if (!schema.empty() && !containsOnlyAuxiliaryTables(schema)) {
+                    nonEmptySchemas.add(schema);
+                }
+            }
+
+            if (baselineOnMigrate || nonEmptySchemas.isEmpty()) {
+                if (baselineOnMigrate && !nonEmptySchemas.isEmpty()) {
+                    new DbBaseline(connectionMetaDataTable, dbSupport, metaDataTable, schemas[0], baselineVersion, baselineDescription, callbacks).baseline();
+                }
+            } else {
+                if (nonEmptySchemas.size() == 1) {
+                    Schema schema = nonEmptySchemas.get(0);
+                    //Check whether we only have an empty metadata table in an otherwise empty schema
+                    if (schema.allTables().length != 1 + countAuxiliaryTables(schema) || !schema.getTable(table).exists()) {
+                        throw new FlywayException("Found non-empty schema " + schema
+                                + " without metadata table! Use baseline()"
+                                + " or set baselineOnMigrate to true to initialize the metadata table.");
+                    }
+                } else {
+                    throw new FlywayException("Found non-empty schemas "
+                            + StringUtils.collectionToCommaDelimitedString(nonEmptySchemas)
+                            + " without metadata table! Use baseline()"
+                            + " or set baselineOnMigrate to true to initialize the metadata table.");
+                }
+            }
+        }
+    }
+
     /**
      * <p>Validate applied migration with classpath migrations to detect accidental changes.</p>
      * <img src="http://flywaydb.org/assets/balsamiq/command-validate.png" alt="validate">
@@ -910,11 +1591,13 @@ public class Flyway {
      */
     public void validate() throws FlywayException {
         execute(new Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
+            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas, Scanner scanner) {
                 MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table));
-                MigrationResolver migrationResolver = createMigrationResolver(dbSupport);
+                MigrationResolver migrationResolver = createMigrationResolver(dbSupport, scanner);
+                UpToDateCheck upToDateCheck = createUpToDateCheck(dbSupport, schemas, migrationResolver, "validate");
 
-                doValidate(connectionMetaDataTable, dbSupport, migrationResolver, metaDataTable, schemas, false);
+                doValidate(connectionMetaDataTable, dbSupport, migrationResolver, metaDataTable, schemas, false,
+                        upToDateCheck);
                 return null;
             }
         });
@@ -929,16 +1612,20 @@ public class Flyway {
      * @param metaDataTable           The metadata table.
      * @param schemas                 The schemas managed by Flyway.
      * @param pendingOrFuture         Whether pending or future migrations are ok.
+     * @param upToDateCheck           The fast path check for an up to date schema. {@code null} to always perform a
+     *                                full validation.
      */
     private void doValidate(Connection connectionMetaDataTable, DbSupport dbSupport, MigrationResolver migrationResolver,
-                            MetaDataTable metaDataTable, Schema[] schemas, boolean pendingOrFuture) {
+                            MetaDataTable metaDataTable, Schema[] schemas, boolean pendingOrFuture,
+                            UpToDateCheck upToDateCheck) {
         String validationError =
                 new DbValidate(connectionMetaDataTable, dbSupport, metaDataTable, schemas[0], migrationResolver,
-                        target, outOfOrder, pendingOrFuture, callbacks).validate();
+                        target, outOfOrder, pendingOrFuture, callbacks, upToDateCheck).validate();
 
         if (validationError != null) {
             if (cleanOnValidationError) {
-                new DbClean(connectionMetaDataTable, dbSupport, metaDataTable, schemas, callbacks).clean();
+                new DbClean(connectionMetaDataTable, dbSupport, metaDataTable, schemas, callbacks, getCleanBatchSize(),
+                        dataSource, schemaCleanThreads, recreateOnClean).clean();
             } else {
                 throw new FlywayException("Validate failed. " + validationError);
             }
@@ -954,15 +1641,104 @@ public class Flyway {
      */
     public void clean() {
         execute(new Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
+            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas, Scanner scanner) {
                 MetaDataTableImpl metaDataTable =
                         new MetaDataTableImpl(dbSupport, schemas[0].getTable(table));
-                new DbClean(connectionMetaDataTable, dbSupport, metaDataTable, schemas, callbacks).clean();
+                new DbClean(connectionMetaDataTable, dbSupport, metaDataTable, schemas, callbacks, getCleanBatchSize(),
+                        dataSource, schemaCleanThreads, recreateOnClean).clean();
                 return null;
             }
         });
     }
 
+    /**
+     * <p>Takes a snapshot of the fully migrated schemas, which {@link #restoreSnapshot()} can later restore in a
+     * fraction of the time a clean and migrate would take. This is primarily meant for test suites that need to reset
+     * their database frequently:</p>
+     * <pre>
+     * if (!flyway.restoreSnapshot()) {
+     *     flyway.clean();
+     *     flyway.migrate();
+     *     flyway.snapshot();
+     * }
+     * </pre>
+     * <p>Snapshots are currently only supported for embedded and in-memory H2 databases, as H2 writes and reads the
+     * snapshot files on the filesystem of the process running the database.</p>
+     *
+     * @throws FlywayException when the database doesn't support snapshots, when there are pending or failed migrations
+     *                         or when the snapshot could not be written.
+     */
+    public void snapshot() {
+        execute(new Command<Void>() {
+            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas, Scanner scanner) {
+                MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table));
+                MigrationResolver migrationResolver = createMigrationResolver(dbSupport, scanner);
+                createDbSnapshot(connectionUserObjects, dbSupport, migrationResolver, metaDataTable, schemas).snapshot();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * <p>Cleans the schemas and restores them from the snapshot taken by {@link #snapshot()}, provided none of the
+     * migrations has been added, removed or modified since and the placeholders and encoding are still the same.</p>
+     *
+     * @return {@code true} if the snapshot has been restored, {@code false} if there is no up to date snapshot or the
+     * database doesn't support snapshots. In that case the schemas are left untouched.
+     * @throws FlywayException when the snapshot could not be restored.
+     */
+    public boolean restoreSnapshot() {
+        return execute(new Command<Boolean>() {
+            public Boolean execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas, Scanner scanner) {
+                MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table));
+                MigrationResolver migrationResolver = createMigrationResolver(dbSupport, scanner);
+                DbClean dbClean = new DbClean(connectionMetaDataTable, dbSupport, metaDataTable, schemas, callbacks,
+                        getCleanBatchSize(), dataSource, 1, recreateOnClean);
+                return createDbSnapshot(connectionUserObjects, dbSupport, migrationResolver, metaDataTable, schemas)
+                        .restore(dbClean);
+            }
+        });
+    }
+
+    /**
+     * @return The maximum number of objects to drop per statement and of statements per batch when cleaning. At least 1,
+     * as batch sizes below 1 aren't meaningful for clean.
+     */
+    private int getCleanBatchSize() {
+        return cleanBatch ? Math.max(1, batchSize) : 1;
+    }
+
+    /**
+     * Creates the snapshot command for these schemas.
+     *
+     * @param connection        The connection to use.
+     * @param dbSupport         The DB support for the connection.
+     * @param migrationResolver The migration resolver.
+     * @param metaDataTable     The metadata table.
+     * @param schemas           The schemas to snapshot.
+     * @return The snapshot command.
+     */
+    private DbSnapshot createDbSnapshot(Connection connection, DbSupport dbSupport, MigrationResolver migrationResolver,
+                                        MetaDataTable metaDataTable, Schema[] schemas) {
+        File dir = snapshotDir;
+        if (dir == null) {
+            dir = new File(System.getProperty("user.home"), ".flyway" + File.separator + "snapshots");
+        }
+
+        Map<String, String> settings = new TreeMap<String, String>();
+        settings.put("encoding", encoding);
+        settings.put("placeholderReplacement", String.valueOf(placeholderReplacement));
+        if (placeholderReplacement) {
+            settings.put("placeholderPrefix", placeholderPrefix);
+            settings.put("placeholderSuffix", placeholderSuffix);
+            for (Map.Entry<String, String> placeholder : placeholders.entrySet()) {
+                settings.put(PLACEHOLDERS_PROPERTY_PREFIX + placeholder.getKey(), placeholder.getValue());
+            }
+        }
+
+        return new DbSnapshot(connection, dbSupport, migrationResolver, metaDataTable, schemas, dir, settings);
+    }
+
     /**
      * <p>Retrieves the complete information about all the migrations including applied, pending and current migrations with
      * details and status.</p>
@@ -974,7 +1750,8 @@ public class Flyway {
     public MigrationInfoService info() {
         return execute(new Command<MigrationInfoService>() {
             public MigrationInfoService execute(final Connection connectionMetaDataTable, Connection connectionUserObjects,
-                                                final DbSupport dbSupport, final Schema[] schemas) {
+                                                final DbSupport dbSupport, final Schema[] schemas,
+                                                Scanner scanner) {
                 try {
                     for (final FlywayCallback callback : getCallbacks()) {
                         new TransactionTemplate(connectionMetaDataTable).execute(new TransactionCallback<Object>() {
@@ -988,7 +1765,7 @@ public class Flyway {
                     }
 
                     dbSupport.changeCurrentSchemaTo(schemas[0]);
-                    MigrationResolver migrationResolver = createMigrationResolver(dbSupport);
+                    MigrationResolver migrationResolver = createMigrationResolver(dbSupport, scanner);
                     MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table));
 
                     MigrationInfoServiceImpl migrationInfoService =
@@ -1023,8 +1800,9 @@ public class Flyway {
      */
     public void baseline() throws FlywayException {
         execute(new Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table));
+            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas, Scanner scanner) {
+                MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), false,
+                        legacyVersionRank);
                 new DbSchemas(connectionMetaDataTable, schemas, metaDataTable).create();
                 new DbBaseline(connectionMetaDataTable, dbSupport, metaDataTable, schemas[0], baselineVersion, baselineDescription, callbacks).baseline();
                 return null;
@@ -1044,8 +1822,8 @@ public class Flyway {
      */
     public void repair() throws FlywayException {
         execute(new Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                MigrationResolver migrationResolver = createMigrationResolver(dbSupport);
+            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas, Scanner scanner) {
+                MigrationResolver migrationResolver = createMigrationResolver(dbSupport, scanner);
                 MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport, schemas[0].getTable(table));
                 new DbRepair(dbSupport, connectionMetaDataTable, schemas[0], migrationResolver, metaDataTable, callbacks).repair();
                 return null;
@@ -1057,12 +1835,63 @@ public class Flyway {
      * Creates the MigrationResolver.
      *
      * @param dbSupport The database-specific support.
+     * @param scanner   The scanner for the locations.
      * @return A new, fully configured, MigrationResolver instance.
      */
-    private MigrationResolver createMigrationResolver(DbSupport dbSupport) {
-        return new CompositeMigrationResolver(dbSupport, classLoader, locations,
-                encoding, sqlMigrationPrefix, sqlMigrationSeparator, sqlMigrationSuffix, createPlaceholderReplacer(),
-                resolvers);
+    private MigrationResolver createMigrationResolver(DbSupport dbSupport, Scanner scanner) {
+        return new CompositeMigrationResolver(dbSupport, classLoader, scanner, locations,
+                encoding, stream, batch ? batchSize : 0, sqlMigrationPrefix, sqlMigrationSeparator, sqlMigrationSuffix, createPlaceholderReplacer(),
+                cacheMigrations, resolvers);
+    }
+
+    /**
+     * Checks whether the only tables in this schema are the ones Flyway keeps next to the metadata table. These can
+     * outlive a failed first migration whose metadata table has been rolled back and don't make the schema non-empty.
+     *
+     * @param schema The schema to check.
+     * @return {@code true} if it only contains auxiliary tables, {@code false} if not.
+     */
+    private boolean containsOnlyAuxiliaryTables(Schema schema) {
+        int auxiliaryTables = countAuxiliaryTables(schema);
+        return (auxiliaryTables > 0) && (schema.allTables().length == auxiliaryTables);
+    }
+
+    /**
+     * Counts the tables Flyway keeps next to the metadata table (the migration lease and the up to date digests) in
+     * this schema.
+     *
+     * @param schema The schema to check.
+     * @return The number of auxiliary tables.
+     */
+    private int countAuxiliaryTables(Schema schema) {
+        int count = 0;
+        for (String suffix : AUXILIARY_TABLE_SUFFIXES) {
+            if (schema.getTable(table + suffix).exists()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Creates the fast path check for an up to date schema, if enabled.
+     *
+     * @param dbSupport         The database-specific support.
+     * @param schemas           The schemas managed by Flyway.
+     * @param migrationResolver The migration resolver.
+     * @param command           The command to check for.
+     * @return The check. {@code null} if the fast path is disabled.
+     */
+    private UpToDateCheck createUpToDateCheck(DbSupport dbSupport, Schema[] schemas, MigrationResolver migrationResolver,
+                                              String command) {
+        if (!upToDateCheck) {
+            return null;
+        }
+
+        String digest = UpToDateCheck.calculateDigest(migrationResolver.resolveMigrations(), command, table, target,
+                outOfOrder, ignoreFailedFutureMigration, validateOnMigrate, baselineVersion);
+        return new UpToDateCheck(dbSupport, schemas[0].getTable(table + DIGEST_TABLE_SUFFIX), schemas[0].getTable(table),
+                command, digest);
     }
 
     /**
@@ -1166,6 +1995,74 @@ public class Flyway {
         if (outOfOrderProp != null) {
             setOutOfOrder(Boolean.parseBoolean(outOfOrderProp));
         }
+        String leaseLockProp = properties.getProperty("flyway.leaseLock");
+        if (leaseLockProp != null) {
+            setLeaseLock(Boolean.parseBoolean(leaseLockProp));
+        }
+        String leaseTimeoutProp = properties.getProperty("flyway.leaseTimeout");
+        if (leaseTimeoutProp != null) {
+            setLeaseTimeout(Integer.parseInt(leaseTimeoutProp));
+        }
+        String advisoryLockProp = properties.getProperty("flyway.advisoryLock");
+        if (advisoryLockProp != null) {
+            setAdvisoryLock(Boolean.parseBoolean(advisoryLockProp));
+        }
+        String legacyVersionRankProp = properties.getProperty("flyway.legacyVersionRank");
+        if (legacyVersionRankProp != null) {
+            setLegacyVersionRank(Boolean.parseBoolean(legacyVersionRankProp));
+        }
+        String followerModeProp = properties.getProperty("flyway.followerMode");
+        if (followerModeProp != null) {
+            setFollowerMode(Boolean.parseBoolean(followerModeProp));
+        }
+        String upToDateCheckProp = properties.getProperty("flyway.upToDateCheck");
+        if (upToDateCheckProp != null) {
+            setUpToDateCheck(Boolean.parseBoolean(upToDateCheckProp));
+        }
+        String streamProp = properties.getProperty("flyway.stream");
+        if (streamProp != null) {
+            setStream(Boolean.parseBoolean(streamProp));
+        }
+        String batchProp = properties.getProperty("flyway.batch");
+        if (batchProp != null) {
+            setBatch(Boolean.parseBoolean(batchProp));
+        }
+        String batchSizeProp = properties.getProperty("flyway.batchSize");
+        if (batchSizeProp != null) {
+            setBatchSize(Integer.parseInt(batchSizeProp));
+        }
+        String cacheMigrationsProp = properties.getProperty("flyway.cacheMigrations");
+        if (cacheMigrationsProp != null) {
+            setCacheMigrations(Boolean.parseBoolean(cacheMigrationsProp));
+        }
+        String fileSystemScanThreadsProp = properties.getProperty("flyway.fileSystemScanThreads");
+        if (fileSystemScanThreadsProp != null) {
+            setFileSystemScanThreads(Integer.parseInt(fileSystemScanThreadsProp));
+        }
+        String checksumCacheFileProp = properties.getProperty("flyway.checksumCacheFile");
+        if (checksumCacheFileProp != null) {
+            setChecksumCacheFile(checksumCacheFileProp);
+        }
+        String watchIntervalProp = properties.getProperty("flyway.watchInterval");
+        if (watchIntervalProp != null) {
+            setWatchInterval(Long.parseLong(watchIntervalProp));
+        }
+        String cleanBatchProp = properties.getProperty("flyway.cleanBatch");
+        if (cleanBatchProp != null) {
+            setCleanBatch(Boolean.parseBoolean(cleanBatchProp));
+        }
+        String schemaCleanThreadsProp = properties.getProperty("flyway.schemaCleanThreads");
+        if (schemaCleanThreadsProp != null) {
+            setSchemaCleanThreads(Integer.parseInt(schemaCleanThreadsProp));
+        }
+        String recreateOnCleanProp = properties.getProperty("flyway.recreateOnClean");
+        if (recreateOnCleanProp != null) {
+            setRecreateOnClean(Boolean.parseBoolean(recreateOnCleanProp));
+        }
+        String snapshotDirProp = properties.getProperty("flyway.snapshotDir");
+        if (StringUtils.hasLength(snapshotDirProp)) {
+            setSnapshotDir(new File(snapshotDirProp));
+        }
         String resolversProp = properties.getProperty("flyway.resolvers");
         if (StringUtils.hasLength(resolversProp)) {
             setResolversAsClassNames(StringUtils.tokenizeToStringArray(resolversProp, ","));
@@ -1205,6 +2102,8 @@ public class Flyway {
 
         boolean callbackAutoAdded = false;
 
+        ChecksumCache checksumCache = null;
+
         try {
             if (dataSource == null) {
                 throw new FlywayException("Unable to connect to the database. Configure the url, user and password!");
@@ -1237,18 +2136,28 @@ public class Flyway {
                 schemas[i] = dbSupport.getSchema(schemaNames[i]);
             }
 
+            // Shared by the callbacks and the migration resolvers, so each location is only scanned once
+            if (checksumCacheFile != null) {
+                checksumCache = new ChecksumCache(new File(checksumCacheFile));
+            }
+            Scanner scanner = new Scanner(classLoader, fileSystemScanThreads, checksumCache);
+
             if (callbacks.length == 0) {
-                setCallbacks(new SqlScriptFlywayCallback(dbSupport, classLoader, locations, createPlaceholderReplacer(),
+                setCallbacks(new SqlScriptFlywayCallback(dbSupport, scanner, locations, createPlaceholderReplacer(),
                         encoding, sqlMigrationSuffix));
                 callbackAutoAdded = true;
             }
 
-            result = command.execute(connectionMetaDataTable, connectionUserObjects, dbSupport, schemas);
+            result = command.execute(connectionMetaDataTable, connectionUserObjects, dbSupport, schemas, scanner);
         } finally {
             if (callbackAutoAdded) {
                 setCallbacksAsClassNames();
             }
 
+            if (checksumCache != null) {
+                checksumCache.save();
+            }
+
             JdbcUtils.closeConnection(connectionUserObjects);
             JdbcUtils.closeConnection(connectionMetaDataTable);
 
@@ -1272,8 +2181,10 @@ public class Flyway {
          * @param connectionUserObjects   The database connection for user object changes.
          * @param dbSupport               The database-specific support for these connections.
          * @param schemas                 The schemas managed by Flyway.
+         * @param scanner                 The scanner for the locations, shared by everything scanning them.
          * @return The result of the operation.
          */
-        T execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas);
+        T execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas,
+                  Scanner scanner);
     }
 }
@@ -53,8 +53,21 @@ public class SqlScriptFlywayCallback implements FlywayCallback {
      */
     public SqlScriptFlywayCallback(DbSupport dbSupport, ClassLoader classLoader, Locations locations,
                                    PlaceholderReplacer placeholderReplacer, String encoding, String sqlMigrationSuffix) {
-        Scanner scanner = new Scanner(classLoader);
+        this(dbSupport, new Scanner(classLoader), locations, placeholderReplacer, encoding, sqlMigrationSuffix);
+    }
 
+    /**
+     * Creates a new instance.
+     *
+     * @param dbSupport           The database-specific support.
+     * @param scanner             The scanner to use, possibly shared with the migration resolvers.
+     * @param locations           The locations where migrations are located.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @param encoding            The encoding of Sql migrations.
+     * @param sqlMigrationSuffix  The suffix for sql migrations
+     */
+    public SqlScriptFlywayCallback(DbSupport dbSupport, Scanner scanner, Locations locations,
+                                   PlaceholderReplacer placeholderReplacer, String encoding, String sqlMigrationSuffix) {
         scripts.put("beforeClean", null);
         scripts.put("afterClean", null);
         scripts.put("beforeMigrate", null);
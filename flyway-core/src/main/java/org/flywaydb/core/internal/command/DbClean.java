@@ -18,17 +18,37 @@ package org.flywaydb.core.internal.command;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.callback.FlywayCallback;
 import org.flywaydb.core.internal.dbsupport.DbSupport;
+import org.flywaydb.core.internal.dbsupport.DbSupportFactory;
 import org.flywaydb.core.internal.dbsupport.Schema;
 import org.flywaydb.core.internal.metadatatable.MetaDataTable;
 import org.flywaydb.core.internal.util.StopWatch;
 import org.flywaydb.core.internal.util.TimeFormat;
+import org.flywaydb.core.internal.util.jdbc.JdbcUtils;
 import org.flywaydb.core.internal.util.jdbc.TransactionCallback;
 import org.flywaydb.core.internal.util.jdbc.TransactionTemplate;
 import org.flywaydb.core.internal.util.logging.Log;
 import org.flywaydb.core.internal.util.logging.LogFactory;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Main workflow for cleaning the database.
@@ -63,6 +83,27 @@ public class DbClean {
      */
     private final DbSupport dbSupport;
 
+    /**
+     * The maximum number of objects to drop per round trip. 1 drops them one at a time.
+     */
+    private final int batchSize;
+
+    /**
+     * The DataSource to obtain the connections for cleaning schemas in parallel from.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The maximum number of schemas to clean in parallel, each on its own connection. 1 cleans them one after the
+     * other on the main connection.
+     */
+    private final int threads;
+
+    /**
+     * Whether to clean schemas by dropping and recreating them as a whole where the database supports it.
+     */
+    private final boolean recreate;
+
     /**
      * Creates a new database cleaner.
      *
@@ -70,13 +111,25 @@ public class DbClean {
      * @param dbSupport     The DB support for the connection.
      * @param metaDataTable The metadata table.
      * @param schemas       The schemas to clean.
+     * @param batchSize     The maximum number of objects to drop per round trip. 1 drops them one at a time.
+     * @param dataSource    The DataSource to obtain the connections for cleaning schemas in parallel from.
+     * @param threads       The maximum number of schemas to clean in parallel, each on its own connection, in the
+     *                      order of the references between them. The objects within a schema are always dropped one
+     *                      after the other. 1 cleans the schemas one after the other on the main connection.
+     * @param recreate      Whether to clean schemas by dropping and recreating them as a whole where the database
+     *                      supports it.
      */
-    public DbClean(Connection connection, DbSupport dbSupport, MetaDataTable metaDataTable, Schema[] schemas, FlywayCallback[] callbacks) {
+    public DbClean(Connection connection, DbSupport dbSupport, MetaDataTable metaDataTable, Schema[] schemas,
+                   FlywayCallback[] callbacks, int batchSize, DataSource dataSource, int threads, boolean recreate) {
         this.connection = connection;
         this.dbSupport = dbSupport;
         this.metaDataTable = metaDataTable;
         this.schemas = schemas;
         this.callbacks = callbacks;
+        this.batchSize = batchSize;
+        this.dataSource = dataSource;
+        this.threads = threads;
+        this.recreate = recreate;
     }
 
     /**
@@ -105,16 +158,20 @@ public class DbClean {
                 LOG.error("Error while checking whether the schemas should be dropped", e);
             }
 
+            List<Schema> existingSchemas = new ArrayList<Schema>();
             for (Schema schema : schemas) {
                 if (!schema.exists()) {
                     LOG.warn("Unable to clean unknown schema: " + schema);
                     continue;
                 }
+                existingSchemas.add(schema);
+            }
 
-                if (dropSchemas) {
-                    dropSchema(schema);
-                } else {
-                    cleanSchema(schema);
+            if ((threads > 1) && (existingSchemas.size() > 1)) {
+                cleanInParallel(existingSchemas, dropSchemas);
+            } else {
+                for (Schema schema : existingSchemas) {
+                    cleanOrDropSchema(connection, schema, dropSchemas);
                 }
             }
 
@@ -133,13 +190,204 @@ public class DbClean {
         }
     }
 
+    /**
+     * Cleans (or drops) these schemas in parallel, each on its own connection. Schemas can refer to each other (foreign
+     * keys, views or synonyms referring to objects in another schema), in which case a referenced schema may only be
+     * cleaned once all schemas referring to it have been. These references are therefore determined upfront, and each
+     * schema is cleaned as soon as all schemas referring to it are done, concurrently with any other schema it doesn't
+     * depend on. The objects within a schema are still dropped one after the other, in the order the database
+     * requires. If the references can't be determined for this database, the schemas are cleaned one after the other
+     * on the main connection instead.
+     *
+     * @param pendingSchemas The schemas to clean.
+     * @param dropSchemas    {@code true} to drop the schemas, {@code false} to clean them.
+     * @throws FlywayException when a schema could not be cleaned.
+     */
+    private void cleanInParallel(List<Schema> pendingSchemas, boolean dropSchemas) {
+        Map<Schema, Set<Schema>> referencingSchemas = findReferencingSchemas(pendingSchemas);
+        if (referencingSchemas == null) {
+            LOG.info("Unable to determine the references between schemas in " + dbSupport.getDbName()
+                    + ". Cleaning them one after the other ...");
+            for (Schema schema : pendingSchemas) {
+                cleanOrDropSchema(connection, schema, dropSchemas);
+            }
+            return;
+        }
+
+        cleanConcurrently(pendingSchemas, referencingSchemas, dropSchemas);
+    }
+
+    /**
+     * Determines which of these schemas refer to each of them.
+     *
+     * @param pendingSchemas The schemas to clean.
+     * @return The schemas referring to each schema, indexed by referenced schema. {@code null} if the references
+     * can't be determined for this database.
+     */
+    private Map<Schema, Set<Schema>> findReferencingSchemas(List<Schema> pendingSchemas) {
+        Map<String, Schema> schemasByName = new HashMap<String, Schema>();
+        Map<Schema, Set<Schema>> referencingSchemas = new HashMap<Schema, Set<Schema>>();
+        for (Schema schema : pendingSchemas) {
+            schemasByName.put(schema.getName(), schema);
+            referencingSchemas.put(schema, new HashSet<Schema>());
+        }
+
+        for (Schema schema : pendingSchemas) {
+            Set<String> referencedSchemaNames = schema.getReferencedSchemas();
+            if (referencedSchemaNames == null) {
+                return null;
+            }
+
+            for (String referencedSchemaName : referencedSchemaNames) {
+                Schema referencedSchema = schemasByName.get(referencedSchemaName);
+                if (referencedSchema != null) {
+                    LOG.debug("Schema " + schema + " refers to schema " + referencedSchema
+                            + ", which will only be cleaned after it");
+                    referencingSchemas.get(referencedSchema).add(schema);
+                }
+            }
+        }
+        return referencingSchemas;
+    }
+
+    /**
+     * Cleans (or drops) these schemas concurrently on a bounded number of connections, in the order of their
+     * references. Schemas referring to each other in a cycle are cleaned one after the other in the configured order,
+     * just like when cleaning serially. After a failure no further schema is started, and the error is reported once
+     * the schemas being cleaned at that time are done.
+     *
+     * @param pendingSchemas     The schemas to clean.
+     * @param referencingSchemas The schemas referring to each schema, indexed by referenced schema.
+     * @param dropSchemas        {@code true} to drop the schemas, {@code false} to clean them.
+     * @throws FlywayException when a schema could not be cleaned.
+     */
+    private void cleanConcurrently(List<Schema> pendingSchemas, Map<Schema, Set<Schema>> referencingSchemas,
+                                   boolean dropSchemas) {
+        Set<Schema> waitingSchemas = new LinkedHashSet<Schema>(pendingSchemas);
+        Set<Schema> uncleanedSchemas = new HashSet<Schema>(pendingSchemas);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, pendingSchemas.size()),
+                new ThreadFactory() {
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "flyway-clean");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        CompletionService<Schema> completionService = new ExecutorCompletionService<Schema>(executor);
+        int running = 0;
+        RuntimeException failure = null;
+        try {
+            while ((running > 0) || ((failure == null) && !waitingSchemas.isEmpty())) {
+                if (failure == null) {
+                    Iterator<Schema> iterator = waitingSchemas.iterator();
+                    while (iterator.hasNext()) {
+                        Schema schema = iterator.next();
+                        if (Collections.disjoint(referencingSchemas.get(schema), uncleanedSchemas)) {
+                            submitSchema(completionService, schema, dropSchemas);
+                            iterator.remove();
+                            running++;
+                        }
+                    }
+
+                    if ((running == 0) && !waitingSchemas.isEmpty()) {
+                        Schema schema = waitingSchemas.iterator().next();
+                        LOG.debug("Schemas " + waitingSchemas + " refer to each other. Cleaning " + schema + " first");
+                        submitSchema(completionService, schema, dropSchemas);
+                        waitingSchemas.remove(schema);
+                        running++;
+                    }
+                }
+
+                Future<Schema> future = completionService.take();
+                running--;
+                try {
+                    uncleanedSchemas.remove(future.get());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException
+                                ? (RuntimeException) e.getCause()
+                                : new FlywayException("Unable to clean schemas", e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while cleaning schemas");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Submits this schema for cleaning (or dropping) on a new connection.
+     *
+     * @param completionService The completion service to submit to.
+     * @param schema            The schema to clean.
+     * @param dropSchemas       {@code true} to drop the schema, {@code false} to clean it.
+     */
+    private void submitSchema(CompletionService<Schema> completionService, final Schema schema,
+                              final boolean dropSchemas) {
+        completionService.submit(new Callable<Schema>() {
+            public Schema call() {
+                cleanOnNewConnection(schema, dropSchemas);
+                return schema;
+            }
+        });
+    }
+
+    /**
+     * Cleans (or drops) this schema on a new connection.
+     *
+     * @param schema      The schema to clean.
+     * @param dropSchemas {@code true} to drop the schema, {@code false} to clean it.
+     * @throws FlywayException when the connection could not be opened or the schema could not be cleaned.
+     */
+    private void cleanOnNewConnection(Schema schema, boolean dropSchemas) {
+        Connection cleanConnection = JdbcUtils.openConnection(dataSource);
+        DbSupport cleanDbSupport = null;
+        try {
+            cleanDbSupport = DbSupportFactory.createDbSupport(cleanConnection, false);
+            if (!dropSchemas) {
+                cleanDbSupport.changeCurrentSchemaTo(cleanDbSupport.getSchema(schemas[0].getName()));
+            }
+            cleanOrDropSchema(cleanConnection, cleanDbSupport.getSchema(schema.getName()), dropSchemas);
+        } finally {
+            if (cleanDbSupport != null) {
+                cleanDbSupport.restoreCurrentSchema();
+            }
+            JdbcUtils.closeConnection(cleanConnection);
+        }
+    }
+
+    /**
+     * Cleans or drops this schema.
+     *
+     * @param connection  The connection to clean the schema on.
+     * @param schema      The schema to clean.
+     * @param dropSchemas {@code true} to drop the schema, {@code false} to clean it.
+     * @throws FlywayException when clean failed.
+     */
+    private void cleanOrDropSchema(Connection connection, Schema schema, boolean dropSchemas) {
+        if (dropSchemas) {
+            dropSchema(connection, schema);
+        } else {
+            cleanSchema(connection, schema);
+        }
+    }
+
     /**
      * Drops this schema.
      *
-     * @param schema The schema to drop.
+     * @param connection The connection to drop the schema on.
+     * @param schema     The schema to drop.
      * @throws FlywayException when the drop failed.
      */
-    private void dropSchema(final Schema schema) {
+    private void dropSchema(Connection connection, final Schema schema) {
         LOG.debug("Dropping schema " + schema + " ...");
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
@@ -157,21 +405,25 @@ public class DbClean {
     /**
      * Cleans this schema of all objects.
      *
-     * @param schema The schema to clean.
+     * @param connection The connection to clean the schema on.
+     * @param schema     The schema to clean.
      * @throws FlywayException when clean failed.
      */
-    private void cleanSchema(final Schema schema) {
+    private void cleanSchema(Connection connection, final Schema schema) {
         LOG.debug("Cleaning schema " + schema + " ...");
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        new TransactionTemplate(connection).execute(new TransactionCallback<Void>() {
-            public Void doInTransaction() {
-                schema.clean();
-                return null;
+        boolean recreated = new TransactionTemplate(connection).execute(new TransactionCallback<Boolean>() {
+            public Boolean doInTransaction() {
+                if (recreate && schema.recreate()) {
+                    return true;
+                }
+                schema.clean(batchSize);
+                return false;
             }
         });
         stopWatch.stop();
-        LOG.info(String.format("Cleaned schema %s (execution time %s)",
+        LOG.info(String.format((recreated ? "Recreated" : "Cleaned") + " schema %s (execution time %s)",
                 schema, TimeFormat.format(stopWatch.getTotalTimeMillis())));
     }
 }
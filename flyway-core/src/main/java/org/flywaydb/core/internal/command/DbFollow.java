@@ -0,0 +1,149 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.command;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.resolver.MigrationResolver;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.metadatatable.AppliedMigration;
+import org.flywaydb.core.internal.metadatatable.MetaDataTable;
+import org.flywaydb.core.internal.metadatatable.MigrationLease;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
+
+/**
+ * Lets a node that lost the race for the migration lease wait for the node holding it to finish, instead of queuing
+ * up for the lease and then repeating the whole refresh of the metadata table only to find nothing left to do.
+ * <p>While the lease is held by another node, only the latest row of the metadata table is polled, with an
+ * exponential backoff. As soon as it shows that the latest resolved migration has been applied successfully, the
+ * follower is done without ever taking the lease. If the leader fails or the lease is released or expires before
+ * that, the follower falls back to a regular migration run.</p>
+ */
+public class DbFollow {
+    private static final Log LOG = LogFactory.getLog(DbFollow.class);
+
+    /**
+     * The initial delay between two polls of the metadata table (in ms).
+     */
+    private static final long MIN_POLL_INTERVAL = 100;
+
+    /**
+     * The maximum delay between two polls of the metadata table (in ms).
+     */
+    private static final long MAX_POLL_INTERVAL = 5000;
+
+    /**
+     * The database metadata table.
+     */
+    private final MetaDataTable metaDataTable;
+
+    /**
+     * The migration lease held by the leader.
+     */
+    private final MigrationLease lease;
+
+    /**
+     * The migration resolver.
+     */
+    private final MigrationResolver migrationResolver;
+
+    /**
+     * The target version of the migration.
+     */
+    private final MigrationVersion target;
+
+    /**
+     * Creates a new follower.
+     *
+     * @param metaDataTable     The database metadata table.
+     * @param lease             The migration lease held by the leader.
+     * @param migrationResolver The migration resolver.
+     * @param target            The target version of the migration.
+     */
+    public DbFollow(MetaDataTable metaDataTable, MigrationLease lease, MigrationResolver migrationResolver,
+                    MigrationVersion target) {
+        this.metaDataTable = metaDataTable;
+        this.lease = lease;
+        this.migrationResolver = migrationResolver;
+        this.target = target;
+    }
+
+    /**
+     * Waits for the node currently holding the migration lease to apply all migrations up to the target.
+     *
+     * @return {@code true} if another node migrated the schema and nothing is left to do, {@code false} if this node
+     * must run the migration itself (no other node holds the lease, or the leader didn't get all the way).
+     */
+    public boolean follow() {
+        if (!lease.isHeldByAnotherNode()) {
+            return false;
+        }
+
+        MigrationVersion expected = getExpectedVersion();
+        if (expected == null) {
+            return false;
+        }
+
+        LOG.info("Migration lease " + lease + " is held by another node. Waiting for it to migrate the schema to version "
+                + expected + " ...");
+        long interval = MIN_POLL_INTERVAL;
+        while (true) {
+            AppliedMigration latest = metaDataTable.getLatestAppliedMigration();
+            if (latest != null) {
+                if (!latest.isSuccess()) {
+                    LOG.debug("Migration to version " + latest.getVersion() + " failed on another node");
+                    return false;
+                }
+                if ((latest.getVersion() != null) && (latest.getVersion().compareTo(expected) >= 0)) {
+                    LOG.info("Schema has been migrated to version " + latest.getVersion() + " by another node");
+                    return true;
+                }
+            }
+
+            if (!lease.isHeldByAnotherNode()) {
+                LOG.debug("Migration lease " + lease + " was released before the schema reached version " + expected);
+                return false;
+            }
+
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlywayException("Interrupted while waiting for another node to migrate the schema");
+            }
+            interval = Math.min(interval * 2, MAX_POLL_INTERVAL);
+        }
+    }
+
+    /**
+     * @return The highest resolved version up to the target. {@code null} if it cannot be determined upfront.
+     */
+    private MigrationVersion getExpectedVersion() {
+        if (MigrationVersion.CURRENT == target) {
+            return null;
+        }
+
+        MigrationVersion expected = null;
+        for (ResolvedMigration resolvedMigration : migrationResolver.resolveMigrations()) {
+            MigrationVersion version = resolvedMigration.getVersion();
+            if ((version.compareTo(target) <= 0) && ((expected == null) || (version.compareTo(expected) > 0))) {
+                expected = version;
+            }
+        }
+        return expected;
+    }
+}
@@ -29,6 +29,8 @@ import org.flywaydb.core.internal.info.MigrationInfoImpl;
 import org.flywaydb.core.internal.info.MigrationInfoServiceImpl;
 import org.flywaydb.core.internal.metadatatable.AppliedMigration;
 import org.flywaydb.core.internal.metadatatable.MetaDataTable;
+import org.flywaydb.core.internal.metadatatable.MigrationLease;
+import org.flywaydb.core.internal.metadatatable.UpToDateCheck;
 import org.flywaydb.core.internal.util.StopWatch;
 import org.flywaydb.core.internal.util.TimeFormat;
 import org.flywaydb.core.internal.util.jdbc.TransactionCallback;
@@ -103,6 +105,16 @@ public class DbMigrate {
      */
     private final FlywayCallback[] callbacks;
 
+    /**
+     * The lease to hold while migrating instead of locking the metadata table. {@code null} to lock the metadata table.
+     */
+    private final MigrationLease lease;
+
+    /**
+     * The fast path check for an up to date schema. {@code null} to always perform a full migration run.
+     */
+    private final UpToDateCheck upToDateCheck;
+
     /**
      * The DB support for the user objects connection.
      */
@@ -119,11 +131,16 @@ public class DbMigrate {
      * @param target                      The target version of the migration.
      * @param ignoreFailedFutureMigration Flag whether to ignore failed future migrations or not.
      * @param outOfOrder                  Allows migrations to be run "out of order".
+     * @param callbacks                   The callbacks to invoke.
+     * @param lease                       The lease to hold while migrating instead of locking the metadata table.
+     *                                    {@code null} to lock the metadata table.
+     * @param upToDateCheck               The fast path check for an up to date schema. {@code null} to always perform
+     *                                    a full migration run.
      */
     public DbMigrate(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport,
                      MetaDataTable metaDataTable, Schema schema, MigrationResolver migrationResolver,
                      MigrationVersion target, boolean ignoreFailedFutureMigration, boolean outOfOrder,
-                     FlywayCallback[] callbacks) {
+                     FlywayCallback[] callbacks, MigrationLease lease, UpToDateCheck upToDateCheck) {
         this.connectionMetaDataTable = connectionMetaDataTable;
         this.connectionUserObjects = connectionUserObjects;
         this.dbSupport = dbSupport;
@@ -134,6 +151,8 @@ public class DbMigrate {
         this.ignoreFailedFutureMigration = ignoreFailedFutureMigration;
         this.outOfOrder = outOfOrder;
         this.callbacks = callbacks;
+        this.lease = lease;
+        this.upToDateCheck = upToDateCheck;
 
         dbSupportUserObjects = DbSupportFactory.createDbSupport(connectionUserObjects, false);
     }
@@ -146,99 +165,58 @@ public class DbMigrate {
      */
     public int migrate() throws FlywayException {
         try {
-            for (final FlywayCallback callback : callbacks) {
-                new TransactionTemplate(connectionUserObjects).execute(new TransactionCallback<Object>() {
-                    @Override
-                    public Object doInTransaction() throws SQLException {
-                        dbSupportUserObjects.changeCurrentSchemaTo(schema);
-                        callback.beforeMigrate(connectionUserObjects);
-                        return null;
-                    }
-                });
-            }
+            beforeMigrate();
 
             StopWatch stopWatch = new StopWatch();
             stopWatch.start();
 
+            final MigrationPlan plan = new MigrationPlan();
             int migrationSuccessCount = 0;
-            while (true) {
-                final boolean firstRun = migrationSuccessCount == 0;
-                MigrationVersion result = new TransactionTemplate(connectionMetaDataTable, false).execute(new TransactionCallback<MigrationVersion>() {
-                    public MigrationVersion doInTransaction() {
-                        metaDataTable.lock();
-
-                        MigrationInfoServiceImpl infoService =
-                                new MigrationInfoServiceImpl(migrationResolver, metaDataTable, target, outOfOrder, true);
-                        infoService.refresh();
-
-                        MigrationVersion currentSchemaVersion = MigrationVersion.EMPTY;
-                        if (infoService.current() != null) {
-                            currentSchemaVersion = infoService.current().getVersion();
-                        }
-                        if (firstRun) {
-                            LOG.info("Current version of schema " + schema + ": " + currentSchemaVersion);
-
-                            if (outOfOrder) {
-                                LOG.warn("outOfOrder mode is active. Migration of schema " + schema + " may not be reproducible.");
-                            }
-                        }
-
-                        MigrationInfo[] future = infoService.future();
-                        if (future.length > 0) {
-                            MigrationInfo[] resolved = infoService.resolved();
-                            if (resolved.length == 0) {
-                                LOG.warn("Schema " + schema + " has version " + currentSchemaVersion
-                                        + ", but no migration could be resolved in the configured locations !");
-                            } else {
-                                LOG.warn("Schema " + schema + " has a version (" + currentSchemaVersion
-                                        + ") that is newer than the latest available migration ("
-                                        + resolved[resolved.length - 1].getVersion() + ") !");
+            if ((upToDateCheck == null) || !upToDateCheck.isUpToDate()) {
+                if (lease != null) {
+                    lease.acquire();
+                }
+                try {
+                    while (true) {
+                        final boolean firstRun = migrationSuccessCount == 0;
+                        MigrationVersion result;
+                        if (lease == null) {
+                            try {
+                                result = new TransactionTemplate(connectionMetaDataTable, false).execute(new TransactionCallback<MigrationVersion>() {
+                                    public MigrationVersion doInTransaction() {
+                                        metaDataTable.lock();
+                                        return migrateNext(plan, firstRun);
+                                    }
+                                });
+                            } finally {
+                                metaDataTable.unlock();
                             }
+                        } else {
+                            result = migrateNext(plan, firstRun);
                         }
-
-                        MigrationInfo[] failed = infoService.failed();
-                        if (failed.length > 0) {
-                            if ((failed.length == 1)
-                                    && (failed[0].getState() == MigrationState.FUTURE_FAILED)
-                                    && ignoreFailedFutureMigration) {
-                                LOG.warn("Schema " + schema + " contains a failed future migration to version " + failed[0].getVersion() + " !");
-                            } else {
-                                throw new FlywayException("Schema " + schema + " contains a failed migration to version " + failed[0].getVersion() + " !");
-                            }
+                        if (result == null) {
+                            // No further migrations available
+                            break;
                         }
 
-                        MigrationInfoImpl[] pendingMigrations = infoService.pending();
-
-                        if (pendingMigrations.length == 0) {
-                            return null;
-                        }
+                        migrationSuccessCount++;
+                    }
 
-                        boolean isOutOfOrder = pendingMigrations[0].getVersion().compareTo(currentSchemaVersion) < 0;
-                        return applyMigration(pendingMigrations[0], isOutOfOrder);
+                    if ((upToDateCheck != null) && (plan.latestInstalledRank > 0)) {
+                        upToDateCheck.markUpToDate(plan.latestInstalledRank);
+                    }
+                } finally {
+                    if (lease != null) {
+                        lease.release();
                     }
-                });
-                if (result == null) {
-                    // No further migrations available
-                    break;
                 }
-
-                migrationSuccessCount++;
             }
 
             stopWatch.stop();
 
             logSummary(migrationSuccessCount, stopWatch.getTotalTimeMillis());
 
-            for (final FlywayCallback callback : callbacks) {
-                new TransactionTemplate(connectionUserObjects).execute(new TransactionCallback<Object>() {
-                    @Override
-                    public Object doInTransaction() throws SQLException {
-                        dbSupportUserObjects.changeCurrentSchemaTo(schema);
-                        callback.afterMigrate(connectionUserObjects);
-                        return null;
-                    }
-                });
-            }
+            afterMigrate();
 
             return migrationSuccessCount;
         } finally {
@@ -246,6 +224,142 @@ public class DbMigrate {
         }
     }
 
+    /**
+     * Completes the run of a node that followed another node applying the migrations. Nothing is migrated, but the
+     * callbacks are invoked just like for any other migration.
+     *
+     * @return The number of successfully applied migrations, always 0.
+     * @throws FlywayException when a callback failed.
+     */
+    public int migrateFollowed() throws FlywayException {
+        try {
+            beforeMigrate();
+            LOG.info("Schema " + schema + " has been migrated by another node");
+            afterMigrate();
+            return 0;
+        } finally {
+            dbSupportUserObjects.restoreCurrentSchema();
+        }
+    }
+
+    /**
+     * Invokes the beforeMigrate callbacks.
+     */
+    private void beforeMigrate() {
+        for (final FlywayCallback callback : callbacks) {
+            new TransactionTemplate(connectionUserObjects).execute(new TransactionCallback<Object>() {
+                @Override
+                public Object doInTransaction() throws SQLException {
+                    dbSupportUserObjects.changeCurrentSchemaTo(schema);
+                    callback.beforeMigrate(connectionUserObjects);
+                    return null;
+                }
+            });
+        }
+    }
+
+    /**
+     * Invokes the afterMigrate callbacks.
+     */
+    private void afterMigrate() {
+        for (final FlywayCallback callback : callbacks) {
+            new TransactionTemplate(connectionUserObjects).execute(new TransactionCallback<Object>() {
+                @Override
+                public Object doInTransaction() throws SQLException {
+                    dbSupportUserObjects.changeCurrentSchemaTo(schema);
+                    callback.afterMigrate(connectionUserObjects);
+                    return null;
+                }
+            });
+        }
+    }
+
+    /**
+     * Applies the next migration of the plan, refreshing the plan first if the metadata table has been modified by
+     * another writer. This must be called with either the metadata table locked or the migration lease held.
+     *
+     * @param plan     The migration plan.
+     * @param firstRun Whether this is the first migration of this run.
+     * @return The version of the applied migration or {@code null} if there were no more pending migrations.
+     */
+    private MigrationVersion migrateNext(MigrationPlan plan, boolean firstRun) {
+        if (firstRun) {
+            refreshPlan(plan, true);
+        } else if (plan.latestInstalledRank != metaDataTable.getLatestInstalledRank()) {
+            LOG.debug("Metadata table " + metaDataTable + " was modified by another writer. Refreshing migration plan ...");
+            refreshPlan(plan, false);
+        }
+
+        if (plan.next >= plan.pendingMigrations.length) {
+            return null;
+        }
+
+        MigrationInfoImpl migration = plan.pendingMigrations[plan.next];
+        boolean isOutOfOrder = migration.getVersion().compareTo(plan.currentSchemaVersion) < 0;
+        MigrationVersion version = applyMigration(migration, isOutOfOrder);
+
+        plan.next++;
+        plan.latestInstalledRank++;
+        if (version.compareTo(plan.currentSchemaVersion) > 0) {
+            plan.currentSchemaVersion = version;
+        }
+        return version;
+    }
+
+    /**
+     * Recalculates the migration plan from a full refresh of the resolved and applied migrations. This must be called
+     * with either the metadata table locked or the migration lease held.
+     *
+     * @param plan     The plan to refresh.
+     * @param firstRun Whether this is the first refresh of this migration run.
+     */
+    private void refreshPlan(MigrationPlan plan, boolean firstRun) {
+        MigrationInfoServiceImpl infoService =
+                new MigrationInfoServiceImpl(migrationResolver, metaDataTable, target, outOfOrder, true);
+        infoService.refresh();
+
+        MigrationVersion currentSchemaVersion = MigrationVersion.EMPTY;
+        if (infoService.current() != null) {
+            currentSchemaVersion = infoService.current().getVersion();
+        }
+        if (firstRun) {
+            LOG.info("Current version of schema " + schema + ": " + currentSchemaVersion);
+
+            if (outOfOrder) {
+                LOG.warn("outOfOrder mode is active. Migration of schema " + schema + " may not be reproducible.");
+            }
+        }
+
+        MigrationInfo[] future = infoService.future();
+        if (future.length > 0) {
+            MigrationInfo[] resolved = infoService.resolved();
+            if (resolved.length == 0) {
+                LOG.warn("Schema " + schema + " has version " + currentSchemaVersion
+                        + ", but no migration could be resolved in the configured locations !");
+            } else {
+                LOG.warn("Schema " + schema + " has a version (" + currentSchemaVersion
+                        + ") that is newer than the latest available migration ("
+                        + resolved[resolved.length - 1].getVersion() + ") !");
+            }
+        }
+
+        MigrationInfo[] failed = infoService.failed();
+        if (failed.length > 0) {
+            if ((failed.length == 1)
+                    && (failed[0].getState() == MigrationState.FUTURE_FAILED)
+                    && ignoreFailedFutureMigration) {
+                LOG.warn("Schema " + schema + " contains a failed future migration to version " + failed[0].getVersion() + " !");
+            } else {
+                throw new FlywayException("Schema " + schema + " contains a failed migration to version " + failed[0].getVersion() + " !");
+            }
+        }
+
+        plan.pendingMigrations = infoService.pending();
+        plan.next = 0;
+        plan.currentSchemaVersion = currentSchemaVersion;
+        plan.latestInstalledRank = metaDataTable.getLatestInstalledRank();
+    }
+
     /**
      * Logs the summary of this migration run.
      *
@@ -332,7 +446,7 @@ public class DbMigrate {
                 int executionTime = (int) stopWatch.getTotalTimeMillis();
                 AppliedMigration appliedMigration = new AppliedMigration(version, migration.getDescription(),
                         migration.getType(), migration.getScript(), migration.getChecksum(), executionTime, false);
-                metaDataTable.addAppliedMigration(appliedMigration);
+                addAppliedMigration(appliedMigration);
             }
             throw e;
         }
@@ -342,8 +456,56 @@ public class DbMigrate {
 
         AppliedMigration appliedMigration = new AppliedMigration(version, migration.getDescription(),
                 migration.getType(), migration.getScript(), migration.getChecksum(), executionTime, true);
-        metaDataTable.addAppliedMigration(appliedMigration);
+        addAppliedMigration(appliedMigration);
 
         return version;
     }
+
+    /**
+     * Records this migration in the metadata table. When running under a migration lease, this happens in its own short
+     * transaction, provided the lease is still held.
+     *
+     * @param appliedMigration The migration that was executed.
+     */
+    private void addAppliedMigration(final AppliedMigration appliedMigration) {
+        if (lease == null) {
+            metaDataTable.addAppliedMigration(appliedMigration);
+            return;
+        }
+
+        new TransactionTemplate(connectionMetaDataTable).execute(new TransactionCallback<Void>() {
+            public Void doInTransaction() {
+                lease.verify();
+                metaDataTable.addAppliedMigration(appliedMigration);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * The migrations still to be applied in this run, calculated once under the lock and then kept up to date in memory
+     * as migrations get applied. It is only recalculated from scratch when the metadata table has been modified by
+     * another writer.
+     */
+    private static class MigrationPlan {
+        /**
+         * The pending migrations, in the order in which they must be applied.
+         */
+        private MigrationInfoImpl[] pendingMigrations;
+
+        /**
+         * The index of the next pending migration to apply.
+         */
+        private int next;
+
+        /**
+         * The current version of the schema.
+         */
+        private MigrationVersion currentSchemaVersion;
+
+        /**
+         * The latest installed rank expected in the metadata table if nobody else modified it.
+         */
+        private int latestInstalledRank;
+    }
 }
@@ -0,0 +1,355 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.command;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.resolver.MigrationResolver;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.dbsupport.DbSupport;
+import org.flywaydb.core.internal.dbsupport.Schema;
+import org.flywaydb.core.internal.info.MigrationInfoServiceImpl;
+import org.flywaydb.core.internal.metadatatable.MetaDataTable;
+import org.flywaydb.core.internal.util.StopWatch;
+import org.flywaydb.core.internal.util.TimeFormat;
+import org.flywaydb.core.internal.util.jdbc.TransactionCallback;
+import org.flywaydb.core.internal.util.jdbc.TransactionTemplate;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Takes snapshots of fully migrated schemas and restores them, so test suites can reset their database in milliseconds
+ * instead of cleaning it and executing all migrations again.
+ * <p>A snapshot is stored as a file in the snapshot directory. Its name identifies both the database and schemas it
+ * was taken from and the fingerprint of the resolved migrations (versions, descriptions, types and checksums) and of
+ * the settings changing their results (such as the placeholders) it corresponds to. A snapshot is therefore only
+ * restored as long as none of these has changed. As the files outlive the process, a snapshot can also be restored
+ * into a fresh (in-memory) database.</p>
+ * <p>Snapshots contain all data of the schemas and are executed when restoring them. The snapshot directory must
+ * therefore belong to the current user and must not be writable by anybody else.</p>
+ */
+public class DbSnapshot {
+    private static final Log LOG = LogFactory.getLog(DbSnapshot.class);
+
+    /**
+     * The extension of snapshot files.
+     */
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    /**
+     * The connection to use.
+     */
+    private final Connection connection;
+
+    /**
+     * The DB support for the connection.
+     */
+    private final DbSupport dbSupport;
+
+    /**
+     * The migration resolver.
+     */
+    private final MigrationResolver migrationResolver;
+
+    /**
+     * The metadata table.
+     */
+    private final MetaDataTable metaDataTable;
+
+    /**
+     * The schemas to snapshot.
+     */
+    private final Schema[] schemas;
+
+    /**
+     * The directory to store the snapshot files in.
+     */
+    private final File snapshotDir;
+
+    /**
+     * The settings that change the contents of the migrated schemas, such as the placeholders.
+     */
+    private final Map<String, String> settings;
+
+    /**
+     * Creates a new snapshot command.
+     *
+     * @param connection        The connection to use.
+     * @param dbSupport         The DB support for the connection.
+     * @param migrationResolver The migration resolver.
+     * @param metaDataTable     The metadata table.
+     * @param schemas           The schemas to snapshot.
+     * @param snapshotDir       The directory to store the snapshot files in.
+     * @param settings          The settings that change the contents of the migrated schemas, such as the
+     *                          placeholders.
+     */
+    public DbSnapshot(Connection connection, DbSupport dbSupport, MigrationResolver migrationResolver,
+                      MetaDataTable metaDataTable, Schema[] schemas, File snapshotDir, Map<String, String> settings) {
+        this.connection = connection;
+        this.dbSupport = dbSupport;
+        this.migrationResolver = migrationResolver;
+        this.metaDataTable = metaDataTable;
+        this.schemas = schemas;
+        this.snapshotDir = snapshotDir;
+        this.settings = settings;
+    }
+
+    /**
+     * Takes a snapshot of the schemas, replacing any previous snapshot of them.
+     *
+     * @throws FlywayException when the database doesn't support snapshots, when the schemas aren't fully migrated or
+     *                         when the snapshot could not be written.
+     */
+    public void snapshot() throws FlywayException {
+        if (!dbSupport.supportsSnapshots()) {
+            throw new FlywayException("Unable to snapshot schemas: " + dbSupport.getDbName() + " does not support snapshots");
+        }
+
+        MigrationInfoServiceImpl infoService =
+                new MigrationInfoServiceImpl(migrationResolver, metaDataTable, MigrationVersion.LATEST, true, true);
+        infoService.refresh();
+        if ((infoService.pending().length > 0) || (infoService.failed().length > 0)) {
+            throw new FlywayException("Unable to snapshot schemas with pending or failed migrations. Migrate them first!");
+        }
+
+        if (!snapshotDir.isDirectory()) {
+            if (!snapshotDir.mkdirs()) {
+                throw new FlywayException("Unable to create snapshot directory: " + snapshotDir.getAbsolutePath());
+            }
+            restrictToOwner(snapshotDir);
+        }
+        checkSnapshotDir();
+
+        String prefix = getSnapshotPrefix();
+        final File snapshotFile = new File(snapshotDir, prefix + calculateFingerprint() + SNAPSHOT_SUFFIX);
+        final File tempFile = new File(snapshotDir, snapshotFile.getName() + ".tmp");
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        new TransactionTemplate(connection).execute(new TransactionCallback<Void>() {
+            public Void doInTransaction() {
+                dbSupport.createSnapshot(schemas, tempFile);
+                return null;
+            }
+        });
+
+        File[] staleSnapshots = snapshotDir.listFiles();
+        if (staleSnapshots != null) {
+            for (File staleSnapshot : staleSnapshots) {
+                if (staleSnapshot.getName().startsWith(prefix) && staleSnapshot.getName().endsWith(SNAPSHOT_SUFFIX)
+                        && !staleSnapshot.delete()) {
+                    LOG.warn("Unable to delete stale snapshot: " + staleSnapshot.getAbsolutePath());
+                }
+            }
+        }
+        if (!tempFile.renameTo(snapshotFile)) {
+            throw new FlywayException("Unable to write snapshot: " + snapshotFile.getAbsolutePath());
+        }
+        stopWatch.stop();
+
+        LOG.info(String.format("Created snapshot of %s in %s (execution time %s)", describeSchemas(),
+                snapshotFile.getPath(), TimeFormat.format(stopWatch.getTotalTimeMillis())));
+    }
+
+    /**
+     * Restores the schemas from their snapshot, provided the migrations haven't changed since it was taken.
+     *
+     * @param dbClean The cleaner to reset the schemas with before restoring the snapshot.
+     * @return {@code true} if the snapshot has been restored, {@code false} if there is no up to date snapshot (or the
+     * database doesn't support snapshots) and the schemas have been left untouched.
+     * @throws FlywayException when the snapshot could not be restored.
+     */
+    public boolean restore(DbClean dbClean) throws FlywayException {
+        if (!dbSupport.supportsSnapshots()) {
+            LOG.info("Unable to restore snapshot: " + dbSupport.getDbName() + " does not support snapshots");
+            return false;
+        }
+
+        final File snapshotFile = new File(snapshotDir, getSnapshotPrefix() + calculateFingerprint() + SNAPSHOT_SUFFIX);
+        if (!snapshotFile.isFile()) {
+            LOG.info("No up to date snapshot of " + describeSchemas() + " found");
+            return false;
+        }
+        checkSnapshotDir();
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        dbClean.clean();
+        new TransactionTemplate(connection).execute(new TransactionCallback<Void>() {
+            public Void doInTransaction() {
+                dbSupport.restoreSnapshot(snapshotFile);
+                return null;
+            }
+        });
+        stopWatch.stop();
+
+        LOG.info(String.format("Restored %s from snapshot %s (execution time %s)", describeSchemas(),
+                snapshotFile.getPath(), TimeFormat.format(stopWatch.getTotalTimeMillis())));
+        return true;
+    }
+
+    /**
+     * @return The prefix of the names of the snapshot files of these schemas in this database, regardless of the
+     * migrations.
+     */
+    private String getSnapshotPrefix() {
+        StringBuilder identity = new StringBuilder();
+        try {
+            identity.append(connection.getMetaData().getURL());
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to determine the url of the database", e);
+        }
+        for (Schema schema : schemas) {
+            identity.append('\n').append(schema.getName());
+        }
+        identity.append('\n').append(metaDataTable);
+        return "flyway-" + digest(identity.toString()).substring(0, 16) + "-";
+    }
+
+    /**
+     * @return The fingerprint of the resolved migrations and of the settings changing their results.
+     */
+    private String calculateFingerprint() {
+        StringBuilder migrations = new StringBuilder();
+        for (ResolvedMigration migration : migrationResolver.resolveMigrations()) {
+            migrations.append(migration.getVersion()).append('|')
+                    .append(migration.getDescription()).append('|')
+                    .append(migration.getType()).append('|')
+                    .append(migration.getScript()).append('|')
+                    .append(migration.getChecksum()).append('\n');
+        }
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            migrations.append(setting.getKey()).append('=').append(setting.getValue()).append('\n');
+        }
+        return digest(migrations.toString());
+    }
+
+    /**
+     * Makes this newly created directory only accessible by its owner.
+     *
+     * @param dir The directory.
+     */
+    private static void restrictToOwner(File dir) {
+        boolean restricted = dir.setReadable(false, false) && dir.setReadable(true, true)
+                && dir.setWritable(false, false) && dir.setWritable(true, true)
+                && dir.setExecutable(false, false) && dir.setExecutable(true, true);
+        if (!restricted) {
+            LOG.warn("Unable to restrict access to snapshot directory " + dir.getAbsolutePath() + " to its owner");
+        }
+    }
+
+    /**
+     * Ensures the snapshot directory belongs to the current user and can't be written to by other users, as anybody
+     * able to place a file in it could have it executed when restoring a snapshot. The check relies on the Java 7
+     * file attribute API and is skipped on older Java versions and on filesystems without POSIX permissions.
+     *
+     * @throws FlywayException when the snapshot directory may be written to by other users.
+     */
+    private void checkSnapshotDir() throws FlywayException {
+        Object path;
+        Class<?> filesClass;
+        Object noLinkOptions;
+        try {
+            path = File.class.getMethod("toPath").invoke(snapshotDir);
+            filesClass = Class.forName("java.nio.file.Files");
+            noLinkOptions = Array.newInstance(Class.forName("java.nio.file.LinkOption"), 0);
+        } catch (Exception e) {
+            LOG.debug("Unable to check the permissions of snapshot directory " + snapshotDir.getAbsolutePath()
+                    + ": " + e.getMessage());
+            return;
+        }
+
+        String owner;
+        Set<?> permissions;
+        try {
+            Class<?> pathClass = Class.forName("java.nio.file.Path");
+            Method getOwnerMethod = filesClass.getMethod("getOwner", pathClass, noLinkOptions.getClass());
+            Method getPosixFilePermissionsMethod =
+                    filesClass.getMethod("getPosixFilePermissions", pathClass, noLinkOptions.getClass());
+            owner = ((Principal) getOwnerMethod.invoke(null, path, noLinkOptions)).getName();
+            permissions = (Set<?>) getPosixFilePermissionsMethod.invoke(null, path, noLinkOptions);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                LOG.debug("Snapshot directory " + snapshotDir.getAbsolutePath() + " has no POSIX permissions");
+                return;
+            }
+            throw new FlywayException("Unable to check the permissions of snapshot directory "
+                    + snapshotDir.getAbsolutePath(), e.getCause());
+        } catch (Exception e) {
+            throw new FlywayException("Unable to check the permissions of snapshot directory "
+                    + snapshotDir.getAbsolutePath(), e);
+        }
+
+        if (!owner.equals(System.getProperty("user.name"))) {
+            throw new FlywayException("Snapshot directory " + snapshotDir.getAbsolutePath() + " belongs to " + owner
+                    + " instead of the current user. Configure a snapshot directory belonging to the current user!");
+        }
+        for (Object permission : permissions) {
+            if ("GROUP_WRITE".equals(permission.toString()) || "OTHERS_WRITE".equals(permission.toString())) {
+                throw new FlywayException("Snapshot directory " + snapshotDir.getAbsolutePath()
+                        + " is writable by other users. Restrict its permissions to the current user!");
+            }
+        }
+    }
+
+    /**
+     * Calculates the SHA-1 digest of this text.
+     *
+     * @param text The text.
+     * @return The digest, as lower case hex string.
+     */
+    private static String digest(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(text.getBytes("UTF-8"));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new FlywayException("Unable to calculate fingerprint", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new FlywayException("Unable to calculate fingerprint", e);
+        }
+    }
+
+    /**
+     * @return A description of the schemas for log messages.
+     */
+    private String describeSchemas() {
+        StringBuilder description = new StringBuilder(schemas.length == 1 ? "schema " : "schemas ");
+        for (int i = 0; i < schemas.length; i++) {
+            if (i > 0) {
+                description.append(", ");
+            }
+            description.append(schemas[i]);
+        }
+        return description.toString();
+    }
+}
@@ -22,6 +22,7 @@ import org.flywaydb.core.internal.dbsupport.DbSupport;
 import org.flywaydb.core.internal.dbsupport.Schema;
 import org.flywaydb.core.internal.info.MigrationInfoServiceImpl;
 import org.flywaydb.core.internal.metadatatable.MetaDataTable;
+import org.flywaydb.core.internal.metadatatable.UpToDateCheck;
 import org.flywaydb.core.internal.util.Pair;
 import org.flywaydb.core.internal.util.StopWatch;
 import org.flywaydb.core.internal.util.TimeFormat;
@@ -86,6 +87,11 @@ public class DbValidate {
      */
     private final FlywayCallback[] callbacks;
 
+    /**
+     * The fast path check for an up to date schema. {@code null} to always perform a full validation.
+     */
+    private final UpToDateCheck upToDateCheck;
+
     /**
      * The DB support for the connection.
      */
@@ -103,10 +109,13 @@ public class DbValidate {
      * @param outOfOrder        Allows migrations to be run "out of order".
      * @param pendingOrFuture   Whether pending or future migrations are allowed.
      * @param callbacks         The lifecycle callbacks.
+     * @param upToDateCheck     The fast path check for an up to date schema. {@code null} to always perform a full
+     *                          validation.
      */
     public DbValidate(Connection connection,
                       DbSupport dbSupport, MetaDataTable metaDataTable, Schema schema, MigrationResolver migrationResolver,
-                      MigrationVersion target, boolean outOfOrder, boolean pendingOrFuture, FlywayCallback[] callbacks) {
+                      MigrationVersion target, boolean outOfOrder, boolean pendingOrFuture, FlywayCallback[] callbacks,
+                      UpToDateCheck upToDateCheck) {
         this.connection = connection;
         this.dbSupport = dbSupport;
         this.metaDataTable = metaDataTable;
@@ -116,6 +125,7 @@ public class DbValidate {
         this.outOfOrder = outOfOrder;
         this.pendingOrFuture = pendingOrFuture;
         this.callbacks = callbacks;
+        this.upToDateCheck = upToDateCheck;
     }
 
     /**
@@ -136,33 +146,11 @@ public class DbValidate {
                 });
             }
 
-            LOG.debug("Validating migrations ...");
-            StopWatch stopWatch = new StopWatch();
-            stopWatch.start();
-
-            Pair<Integer, String> result = new TransactionTemplate(connection).execute(new TransactionCallback<Pair<Integer, String>>() {
-                public Pair<Integer, String> doInTransaction() {
-                    dbSupport.changeCurrentSchemaTo(schema);
-                    MigrationInfoServiceImpl migrationInfoService =
-                            new MigrationInfoServiceImpl(migrationResolver, metaDataTable, target, outOfOrder, pendingOrFuture);
-
-                    migrationInfoService.refresh();
-
-                    int count = migrationInfoService.all().length;
-                    String validationError = migrationInfoService.validate();
-                    return Pair.of(count, validationError);
-                }
-            });
-
-            stopWatch.stop();
-
-            int count = result.getLeft();
-            if (count == 1) {
-                LOG.info(String.format("Validated 1 migration (execution time %s)",
-                        TimeFormat.format(stopWatch.getTotalTimeMillis())));
+            String validationError = null;
+            if ((upToDateCheck != null) && upToDateCheck.isUpToDate()) {
+                LOG.info("Skipping validation of unchanged migrations");
             } else {
-                LOG.info(String.format("Validated %d migrations (execution time %s)",
-                        count, TimeFormat.format(stopWatch.getTotalTimeMillis())));
+                validationError = doValidate();
             }
 
             for (final FlywayCallback callback : callbacks) {
@@ -176,9 +164,53 @@ public class DbValidate {
                 });
             }
 
-            return result.getRight();
+            return validationError;
         } finally {
             dbSupport.restoreCurrentSchema();
         }
     }
+
+    /**
+     * Performs the full validation of the resolved migrations against the metadata table.
+     *
+     * @return The validation error, if any.
+     */
+    private String doValidate() {
+        LOG.debug("Validating migrations ...");
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        final int installedRank = metaDataTable.getLatestInstalledRank();
+        Pair<Integer, String> result = new TransactionTemplate(connection).execute(new TransactionCallback<Pair<Integer, String>>() {
+            public Pair<Integer, String> doInTransaction() {
+                dbSupport.changeCurrentSchemaTo(schema);
+                MigrationInfoServiceImpl migrationInfoService =
+                        new MigrationInfoServiceImpl(migrationResolver, metaDataTable, target, outOfOrder, pendingOrFuture);
+
+                migrationInfoService.refresh();
+
+                int count = migrationInfoService.all().length;
+                String validationError = migrationInfoService.validate();
+                return Pair.of(count, validationError);
+            }
+        });
+
+        stopWatch.stop();
+
+        int count = result.getLeft();
+        if (count == 1) {
+            LOG.info(String.format("Validated 1 migration (execution time %s)",
+                    TimeFormat.format(stopWatch.getTotalTimeMillis())));
+        } else {
+            LOG.info(String.format("Validated %d migrations (execution time %s)",
+                    count, TimeFormat.format(stopWatch.getTotalTimeMillis())));
+        }
+
+        // When validating as part of a migration, the digest is only recorded once the migration completed
+        if ((upToDateCheck != null) && !pendingOrFuture && (result.getRight() == null) && (installedRank > 0)) {
+            upToDateCheck.markUpToDate(installedRank);
+        }
+
+        return result.getRight();
+    }
 }
@@ -17,8 +17,11 @@ package org.flywaydb.core.internal.dbsupport;
 
 import org.flywaydb.core.api.FlywayException;
 
+import java.io.File;
+import java.io.UnsupportedEncodingException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.zip.CRC32;
 
 /**
  * Abstraction for database-specific functionality.
@@ -206,4 +209,138 @@ public abstract class DbSupport {
     public void executePgCopy(Connection connection, String sql) throws SQLException {
         // Do nothing by default
     }
+
+    /**
+     * Checks whether this database offers lightweight application-level (advisory) locks that can be used instead of
+     * locking the metadata table.
+     *
+     * @return {@code true} if advisory locks are supported, {@code false} if the metadata table must be locked.
+     */
+    public boolean supportsAdvisoryLocks() {
+        return false;
+    }
+
+    /**
+     * Acquires an exclusive advisory lock with this name, waiting for it to become available. Unlike
+     * {@link Table#lock()} this doesn't block readers of any table. The lock is held until the end of the current
+     * transaction or until {@link #releaseAdvisoryLock(String)} is called, whichever comes first.
+     *
+     * @param name The name of the lock.
+     */
+    public void acquireAdvisoryLock(String name) {
+        try {
+            doAcquireAdvisoryLock(name);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to acquire advisory lock " + name, e);
+        }
+    }
+
+    /**
+     * Acquires an exclusive advisory lock with this name, waiting for it to become available.
+     *
+     * @param name The name of the lock.
+     * @throws SQLException when the lock could not be acquired.
+     */
+    protected void doAcquireAdvisoryLock(String name) throws SQLException {
+        throw new FlywayException(getDbName() + " does not support advisory locks");
+    }
+
+    /**
+     * Releases the advisory lock with this name. To be called once the transaction in which it was acquired has ended.
+     *
+     * @param name The name of the lock.
+     */
+    public void releaseAdvisoryLock(String name) {
+        try {
+            doReleaseAdvisoryLock(name);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to release advisory lock " + name, e);
+        }
+    }
+
+    /**
+     * Releases the advisory lock with this name. Does nothing by default, as most databases release advisory locks
+     * automatically at the end of the transaction.
+     *
+     * @param name The name of the lock.
+     * @throws SQLException when the lock could not be released.
+     */
+    protected void doReleaseAdvisoryLock(String name) throws SQLException {
+        // Do nothing by default
+    }
+
+    /**
+     * Calculates a stable numeric id for the advisory lock with this name, for databases that identify locks by number.
+     *
+     * @param name The name of the lock.
+     * @return The id, between 0 and 1073741823.
+     */
+    protected int getAdvisoryLockId(String name) {
+        CRC32 crc32 = new CRC32();
+        try {
+            // Independent of the default charset, so all nodes derive the same id
+            crc32.update(name.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new FlywayException("Unable to calculate advisory lock id for " + name, e);
+        }
+        return (int) (crc32.getValue() & 0x3FFFFFFF);
+    }
+
+    /**
+     * Checks whether this database can write the structure and contents of schemas to a snapshot file and restore them
+     * from it.
+     *
+     * @return {@code true} if snapshots are supported, {@code false} if not.
+     */
+    public boolean supportsSnapshots() {
+        return false;
+    }
+
+    /**
+     * Writes the structure and contents of these schemas to this snapshot file.
+     *
+     * @param schemas The schemas to snapshot.
+     * @param file    The snapshot file to write.
+     */
+    public void createSnapshot(Schema[] schemas, File file) {
+        try {
+            doCreateSnapshot(schemas, file);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to create snapshot " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Writes the structure and contents of these schemas to this snapshot file.
+     *
+     * @param schemas The schemas to snapshot.
+     * @param file    The snapshot file to write.
+     * @throws SQLException when the snapshot could not be created.
+     */
+    protected void doCreateSnapshot(Schema[] schemas, File file) throws SQLException {
+        throw new FlywayException(getDbName() + " does not support snapshots");
+    }
+
+    /**
+     * Restores the schemas of this snapshot file. The schemas must have been cleaned beforehand.
+     *
+     * @param file The snapshot file to restore.
+     */
+    public void restoreSnapshot(File file) {
+        try {
+            doRestoreSnapshot(file);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to restore snapshot " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Restores the schemas of this snapshot file.
+     *
+     * @param file The snapshot file to restore.
+     * @throws SQLException when the snapshot could not be restored.
+     */
+    protected void doRestoreSnapshot(File file) throws SQLException {
+        throw new FlywayException(getDbName() + " does not support snapshots");
+    }
 }
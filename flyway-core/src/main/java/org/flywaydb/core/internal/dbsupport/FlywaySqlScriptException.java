@@ -20,6 +20,7 @@ import org.flywaydb.core.internal.util.StringUtils;
 import org.flywaydb.core.internal.util.scanner.Resource;
 
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * This specific exception thrown when Flyway encounters a problem in SQL script
@@ -29,6 +30,11 @@ public class FlywaySqlScriptException extends FlywayException {
     private final Resource resource;
     private final SqlStatement statement;
 
+    /**
+     * The line number of the last statement of the failed batch. {@code 0} if a single statement failed.
+     */
+    private final int lastLineNumber;
+
     /**
      * Creates new instance of FlywaySqlScriptException.
      *
@@ -40,10 +46,35 @@ public class FlywaySqlScriptException extends FlywayException {
         super(sqlException);
         this.resource = resource;
         this.statement = statement;
+        this.lastLineNumber = 0;
+    }
+
+    /**
+     * Creates new instance of FlywaySqlScriptException for a batch in which the failed statement could not be
+     * identified.
+     *
+     * @param resource     The resource containg the failed batch.
+     * @param statements   The statements of the failed batch.
+     * @param sqlException Cause of the problem.
+     */
+    public FlywaySqlScriptException(Resource resource, List<SqlStatement> statements, SQLException sqlException) {
+        super(sqlException);
+        this.resource = resource;
+
+        StringBuilder sql = new StringBuilder();
+        for (SqlStatement sqlStatement : statements) {
+            if (sql.length() > 0) {
+                sql.append(";\n");
+            }
+            sql.append(sqlStatement.getSql());
+        }
+        this.statement = new SqlStatement(statements.get(0).getLineNumber(), sql.toString(), false);
+        this.lastLineNumber = statements.get(statements.size() - 1).getLineNumber();
     }
 
     /**
-     * Returns the line number in migration SQL script where exception occurred.
+     * Returns the line number in migration SQL script where exception occurred. For a batch in which the failed
+     * statement could not be identified, this is the line number of its first statement.
      *
      * @return The line number.
      */
@@ -52,7 +83,8 @@ public class FlywaySqlScriptException extends FlywayException {
     }
 
     /**
-     * Returns the failed statement in SQL script.
+     * Returns the failed statement in SQL script. For a batch in which the failed statement could not be identified,
+     * these are all statements of the batch.
      *
      * @return The failed statement.
      */
@@ -79,7 +111,12 @@ public class FlywaySqlScriptException extends FlywayException {
         if (resource != null) {
             message += "Location   : " + resource.getLocation() + " (" + resource.getLocationOnDisk() + ")\n";
         }
-        message += "Line       : " + getLineNumber() + "\n";
+        if (lastLineNumber > 0) {
+            message += "Lines      : " + getLineNumber() + "-" + lastLineNumber
+                    + " (batch, the driver did not report which statement failed)\n";
+        } else {
+            message += "Line       : " + getLineNumber() + "\n";
+        }
         message += "Statement  : " + getStatement() + "\n";
 
         return message;
@@ -237,16 +237,7 @@ public class JdbcTemplate {
             try {
                 hasResults = statement.execute(sql);
             } finally {
-                @SuppressWarnings("ThrowableResultOfMethodCallIgnored") SQLWarning warning = statement.getWarnings();
-                while (warning != null) {
-                    if ("00000".equals(warning.getSQLState())) {
-                        LOG.info("DB: " + warning.getMessage());
-                    } else {
-                        LOG.warn("DB: " + warning.getMessage()
-                                + " (SQL State: " + warning.getSQLState() + " - Error Code: " + warning.getErrorCode() + ")");
-                    }
-                    warning = warning.getNextWarning();
-                }
+                logWarnings(statement);
                 // retrieve all results to ensure all errors are detected
                 int updateCount = -1;
                 while (hasResults || (updateCount = statement.getUpdateCount()) != -1) {
@@ -261,18 +252,78 @@ public class JdbcTemplate {
         }
     }
 
+    /**
+     * Executes these sql statements as a single batch using an ordinary Statement.
+     *
+     * @param sqls The statements to execute.
+     * @return The update counts of the statements, in order.
+     * @throws SQLException when the execution failed. A {@link java.sql.BatchUpdateException} holds the update counts
+     *                      of the statements that were processed before the failure.
+     */
+    public int[] executeBatch(List<String> sqls) throws SQLException {
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            statement.setEscapeProcessing(false);
+            for (String sql : sqls) {
+                statement.addBatch(sql);
+            }
+            try {
+                return statement.executeBatch();
+            } finally {
+                logWarnings(statement);
+            }
+        } finally {
+            JdbcUtils.closeStatement(statement);
+        }
+    }
+
+    /**
+     * Checks whether the driver supports batching statements.
+     *
+     * @return {@code true} if it does, {@code false} if it doesn't or if this could not be determined.
+     */
+    public boolean supportsBatchUpdates() {
+        try {
+            return connection.getMetaData().supportsBatchUpdates();
+        } catch (SQLException e) {
+            LOG.debug("Unable to determine whether batch updates are supported: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Logs the warnings reported by the database for this statement.
+     *
+     * @param statement The statement that was executed.
+     * @throws SQLException when the warnings could not be retrieved.
+     */
+    private void logWarnings(Statement statement) throws SQLException {
+        @SuppressWarnings("ThrowableResultOfMethodCallIgnored") SQLWarning warning = statement.getWarnings();
+        while (warning != null) {
+            if ("00000".equals(warning.getSQLState())) {
+                LOG.info("DB: " + warning.getMessage());
+            } else {
+                LOG.warn("DB: " + warning.getMessage()
+                        + " (SQL State: " + warning.getSQLState() + " - Error Code: " + warning.getErrorCode() + ")");
+            }
+            warning = warning.getNextWarning();
+        }
+    }
+
     /**
      * Executes this update sql statement.
      *
      * @param sql    The statement to execute.
      * @param params The statement parameters.
+     * @return The number of rows affected.
      * @throws SQLException when the execution failed.
      */
-    public void update(String sql, Object... params) throws SQLException {
+    public int update(String sql, Object... params) throws SQLException {
         PreparedStatement statement = null;
         try {
             statement = prepareStatement(sql, params);
-            statement.executeUpdate();
+            return statement.executeUpdate();
         } finally {
             JdbcUtils.closeStatement(statement);
         }
@@ -293,6 +344,8 @@ public class JdbcTemplate {
                 statement.setNull(i + 1, nullType);
             } else if (params[i] instanceof Integer) {
                 statement.setInt(i + 1, (Integer) params[i]);
+            } else if (params[i] instanceof Long) {
+                statement.setLong(i + 1, (Long) params[i]);
             } else if (params[i] instanceof Boolean) {
                 statement.setBoolean(i + 1, (Boolean) params[i]);
             } else {
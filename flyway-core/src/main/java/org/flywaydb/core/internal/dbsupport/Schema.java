@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a database schema.
@@ -42,6 +43,11 @@ public abstract class Schema<S extends DbSupport> {
      */
     protected final String name;
 
+    /**
+     * The maximum number of objects to drop per round trip while cleaning. 1 drops them one at a time.
+     */
+    private int cleanBatchSize = 1;
+
     /**
      * Creates a new schema.
      *
@@ -144,10 +150,25 @@ public abstract class Schema<S extends DbSupport> {
      * Cleans all the objects in this schema.
      */
     public void clean() {
+        clean(1);
+    }
+
+    /**
+     * Cleans all the objects in this schema, dropping them in as few round trips as possible. Where the database
+     * allows it, drops are coalesced into statements dropping several objects at once. All other drop statements are
+     * sent to the database as JDBC batches.
+     *
+     * @param batchSize The maximum number of objects to drop per statement and of statements per batch. 1 (or less)
+     *                  drops the objects one at a time.
+     */
+    public void clean(int batchSize) {
+        cleanBatchSize = Math.max(1, batchSize);
         try {
             doClean();
         } catch (SQLException e) {
             throw new FlywayException("Unable to clean schema " + this, e);
+        } finally {
+            cleanBatchSize = 1;
         }
     }
 
@@ -158,6 +179,137 @@ public abstract class Schema<S extends DbSupport> {
      */
     protected abstract void doClean() throws SQLException;
 
+    /**
+     * Cleans this schema by dropping and recreating it as a whole (or by the equivalent reset of the database), which
+     * is much faster than dropping its objects one by one. This is only done when the database supports it and the
+     * schema can be restored to its former state (owner, grants, ...) without anything else being lost along with it.
+     *
+     * @return {@code true} if the schema has been recreated, {@code false} if it must be cleaned object by object
+     * instead.
+     */
+    public boolean recreate() {
+        try {
+            return doRecreate();
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to recreate schema " + this, e);
+        }
+    }
+
+    /**
+     * Cleans this schema by dropping and recreating it as a whole, if the database supports it.
+     *
+     * @return {@code true} if the schema has been recreated, {@code false} if it must be cleaned object by object
+     * instead.
+     * @throws SQLException when the schema could not be recreated.
+     */
+    protected boolean doRecreate() throws SQLException {
+        return false;
+    }
+
+    /**
+     * Retrieves the other schemas the objects of this schema refer to, through foreign keys, views, synonyms or any
+     * other dependency recorded by the database. Those schemas must only be cleaned (or dropped) once this one has
+     * been, as their objects may not be dropped while they are still referenced.
+     *
+     * @return The names of the referenced schemas. {@code null} if the references can't be determined for this
+     * database.
+     */
+    public Set<String> getReferencedSchemas() {
+        try {
+            SchemaInventory references = doLoadReferences();
+            if (references == null) {
+                return null;
+            }
+
+            Set<String> referencedSchemas = references.getValues(SchemaInventory.REFERENCED_SCHEMA);
+            referencedSchemas.remove(name);
+            return referencedSchemas;
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to determine the schemas referenced by schema " + this, e);
+        }
+    }
+
+    /**
+     * Loads the inventory of the references of the objects of this schema, along with the schema of each referenced
+     * object in the {@code referenced_schema} column.
+     *
+     * @return The inventory. {@code null} if the references can't be determined for this database.
+     * @throws SQLException when the references could not be loaded.
+     */
+    protected SchemaInventory doLoadReferences() throws SQLException {
+        return null;
+    }
+
+    /**
+     * Executes these drop statements while cleaning, as JDBC batches when dropping in batches and the driver supports
+     * it. Otherwise they are executed one at a time.
+     *
+     * @param statements The drop statements to execute, in order.
+     * @throws SQLException when a statement failed.
+     */
+    protected void executeDropStatements(List<String> statements) throws SQLException {
+        if ((cleanBatchSize <= 1) || (statements.size() <= 1) || !jdbcTemplate.supportsBatchUpdates()) {
+            for (String statement : statements) {
+                jdbcTemplate.execute(statement);
+            }
+            return;
+        }
+
+        for (int i = 0; i < statements.size(); i += cleanBatchSize) {
+            jdbcTemplate.executeBatch(statements.subList(i, Math.min(i + cleanBatchSize, statements.size())));
+        }
+    }
+
+    /**
+     * Generates the statements for dropping these objects while cleaning. When dropping in batches, the objects are
+     * coalesced into statements dropping several objects at once, so this may only be used for drop statements the
+     * database accepts with a comma-separated list of objects.
+     *
+     * @param dropPrefix  The start of the statement, up to the objects (Ex.: {@code DROP TABLE}).
+     * @param objectNames The quoted and qualified names of the objects to drop.
+     * @param dropSuffix  The end of the statement, after the objects (Ex.: {@code CASCADE}). May be empty.
+     * @return The drop statements.
+     */
+    protected List<String> generateMultiObjectDropStatements(String dropPrefix, List<String> objectNames, String dropSuffix) {
+        List<String> statements = new ArrayList<String>();
+        for (int i = 0; i < objectNames.size(); i += cleanBatchSize) {
+            StringBuilder statement = new StringBuilder(dropPrefix).append(" ");
+            for (int j = i; j < Math.min(i + cleanBatchSize, objectNames.size()); j++) {
+                if (j > i) {
+                    statement.append(", ");
+                }
+                statement.append(objectNames.get(j));
+            }
+            if (dropSuffix.length() > 0) {
+                statement.append(" ").append(dropSuffix);
+            }
+            statements.add(statement.toString());
+        }
+        return statements;
+    }
+
+    /**
+     * Qualifies these object names with the name of this schema.
+     *
+     * @param objectNames The names of the objects in this schema.
+     * @return The quoted and qualified names.
+     */
+    protected List<String> qualify(List<String> objectNames) {
+        List<String> qualifiedNames = new ArrayList<String>();
+        for (String objectName : objectNames) {
+            qualifiedNames.add(dbSupport.quote(name, objectName));
+        }
+        return qualifiedNames;
+    }
+
+    /**
+     * @return {@code true} if objects are dropped in batches while cleaning, {@code false} if they are dropped one at
+     * a time.
+     */
+    protected boolean isCleaningInBatches() {
+        return cleanBatchSize > 1;
+    }
+
     /**
      * Retrieves all the tables in this schema.
      *
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.dbsupport;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory snapshot of the objects in a schema, loaded from the data dictionary with a single query. It lets a schema
+ * generate its complete clean plan without a separate catalog round trip per object type.
+ * <p>The inventory query returns one row per object. Its {@code object_type} column holds the type of the object, as
+ * chosen by the query, and its {@code object_name} column the name of the object. Any other columns are available as
+ * details of the object. Column labels are case-insensitive.</p>
+ * <p>Inventories of references additionally return the schema of the referenced object in their
+ * {@code referenced_schema} column.</p>
+ */
+public class SchemaInventory {
+    /**
+     * The column holding the type of an object.
+     */
+    public static final String OBJECT_TYPE = "object_type";
+
+    /**
+     * The column holding the name of an object.
+     */
+    public static final String OBJECT_NAME = "object_name";
+
+    /**
+     * The column holding the schema of the object referenced by an object, for inventories of references.
+     */
+    public static final String REFERENCED_SCHEMA = "referenced_schema";
+
+    /**
+     * The objects of the schema, grouped by type. The objects of a type are in the order they were returned in.
+     */
+    private final Map<String, List<Map<String, String>>> objects;
+
+    /**
+     * Creates a new inventory.
+     *
+     * @param objects The objects of the schema, grouped by type.
+     */
+    private SchemaInventory(Map<String, List<Map<String, String>>> objects) {
+        this.objects = objects;
+    }
+
+    /**
+     * Loads the inventory of a schema.
+     *
+     * @param jdbcTemplate The Jdbc Template for communicating with the DB.
+     * @param query        The inventory query, returning at least the {@code object_type} and {@code object_name}
+     *                     columns.
+     * @param params       The query parameters.
+     * @return The inventory.
+     * @throws SQLException when the inventory could not be loaded.
+     */
+    public static SchemaInventory load(JdbcTemplate jdbcTemplate, String query, String... params) throws SQLException {
+        Map<String, List<Map<String, String>>> objects = new LinkedHashMap<String, List<Map<String, String>>>();
+        for (Map<String, String> row : jdbcTemplate.queryForList(query, params)) {
+            Map<String, String> object = new HashMap<String, String>();
+            for (Map.Entry<String, String> column : row.entrySet()) {
+                object.put(column.getKey().toLowerCase(), column.getValue());
+            }
+
+            String objectType = object.get(OBJECT_TYPE);
+            List<Map<String, String>> objectsOfType = objects.get(objectType);
+            if (objectsOfType == null) {
+                objectsOfType = new ArrayList<Map<String, String>>();
+                objects.put(objectType, objectsOfType);
+            }
+            objectsOfType.add(object);
+        }
+        return new SchemaInventory(objects);
+    }
+
+    /**
+     * Retrieves the objects of this type.
+     *
+     * @param objectType The type of the objects.
+     * @return The objects, as maps of lower case column label to value. An empty list if there are none.
+     */
+    public List<Map<String, String>> getObjects(String objectType) {
+        List<Map<String, String>> objectsOfType = objects.get(objectType);
+        if (objectsOfType == null) {
+            return Collections.emptyList();
+        }
+        return objectsOfType;
+    }
+
+    /**
+     * Retrieves the names of the objects of this type.
+     *
+     * @param objectType The type of the objects.
+     * @return The names of the objects. An empty list if there are none.
+     */
+    public List<String> getNames(String objectType) {
+        List<String> names = new ArrayList<String>();
+        for (Map<String, String> object : getObjects(objectType)) {
+            names.add(object.get(OBJECT_NAME));
+        }
+        return names;
+    }
+
+    /**
+     * Retrieves the distinct values of this column across the objects of all types.
+     *
+     * @param column The lower case label of the column.
+     * @return The values, in the order they were first returned in, excluding {@code null}. An empty set if there are
+     * none.
+     */
+    public Set<String> getValues(String column) {
+        Set<String> values = new LinkedHashSet<String>();
+        for (List<Map<String, String>> objectsOfType : objects.values()) {
+            for (Map<String, String> object : objectsOfType) {
+                String value = object.get(column);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return {@code true} if the schema contains none of the inventoried objects, {@code false} if it does.
+     */
+    public boolean isEmpty() {
+        return objects.isEmpty();
+    }
+}
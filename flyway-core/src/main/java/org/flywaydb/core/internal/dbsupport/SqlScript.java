@@ -26,7 +26,10 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,13 +40,18 @@ import java.util.List;
 public class SqlScript {
     private static final Log LOG = LogFactory.getLog(SqlScript.class);
 
+    /**
+     * The keywords of the DML statements that can be batched.
+     */
+    private static final String[] BATCHABLE_KEYWORDS = {"INSERT", "UPDATE", "DELETE"};
+
     /**
      * The database-specific support.
      */
     private final DbSupport dbSupport;
 
     /**
-     * The sql statements contained in this script.
+     * The sql statements contained in this script. {@code null} if this script is streamed.
      */
     private final List<SqlStatement> sqlStatements;
 
@@ -52,6 +60,22 @@ public class SqlScript {
      */
     private final Resource resource;
 
+    /**
+     * The placeholder replacer to apply while streaming. {@code null} if this script isn't streamed.
+     */
+    private final PlaceholderReplacer placeholderReplacer;
+
+    /**
+     * The encoding of the resource. {@code null} if this script isn't streamed.
+     */
+    private final String encoding;
+
+    /**
+     * The maximum number of consecutive DML statements to send to the database as a single batch.
+     * {@code 0} to execute every statement separately.
+     */
+    private final int batchSize;
+
     /**
      * Creates a new sql script from this source.
      *
@@ -62,6 +86,9 @@ public class SqlScript {
         this.dbSupport = dbSupport;
         this.sqlStatements = parse(sqlScriptSource);
         this.resource = null;
+        this.placeholderReplacer = null;
+        this.encoding = null;
+        this.batchSize = 0;
     }
 
     /**
@@ -73,12 +100,39 @@ public class SqlScript {
      * @param encoding            The encoding to use.
      */
     public SqlScript(DbSupport dbSupport, Resource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding) {
-        this.dbSupport = dbSupport;
-
-        String sqlScriptSource = sqlScriptResource.loadAsString(encoding);
-        this.sqlStatements = parse(placeholderReplacer.replacePlaceholders(sqlScriptSource));
+        this(dbSupport, sqlScriptResource, placeholderReplacer, encoding, false, 0);
+    }
 
+    /**
+     * Creates a new sql script from this resource.
+     *
+     * @param dbSupport           The database-specific support.
+     * @param sqlScriptResource   The resource containing the statements.
+     * @param placeholderReplacer The placeholder replacer.
+     * @param encoding            The encoding to use.
+     * @param stream              Whether to stream the script instead of loading it upfront. A streamed script is only
+     *                            read when it is executed, one line at a time, and each statement is executed as soon as
+     *                            it is terminated. Memory usage is then bounded by the largest statement instead of by
+     *                            the size of the script.
+     * @param batchSize           The maximum number of consecutive DML statements to send to the database as a single
+     *                            batch. {@code 0} to execute every statement separately.
+     */
+    public SqlScript(DbSupport dbSupport, Resource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding,
+                     boolean stream, int batchSize) {
+        this.dbSupport = dbSupport;
         this.resource = sqlScriptResource;
+        this.batchSize = batchSize;
+
+        if (stream) {
+            this.sqlStatements = null;
+            this.placeholderReplacer = placeholderReplacer;
+            this.encoding = encoding;
+        } else {
+            String sqlScriptSource = sqlScriptResource.loadAsString(encoding);
+            this.sqlStatements = parse(placeholderReplacer.replacePlaceholders(sqlScriptSource));
+            this.placeholderReplacer = null;
+            this.encoding = null;
+        }
     }
 
     /**
@@ -87,6 +141,15 @@ public class SqlScript {
      * @return The sql statements contained in this script.
      */
     public List<SqlStatement> getSqlStatements() {
+        if (sqlStatements == null) {
+            final List<SqlStatement> statements = new ArrayList<SqlStatement>();
+            stream(new SqlStatementHandler() {
+                public void handle(SqlStatement sqlStatement) {
+                    statements.add(sqlStatement);
+                }
+            });
+            return statements;
+        }
         return sqlStatements;
     }
 
@@ -103,20 +166,121 @@ public class SqlScript {
      * @param jdbcTemplate The jdbc template to use to execute this script.
      */
     public void execute(final JdbcTemplate jdbcTemplate) {
-        for (SqlStatement sqlStatement : sqlStatements) {
-            String sql = sqlStatement.getSql();
-            LOG.debug("Executing SQL: " + sql);
+        SqlStatementExecutor executor = new SqlStatementExecutor(jdbcTemplate);
+        if (sqlStatements == null) {
+            stream(executor);
+        } else {
+            for (SqlStatement sqlStatement : sqlStatements) {
+                executor.handle(sqlStatement);
+            }
+        }
+        executor.flush();
+    }
+
+    /**
+     * Executes this statement against the database.
+     *
+     * @param jdbcTemplate The jdbc template to use to execute this statement.
+     * @param sqlStatement The statement to execute.
+     */
+    private void execute(JdbcTemplate jdbcTemplate, SqlStatement sqlStatement) {
+        String sql = sqlStatement.getSql();
+        LOG.debug("Executing SQL: " + sql);
+
+        try {
+            if (sqlStatement.isPgCopy()) {
+                dbSupport.executePgCopy(jdbcTemplate.getConnection(), sql);
+            } else {
+                jdbcTemplate.executeStatement(sql);
+            }
+        } catch (SQLException e) {
+            throw new FlywaySqlScriptException(resource, sqlStatement, e);
+        }
+    }
+
+    /**
+     * Reads the resource of this script line by line, replacing placeholders, and passes each statement to this
+     * handler as soon as it is terminated.
+     *
+     * @param handler The handler for the statements.
+     */
+    private void stream(SqlStatementHandler handler) {
+        Reader reader = resource.loadAsReader(encoding);
+        try {
+            BufferedReader bufferedReader = new BufferedReader(reader);
+            SqlStatementParser parser = new SqlStatementParser();
+
+            String line = bufferedReader.readLine();
+            if ((line != null) && line.startsWith("\ufeff")) {
+                //Strip UTF-8 BOM if necessary
+                line = line.substring(1);
+            }
+            while (line != null) {
+                SqlStatement sqlStatement = parser.addLine(placeholderReplacer.replacePlaceholders(line));
+                if (sqlStatement != null) {
+                    handler.handle(sqlStatement);
+                }
+                line = bufferedReader.readLine();
+            }
 
+            SqlStatement sqlStatement = parser.finish();
+            if (sqlStatement != null) {
+                handler.handle(sqlStatement);
+            }
+        } catch (IOException e) {
+            throw new FlywayException("Unable to parse " + resource.getLocation() + " (" + resource.getLocationOnDisk() + ")", e);
+        } finally {
             try {
-                if (sqlStatement.isPgCopy()) {
-                    dbSupport.executePgCopy(jdbcTemplate.getConnection(), sql);
-                } else {
-                    jdbcTemplate.executeStatement(sql);
+                reader.close();
+            } catch (IOException e) {
+                LOG.debug("Unable to close " + resource.getLocation() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Checks whether this statement is a plain DML statement (INSERT, UPDATE or DELETE) that can safely be sent to the
+     * database as part of a batch. Leading comments are skipped.
+     *
+     * @param sqlStatement The statement to check.
+     * @return {@code true} if it can be batched, {@code false} if it must be executed on its own.
+     */
+    /* private -> for testing */
+    static boolean isBatchable(SqlStatement sqlStatement) {
+        if (sqlStatement.isPgCopy()) {
+            return false;
+        }
+
+        String sql = sqlStatement.getSql();
+        int pos = 0;
+        while (pos < sql.length()) {
+            if (Character.isWhitespace(sql.charAt(pos))) {
+                pos++;
+            } else if (sql.startsWith("--", pos)) {
+                int end = sql.indexOf('\n', pos);
+                if (end < 0) {
+                    return false;
+                }
+                pos = end + 1;
+            } else if (sql.startsWith("/*", pos)) {
+                int end = sql.indexOf("*/", pos + 2);
+                if (end < 0) {
+                    return false;
                 }
-            } catch (SQLException e) {
-                throw new FlywaySqlScriptException(resource, sqlStatement, e);
+                pos = end + 2;
+            } else {
+                break;
+            }
+        }
+
+        for (String keyword : BATCHABLE_KEYWORDS) {
+            int end = pos + keyword.length();
+            if (sql.regionMatches(true, pos, keyword, 0, keyword.length())
+                    && ((end == sql.length()) || !Character.isLetterOrDigit(sql.charAt(end)))) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
@@ -140,23 +304,101 @@ public class SqlScript {
     List<SqlStatement> linesToStatements(List<String> lines) {
         List<SqlStatement> statements = new ArrayList<SqlStatement>();
 
-        Delimiter nonStandardDelimiter = null;
-        SqlStatementBuilder sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
+        SqlStatementParser parser = new SqlStatementParser();
+        for (String line : lines) {
+            SqlStatement sqlStatement = parser.addLine(line);
+            if (sqlStatement != null) {
+                statements.add(sqlStatement);
+            }
+        }
+
+        SqlStatement sqlStatement = parser.finish();
+        if (sqlStatement != null) {
+            statements.add(sqlStatement);
+        }
+
+        return statements;
+    }
+
+    /**
+     * Parses the textual data provided by this reader into a list of lines.
+     *
+     * @param reader The reader for the textual data.
+     * @return The list of lines (in order).
+     * @throws IllegalStateException Thrown when the textual data parsing failed.
+     */
+    private List<String> readLines(Reader reader) {
+        List<String> lines = new ArrayList<String>();
+
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
 
-        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
-            String line = lines.get(lineNumber - 1);
+        try {
+            while ((line = bufferedReader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            String message = resource == null ?
+                    "Unable to parse lines" :
+                    "Unable to parse " + resource.getLocation() + " (" + resource.getLocationOnDisk() + ")";
+            throw new FlywayException(message, e);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Callback for statements as they are parsed from a streamed script.
+     */
+    private interface SqlStatementHandler {
+        /**
+         * Handles this statement.
+         *
+         * @param sqlStatement The statement that was just parsed.
+         */
+        void handle(SqlStatement sqlStatement);
+    }
+
+    /**
+     * Incrementally turns lines into statements, one line at a time. Only the statement currently being built is
+     * held in memory.
+     */
+    private class SqlStatementParser {
+        /**
+         * The number of the last line that was added.
+         */
+        private int lineNumber;
+
+        /**
+         * The delimiter set by an explicit delimiter change directive. {@code null} if none.
+         */
+        private Delimiter nonStandardDelimiter;
+
+        /**
+         * The builder for the current statement.
+         */
+        private SqlStatementBuilder sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
+
+        /**
+         * Adds the next line of the script.
+         *
+         * @param line The line to add.
+         * @return The statement terminated by this line. {@code null} if no statement was terminated.
+         */
+        public SqlStatement addLine(String line) {
+            lineNumber++;
 
             if (sqlStatementBuilder.isEmpty()) {
                 if (!StringUtils.hasText(line)) {
                     // Skip empty line between statements.
-                    continue;
+                    return null;
                 }
 
                 Delimiter newDelimiter = sqlStatementBuilder.extractNewDelimiterFromLine(line);
                 if (newDelimiter != null) {
                     nonStandardDelimiter = newDelimiter;
                     // Skip this line as it was an explicit delimiter change directive outside of any statements.
-                    continue;
+                    return null;
                 }
 
                 sqlStatementBuilder.setLineNumber(lineNumber);
@@ -171,47 +413,146 @@ public class SqlScript {
 
             if (sqlStatementBuilder.isTerminated()) {
                 SqlStatement sqlStatement = sqlStatementBuilder.getSqlStatement();
-                statements.add(sqlStatement);
                 LOG.debug("Found statement at line " + sqlStatement.getLineNumber() + ": " + sqlStatement.getSql());
 
                 sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
-            } else if (sqlStatementBuilder.canDiscard()) {
+                return sqlStatement;
+            }
+
+            if (sqlStatementBuilder.canDiscard()) {
                 sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
             }
+            return null;
         }
 
-        // Catch any statements not followed by delimiter.
-        if (!sqlStatementBuilder.isEmpty()) {
-            statements.add(sqlStatementBuilder.getSqlStatement());
+        /**
+         * Signals the end of the script.
+         *
+         * @return The last statement if it wasn't followed by a delimiter. {@code null} if none.
+         */
+        public SqlStatement finish() {
+            // Catch any statements not followed by delimiter.
+            if (!sqlStatementBuilder.isEmpty()) {
+                return sqlStatementBuilder.getSqlStatement();
+            }
+            return null;
         }
-
-        return statements;
     }
 
     /**
-     * Parses the textual data provided by this reader into a list of lines.
-     *
-     * @param reader The reader for the textual data.
-     * @return The list of lines (in order).
-     * @throws IllegalStateException Thrown when the textual data parsing failed.
+     * Executes statements as they are handed over, collecting consecutive DML statements into batches when batching is
+     * enabled and supported by the driver. All other statements are executed on their own, after any pending batch.
      */
-    private List<String> readLines(Reader reader) {
-        List<String> lines = new ArrayList<String>();
+    private class SqlStatementExecutor implements SqlStatementHandler {
+        /**
+         * The jdbc template to use to execute the statements.
+         */
+        private final JdbcTemplate jdbcTemplate;
 
-        BufferedReader bufferedReader = new BufferedReader(reader);
-        String line;
+        /**
+         * The DML statements waiting to be sent as a batch.
+         */
+        private final List<SqlStatement> batch = new ArrayList<SqlStatement>();
 
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                lines.add(line);
+        /**
+         * Whether statements are currently being batched.
+         */
+        private boolean batching;
+
+        /**
+         * Creates a new executor.
+         *
+         * @param jdbcTemplate The jdbc template to use to execute the statements.
+         */
+        public SqlStatementExecutor(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+            if (batchSize > 1) {
+                batching = jdbcTemplate.supportsBatchUpdates();
+                if (!batching) {
+                    LOG.debug("Driver does not support batch updates. Executing statements one by one.");
+                }
             }
-        } catch (IOException e) {
-            String message = resource == null ?
-                    "Unable to parse lines" :
-                    "Unable to parse " + resource.getLocation() + " (" + resource.getLocationOnDisk() + ")";
-            throw new FlywayException(message, e);
         }
 
-        return lines;
+        public void handle(SqlStatement sqlStatement) {
+            if (batching && isBatchable(sqlStatement)) {
+                batch.add(sqlStatement);
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+                return;
+            }
+
+            flush();
+            execute(jdbcTemplate, sqlStatement);
+        }
+
+        /**
+         * Sends the pending batch (if any) to the database.
+         */
+        public void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                if (batch.size() == 1) {
+                    execute(jdbcTemplate, batch.get(0));
+                    return;
+                }
+
+                List<String> sqls = new ArrayList<String>(batch.size());
+                for (SqlStatement sqlStatement : batch) {
+                    sqls.add(sqlStatement.getSql());
+                }
+
+                LOG.debug("Executing batch of " + batch.size() + " SQL statements starting at line "
+                        + batch.get(0).getLineNumber());
+                try {
+                    jdbcTemplate.executeBatch(sqls);
+                } catch (SQLFeatureNotSupportedException e) {
+                    LOG.debug("Driver does not support batch updates. Executing statements one by one.");
+                    batching = false;
+                    for (SqlStatement sqlStatement : batch) {
+                        execute(jdbcTemplate, sqlStatement);
+                    }
+                } catch (BatchUpdateException e) {
+                    int failedIndex = getFailedIndex(e);
+                    if (failedIndex < 0) {
+                        throw new FlywaySqlScriptException(resource, batch, e);
+                    }
+                    throw new FlywaySqlScriptException(resource, batch.get(failedIndex), e);
+                } catch (SQLException e) {
+                    throw new FlywaySqlScriptException(resource, batch.get(0), e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+
+        /**
+         * Determines which statement of the pending batch caused this failure. Most drivers either stop at the failed
+         * statement, reporting only the update counts of the statements before it, or continue and mark the failed
+         * statements with {@link Statement#EXECUTE_FAILED}. Others (such as SQLite) report a count for every statement,
+         * which doesn't reveal the failed one, as a statement can legitimately affect no rows.
+         *
+         * @param e The exception thrown by the batch.
+         * @return The index of the failed statement in the batch. {@code -1} if it can't be determined.
+         */
+        private int getFailedIndex(BatchUpdateException e) {
+            int[] updateCounts = e.getUpdateCounts();
+            if (updateCounts == null) {
+                return -1;
+            }
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    return i;
+                }
+            }
+            if (updateCounts.length < batch.size()) {
+                return updateCounts.length;
+            }
+            return -1;
+        }
     }
 }
@@ -15,11 +15,6 @@
  */
 package org.flywaydb.core.internal.dbsupport;
 
-import org.flywaydb.core.internal.util.StringUtils;
-
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Builds a SQL statement, one line at a time.
  */
@@ -49,6 +44,11 @@ public class SqlStatementBuilder {
      */
     private boolean insideQuoteStringLiteral = false;
 
+    /**
+     * Are we currently inside a " quoted identifier.
+     */
+    private boolean insideQuotedIdentifier = false;
+
     /**
      * Are we currently inside an alternate multi-line string literal.
      */
@@ -79,6 +79,11 @@ public class SqlStatementBuilder {
      */
     private Delimiter delimiter = getDefaultDelimiter();
 
+    /**
+     * Special characters that naturally occur in SQL and separate tokens, in addition to whitespace.
+     */
+    private static final String TOKEN_SEPARATORS = "@<>;:=|(),+{}";
+
     /**
      * @return The default delimiter for this database.
      */
@@ -156,16 +161,6 @@ public class SqlStatementBuilder {
         return false;
     }
 
-    /**
-     * Checks whether this line is just a single-line comment outside a statement or not.
-     *
-     * @param line The line to analyse.
-     * @return {@code true} if it is, {@code false} if not.
-     */
-    protected boolean isSingleLineComment(String line) {
-        return line.startsWith("--");
-    }
-
     /**
      * Adds this line to the current statement being built.
      *
@@ -178,14 +173,14 @@ public class SqlStatementBuilder {
             statement.append("\n");
         }
 
-        String lineSimplified = simplifyLine(line);
-
-        applyStateChanges(lineSimplified);
+        applyStateChanges(line);
         if (endWithOpenMultilineStringLiteral() || insideMultiLineComment) {
             statement.append(line);
             return;
         }
 
+        String lineSimplified = simplifyLine(line);
+
         delimiter = changeDelimiterIfNecessary(lineSimplified, delimiter);
 
         statement.append(line);
@@ -194,7 +189,7 @@ public class SqlStatementBuilder {
             nonCommentStatementPartSeen = true;
         }
 
-        if (!lineEndsWithSingleLineComment && lineTerminatesStatement(lineSimplified, delimiter)) {
+        if (!lineEndsWithSingleLineComment && lineTerminatesStatement(line, delimiter)) {
             stripDelimiter(statement, delimiter);
             terminated = true;
         }
@@ -205,24 +200,55 @@ public class SqlStatementBuilder {
      * @return {@code true} if it does, {@code false} if it doesn't.
      */
     /* protected -> for testing */ boolean endWithOpenMultilineStringLiteral() {
-        return insideQuoteStringLiteral || insideAlternateQuoteStringLiteral;
+        return insideQuoteStringLiteral || insideAlternateQuoteStringLiteral || insideQuotedIdentifier;
     }
 
     /**
      * @return Whether the current statement is only closed comments so far and can be discarded.
      */
     public boolean canDiscard() {
-        return !insideAlternateQuoteStringLiteral && !insideQuoteStringLiteral && !insideMultiLineComment && !nonCommentStatementPartSeen;
+        return !insideAlternateQuoteStringLiteral && !insideQuoteStringLiteral && !insideQuotedIdentifier
+                && !insideMultiLineComment && !nonCommentStatementPartSeen;
     }
 
     /**
-     * Simplifies this line to make it easier to parse.
+     * Simplifies this line to make it easier to analyse for delimiter changes: escaped quotes are removed, -- is
+     * surrounded by spaces, whitespace is collapsed and trimmed and everything is turned to upper case. This is done
+     * in a single pass over the line.
      *
      * @param line The line to simplify.
      * @return The simplified line.
      */
     protected String simplifyLine(String line) {
-        return removeEscapedQuotes(line).replace("--", " -- ").replaceAll("\\s+", " ").trim().toUpperCase();
+        int length = line.length();
+        StringBuilder simplified = new StringBuilder(length);
+        boolean pendingSpace = false;
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if ((c == '\'') && (i + 1 < length) && (line.charAt(i + 1) == '\'')) {
+                i++;
+                continue;
+            }
+            if ((c == '-') && (i + 1 < length) && (line.charAt(i + 1) == '-')) {
+                if (simplified.length() > 0) {
+                    simplified.append(' ');
+                }
+                simplified.append("--");
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+            if (isWhitespace(c)) {
+                pendingSpace = simplified.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                simplified.append(' ');
+                pendingSpace = false;
+            }
+            simplified.append(Character.toUpperCase(c));
+        }
+        return simplified.toString();
     }
 
     /**
@@ -239,7 +265,8 @@ public class SqlStatementBuilder {
     }
 
     /**
-     * Checks whether this line terminates the current statement.
+     * Checks whether this line terminates the current statement. Trailing whitespace is ignored and the delimiter is
+     * matched case-insensitively.
      *
      * @param line      The line to check.
      * @param delimiter The current delimiter.
@@ -250,13 +277,27 @@ public class SqlStatementBuilder {
             return false;
         }
 
-        String upperCaseDelimiter = delimiter.getDelimiter().toUpperCase();
+        String delimiterString = delimiter.getDelimiter();
+        int delimiterLength = delimiterString.length();
+
+        int end = line.length();
+        while ((end > 0) && isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        int start = end - delimiterLength;
+        if (start < 0) {
+            return false;
+        }
 
         if (delimiter.isAloneOnLine()) {
-            return line.equals(upperCaseDelimiter);
+            for (int i = 0; i < start; i++) {
+                if (!isWhitespace(line.charAt(i))) {
+                    return false;
+                }
+            }
         }
 
-        return line.endsWith(upperCaseDelimiter);
+        return line.regionMatches(true, start, delimiterString, 0, delimiterLength);
     }
 
     /**
@@ -279,12 +320,13 @@ public class SqlStatementBuilder {
     }
 
     /**
-     * Extracts the alternate open quote from this token (if any).
+     * Checks whether an alternate string literal, such as $$ or q'[, opens at this position of the line.
      *
-     * @param token The token to check.
+     * @param line The line being analysed.
+     * @param pos  The position in the line, outside of any string literal or comment.
      * @return The alternate open quote. {@code null} if none.
      */
-    protected String extractAlternateOpenQuote(String token) {
+    protected String extractAlternateOpenQuote(String line, int pos) {
         return null;
     }
 
@@ -299,167 +341,165 @@ public class SqlStatementBuilder {
     }
 
     /**
-     * Applies any state changes resulting from this line being added.
+     * Checks whether a single line comment starts at this position of the line.
      *
-     * @param line The line that was just added to the statement.
+     * @param line The line being analysed.
+     * @param pos  The position in the line, outside of any string literal or comment.
+     * @return {@code true} if it does, {@code false} if not.
      */
-    protected void applyStateChanges(String line) {
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-        String[] tokens = StringUtils.tokenizeToStringArray(line, " @<>;:=|(),+{}");
-
-        List<TokenType> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
-
-        lineEndsWithSingleLineComment = false;
-        for (TokenType delimitingToken : delimitingTokens) {
-            if (!insideQuoteStringLiteral && !insideAlternateQuoteStringLiteral
-                    && TokenType.MULTI_LINE_COMMENT.equals(delimitingToken)) {
-                insideMultiLineComment = !insideMultiLineComment;
-            }
-
-            if (!insideQuoteStringLiteral && !insideAlternateQuoteStringLiteral && !insideMultiLineComment
-                    && TokenType.SINGLE_LINE_COMMENT.equals(delimitingToken)) {
-                lineEndsWithSingleLineComment = true;
-                return;
-            }
-
-            if (!insideMultiLineComment && !insideQuoteStringLiteral &&
-                    TokenType.ALTERNATE_QUOTE.equals(delimitingToken)) {
-                insideAlternateQuoteStringLiteral = !insideAlternateQuoteStringLiteral;
-            }
-
-            if (!insideMultiLineComment && !insideAlternateQuoteStringLiteral &&
-                    TokenType.QUOTE.equals(delimitingToken)) {
-                insideQuoteStringLiteral = !insideQuoteStringLiteral;
-            }
-
-            if (!insideMultiLineComment && !insideQuoteStringLiteral && !insideAlternateQuoteStringLiteral &&
-                    TokenType.OTHER.equals(delimitingToken)) {
-                nonCommentStatementPartSeen = true;
-            }
-        }
+    protected boolean isSingleLineComment(String line, int pos) {
+        return line.startsWith("--", pos);
     }
 
     /**
-     * Extract the type of all tokens that potentially delimit string literals.
+     * Whether a backslash escapes the next character inside string literals.
      *
-     * @param tokens The tokens to analyse.
-     * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
-     * impact on string delimiting are discarded.
-     */
-    private List<TokenType> extractStringLiteralDelimitingTokens(String[] tokens) {
-        List<TokenType> delimitingTokens = new ArrayList<TokenType>();
-        for (String token : tokens) {
-            String cleanToken = cleanToken(token);
-            boolean handled = false;
-
-            if (alternateQuote == null) {
-                String alternateQuoteFromToken = extractAlternateOpenQuote(cleanToken);
-                if (alternateQuoteFromToken != null) {
-                    String closeQuote = computeAlternateCloseQuote(alternateQuoteFromToken);
-                    if (cleanToken.length() >= (alternateQuoteFromToken.length() + closeQuote.length())
-                            && cleanToken.startsWith(alternateQuoteFromToken) && cleanToken.endsWith(closeQuote)) {
-                        //Skip $$abc$$, ...
-                        continue;
-                    }
+     * @return {@code true} if it does, {@code false} if backslashes are regular characters.
+     */
+    protected boolean isBackslashEscape() {
+        return false;
+    }
 
-                    alternateQuote = closeQuote;
-                    delimitingTokens.add(TokenType.ALTERNATE_QUOTE);
+    /**
+     * Applies any state changes resulting from this line being added. The line is scanned character by character,
+     * keeping track of string literals, quoted identifiers, comments and whether any actual SQL has been seen yet.
+     *
+     * @param line The line that was just added to the statement.
+     */
+    protected void applyStateChanges(String line) {
+        lineEndsWithSingleLineComment = false;
 
-                    continue;
+        int length = line.length();
+        int pos = 0;
+        while (pos < length) {
+            char c = line.charAt(pos);
+
+            if (insideMultiLineComment) {
+                if (line.startsWith("*/", pos)) {
+                    insideMultiLineComment = false;
+                    pos += 2;
+                } else {
+                    pos++;
                 }
-            }
-            if ((alternateQuote != null) && cleanToken.endsWith(alternateQuote)) {
-                alternateQuote = null;
-                delimitingTokens.add(TokenType.ALTERNATE_QUOTE);
                 continue;
             }
 
-            if ((cleanToken.length() >= 2) && cleanToken.startsWith("'") && cleanToken.endsWith("'")) {
-                //Skip '', 'abc', ...
+            if (insideQuoteStringLiteral || insideAlternateQuoteStringLiteral) {
+                if ((c == '\\') && isBackslashEscape()) {
+                    pos += 2;
+                } else if (insideAlternateQuoteStringLiteral) {
+                    if (line.regionMatches(true, pos, alternateQuote, 0, alternateQuote.length())) {
+                        insideAlternateQuoteStringLiteral = false;
+                        pos += alternateQuote.length();
+                        alternateQuote = null;
+                    } else {
+                        pos++;
+                    }
+                } else if (c == '\'') {
+                    if ((pos + 1 < length) && (line.charAt(pos + 1) == '\'')) {
+                        // Escaped quote
+                        pos += 2;
+                    } else {
+                        insideQuoteStringLiteral = false;
+                        pos++;
+                    }
+                } else {
+                    pos++;
+                }
                 continue;
             }
-            if ((cleanToken.length() >= 4) && cleanToken.startsWith("/*") && cleanToken.endsWith("*/")) {
-                //Skip /**/, /*comment*/, ...
+
+            if (insideQuotedIdentifier) {
+                if (c == '"') {
+                    if ((pos + 1 < length) && (line.charAt(pos + 1) == '"')) {
+                        // Escaped quote
+                        pos += 2;
+                    } else {
+                        insideQuotedIdentifier = false;
+                        pos++;
+                    }
+                } else {
+                    pos++;
+                }
                 continue;
             }
 
-            if (isSingleLineComment(cleanToken)) {
-                delimitingTokens.add(TokenType.SINGLE_LINE_COMMENT);
-                handled = true;
+            if (line.startsWith("/*", pos)) {
+                insideMultiLineComment = true;
+                pos += 2;
+                continue;
             }
 
-            if (cleanToken.startsWith("/*")) {
-                delimitingTokens.add(TokenType.MULTI_LINE_COMMENT);
-                handled = true;
-            } else if (cleanToken.startsWith("'")) {
-                delimitingTokens.add(TokenType.QUOTE);
-                handled = true;
+            if (isSingleLineComment(line, pos)) {
+                lineEndsWithSingleLineComment = true;
+                return;
             }
 
-            if (!cleanToken.startsWith("/*") && cleanToken.endsWith("*/")) {
-                delimitingTokens.add(TokenType.MULTI_LINE_COMMENT);
-                handled = true;
-            } else if (!cleanToken.startsWith("'") && cleanToken.endsWith("'")) {
-                delimitingTokens.add(TokenType.QUOTE);
-                handled = true;
+            String openQuote = extractAlternateOpenQuote(line, pos);
+            if (openQuote != null) {
+                alternateQuote = computeAlternateCloseQuote(openQuote);
+                insideAlternateQuoteStringLiteral = true;
+                pos += openQuote.length();
+                continue;
             }
 
-            if (!handled) {
-                delimitingTokens.add(TokenType.OTHER);
+            if (c == '\'') {
+                insideQuoteStringLiteral = true;
+            } else if (c == '"') {
+                insideQuotedIdentifier = true;
+                nonCommentStatementPartSeen = true;
+            } else if (!isTokenSeparator(c)) {
+                nonCommentStatementPartSeen = true;
             }
+            pos++;
         }
-
-        return delimitingTokens;
     }
 
     /**
-     * Removes escaped quotes from this token.
+     * Checks whether this character separates tokens. Special characters that naturally occur in SQL, but are
+     * not part of a string literal or comment, are considered separators as well.
      *
-     * @param token The token to parse.
-     * @return The cleaned token.
+     * @param c The character to check.
+     * @return {@code true} if it does, {@code false} if not.
      */
-    protected String removeEscapedQuotes(String token) {
-        return StringUtils.replaceAll(token, "''", "");
+    protected static boolean isTokenSeparator(char c) {
+        return isWhitespace(c) || (TOKEN_SEPARATORS.indexOf(c) >= 0);
     }
 
     /**
-     * Performs additional cleanup on this token, such as removing charset casting that prefixes string literals.
-     * Must be implemented in dialect specific sub classes.
+     * Checks whether this character is whitespace (space, tab, line break, vertical tab or form feed).
      *
-     * @param token The token to clean.
-     * @return The cleaned token.
+     * @param c The character to check.
+     * @return {@code true} if it is, {@code false} if not.
      */
-    protected String cleanToken(String token) {
-        return token;
+    protected static boolean isWhitespace(char c) {
+        return (c == ' ') || (c == '\t') || (c == '\n') || (c == '\r') || (c == '\u000B') || (c == '\f');
     }
 
     /**
-     * The types of tokens relevant for string delimiter related parsing.
+     * Checks whether this simplified line starts with this keyword, followed by either a space or the end of the line.
+     *
+     * @param line    The simplified line to check.
+     * @param keyword The upper case keyword.
+     * @return {@code true} if it does, {@code false} if not.
      */
-    private static enum TokenType {
-        /**
-         * Some other token.
-         */
-        OTHER,
-
-        /**
-         * Token opens or closes a ' string literal
-         */
-        QUOTE,
-
-        /**
-         * Token opens or closes an alternate string literal
-         */
-        ALTERNATE_QUOTE,
-
-        /**
-         * Token starts end of line comment
-         */
-        SINGLE_LINE_COMMENT,
+    protected static boolean startsWithKeyword(String line, String keyword) {
+        return line.startsWith(keyword) && ((line.length() == keyword.length()) || (line.charAt(keyword.length()) == ' '));
+    }
 
-        /**
-         * Token opens or closes multi-line comment
-         */
-        MULTI_LINE_COMMENT
+    /**
+     * Checks whether this position of the line is at the start of a token, meaning the previous character (if any)
+     * cannot be part of an identifier.
+     *
+     * @param line The line being analysed.
+     * @param pos  The position in the line.
+     * @return {@code true} if it is, {@code false} if not.
+     */
+    protected static boolean isTokenStart(String line, int pos) {
+        if (pos == 0) {
+            return true;
+        }
+        char previous = line.charAt(pos - 1);
+        return !Character.isLetterOrDigit(previous) && (previous != '_') && (previous != '$') && (previous != '#');
     }
 }
@@ -22,21 +22,10 @@ import org.flywaydb.core.internal.dbsupport.SqlStatementBuilder;
  */
 public class DerbySqlStatementBuilder extends SqlStatementBuilder {
     @Override
-    protected String extractAlternateOpenQuote(String token) {
-        if (token.startsWith("$$")) {
+    protected String extractAlternateOpenQuote(String line, int pos) {
+        if (line.startsWith("$$", pos) && isTokenStart(line, pos)) {
             return "$$";
         }
-        if (token.startsWith("X'")) {
-            return "X'";
-        }
         return null;
     }
-
-    @Override
-    protected String computeAlternateCloseQuote(String openQuote) {
-        if (openQuote.equals("X'")) {
-            return "'";
-        }
-        return openQuote;
-    }
 }
@@ -15,12 +15,14 @@
  */
 package org.flywaydb.core.internal.dbsupport.h2;
 
+import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.internal.dbsupport.DbSupport;
 import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
 import org.flywaydb.core.internal.dbsupport.Schema;
 import org.flywaydb.core.internal.dbsupport.SqlStatementBuilder;
 import org.flywaydb.core.internal.util.jdbc.JdbcUtils;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -86,4 +88,47 @@ public class H2DbSupport extends DbSupport {
     public boolean catalogIsSchema() {
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Snapshots are written and read by the H2 engine itself, so the snapshot directory must be on the filesystem of
+     * the process running the database. This is only guaranteed for embedded and in-memory databases, not for
+     * databases accessed through an H2 server (jdbc:h2:tcp: and jdbc:h2:ssl: URLs).
+     */
+    @Override
+    public boolean supportsSnapshots() {
+        String url;
+        try {
+            url = jdbcTemplate.getMetaData().getURL();
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to read the database URL", e);
+        }
+        return !url.startsWith("jdbc:h2:tcp:") && !url.startsWith("jdbc:h2:ssl:");
+    }
+
+    @Override
+    protected void doCreateSnapshot(Schema[] schemas, File file) throws SQLException {
+        StringBuilder schemaNames = new StringBuilder();
+        for (Schema schema : schemas) {
+            if (schemaNames.length() > 0) {
+                schemaNames.append(", ");
+            }
+            schemaNames.append(quote(schema.getName()));
+        }
+        jdbcTemplate.execute("SCRIPT NOPASSWORDS TO " + quoteFileName(file) + " SCHEMA " + schemaNames);
+    }
+
+    @Override
+    protected void doRestoreSnapshot(File file) throws SQLException {
+        jdbcTemplate.execute("RUNSCRIPT FROM " + quoteFileName(file));
+    }
+
+    /**
+     * Quotes the name of this file as a string literal.
+     *
+     * @param file The file.
+     * @return The quoted absolute file name.
+     */
+    private String quoteFileName(File file) {
+        return "'" + file.getAbsolutePath().replace("'", "''") + "'";
+    }
+}
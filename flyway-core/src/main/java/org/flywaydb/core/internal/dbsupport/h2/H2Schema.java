@@ -17,6 +17,7 @@ package org.flywaydb.core.internal.dbsupport.h2;
 
 import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
 import org.flywaydb.core.internal.dbsupport.Schema;
+import org.flywaydb.core.internal.dbsupport.SchemaInventory;
 import org.flywaydb.core.internal.dbsupport.Table;
 import org.flywaydb.core.internal.util.StringUtils;
 import org.flywaydb.core.internal.util.logging.Log;
@@ -65,26 +66,27 @@ public class H2Schema extends Schema<H2DbSupport> {
 
     @Override
     protected void doClean() throws SQLException {
-        for (Table table : allTables()) {
-            table.drop();
-        }
+        SchemaInventory inventory = SchemaInventory.load(jdbcTemplate,
+                "SELECT 'TABLE' AS object_type, TABLE_NAME AS object_name FROM INFORMATION_SCHEMA.TABLES"
+                        + " WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'TABLE'"
+                        + " UNION ALL SELECT 'SEQUENCE', SEQUENCE_NAME FROM INFORMATION_SCHEMA.SEQUENCES"
+                        + " WHERE SEQUENCE_SCHEMA = ? AND IS_GENERATED = false"
+                        + " UNION ALL SELECT 'CONSTANT', CONSTANT_NAME FROM INFORMATION_SCHEMA.CONSTANTS"
+                        + " WHERE CONSTANT_SCHEMA = ?"
+                        + " UNION ALL SELECT 'DOMAIN', DOMAIN_NAME FROM INFORMATION_SCHEMA.DOMAINS"
+                        + " WHERE DOMAIN_SCHEMA = ?",
+                name, name, name, name);
 
-        List<String> sequenceNames = listObjectNames("SEQUENCE", "IS_GENERATED = false");
-        for (String statement : generateDropStatements("SEQUENCE", sequenceNames, "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateMultiObjectDropStatements("DROP TABLE", qualify(inventory.getNames("TABLE")), "CASCADE"));
 
-        List<String> constantNames = listObjectNames("CONSTANT", "");
-        for (String statement : generateDropStatements("CONSTANT", constantNames, "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatements("SEQUENCE", inventory.getNames("SEQUENCE"), ""));
+
+        executeDropStatements(generateDropStatements("CONSTANT", inventory.getNames("CONSTANT"), ""));
 
-        List<String> domainNames = listObjectNames("DOMAIN", "");
+        List<String> domainNames = inventory.getNames("DOMAIN");
         if (!domainNames.isEmpty()) {
             if (name.equals(dbSupport.getCurrentSchemaName())) {
-                for (String statement : generateDropStatementsForCurrentSchema("DOMAIN", domainNames, "")) {
-                    jdbcTemplate.execute(statement);
-                }
+                executeDropStatements(generateDropStatementsForCurrentSchema("DOMAIN", domainNames, ""));
             } else {
                 LOG.error("Unable to drop DOMAIN objects in schema " + dbSupport.quote(name)
                         + " due to H2 bug! (More info: http://code.google.com/p/h2database/issues/detail?id=306)");
@@ -92,6 +94,29 @@ public class H2Schema extends Schema<H2DbSupport> {
         }
     }
 
+    @Override
+    protected boolean doRecreate() throws SQLException {
+        if ("PUBLIC".equals(name)) {
+            // The PUBLIC schema can't be dropped. DROP ALL OBJECTS resets the whole database instead, including any
+            // other schema, user and role, so it can only be used if there are none.
+            int others = jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SCHEMATA"
+                    + " WHERE SCHEMA_NAME NOT IN ('INFORMATION_SCHEMA', 'PUBLIC')")
+                    + jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.ROLES WHERE NAME <> 'PUBLIC'")
+                    + jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.USERS") - 1;
+            if (others > 0) {
+                return false;
+            }
+            jdbcTemplate.execute("DROP ALL OBJECTS");
+            return true;
+        }
+
+        String owner = jdbcTemplate.queryForString(
+                "SELECT SCHEMA_OWNER FROM INFORMATION_SCHEMA.SCHEMATA WHERE SCHEMA_NAME = ?", name);
+        jdbcTemplate.execute("DROP SCHEMA " + dbSupport.quote(name));
+        jdbcTemplate.execute("CREATE SCHEMA " + dbSupport.quote(name) + " AUTHORIZATION " + dbSupport.quote(owner));
+        return true;
+    }
+
     /**
      * Generate the statements for dropping all the objects of this type in this schema.
      *
@@ -130,6 +155,21 @@ public class H2Schema extends Schema<H2DbSupport> {
         return statements;
     }
 
+    @Override
+    protected SchemaInventory doLoadReferences() throws SQLException {
+        // H2 doesn't record the dependencies of views. Their definitions are searched for names qualified with another
+        // schema instead, which at worst reports a reference that doesn't exist.
+        return SchemaInventory.load(jdbcTemplate,
+                "SELECT 'FOREIGN KEY' AS object_type, FK_NAME AS object_name, PKTABLE_SCHEMA AS referenced_schema"
+                        + " FROM INFORMATION_SCHEMA.CROSS_REFERENCES WHERE FKTABLE_SCHEMA = ?"
+                        + " UNION ALL SELECT 'VIEW', v.TABLE_NAME, s.SCHEMA_NAME FROM INFORMATION_SCHEMA.VIEWS v"
+                        + " INNER JOIN INFORMATION_SCHEMA.SCHEMATA s"
+                        + " ON v.VIEW_DEFINITION LIKE '%' || s.SCHEMA_NAME || '.%'"
+                        + " OR v.VIEW_DEFINITION LIKE '%\"' || s.SCHEMA_NAME || '\".%'"
+                        + " WHERE v.TABLE_SCHEMA = ?",
+                name, name);
+    }
+
     @Override
     protected Table[] doAllTables() throws SQLException {
         List<String> tableNames = listObjectNames("TABLE", "TABLE_TYPE = 'TABLE'");
@@ -22,8 +22,8 @@ import org.flywaydb.core.internal.dbsupport.SqlStatementBuilder;
  */
 public class H2SqlStatementBuilder extends SqlStatementBuilder {
     @Override
-    protected String extractAlternateOpenQuote(String token) {
-        if (token.startsWith("$$")) {
+    protected String extractAlternateOpenQuote(String line, int pos) {
+        if (line.startsWith("$$", pos) && isTokenStart(line, pos)) {
             return "$$";
         }
         return null;
@@ -35,6 +35,11 @@ import java.util.UUID;
 public class MySQLDbSupport extends DbSupport {
     private static final Log LOG = LogFactory.getLog(MySQLDbSupport.class);
 
+    /**
+     * The maximum time to wait for an advisory lock held by another session (in seconds).
+     */
+    private static final int ADVISORY_LOCK_TIMEOUT = 3600;
+
     /**
      * Creates a new instance.
      *
@@ -121,4 +126,37 @@ public class MySQLDbSupport extends DbSupport {
     public boolean catalogIsSchema() {
         return true;
     }
+
+    @Override
+    public boolean supportsAdvisoryLocks() {
+        return true;
+    }
+
+    @Override
+    protected void doAcquireAdvisoryLock(String name) throws SQLException {
+        // GET_LOCK names are limited to 64 characters as of MySQL 5.7
+        String lockName = "flyway-" + getAdvisoryLockId(name);
+        long deadline = System.currentTimeMillis() + ADVISORY_LOCK_TIMEOUT * 1000L;
+        while (true) {
+            String result = jdbcTemplate.queryForString("SELECT GET_LOCK(?, 10)", lockName);
+            if (result == null) {
+                // GET_LOCK returns NULL when an error occurred, such as running out of memory or the thread being killed
+                throw new FlywayException("Unable to acquire advisory lock " + name + ": GET_LOCK failed");
+            }
+            if ("1".equals(result)) {
+                return;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new FlywayException("Unable to acquire advisory lock " + name + " within "
+                        + ADVISORY_LOCK_TIMEOUT + " seconds");
+            }
+            LOG.debug("Waiting for advisory lock " + name + " ...");
+        }
+    }
+
+    @Override
+    protected void doReleaseAdvisoryLock(String name) throws SQLException {
+        // Unlike the other databases, MySQL does not release named locks on commit
+        jdbcTemplate.queryForString("SELECT RELEASE_LOCK(?)", "flyway-" + getAdvisoryLockId(name));
+    }
 }
@@ -15,9 +15,12 @@
  */
 package org.flywaydb.core.internal.dbsupport.mysql;
 
+import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
 import org.flywaydb.core.internal.dbsupport.Schema;
 import org.flywaydb.core.internal.dbsupport.Table;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -28,6 +31,8 @@ import java.util.Map;
  * MySQL implementation of Schema.
  */
 public class MySQLSchema extends Schema<MySQLDbSupport> {
+    private static final Log LOG = LogFactory.getLog(MySQLSchema.class);
+
     /**
      * Creates a new MySQL schema.
      *
@@ -69,25 +74,72 @@ public class MySQLSchema extends Schema<MySQLDbSupport> {
 
     @Override
     protected void doClean() throws SQLException {
-        for (String statement : cleanEvents()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(cleanEvents());
 
-        for (String statement : cleanRoutines()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(cleanRoutines());
 
-        for (String statement : cleanViews()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(cleanViews());
 
-        jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 0");
+        List<String> tables = new ArrayList<String>();
         for (Table table : allTables()) {
-            table.drop();
+            tables.add(table.toString());
         }
+        jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 0");
+        executeDropStatements(generateMultiObjectDropStatements("DROP TABLE", tables, ""));
         jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 1");
     }
 
+    @Override
+    protected boolean doRecreate() throws SQLException {
+        Map<String, String> defaults = jdbcTemplate.queryForList(
+                "SELECT default_character_set_name AS charset, default_collation_name AS collation"
+                        + " FROM information_schema.schemata WHERE schema_name=?", name).get(0);
+        boolean current = name.equals(dbSupport.getCurrentSchemaName());
+
+        // DROP DATABASE can't be rolled back, so only go ahead when the database can be created again afterwards
+        if (!canDropAndCreate()) {
+            LOG.debug("Missing DROP or CREATE privilege on database " + dbSupport.quote(name) + ", cleaning it instead");
+            return false;
+        }
+
+        // Privileges granted on the database are kept when it is dropped
+        try {
+            jdbcTemplate.execute("DROP DATABASE " + dbSupport.quote(name));
+        } catch (SQLException e) {
+            LOG.debug("Unable to drop database " + dbSupport.quote(name) + ", cleaning it instead: " + e.getMessage());
+            return false;
+        }
+        try {
+            jdbcTemplate.execute("CREATE DATABASE " + dbSupport.quote(name)
+                    + " DEFAULT CHARACTER SET " + defaults.get("charset") + " COLLATE " + defaults.get("collation"));
+        } catch (SQLException e) {
+            throw new FlywayException("Database " + dbSupport.quote(name)
+                    + " has been dropped, but could not be created again. Create it manually and run clean again.", e);
+        }
+        if (current) {
+            jdbcTemplate.execute("USE " + dbSupport.quote(name));
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the current user holds both the DROP and the CREATE privilege on this database, either globally
+     * or through a grant on the database (or a wildcard pattern matching it).
+     *
+     * @return {@code true} if the database can be dropped and created again, {@code false} if not.
+     * @throws SQLException when the privileges could not be read.
+     */
+    private boolean canDropAndCreate() throws SQLException {
+        // CURRENT_USER() returns user@host, while the grantee columns read 'user'@'host'
+        String grantee = jdbcTemplate.queryForString("SELECT CONCAT('''', SUBSTRING_INDEX(CURRENT_USER(), '@', 1),"
+                + " '''@''', SUBSTRING_INDEX(CURRENT_USER(), '@', -1), '''')");
+        return jdbcTemplate.queryForInt("SELECT COUNT(DISTINCT privilege_type) FROM ("
+                + "SELECT privilege_type FROM information_schema.user_privileges WHERE grantee=?"
+                + " UNION ALL"
+                + " SELECT privilege_type FROM information_schema.schema_privileges WHERE grantee=? AND ? LIKE table_schema"
+                + ") p WHERE privilege_type IN ('CREATE', 'DROP')", grantee, grantee, name) == 2;
+    }
+
     /**
      * Generate the statements to clean the events in this schema.
      *
@@ -139,11 +191,7 @@ public class MySQLSchema extends Schema<MySQLDbSupport> {
                 jdbcTemplate.queryForStringList(
                         "SELECT table_name FROM information_schema.views WHERE table_schema=?", name);
 
-        List<String> statements = new ArrayList<String>();
-        for (String viewName : viewNames) {
-            statements.add("DROP VIEW " + dbSupport.quote(name, viewName));
-        }
-        return statements;
+        return generateMultiObjectDropStatements("DROP VIEW", qualify(viewNames), "");
     }
 
     @Override
@@ -17,7 +17,6 @@ package org.flywaydb.core.internal.dbsupport.mysql;
 
 import org.flywaydb.core.internal.dbsupport.Delimiter;
 import org.flywaydb.core.internal.dbsupport.SqlStatementBuilder;
-import org.flywaydb.core.internal.util.StringUtils;
 
 import java.util.regex.Pattern;
 
@@ -29,11 +28,22 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
      * The keyword that indicates a change in delimiter.
      */
     private static final String DELIMITER_KEYWORD = "DELIMITER";
-    private final String[] charSets = {
-            "ARMSCII8", "ASCII", "BIG5", "BINARY", "CP1250", "CP1251", "CP1256", "CP1257", "CP850", "CP852", "CP866", "CP932",
-            "DEC8", "EUCJPMS", "EUCKR", "GB2312", "GBK", "GEOSTD8", "GREEK", "HEBREW", "HP8", "KEYBCS2", "KOI8R", "KOI8U", "LATIN1",
-            "LATIN2", "LATIN5", "LATIN7", "MACCE", "MACROMAN", "SJIS", "SWE7", "TIS620", "UCS2", "UJIS", "UTF8"
-    };
+
+    /**
+     * Matches a comment directive on a single line, such as /*!50003 ... *&#47;
+     */
+    private static final Pattern SINGLE_LINE_COMMENT_DIRECTIVE =
+            Pattern.compile("^" + Pattern.quote("/*!") + "\\d{5} .*" + Pattern.quote("*/") + "\\s*;?");
+
+    /**
+     * Matches the start of a multi-line comment directive.
+     */
+    private static final Pattern COMMENT_DIRECTIVE_START = Pattern.compile("^" + Pattern.quote("/*!") + "\\d{5} .*");
+
+    /**
+     * Matches the last line of a multi-line comment directive.
+     */
+    private static final Pattern COMMENT_DIRECTIVE_END = Pattern.compile(".*" + Pattern.quote("*/") + "\\s*;?");
 
     /*private -> testing*/ boolean isInMultiLineCommentDirective = false;
 
@@ -57,17 +67,18 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
 
     @Override
     public boolean isCommentDirective(String line) {
+        boolean directiveStart = line.startsWith("/*!");
         // single-line comment directive
-        if (line.matches("^" + Pattern.quote("/*!") + "\\d{5} .*" + Pattern.quote("*/") + "\\s*;?")) {
+        if (directiveStart && SINGLE_LINE_COMMENT_DIRECTIVE.matcher(line).matches()) {
             return true;
         }
         // last line of multi-line comment directive
-        if (isInMultiLineCommentDirective && line.matches(".*" + Pattern.quote("*/") + "\\s*;?")) {
+        if (isInMultiLineCommentDirective && COMMENT_DIRECTIVE_END.matcher(line).matches()) {
             isInMultiLineCommentDirective = false;
             return true;
         }
         // start of multi-line comment directive
-        if (line.matches("^" + Pattern.quote("/*!") + "\\d{5} .*")) {
+        if (directiveStart && COMMENT_DIRECTIVE_START.matcher(line).matches()) {
             isInMultiLineCommentDirective = true;
             return true;
         }
@@ -75,52 +86,20 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
     }
 
     @Override
-    protected boolean isSingleLineComment(String line) {
-        return line.startsWith("--") || line.startsWith("#");
+    protected boolean isSingleLineComment(String line, int pos) {
+        return super.isSingleLineComment(line, pos) || ((line.charAt(pos) == '#') && isTokenStart(line, pos));
     }
 
     @Override
-    protected String removeEscapedQuotes(String token) {
-        String noEscapedBackslashes = StringUtils.replaceAll(token, "\\\\", "");
-        String noBackslashEscapes = StringUtils.replaceAll(StringUtils.replaceAll(noEscapedBackslashes, "\\'", ""), "\\\"", "");
-        return StringUtils.replaceAll(noBackslashEscapes, "''", "").replace("'", " ' ");
+    protected boolean isBackslashEscape() {
+        return true;
     }
 
     @Override
-    protected String cleanToken(String token) {
-        if (token.startsWith("_")) {
-            for (String charSet : charSets) {
-                String cast = "_" + charSet;
-                if (token.startsWith(cast)) {
-                    return token.substring(cast.length());
-                }
-            }
-        }
-        // If no matches are found for charset casting then return token
-        return token;
-    }
-
-    @Override
-    protected String extractAlternateOpenQuote(String token) {
-        if (token.startsWith("\"")) {
+    protected String extractAlternateOpenQuote(String line, int pos) {
+        if (line.charAt(pos) == '"') {
             return "\"";
         }
-        // to be a valid bitfield or hex literal the token must be at leas three characters in length
-        // i.e. b'' otherwise token may be string literal ending in [space]b'
-        if (token.startsWith("B'") && token.length() > 2) {
-            return "B'";
-        }
-        if (token.startsWith("X'") && token.length() > 2) {
-            return "X'";
-        }
         return null;
     }
-
-    @Override
-    protected String computeAlternateCloseQuote(String openQuote) {
-        if ("B'".equals(openQuote) || "X'".equals(openQuote)) {
-            return "'";
-        }
-        return openQuote;
-    }
 }
@@ -86,4 +86,21 @@ public class OracleDbSupport extends DbSupport {
     public boolean catalogIsSchema() {
         return false;
     }
+
+    @Override
+    public boolean supportsAdvisoryLocks() {
+        return true;
+    }
+
+    /**
+     * Acquires the lock using DBMS_LOCK. This requires EXECUTE privileges on SYS.DBMS_LOCK.
+     */
+    @Override
+    protected void doAcquireAdvisoryLock(String name) throws SQLException {
+        jdbcTemplate.execute("DECLARE result INTEGER; BEGIN"
+                + " result := DBMS_LOCK.REQUEST(" + getAdvisoryLockId(name) + ", DBMS_LOCK.X_MODE, DBMS_LOCK.MAXWAIT, TRUE);"
+                + " IF result NOT IN (0, 4) THEN"
+                + " RAISE_APPLICATION_ERROR(-20000, 'DBMS_LOCK.REQUEST failed with status ' || result);"
+                + " END IF; END;");
+    }
 }
@@ -18,6 +18,7 @@ package org.flywaydb.core.internal.dbsupport.oracle;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
 import org.flywaydb.core.internal.dbsupport.Schema;
+import org.flywaydb.core.internal.dbsupport.SchemaInventory;
 import org.flywaydb.core.internal.dbsupport.Table;
 import org.flywaydb.core.internal.util.logging.Log;
 import org.flywaydb.core.internal.util.logging.LogFactory;
@@ -71,9 +72,7 @@ public class OracleSchema extends Schema<OracleDbSupport> {
             throw new FlywayException("Clean not supported on Oracle for user 'SYSTEM'! You should NEVER add your own objects to the SYSTEM schema!");
         }
 
-        for (String statement : generateDropStatementsForSpatialExtensions()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForSpatialExtensions());
 
         for (String statement : generateDropStatementsForQueueTables()) {
             try {
@@ -92,61 +91,50 @@ public class OracleSchema extends Schema<OracleDbSupport> {
             executeAlterStatementsForFlashbackTables();
         }
 
-        for (String statement : generateDropStatementsForScheduledJobs()) {
-            jdbcTemplate.execute(statement);
-        }
+        SchemaInventory inventory = loadInventory("TRIGGER", "SEQUENCE", "FUNCTION", "MATERIALIZED VIEW", "PACKAGE",
+                "PROCEDURE", "SYNONYM", "VIEW");
 
-        for (String statement : generateDropStatementsForObjectType("TRIGGER", "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForScheduledJobs());
 
-        for (String statement : generateDropStatementsForObjectType("SEQUENCE", "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "TRIGGER", ""));
 
-        for (String statement : generateDropStatementsForObjectType("FUNCTION", "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "SEQUENCE", ""));
 
-        for (String statement : generateDropStatementsForObjectType("MATERIALIZED VIEW", "PRESERVE TABLE")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "FUNCTION", ""));
 
-        for (String statement : generateDropStatementsForObjectType("PACKAGE", "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "MATERIALIZED VIEW", "PRESERVE TABLE"));
 
-        for (String statement : generateDropStatementsForObjectType("PROCEDURE", "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "PACKAGE", ""));
 
-        for (String statement : generateDropStatementsForObjectType("SYNONYM", "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "PROCEDURE", ""));
 
-        for (String statement : generateDropStatementsForObjectType("VIEW", "CASCADE CONSTRAINTS")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "SYNONYM", ""));
 
-        for (Table table : allTables()) {
-            table.drop();
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "VIEW", "CASCADE CONSTRAINTS"));
 
-        for (String statement : generateDropStatementsForXmlTables()) {
-            jdbcTemplate.execute(statement);
+        if (isCleaningInBatches()) {
+            List<String> statements = new ArrayList<String>();
+            for (Table table : allTables()) {
+                statements.add("DROP TABLE " + table + " CASCADE CONSTRAINTS PURGE");
+            }
+            executeDropStatements(statements);
+        } else {
+            for (Table table : allTables()) {
+                table.drop();
+            }
         }
 
-        for (String statement : generateDropStatementsForObjectType("CLUSTER", "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForXmlTables());
 
-        for (String statement : generateDropStatementsForObjectType("TYPE", "FORCE")) {
-            jdbcTemplate.execute(statement);
-        }
+        // Only list these now, as dropping the objects above also drops the types generated for them, such as the
+        // SYS_PLSQL_ types of pipelined package functions
+        inventory = loadInventory("CLUSTER", "TYPE", "JAVA SOURCE");
 
-        for (String statement : generateDropStatementsForObjectType("JAVA SOURCE", "")) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "CLUSTER", ""));
+
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "TYPE", "FORCE"));
+
+        executeDropStatements(generateDropStatementsForObjectType(inventory, "JAVA SOURCE", ""));
 
         jdbcTemplate.execute("PURGE RECYCLEBIN");
     }
@@ -225,24 +213,43 @@ public class OracleSchema extends Schema<OracleDbSupport> {
                 && (jdbcTemplate.queryForInt("SELECT COUNT(*) FROM all_views WHERE view_name = 'RESOURCE_VIEW'") > 0);
     }
 
+    /**
+     * Loads the inventory of the database objects of these types with a single dictionary query.
+     *
+     * @param objectTypes The types of database objects to load.
+     * @return The inventory.
+     * @throws SQLException when the inventory could not be loaded.
+     */
+    private SchemaInventory loadInventory(String... objectTypes) throws SQLException {
+        StringBuilder typeList = new StringBuilder();
+        for (String objectType : objectTypes) {
+            if (typeList.length() > 0) {
+                typeList.append(", ");
+            }
+            typeList.append("'").append(objectType).append("'");
+        }
+
+        return SchemaInventory.load(jdbcTemplate,
+                "SELECT object_type, object_name FROM all_objects WHERE owner = ?"
+                        + " AND object_type IN (" + typeList + ")"
+                        // Ignore Spatial Index Sequences as they get dropped automatically when the index gets dropped.
+                        + " AND object_name NOT LIKE 'MDRS_%$'"
+                        // Ignore Oracle 12 Identity Sequences as they get dropped automatically when the recycle bin gets purged.
+                        + " AND object_name NOT LIKE 'ISEQ$$_%'",
+                name);
+    }
+
     /**
      * Generates the drop statements for all database objects of this type.
      *
+     * @param inventory      The inventory of the database objects in this schema.
      * @param objectType     The type of database object to drop.
      * @param extraArguments The extra arguments to add to the drop statement.
      * @return The complete drop statements, ready to execute.
-     * @throws SQLException when the drop statements could not be generated.
      */
-    private List<String> generateDropStatementsForObjectType(String objectType, String extraArguments) throws SQLException {
-        String query = "SELECT object_name FROM all_objects WHERE object_type = ? AND owner = ?"
-                // Ignore Spatial Index Sequences as they get dropped automatically when the index gets dropped.
-                + " AND object_name NOT LIKE 'MDRS_%$'"
-                // Ignore Oracle 12 Identity Sequences as they get dropped automatically when the recycle bin gets purged.
-                + " AND object_name NOT LIKE 'ISEQ$$_%'";
-
-        List<String> objectNames = jdbcTemplate.queryForStringList(query, objectType, name);
+    private List<String> generateDropStatementsForObjectType(SchemaInventory inventory, String objectType, String extraArguments) {
         List<String> dropStatements = new ArrayList<String>();
-        for (String objectName : objectNames) {
+        for (String objectName : inventory.getNames(objectType)) {
             dropStatements.add("DROP " + objectType + " " + dbSupport.quote(name, objectName) + " " + extraArguments);
         }
         return dropStatements;
@@ -325,6 +332,19 @@ public class OracleSchema extends Schema<OracleDbSupport> {
         return jdbcTemplate.queryForInt("SELECT COUNT(*) FROM all_views WHERE owner = 'MDSYS' AND view_name = 'USER_SDO_GEOM_METADATA'") > 0;
     }
 
+    @Override
+    protected SchemaInventory doLoadReferences() throws SQLException {
+        return SchemaInventory.load(jdbcTemplate,
+                "SELECT 'FOREIGN KEY' AS object_type, CONSTRAINT_NAME AS object_name, R_OWNER AS referenced_schema"
+                        + " FROM ALL_CONSTRAINTS WHERE OWNER = ? AND CONSTRAINT_TYPE = 'R'"
+                        // Views, synonyms, types, PL/SQL and other objects depending on objects of another schema
+                        + " UNION ALL SELECT TYPE, NAME, REFERENCED_OWNER FROM ALL_DEPENDENCIES"
+                        + " WHERE OWNER = ? AND REFERENCED_LINK_NAME IS NULL"
+                        + " UNION ALL SELECT 'SYNONYM', SYNONYM_NAME, TABLE_OWNER FROM ALL_SYNONYMS"
+                        + " WHERE OWNER = ? AND DB_LINK IS NULL",
+                name, name, name);
+    }
+
     @Override
     protected Table[] doAllTables() throws SQLException {
         List<String> tableNames = jdbcTemplate.queryForStringList(
@@ -19,7 +19,6 @@ import org.flywaydb.core.internal.dbsupport.Delimiter;
 import org.flywaydb.core.internal.dbsupport.SqlStatementBuilder;
 import org.flywaydb.core.internal.util.StringUtils;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -27,14 +26,11 @@ import java.util.regex.Pattern;
  */
 public class OracleSqlStatementBuilder extends SqlStatementBuilder {
     /**
-     * Regex for keywords that can appear before a string literal without being separated by a space.
+     * Regex for statements that create PL/SQL or Java objects and are therefore terminated by the PL/SQL delimiter.
      */
-    private static final Pattern KEYWORDS_BEFORE_STRING_LITERAL_REGEX = Pattern.compile("^(N|IF|ELSIF|SELECT|IMMEDIATE|RETURN|IS)('.*)");
-
-    /**
-     * Regex for keywords that can appear after a string literal without being separated by a space.
-     */
-    private static final Pattern KEYWORDS_AFTER_STRING_LITERAL_REGEX = Pattern.compile("(.*')(USING|THEN|FROM|AND|OR)");
+    private static final Pattern PLSQL_STATEMENT_START_REGEX = Pattern.compile(
+            "CREATE( OR REPLACE)? (FUNCTION|PROCEDURE|PACKAGE|TYPE|TRIGGER).*"
+                    + "|CREATE( OR REPLACE)?( AND (RESOLVE|COMPILE))?( NOFORCE)? JAVA (SOURCE|RESOURCE|CLASS).*");
 
     /**
      * Delimiter of PL/SQL blocks and statements.
@@ -46,9 +42,14 @@ public class OracleSqlStatementBuilder extends SqlStatementBuilder {
      */
     private String statementStart = "";
 
+    /**
+     * Whether the beginning of the statement seen so far indicates a PL/SQL or Java object.
+     */
+    private boolean plsqlStatement;
+
     @Override
     protected Delimiter changeDelimiterIfNecessary(String line, Delimiter delimiter) {
-        if (line.matches("DECLARE|DECLARE\\s.*") || line.matches("BEGIN|BEGIN\\s.*")) {
+        if (startsWithKeyword(line, "DECLARE") || startsWithKeyword(line, "BEGIN")) {
             return PLSQL_DELIMITER;
         }
 
@@ -56,10 +57,10 @@ public class OracleSqlStatementBuilder extends SqlStatementBuilder {
             statementStart += line;
             statementStart += " ";
             statementStart = statementStart.replaceAll("\\s+", " ");
+            plsqlStatement = PLSQL_STATEMENT_START_REGEX.matcher(statementStart).matches();
         }
 
-        if (statementStart.matches("CREATE( OR REPLACE)? (FUNCTION|PROCEDURE|PACKAGE|TYPE|TRIGGER).*")
-                || statementStart.matches("CREATE( OR REPLACE)?( AND (RESOLVE|COMPILE))?( NOFORCE)? JAVA (SOURCE|RESOURCE|CLASS).*")){
+        if (plsqlStatement) {
             return PLSQL_DELIMITER;
         }
 
@@ -67,41 +68,25 @@ public class OracleSqlStatementBuilder extends SqlStatementBuilder {
     }
 
     @Override
-    protected String cleanToken(String token) {
-    	if (token.startsWith("'") && token.endsWith("'")){
-    		return token;
-    	}
-
-        Matcher beforeMatcher = KEYWORDS_BEFORE_STRING_LITERAL_REGEX.matcher(token);
-        if (beforeMatcher.find()) {
-            token = beforeMatcher.group(2);
+    protected String extractAlternateOpenQuote(String line, int pos) {
+        int start = pos;
+        char c = line.charAt(pos);
+        if (((c == 'N') || (c == 'n')) && isTokenStart(line, pos)) {
+            start++;
+        } else if (!isTokenStart(line, pos)) {
+            return null;
         }
 
-        Matcher afterMatcher = KEYWORDS_AFTER_STRING_LITERAL_REGEX.matcher(token);
-        if (afterMatcher.find()) {
-            token = afterMatcher.group(1);
-        }
-
-        return token;
-    }
-
-    @Override
-    protected String simplifyLine(String line) {
-        String simplifiedQQuotes = StringUtils.replaceAll(StringUtils.replaceAll(line, "q'(", "q'["), ")'", "]'");
-        return super.simplifyLine(simplifiedQQuotes);
-    }
-
-    @Override
-    protected String extractAlternateOpenQuote(String token) {
-        if (token.startsWith("Q'") && (token.length() >= 3)) {
-            return token.substring(0, 3);
+        if ((line.length() < start + 3) || !line.regionMatches(true, start, "Q'", 0, 2)
+                || isWhitespace(line.charAt(start + 2))) {
+            return null;
         }
-        return null;
+        return line.substring(pos, start + 3);
     }
 
     @Override
     protected String computeAlternateCloseQuote(String openQuote) {
-        char specialChar = openQuote.charAt(2);
+        char specialChar = openQuote.charAt(openQuote.length() - 1);
         switch (specialChar) {
             case '[':
                 return "]'";
@@ -34,6 +34,11 @@ import java.sql.Types;
  * PostgreSQL-specific support.
  */
 public class PostgreSQLDbSupport extends DbSupport {
+    /**
+     * The first key of all advisory locks taken by Flyway, to avoid clashing with advisory locks of the application.
+     */
+    private static final int ADVISORY_LOCK_CLASS_ID = 0x466C7977;
+
     /**
      * Creates a new instance.
      *
@@ -142,4 +147,14 @@ public class PostgreSQLDbSupport extends DbSupport {
             throw new SQLException("Unable to execute COPY operation", e);
         }
     }
+
+    @Override
+    public boolean supportsAdvisoryLocks() {
+        return true;
+    }
+
+    @Override
+    protected void doAcquireAdvisoryLock(String name) throws SQLException {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + ADVISORY_LOCK_CLASS_ID + "," + getAdvisoryLockId(name) + ")");
+    }
 }
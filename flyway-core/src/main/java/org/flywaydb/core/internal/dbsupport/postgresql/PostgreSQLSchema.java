@@ -17,6 +17,7 @@ package org.flywaydb.core.internal.dbsupport.postgresql;
 
 import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
 import org.flywaydb.core.internal.dbsupport.Schema;
+import org.flywaydb.core.internal.dbsupport.SchemaInventory;
 import org.flywaydb.core.internal.dbsupport.Table;
 import org.flywaydb.core.internal.dbsupport.Type;
 
@@ -65,192 +66,177 @@ public class PostgreSQLSchema extends Schema<PostgreSQLDbSupport> {
 
     @Override
     protected void doClean() throws SQLException {
-        for (String statement : generateDropStatementsForViews()) {
-            jdbcTemplate.execute(statement);
-        }
+        SchemaInventory inventory = loadInventory();
 
-        for (Table table : allTables()) {
-            table.drop();
-        }
+        executeDropStatements(generateMultiObjectDropStatements("DROP VIEW IF EXISTS",
+                qualify(inventory.getNames("VIEW")), "CASCADE"));
 
-        for (String statement : generateDropStatementsForSequences()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateMultiObjectDropStatements("DROP TABLE IF EXISTS",
+                qualify(inventory.getNames("TABLE")), "CASCADE"));
 
-        for (String statement : generateDropStatementsForBaseTypes(true)) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateMultiObjectDropStatements("DROP SEQUENCE IF EXISTS",
+                qualify(inventory.getNames("SEQUENCE")), ""));
 
-        for (String statement : generateDropStatementsForAggregates()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForBaseTypes(inventory, true));
 
-        for (String statement : generateDropStatementsForRoutines()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForRoutines(inventory, "AGGREGATE"));
 
-        for (String statement : generateDropStatementsForEnums()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateDropStatementsForRoutines(inventory, "FUNCTION"));
 
-        for (String statement : generateDropStatementsForDomains()) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateMultiObjectDropStatements("DROP TYPE IF EXISTS",
+                qualify(inventory.getNames("ENUM")), ""));
 
-        for (String statement : generateDropStatementsForBaseTypes(false)) {
-            jdbcTemplate.execute(statement);
-        }
+        executeDropStatements(generateMultiObjectDropStatements("DROP DOMAIN IF EXISTS",
+                qualify(inventory.getNames("DOMAIN")), ""));
 
-        for (Type type : allTypes()) {
-            type.drop();
-        }
+        executeDropStatements(generateDropStatementsForBaseTypes(inventory, false));
+
+        executeDropStatements(generateMultiObjectDropStatements("DROP TYPE IF EXISTS",
+                qualify(inventory.getNames("COMPOSITE TYPE")), ""));
     }
 
     /**
-     * Generates the statements for dropping the sequences in this schema.
+     * Generates the statements for dropping the aggregates or functions in this schema.
      *
+     * @param inventory   The inventory of this schema.
+     * @param routineType The type of routine to drop (AGGREGATE or FUNCTION).
      * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
      */
-    private List<String> generateDropStatementsForSequences() throws SQLException {
-        List<String> sequenceNames =
-                jdbcTemplate.queryForStringList(
-                        "SELECT sequence_name FROM information_schema.sequences WHERE sequence_schema=?", name);
-
+    private List<String> generateDropStatementsForRoutines(SchemaInventory inventory, String routineType) {
         List<String> statements = new ArrayList<String>();
-        for (String sequenceName : sequenceNames) {
-            statements.add("DROP SEQUENCE IF EXISTS " + dbSupport.quote(name, sequenceName));
+        for (Map<String, String> routine : inventory.getObjects(routineType)) {
+            statements.add("DROP " + routineType + " IF EXISTS "
+                    + dbSupport.quote(name, routine.get(SchemaInventory.OBJECT_NAME)) + "(" + routine.get("args") + ") CASCADE");
         }
-
         return statements;
     }
 
-    /**
-     * Generates the statements for dropping the types in this schema.
-     *
-     * @param recreate Flag indicating whether the types should be recreated. Necessary for type-function chicken and egg problem.
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> generateDropStatementsForBaseTypes(boolean recreate) throws SQLException {
-        List<String> typeNames =
-                jdbcTemplate.queryForStringList(
-                        "select typname from pg_catalog.pg_type where typcategory in ('P', 'U') and typnamespace in (select oid from pg_catalog.pg_namespace where nspname = ?)",
-                        name);
-
-        List<String> statements = new ArrayList<String>();
-        for (String typeName : typeNames) {
-            statements.add("DROP TYPE IF EXISTS " + dbSupport.quote(name, typeName) + " CASCADE");
+    @Override
+    protected boolean doRecreate() throws SQLException {
+        // Extensions (9.1) and the explosion of access privileges (9.0) are required to check and restore the schema
+        int majorVersion = jdbcTemplate.getMetaData().getDatabaseMajorVersion();
+        int minorVersion = jdbcTemplate.getMetaData().getDatabaseMinorVersion();
+        if ((majorVersion < 9) || ((majorVersion == 9) && (minorVersion < 1))) {
+            return false;
         }
 
-        if (recreate) {
-            for (String typeName : typeNames) {
-                statements.add("CREATE TYPE " + dbSupport.quote(name, typeName));
-            }
+        Map<String, String> schema = jdbcTemplate.queryForList(
+                "SELECT pg_get_userbyid(n.nspowner) AS owner, obj_description(n.oid, 'pg_namespace') AS description,"
+                        + " CASE WHEN pg_has_role(n.nspowner, 'MEMBER') THEN 1 ELSE 0 END AS member,"
+                        + " CASE WHEN has_database_privilege(current_database(), 'CREATE') THEN 1 ELSE 0 END AS can_create,"
+                        + " (SELECT COUNT(*) FROM pg_extension e WHERE e.extnamespace = n.oid)"
+                        + " + (SELECT COUNT(*) FROM pg_default_acl d WHERE d.defaclnamespace = n.oid) AS dependents"
+                        + " FROM pg_namespace n WHERE n.nspname = ?", name).get(0);
+        // The schema must be created again after the drop, and extensions and default privileges would be lost along
+        // with it
+        if ("0".equals(schema.get("member")) || "0".equals(schema.get("can_create"))
+                || !"0".equals(schema.get("dependents"))) {
+            return false;
         }
 
-        return statements;
-    }
-
-    /**
-     * Generates the statements for dropping the aggregates in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> generateDropStatementsForAggregates() throws SQLException {
-        List<Map<String, String>> rows =
-                jdbcTemplate.queryForList(
-                        "SELECT proname, oidvectortypes(proargtypes) AS args "
-                                + "FROM pg_proc INNER JOIN pg_namespace ns ON (pg_proc.pronamespace = ns.oid) "
-                                + "WHERE pg_proc.proisagg = true AND ns.nspname = ?",
-                        name
-                );
+        List<Map<String, String>> grants = jdbcTemplate.queryForList(
+                "SELECT CASE WHEN a.grantee = 0 THEN 'PUBLIC' ELSE quote_ident(pg_get_userbyid(a.grantee)) END AS grantee,"
+                        + " a.privilege_type,"
+                        + " CASE WHEN a.is_grantable THEN ' WITH GRANT OPTION' ELSE '' END AS grant_option"
+                        + " FROM pg_namespace n, aclexplode(n.nspacl) a WHERE n.nspname = ? AND a.grantee <> n.nspowner",
+                name);
 
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : rows) {
-            statements.add("DROP AGGREGATE IF EXISTS " + dbSupport.quote(name, row.get("proname")) + "(" + row.get("args") + ") CASCADE");
+        jdbcTemplate.execute("DROP SCHEMA " + dbSupport.quote(name) + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + dbSupport.quote(name) + " AUTHORIZATION " + dbSupport.quote(schema.get("owner")));
+        for (Map<String, String> grant : grants) {
+            jdbcTemplate.execute("GRANT " + grant.get("privilege_type") + " ON SCHEMA " + dbSupport.quote(name)
+                    + " TO " + grant.get("grantee") + grant.get("grant_option"));
         }
-        return statements;
+        if (schema.get("description") != null) {
+            jdbcTemplate.execute("COMMENT ON SCHEMA " + dbSupport.quote(name)
+                    + " IS '" + schema.get("description").replace("'", "''") + "'");
+        }
+        return true;
     }
 
     /**
-     * Generates the statements for dropping the routines in this schema.
+     * Loads the inventory of all objects in this schema with a single catalog query. As the inventory is taken before
+     * anything is dropped, all drop statements generated from it must tolerate objects that have already been dropped
+     * along with others (IF EXISTS).
      *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
+     * @return The inventory.
+     * @throws SQLException when the inventory could not be loaded.
      */
-    private List<String> generateDropStatementsForRoutines() throws SQLException {
-        List<Map<String, String>> rows =
-                jdbcTemplate.queryForList(
-                        "SELECT proname, oidvectortypes(proargtypes) AS args "
-                                + "FROM pg_proc INNER JOIN pg_namespace ns ON (pg_proc.pronamespace = ns.oid) "
-                                + "WHERE pg_proc.proisagg = false AND ns.nspname = ?",
-                        name
-                );
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : rows) {
-            statements.add("DROP FUNCTION IF EXISTS " + dbSupport.quote(name, row.get("proname")) + "(" + row.get("args") + ") CASCADE");
-        }
-        return statements;
+    private SchemaInventory loadInventory() throws SQLException {
+        return SchemaInventory.load(jdbcTemplate,
+                "SELECT 'VIEW'::text AS object_type, table_name::text AS object_name, NULL::text AS args"
+                        + " FROM information_schema.views WHERE table_schema=?"
+                        // Views and child tables (= that inherit from another table) are excluded
+                        // as they are dropped with the parent table when using cascade.
+                        + " UNION ALL SELECT 'TABLE', t.table_name::text, NULL FROM information_schema.tables t"
+                        + " WHERE table_schema=? AND table_type='BASE TABLE'"
+                        + " AND NOT (SELECT EXISTS (SELECT inhrelid FROM pg_catalog.pg_inherits"
+                        + " WHERE inhrelid = (quote_ident(t.table_schema)||'.'||quote_ident(t.table_name))::regclass::oid))"
+                        + " UNION ALL SELECT 'SEQUENCE', sequence_name::text, NULL"
+                        + " FROM information_schema.sequences WHERE sequence_schema=?"
+                        + " UNION ALL SELECT 'BASE TYPE', t.typname::text, NULL"
+                        + " FROM pg_catalog.pg_type t INNER JOIN pg_catalog.pg_namespace n ON n.oid = t.typnamespace"
+                        + " WHERE n.nspname=? AND t.typcategory IN ('P', 'U')"
+                        + " UNION ALL SELECT CASE WHEN p.proisagg THEN 'AGGREGATE' ELSE 'FUNCTION' END, p.proname::text,"
+                        + " oidvectortypes(p.proargtypes)"
+                        + " FROM pg_proc p INNER JOIN pg_namespace n ON p.pronamespace = n.oid WHERE n.nspname=?"
+                        + " UNION ALL SELECT 'ENUM', t.typname::text, NULL"
+                        + " FROM pg_catalog.pg_type t INNER JOIN pg_catalog.pg_namespace n ON n.oid = t.typnamespace"
+                        + " WHERE n.nspname=? AND t.typtype = 'e'"
+                        + " UNION ALL SELECT 'DOMAIN', domain_name::text, NULL"
+                        + " FROM information_schema.domains WHERE domain_schema=?"
+                        // Standalone composite types, as opposed to the row types of tables and views
+                        + " UNION ALL SELECT 'COMPOSITE TYPE', t.typname::text, NULL"
+                        + " FROM pg_catalog.pg_type t INNER JOIN pg_catalog.pg_namespace n ON n.oid = t.typnamespace"
+                        + " INNER JOIN pg_catalog.pg_class c ON c.oid = t.typrelid"
+                        + " WHERE n.nspname=? AND t.typtype = 'c' AND c.relkind = 'c'",
+                name, name, name, name, name, name, name, name);
     }
 
     /**
-     * Generates the statements for dropping the enums in this schema.
+     * Generates the statements for dropping the base types in this schema.
      *
+     * @param inventory The inventory of this schema.
+     * @param recreate  Flag indicating whether the types should be recreated. Necessary for type-function chicken and egg problem.
      * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
      */
-    private List<String> generateDropStatementsForEnums() throws SQLException {
-        List<String> enumNames =
-                jdbcTemplate.queryForStringList(
-                        "SELECT t.typname FROM pg_catalog.pg_type t INNER JOIN pg_catalog.pg_namespace n ON n.oid = t.typnamespace WHERE n.nspname = ? and t.typtype = 'e'", name);
+    private List<String> generateDropStatementsForBaseTypes(SchemaInventory inventory, boolean recreate) {
+        List<String> typeNames = inventory.getNames("BASE TYPE");
 
         List<String> statements = new ArrayList<String>();
-        for (String enumName : enumNames) {
-            statements.add("DROP TYPE " + dbSupport.quote(name, enumName));
+        for (String typeName : typeNames) {
+            statements.add("DROP TYPE IF EXISTS " + dbSupport.quote(name, typeName) + " CASCADE");
         }
 
-        return statements;
-    }
-
-    /**
-     * Generates the statements for dropping the domains in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> generateDropStatementsForDomains() throws SQLException {
-        List<String> domainNames =
-                jdbcTemplate.queryForStringList(
-                        "SELECT domain_name FROM information_schema.domains WHERE domain_schema=?", name);
-
-        List<String> statements = new ArrayList<String>();
-        for (String domainName : domainNames) {
-            statements.add("DROP DOMAIN " + dbSupport.quote(name, domainName));
+        if (recreate) {
+            for (String typeName : typeNames) {
+                statements.add("CREATE TYPE " + dbSupport.quote(name, typeName));
+            }
         }
 
         return statements;
     }
 
-    /**
-     * Generates the statements for dropping the views in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> generateDropStatementsForViews() throws SQLException {
-        List<String> viewNames =
-                jdbcTemplate.queryForStringList(
-                        "SELECT table_name FROM information_schema.views WHERE table_schema=?", name);
-
-        List<String> statements = new ArrayList<String>();
-        for (String domainName : viewNames) {
-            statements.add("DROP VIEW IF EXISTS " + dbSupport.quote(name, domainName) + " CASCADE");
-        }
-
-        return statements;
+    @Override
+    protected SchemaInventory doLoadReferences() throws SQLException {
+        return SchemaInventory.load(jdbcTemplate,
+                "SELECT 'FOREIGN KEY'::text AS object_type, c.conname::text AS object_name,"
+                        + " rn.nspname::text AS referenced_schema FROM pg_catalog.pg_constraint c"
+                        + " INNER JOIN pg_catalog.pg_namespace n ON n.oid = c.connamespace"
+                        + " INNER JOIN pg_catalog.pg_class r ON r.oid = c.confrelid"
+                        + " INNER JOIN pg_catalog.pg_namespace rn ON rn.oid = r.relnamespace"
+                        + " WHERE c.contype = 'f' AND n.nspname = ?"
+                        // Views depend on the tables and views they select from through their rewrite rule
+                        + " UNION ALL SELECT 'VIEW', v.relname::text, rn.nspname::text FROM pg_catalog.pg_rewrite w"
+                        + " INNER JOIN pg_catalog.pg_class v ON v.oid = w.ev_class"
+                        + " INNER JOIN pg_catalog.pg_namespace n ON n.oid = v.relnamespace"
+                        + " INNER JOIN pg_catalog.pg_depend d ON d.objid = w.oid"
+                        + " AND d.classid = 'pg_catalog.pg_rewrite'::regclass"
+                        + " AND d.refclassid = 'pg_catalog.pg_class'::regclass"
+                        + " INNER JOIN pg_catalog.pg_class r ON r.oid = d.refobjid"
+                        + " INNER JOIN pg_catalog.pg_namespace rn ON rn.oid = r.relnamespace"
+                        + " WHERE n.nspname = ?",
+                name, name);
     }
 
     @Override
@@ -36,6 +36,11 @@ public class PostgreSQLSqlStatementBuilder extends SqlStatementBuilder {
     /*private -> for testing*/
     static final String DOLLAR_QUOTE_REGEX = "(\\$[A-Za-z0-9_]*\\$).*";
 
+    /**
+     * Compiled form of {@link #DOLLAR_QUOTE_REGEX}.
+     */
+    private static final Pattern DOLLAR_QUOTE_PATTERN = Pattern.compile(DOLLAR_QUOTE_REGEX);
+
     /**
      * Are we at the beginning of the statement.
      */
@@ -52,9 +57,13 @@ public class PostgreSQLSqlStatementBuilder extends SqlStatementBuilder {
     private boolean pgCopy;
 
     @Override
-    protected String extractAlternateOpenQuote(String token) {
-        Matcher matcher = Pattern.compile(DOLLAR_QUOTE_REGEX).matcher(token);
-        if (matcher.find()) {
+    protected String extractAlternateOpenQuote(String line, int pos) {
+        if ((line.charAt(pos) != '$') || !isTokenStart(line, pos)) {
+            return null;
+        }
+        Matcher matcher = DOLLAR_QUOTE_PATTERN.matcher(line);
+        matcher.region(pos, line.length());
+        if (matcher.lookingAt()) {
             return matcher.group(1);
         }
         return null;
@@ -68,7 +77,7 @@ public class PostgreSQLSqlStatementBuilder extends SqlStatementBuilder {
 
         if (firstLine) {
             firstLine = false;
-            if (line.matches("COPY|COPY\\s.*")) {
+            if (startsWithKeyword(line, "COPY")) {
                 copyStatement = line;
             }
         } else if (copyStatement != null) {
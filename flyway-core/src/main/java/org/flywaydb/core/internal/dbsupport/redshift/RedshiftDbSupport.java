@@ -60,6 +60,12 @@ public class RedshiftDbSupport extends PostgreSQLDbSupport {
         return new RedshiftSchema(jdbcTemplate, this, name);
     }
 
+    @Override
+    public boolean supportsAdvisoryLocks() {
+        // Redshift does not support pg_advisory_xact_lock
+        return false;
+    }
+
     /**
      * @return {@code true} if we are connected to Redshift; {@code false} otherwise
      */
@@ -102,4 +102,17 @@ public class SQLServerDbSupport extends DbSupport {
     public boolean catalogIsSchema() {
         return false;
     }
+
+    @Override
+    public boolean supportsAdvisoryLocks() {
+        return true;
+    }
+
+    @Override
+    protected void doAcquireAdvisoryLock(String name) throws SQLException {
+        jdbcTemplate.execute("DECLARE @result INT\n"
+                + "EXEC @result = sp_getapplock @Resource = 'flyway-" + getAdvisoryLockId(name) + "',"
+                + " @LockMode = 'Exclusive', @LockOwner = 'Transaction', @LockTimeout = -1\n"
+                + "IF @result < 0 RAISERROR('sp_getapplock failed with status %d', 16, 1, @result)");
+    }
 }
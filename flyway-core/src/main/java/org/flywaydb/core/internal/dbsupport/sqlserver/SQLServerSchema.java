@@ -17,6 +17,7 @@ package org.flywaydb.core.internal.dbsupport.sqlserver;
 
 import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
 import org.flywaydb.core.internal.dbsupport.Schema;
+import org.flywaydb.core.internal.dbsupport.SchemaInventory;
 import org.flywaydb.core.internal.dbsupport.Table;
 
 import java.sql.SQLException;
@@ -72,191 +73,82 @@ public class SQLServerSchema extends Schema<SQLServerDbSupport> {
 
     @Override
     protected void doClean() throws SQLException {
-        for (String statement : cleanForeignKeys()) {
-            jdbcTemplate.execute(statement);
-        }
-
-        for (String statement : cleanDefaultConstraints()) {
-            jdbcTemplate.execute(statement);
-        }
-
-        for (String statement : cleanRoutines()) {
-            jdbcTemplate.execute(statement);
-        }
-
-        for (String statement : cleanViews()) {
-            jdbcTemplate.execute(statement);
-        }
-
-        for (Table table : allTables()) {
-            table.drop();
-        }
-
-        for (String statement : cleanTypes()) {
-            jdbcTemplate.execute(statement);
-        }
-
-        for (String statement : cleanSynonyms()) {
-            jdbcTemplate.execute(statement);
-        }
-
-        if (jdbcTemplate.getMetaData().getDatabaseMajorVersion() >= 11) {
-            for (String statement : cleanSequences()) {
-                jdbcTemplate.execute(statement);
-            }
-        }
-    }
-
-    /**
-     * Cleans the foreign keys in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> cleanForeignKeys() throws SQLException {
-        @SuppressWarnings({"unchecked"})
-        List<Map<String, String>> constraintNames =
-                jdbcTemplate.queryForList(
-                        "SELECT table_name, constraint_name FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS" +
-                                " WHERE constraint_type in ('FOREIGN KEY','CHECK') and table_schema=?",
-                        name
-                );
+        SchemaInventory inventory = loadInventory();
 
         List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : constraintNames) {
-            String tableName = row.get("table_name");
-            String constraintName = row.get("constraint_name");
-            statements.add("ALTER TABLE " + dbSupport.quote(name, tableName) + " DROP CONSTRAINT " + dbSupport.quote(constraintName));
+        for (Map<String, String> constraint : inventory.getObjects("CONSTRAINT")) {
+            statements.add("ALTER TABLE " + dbSupport.quote(name, constraint.get("table_name"))
+                    + " DROP CONSTRAINT " + dbSupport.quote(constraint.get(SchemaInventory.OBJECT_NAME)));
         }
-        return statements;
-    }
-
-    /**
-     * Cleans the default constraints in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> cleanDefaultConstraints() throws SQLException {
-        @SuppressWarnings({"unchecked"})
-        List<Map<String, String>> constraintNames =
-                jdbcTemplate.queryForList(
-                        "select t.name as table_name, d.name as constraint_name" +
-                                " from sys.tables t" +
-                                " inner join sys.default_constraints d on d.parent_object_id = t.object_id\n" +
-                                " inner join sys.schemas s on s.schema_id = t.schema_id\n" +
-                                " where s.name = ?",
-                        name
-                );
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : constraintNames) {
-            String tableName = row.get("table_name");
-            String constraintName = row.get("constraint_name");
-            statements.add("ALTER TABLE " + dbSupport.quote(name, tableName) + " DROP CONSTRAINT " + dbSupport.quote(constraintName));
+        for (Map<String, String> routine : inventory.getObjects("ROUTINE")) {
+            statements.add("DROP " + routine.get("routine_type") + " "
+                    + dbSupport.quote(name, routine.get(SchemaInventory.OBJECT_NAME)));
         }
-        return statements;
-    }
+        executeDropStatements(statements);
 
-    /**
-     * Cleans the routines in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> cleanRoutines() throws SQLException {
-        @SuppressWarnings({"unchecked"})
-        List<Map<String, String>> routineNames =
-                jdbcTemplate.queryForList("SELECT routine_name, routine_type FROM INFORMATION_SCHEMA.ROUTINES" +
-                                " WHERE routine_schema=?",
-                        name
-                );
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : routineNames) {
-            String routineName = row.get("routine_name");
-            String routineType = row.get("routine_type");
-            statements.add("DROP " + routineType + " " + dbSupport.quote(name, routineName));
-        }
-        return statements;
-    }
+        executeDropStatements(generateMultiObjectDropStatements("DROP VIEW", qualify(inventory.getNames("VIEW")), ""));
 
-    /**
-     * Cleans the views in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> cleanViews() throws SQLException {
-        List<String> viewNames =
-                jdbcTemplate.queryForStringList("SELECT table_name FROM INFORMATION_SCHEMA.VIEWS WHERE table_schema=?",
-                        name);
+        executeDropStatements(generateMultiObjectDropStatements("DROP TABLE", qualify(inventory.getNames("TABLE")), ""));
 
-        List<String> statements = new ArrayList<String>();
-        for (String viewName : viewNames) {
-            statements.add("DROP VIEW " + dbSupport.quote(name, viewName));
-        }
-        return statements;
-    }
-
-    /**
-     * Cleans the types in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> cleanTypes() throws SQLException {
-        List<String> typeNames =
-                jdbcTemplate.queryForStringList(
-                        "SELECT t.name FROM sys.types t INNER JOIN sys.schemas s ON t.schema_id = s.schema_id" +
-                                " WHERE t.is_user_defined = 1 AND s.name = ?",
-                        name
-                );
-
-        List<String> statements = new ArrayList<String>();
-        for (String typeName : typeNames) {
+        statements = new ArrayList<String>();
+        for (String typeName : inventory.getNames("TYPE")) {
             statements.add("DROP TYPE " + dbSupport.quote(name, typeName));
         }
-        return statements;
-    }
-
-    /**
-     * Cleans the synonyms in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> cleanSynonyms() throws SQLException {
-        List<String> synonymNames =
-                jdbcTemplate.queryForStringList(
-                        "SELECT sn.name FROM sys.synonyms sn INNER JOIN sys.schemas s ON sn.schema_id = s.schema_id" +
-                                " WHERE s.name = ?",
-                        name
-                );
-
-        List<String> statements = new ArrayList<String>();
-        for (String synonymName : synonymNames) {
+        for (String synonymName : inventory.getNames("SYNONYM")) {
             statements.add("DROP SYNONYM " + dbSupport.quote(name, synonymName));
         }
-        return statements;
+        executeDropStatements(statements);
+
+        executeDropStatements(generateMultiObjectDropStatements("DROP SEQUENCE", qualify(inventory.getNames("SEQUENCE")), ""));
     }
 
     /**
-     * Cleans the sequences in this schema.
+     * Loads the inventory of all objects in this schema with a single catalog query. Foreign key, check and default
+     * constraints come first, so they are all dropped before the routines, views and tables they refer to.
      *
-     * @return The drop statements.
-     * @throws SQLException when the clean statements could not be generated.
+     * @return The inventory.
+     * @throws SQLException when the inventory could not be loaded.
      */
-    private List<String> cleanSequences() throws SQLException {
-        List<String> names =
-                jdbcTemplate.queryForStringList(
-                        "SELECT sequence_name FROM INFORMATION_SCHEMA.SEQUENCES WHERE sequence_schema=?", name);
+    private SchemaInventory loadInventory() throws SQLException {
+        String query = "SELECT 'CONSTRAINT' AS object_type, constraint_name AS object_name, table_name,"
+                + " CAST(NULL AS nvarchar(128)) AS routine_type FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS"
+                + " WHERE constraint_type in ('FOREIGN KEY','CHECK') and table_schema=?"
+                + " UNION ALL SELECT 'CONSTRAINT', d.name, t.name, NULL FROM sys.tables t"
+                + " INNER JOIN sys.default_constraints d ON d.parent_object_id = t.object_id"
+                + " INNER JOIN sys.schemas s ON s.schema_id = t.schema_id WHERE s.name = ?"
+                + " UNION ALL SELECT 'ROUTINE', routine_name, NULL, routine_type FROM INFORMATION_SCHEMA.ROUTINES"
+                + " WHERE routine_schema=?"
+                + " UNION ALL SELECT 'VIEW', table_name, NULL, NULL FROM INFORMATION_SCHEMA.VIEWS WHERE table_schema=?"
+                + " UNION ALL SELECT 'TABLE', table_name, NULL, NULL FROM INFORMATION_SCHEMA.TABLES"
+                + " WHERE table_type='BASE TABLE' and table_schema=?"
+                + " UNION ALL SELECT 'TYPE', t.name, NULL, NULL FROM sys.types t"
+                + " INNER JOIN sys.schemas s ON t.schema_id = s.schema_id WHERE t.is_user_defined = 1 AND s.name = ?"
+                + " UNION ALL SELECT 'SYNONYM', sn.name, NULL, NULL FROM sys.synonyms sn"
+                + " INNER JOIN sys.schemas s ON sn.schema_id = s.schema_id WHERE s.name = ?";
+        if (jdbcTemplate.getMetaData().getDatabaseMajorVersion() < 11) {
+            return SchemaInventory.load(jdbcTemplate, query, name, name, name, name, name, name, name);
+        }
+
+        // Sequences are only available as of SQL Server 2012
+        return SchemaInventory.load(jdbcTemplate, query
+                        + " UNION ALL SELECT 'SEQUENCE', sequence_name, NULL, NULL FROM INFORMATION_SCHEMA.SEQUENCES"
+                        + " WHERE sequence_schema=?",
+                name, name, name, name, name, name, name, name);
+    }
 
-        List<String> statements = new ArrayList<String>();
-        for (String sequenceName : names) {
-            statements.add("DROP SEQUENCE " + dbSupport.quote(name, sequenceName));
-        }
-        return statements;
+    @Override
+    protected SchemaInventory doLoadReferences() throws SQLException {
+        return SchemaInventory.load(jdbcTemplate,
+                "SELECT 'FOREIGN KEY' AS object_type, fk.name AS object_name,"
+                        + " OBJECT_SCHEMA_NAME(fk.referenced_object_id) AS referenced_schema FROM sys.foreign_keys fk"
+                        + " WHERE OBJECT_SCHEMA_NAME(fk.parent_object_id) = ?"
+                        // Views, routines and triggers referring to objects of another schema in this database
+                        + " UNION ALL SELECT 'MODULE', OBJECT_NAME(d.referencing_id), d.referenced_schema_name"
+                        + " FROM sys.sql_expression_dependencies d WHERE OBJECT_SCHEMA_NAME(d.referencing_id) = ?"
+                        + " AND d.referenced_database_name IS NULL AND d.referenced_schema_name IS NOT NULL"
+                        + " UNION ALL SELECT 'SYNONYM', s.name, PARSENAME(s.base_object_name, 2) FROM sys.synonyms s"
+                        + " WHERE SCHEMA_NAME(s.schema_id) = ? AND PARSENAME(s.base_object_name, 3) IS NULL",
+                name, name, name);
     }
 
     @Override
@@ -29,6 +29,12 @@ public interface MetaDataTable {
      */
     void lock();
 
+    /**
+     * Releases the lock acquired by {@link #lock()} in case the database doesn't release it automatically on commit.
+     * To be called once the transaction in which the lock was acquired has ended.
+     */
+    void unlock();
+
     /**
      * Adds this migration as executed to the metadata table.
      *
@@ -49,6 +55,22 @@ public interface MetaDataTable {
      */
     List<AppliedMigration> allAppliedMigrations();
 
+    /**
+     * Retrieves the highest installed rank currently recorded in the metadata table. This is a cheap query that can be
+     * used to detect whether the metadata table has been modified since it was last read.
+     *
+     * @return The highest installed rank. {@code 0} if the metadata table is empty or doesn't exist yet.
+     */
+    int getLatestInstalledRank();
+
+    /**
+     * Retrieves the most recently installed migration, including whether it succeeded. Like
+     * {@link #getLatestInstalledRank()} this only reads a single row and is cheap enough to be polled.
+     *
+     * @return The applied migration with the highest installed rank. {@code null} if there is none.
+     */
+    AppliedMigration getLatestAppliedMigration();
+
     /**
      * Creates and initializes the Flyway metadata table.
      *
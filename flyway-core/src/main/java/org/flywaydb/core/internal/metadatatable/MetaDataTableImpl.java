@@ -59,6 +59,16 @@ public class MetaDataTableImpl implements MetaDataTable {
      */
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Whether to lock using a database advisory lock instead of locking the table, where the database supports it.
+     */
+    private final boolean advisoryLock;
+
+    /**
+     * Whether to keep the version ranks of all rows in version order when inserting, for older clients relying on them.
+     */
+    private final boolean legacyVersionRank;
+
     /**
      * Creates a new instance of the metadata table support.
      *
@@ -66,9 +76,38 @@ public class MetaDataTableImpl implements MetaDataTable {
      * @param table     The metadata table used by flyway.
      */
     public MetaDataTableImpl(DbSupport dbSupport, Table table) {
+        this(dbSupport, table, false);
+    }
+
+    /**
+     * Creates a new instance of the metadata table support.
+     *
+     * @param dbSupport    Database-specific functionality.
+     * @param table        The metadata table used by flyway.
+     * @param advisoryLock Whether to lock using a database advisory lock instead of locking the table, where the
+     *                     database supports it. Advisory locks don't block readers of the metadata table.
+     */
+    public MetaDataTableImpl(DbSupport dbSupport, Table table, boolean advisoryLock) {
+        this(dbSupport, table, advisoryLock, false);
+    }
+
+    /**
+     * Creates a new instance of the metadata table support.
+     *
+     * @param dbSupport         Database-specific functionality.
+     * @param table             The metadata table used by flyway.
+     * @param advisoryLock      Whether to lock using a database advisory lock instead of locking the table, where the
+     *                          database supports it. Advisory locks don't block readers of the metadata table.
+     * @param legacyVersionRank Whether to keep the version ranks of all rows in version order when inserting, for
+     *                          older clients relying on them. Every out of order migration then reads all versions
+     *                          and shifts the ranks of the later rows.
+     */
+    public MetaDataTableImpl(DbSupport dbSupport, Table table, boolean advisoryLock, boolean legacyVersionRank) {
         this.jdbcTemplate = dbSupport.getJdbcTemplate();
         this.dbSupport = dbSupport;
         this.table = table;
+        this.advisoryLock = advisoryLock;
+        this.legacyVersionRank = legacyVersionRank;
     }
 
     /**
@@ -98,7 +137,26 @@ public class MetaDataTableImpl implements MetaDataTable {
     @Override
     public void lock() {
         createIfNotExists();
-        table.lock();
+        if (useAdvisoryLock()) {
+            LOG.debug("Acquiring advisory lock for " + table + " ...");
+            dbSupport.acquireAdvisoryLock(table.toString());
+        } else {
+            table.lock();
+        }
+    }
+
+    @Override
+    public void unlock() {
+        if (useAdvisoryLock()) {
+            dbSupport.releaseAdvisoryLock(table.toString());
+        }
+    }
+
+    /**
+     * @return Whether advisory locks should be used instead of table locks.
+     */
+    private boolean useAdvisoryLock() {
+        return advisoryLock && dbSupport.supportsAdvisoryLocks();
     }
 
     @Override
@@ -107,11 +165,10 @@ public class MetaDataTableImpl implements MetaDataTable {
 
         MigrationVersion version = appliedMigration.getVersion();
         try {
-            int versionRank = calculateVersionRank(version);
-
-            jdbcTemplate.update("UPDATE " + table
-                    + " SET " + dbSupport.quote("version_rank") + " = " + dbSupport.quote("version_rank")
-                    + " + 1 WHERE " + dbSupport.quote("version_rank") + " >= ?", versionRank);
+            // Version ranks are derived when reading the metadata table (see rankByVersion), so existing rows never
+            // need to be shifted. The installed rank is stored in the column unless older clients rely on it.
+            int installedRank = calculateInstalledRank();
+            int versionRank = legacyVersionRank ? reserveVersionRank(version) : installedRank;
             jdbcTemplate.update("INSERT INTO " + table
                             + " (" + dbSupport.quote("version_rank")
                             + "," + dbSupport.quote("installed_rank")
@@ -126,7 +183,7 @@ public class MetaDataTableImpl implements MetaDataTable {
                             + ")"
                             + " VALUES (?, ?, ?, ?, ?, ?, ?, " + dbSupport.getCurrentUserFunction() + ", ?, ?)",
                     versionRank,
-                    calculateInstalledRank(),
+                    installedRank,
                     version.toString(),
                     appliedMigration.getDescription(),
                     appliedMigration.getType().name(),
@@ -142,14 +199,32 @@ public class MetaDataTableImpl implements MetaDataTable {
     }
 
     /**
-     * Calculates the installed rank for the new migration to be inserted.
+     * Calculates the version rank for this new version about to be inserted and shifts the version ranks of the later
+     * versions to make room for it, as older clients expect. Migrations are normally applied in version order, in which
+     * case this only requires looking up the highest version and no existing rows are touched. Out of order migrations
+     * require reading all versions and updating the rows that follow.
      *
-     * @return The installed rank.
+     * @param version The version to calculate the rank for.
+     * @return The rank.
      */
-    private int calculateInstalledRank() throws SQLException {
-        int currentMax = jdbcTemplate.queryForInt("SELECT MAX(" + dbSupport.quote("installed_rank") + ")"
+    private int reserveVersionRank(MigrationVersion version) throws SQLException {
+        int latestVersionRank = jdbcTemplate.queryForInt("SELECT MAX(" + dbSupport.quote("version_rank") + ")"
                 + " FROM " + table);
-        return currentMax + 1;
+        if (latestVersionRank == 0) {
+            return 1;
+        }
+
+        String latestVersion = jdbcTemplate.queryForString("SELECT " + dbSupport.quote("version") + " FROM " + table
+                + " WHERE " + dbSupport.quote("version_rank") + "=" + latestVersionRank);
+        if ((latestVersion != null) && (version.compareTo(MigrationVersion.fromVersion(latestVersion)) >= 0)) {
+            return latestVersionRank + 1;
+        }
+
+        int versionRank = calculateVersionRank(version);
+        jdbcTemplate.update("UPDATE " + table
+                + " SET " + dbSupport.quote("version_rank") + " = " + dbSupport.quote("version_rank")
+                + " + 1 WHERE " + dbSupport.quote("version_rank") + " >= ?", versionRank);
+        return versionRank;
     }
 
     /**
@@ -177,11 +252,62 @@ public class MetaDataTableImpl implements MetaDataTable {
         return migrationVersions.size() + 1;
     }
 
+    /**
+     * Calculates the installed rank for the new migration to be inserted.
+     *
+     * @return The installed rank.
+     */
+    private int calculateInstalledRank() throws SQLException {
+        return queryLatestInstalledRank() + 1;
+    }
+
+    /**
+     * Queries the highest installed rank in the metadata table.
+     *
+     * @return The highest installed rank. {@code 0} if the metadata table is empty.
+     */
+    private int queryLatestInstalledRank() throws SQLException {
+        return jdbcTemplate.queryForInt("SELECT MAX(" + dbSupport.quote("installed_rank") + ")"
+                + " FROM " + table);
+    }
+
     @Override
     public List<AppliedMigration> allAppliedMigrations() {
         return findAppliedMigrations();
     }
 
+    @Override
+    public int getLatestInstalledRank() {
+        if (!table.exists()) {
+            return 0;
+        }
+
+        try {
+            return queryLatestInstalledRank();
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to determine the latest installed rank in metadata table " + table, e);
+        }
+    }
+
+    /**
+     * Retrieves the most recently installed migration with a single query on the installed rank.
+     *
+     * @return The applied migration with the highest installed rank. {@code null} if there is none.
+     */
+    @Override
+    public AppliedMigration getLatestAppliedMigration() {
+        if (!table.exists()) {
+            return null;
+        }
+
+        List<AppliedMigration> appliedMigrations = queryAppliedMigrations(dbSupport.quote("installed_rank")
+                + " = (SELECT MAX(" + dbSupport.quote("installed_rank") + ") FROM " + table + ")");
+        if (appliedMigrations.isEmpty()) {
+            return null;
+        }
+        return appliedMigrations.get(0);
+    }
+
     /**
      * Retrieve the applied migrations from the metadata table.
      *
@@ -195,6 +321,29 @@ public class MetaDataTableImpl implements MetaDataTable {
 
         createIfNotExists();
 
+        String whereClause = "";
+        if (migrationTypes.length > 0) {
+            whereClause = dbSupport.quote("type") + " IN (";
+            for (int i = 0; i < migrationTypes.length; i++) {
+                if (i > 0) {
+                    whereClause += ",";
+                }
+                whereClause += "'" + migrationTypes[i] + "'";
+            }
+            whereClause += ")";
+        }
+
+        return queryAppliedMigrations(whereClause);
+    }
+
+    /**
+     * Retrieves the applied migrations matching this where clause from the metadata table, ordered by version. When
+     * all rows are retrieved, their version ranks are derived from this order.
+     *
+     * @param whereClause The condition the rows must match. An empty string matches all rows.
+     * @return The matching applied migrations.
+     */
+    private List<AppliedMigration> queryAppliedMigrations(String whereClause) {
         String query = "SELECT " + dbSupport.quote("version_rank")
                 + "," + dbSupport.quote("installed_rank")
                 + "," + dbSupport.quote("version")
@@ -208,21 +357,15 @@ public class MetaDataTableImpl implements MetaDataTable {
                 + "," + dbSupport.quote("success")
                 + " FROM " + table;
 
-        if (migrationTypes.length > 0) {
-            query += " WHERE " + dbSupport.quote("type") + " IN (";
-            for (int i = 0; i < migrationTypes.length; i++) {
-                if (i > 0) {
-                    query += ",";
-                }
-                query += "'" + migrationTypes[i] + "'";
-            }
-            query += ")";
+        if (whereClause.length() > 0) {
+            query += " WHERE " + whereClause;
         }
 
-        query += " ORDER BY " + dbSupport.quote("version_rank");
+        query += " ORDER BY " + dbSupport.quote("installed_rank");
 
+        List<AppliedMigration> appliedMigrations;
         try {
-            return jdbcTemplate.query(query, new RowMapper<AppliedMigration>() {
+            appliedMigrations = jdbcTemplate.query(query, new RowMapper<AppliedMigration>() {
                 public AppliedMigration mapRow(final ResultSet rs) throws SQLException {
                     Integer checksum = rs.getInt("checksum");
                     if (rs.wasNull()) {
@@ -248,6 +391,40 @@ public class MetaDataTableImpl implements MetaDataTable {
             throw new FlywayException("Error while retrieving the list of applied migrations from metadata table "
                     + table, e);
         }
+
+        // Stable sort: migrations with the same version stay in the order they were installed in
+        Collections.sort(appliedMigrations);
+        if (whereClause.length() == 0) {
+            return rankByVersion(appliedMigrations);
+        }
+        return appliedMigrations;
+    }
+
+    /**
+     * Assigns the version ranks of these applied migrations based on their position.
+     *
+     * @param appliedMigrations All applied migrations, ordered by version.
+     * @return The applied migrations with their version ranks.
+     */
+    private List<AppliedMigration> rankByVersion(List<AppliedMigration> appliedMigrations) {
+        List<AppliedMigration> rankedMigrations = new ArrayList<AppliedMigration>(appliedMigrations.size());
+        for (int i = 0; i < appliedMigrations.size(); i++) {
+            AppliedMigration appliedMigration = appliedMigrations.get(i);
+            rankedMigrations.add(new AppliedMigration(
+                    i + 1,
+                    appliedMigration.getInstalledRank(),
+                    appliedMigration.getVersion(),
+                    appliedMigration.getDescription(),
+                    appliedMigration.getType(),
+                    appliedMigration.getScript(),
+                    appliedMigration.getChecksum(),
+                    appliedMigration.getInstalledOn(),
+                    appliedMigration.getInstalledBy(),
+                    appliedMigration.getExecutionTime(),
+                    appliedMigration.isSuccess()
+            ));
+        }
+        return rankedMigrations;
     }
 
     @Override
@@ -0,0 +1,295 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.metadatatable;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.internal.dbsupport.DbSupport;
+import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
+import org.flywaydb.core.internal.dbsupport.Table;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
+
+import java.net.InetAddress;
+import java.sql.SQLException;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.UUID;
+
+/**
+ * Lease-based alternative to locking the metadata table for the whole duration of a migration run.
+ * <p>The lease is a single row (owner, expiry) in a dedicated table next to the metadata table. It is acquired and
+ * renewed using short, auto-committed statements on a dedicated connection, so no transaction stays open while the
+ * migrations themselves are running. A heartbeat renews the lease in the background until it is released. A lease
+ * whose owner stopped renewing it expires after the configured timeout and can then be taken over by another node.</p>
+ * <p>Expiry times are based on the clocks of the participating nodes, which must therefore be reasonably in sync.</p>
+ */
+public class MigrationLease {
+    private static final Log LOG = LogFactory.getLog(MigrationLease.class);
+
+    /**
+     * The interval at which an unavailable lease is polled (in ms).
+     */
+    private static final long POLL_INTERVAL = 1000;
+
+    /**
+     * Database-specific functionality.
+     */
+    private final DbSupport dbSupport;
+
+    /**
+     * The JdbcTemplate for the dedicated lease connection.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The table holding the lease row.
+     */
+    private final Table table;
+
+    /**
+     * The time after which a lease that hasn't been renewed expires (in ms).
+     */
+    private final long timeout;
+
+    /**
+     * The unique identifier of this node as lease owner.
+     */
+    private final String owner;
+
+    /**
+     * The timer renewing the lease while it is held. {@code null} if the lease isn't held.
+     */
+    private Timer heartbeat;
+
+    /**
+     * Whether the lease was lost because another node has taken it over.
+     */
+    private volatile boolean lost;
+
+    /**
+     * The time at which the lease was last acquired or renewed successfully (in ms).
+     */
+    private volatile long lastRenewal;
+
+    /**
+     * Creates a new migration lease.
+     *
+     * @param dbSupport Database-specific functionality for the dedicated lease connection.
+     * @param table     The table holding the lease row.
+     * @param timeout   The time after which a lease that hasn't been renewed expires (in seconds).
+     */
+    public MigrationLease(DbSupport dbSupport, Table table, int timeout) {
+        this.dbSupport = dbSupport;
+        this.jdbcTemplate = dbSupport.getJdbcTemplate();
+        this.table = table;
+        this.timeout = timeout * 1000L;
+        this.owner = createOwner();
+
+        try {
+            jdbcTemplate.getConnection().setAutoCommit(true);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to enable autocommit for the lease connection", e);
+        }
+    }
+
+    /**
+     * @return A unique identifier for this node, prefixed with the host name when it is available.
+     */
+    private static String createOwner() {
+        String id = UUID.randomUUID().toString();
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            if (host.length() > 60) {
+                host = host.substring(0, 60);
+            }
+            return host + "/" + id;
+        } catch (Exception e) {
+            return id;
+        }
+    }
+
+    /**
+     * Acquires the lease, waiting for it to be released or to expire if it is currently held by another node. Once
+     * acquired, the lease is renewed in the background until {@link #release()} is called.
+     */
+    public void acquire() {
+        createIfNotExists();
+
+        LOG.debug("Acquiring migration lease " + table + " as " + owner + " ...");
+        boolean waiting = false;
+        while (!tryAcquire()) {
+            if (!waiting) {
+                LOG.info("Migration lease " + table + " is held by another node. Waiting for it to be released ...");
+                waiting = true;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlywayException("Interrupted while waiting for migration lease " + table);
+            }
+        }
+        LOG.debug("Migration lease " + table + " acquired");
+
+        lost = false;
+        lastRenewal = System.currentTimeMillis();
+        heartbeat = new Timer("flyway-lease-heartbeat", true);
+        long period = Math.max(timeout / 3, 1);
+        heartbeat.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                renew();
+            }
+        }, period, period);
+    }
+
+    /**
+     * Makes a single attempt at acquiring the lease.
+     *
+     * @return {@code true} if the lease was acquired, {@code false} if it is held by another node.
+     */
+    private synchronized boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        try {
+            int updated = jdbcTemplate.update("UPDATE " + table
+                    + " SET " + dbSupport.quote("owner") + "=?, " + dbSupport.quote("expires") + "=?"
+                    + " WHERE " + dbSupport.quote("id") + "=1"
+                    + " AND (" + dbSupport.quote("owner") + "=? OR " + dbSupport.quote("expires") + "<?)",
+                    owner, now + timeout, owner, now);
+            if (updated > 0) {
+                return true;
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to acquire migration lease " + table, e);
+        }
+
+        try {
+            jdbcTemplate.update("INSERT INTO " + table
+                    + " (" + dbSupport.quote("id") + "," + dbSupport.quote("owner") + "," + dbSupport.quote("expires") + ")"
+                    + " VALUES (1, ?, ?)", owner, now + timeout);
+            return true;
+        } catch (SQLException e) {
+            // Another node inserted the lease row first
+            LOG.debug("Unable to insert lease row into " + table + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks, without trying to acquire it, whether the lease is currently held by another node.
+     *
+     * @return {@code true} if another node holds an unexpired lease, {@code false} if it is available.
+     */
+    public boolean isHeldByAnotherNode() {
+        if (!table.exists()) {
+            return false;
+        }
+
+        try {
+            return jdbcTemplate.queryForInt("SELECT COUNT(*) FROM " + table
+                    + " WHERE " + dbSupport.quote("id") + "=1"
+                    + " AND " + dbSupport.quote("owner") + "<>?"
+                    + " AND " + dbSupport.quote("expires") + ">=" + System.currentTimeMillis(), owner) > 0;
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to check migration lease " + table, e);
+        }
+    }
+
+    /**
+     * Extends the expiry of the lease. Invoked periodically by the heartbeat.
+     */
+    private synchronized void renew() {
+        if (heartbeat == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        try {
+            int updated = jdbcTemplate.update("UPDATE " + table
+                    + " SET " + dbSupport.quote("expires") + "=?"
+                    + " WHERE " + dbSupport.quote("id") + "=1 AND " + dbSupport.quote("owner") + "=?",
+                    now + timeout, owner);
+            if (updated == 0) {
+                LOG.error("Migration lease " + table + " has been taken over by another node!");
+                lost = true;
+                heartbeat.cancel();
+            } else {
+                lastRenewal = now;
+            }
+        } catch (SQLException e) {
+            LOG.warn("Unable to renew migration lease " + table + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ensures the lease is still held by this node. To be called before every write to the metadata table. A lease
+     * that could not be renewed before its expiry is considered lost, as another node may have taken it over since.
+     *
+     * @throws FlywayException when the lease has been lost.
+     */
+    public void verify() throws FlywayException {
+        if (lost || (System.currentTimeMillis() > lastRenewal + timeout)) {
+            throw new FlywayException("Migration lease " + table + " has been lost. Another node may be migrating concurrently."
+                    + " Consider increasing the lease timeout.");
+        }
+    }
+
+    /**
+     * Stops renewing the lease and releases it, so other nodes can acquire it immediately.
+     */
+    public synchronized void release() {
+        if (heartbeat == null) {
+            return;
+        }
+        heartbeat.cancel();
+        heartbeat = null;
+
+        try {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE " + dbSupport.quote("owner") + "=?", owner);
+            LOG.debug("Migration lease " + table + " released");
+        } catch (SQLException e) {
+            LOG.warn("Unable to release migration lease " + table + ". It will expire after the lease timeout: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the lease table if it doesn't exist yet.
+     */
+    private void createIfNotExists() {
+        if (table.exists()) {
+            return;
+        }
+
+        LOG.info("Creating migration lease table: " + table);
+        try {
+            jdbcTemplate.execute("CREATE TABLE " + table + " ("
+                    + dbSupport.quote("id") + " INT NOT NULL,"
+                    + dbSupport.quote("owner") + " VARCHAR(100) NOT NULL,"
+                    + dbSupport.quote("expires") + " DECIMAL(19,0) NOT NULL,"
+                    + " PRIMARY KEY (" + dbSupport.quote("id") + "))");
+        } catch (SQLException e) {
+            if (!table.exists()) {
+                throw new FlywayException("Unable to create migration lease table " + table, e);
+            }
+            // Created concurrently by another node
+        }
+    }
+
+    @Override
+    public String toString() {
+        return table.toString();
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.metadatatable;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.dbsupport.DbSupport;
+import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
+import org.flywaydb.core.internal.dbsupport.Table;
+import org.flywaydb.core.internal.util.jdbc.TransactionCallback;
+import org.flywaydb.core.internal.util.jdbc.TransactionTemplate;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Fast path for commands run against a schema that is already up to date.
+ * <p>At the end of a successful run, a digest of the resolved migrations and of the settings affecting the outcome is
+ * stored together with the latest installed rank of the metadata table in a small table next to it. A later run with
+ * the same digest finds the metadata table unchanged with a single query and can skip the full comparison of resolved
+ * and applied migrations.</p>
+ */
+public class UpToDateCheck {
+    private static final Log LOG = LogFactory.getLog(UpToDateCheck.class);
+
+    /**
+     * Database-specific functionality.
+     */
+    private final DbSupport dbSupport;
+
+    /**
+     * The JdbcTemplate to use.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The table holding the digests.
+     */
+    private final Table table;
+
+    /**
+     * The metadata table.
+     */
+    private final Table metaDataTable;
+
+    /**
+     * The command the digest was calculated for.
+     */
+    private final String command;
+
+    /**
+     * The digest of the resolved migrations and of the settings of this run.
+     */
+    private final String digest;
+
+    /**
+     * The cached result of the check. {@code null} if not checked yet.
+     */
+    private Boolean upToDate;
+
+    /**
+     * Creates a new up to date check.
+     *
+     * @param dbSupport     Database-specific functionality.
+     * @param table         The table holding the digests.
+     * @param metaDataTable The metadata table.
+     * @param command       The command the digest was calculated for.
+     * @param digest        The digest of the resolved migrations and of the settings of this run.
+     */
+    public UpToDateCheck(DbSupport dbSupport, Table table, Table metaDataTable, String command, String digest) {
+        this.dbSupport = dbSupport;
+        this.jdbcTemplate = dbSupport.getJdbcTemplate();
+        this.table = table;
+        this.metaDataTable = metaDataTable;
+        this.command = command;
+        this.digest = digest;
+    }
+
+    /**
+     * Calculates the digest of these resolved migrations and settings.
+     *
+     * @param resolvedMigrations The resolved migrations, in order.
+     * @param settings           The settings affecting the outcome of the command.
+     * @return The digest as a hex string.
+     */
+    public static String calculateDigest(Collection<ResolvedMigration> resolvedMigrations, Object... settings) {
+        StringBuilder input = new StringBuilder();
+        for (Object setting : settings) {
+            input.append(setting).append('\n');
+        }
+        for (ResolvedMigration resolvedMigration : resolvedMigrations) {
+            input.append(resolvedMigration.getVersion()).append('|')
+                    .append(resolvedMigration.getDescription()).append('|')
+                    .append(resolvedMigration.getType()).append('|')
+                    .append(resolvedMigration.getScript()).append('|')
+                    .append(resolvedMigration.getChecksum()).append('\n');
+        }
+
+        try {
+            byte[] hash = MessageDigest.getInstance("MD5").digest(input.toString().getBytes("UTF-8"));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new FlywayException("Unable to calculate migration digest", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new FlywayException("Unable to calculate migration digest", e);
+        }
+    }
+
+    /**
+     * Checks whether the metadata table is unchanged since the last successful run with the same digest. The result
+     * is cached for the lifetime of this check.
+     *
+     * @return {@code true} if it is, {@code false} if a full run is required.
+     */
+    public boolean isUpToDate() {
+        if (upToDate == null) {
+            upToDate = queryUpToDate();
+            if (upToDate) {
+                LOG.info("Schema is up to date with the resolved migrations (digest " + digest + ")");
+            }
+        }
+        return upToDate;
+    }
+
+    /**
+     * @return Whether a matching digest is stored for the current latest installed rank.
+     */
+    private boolean queryUpToDate() {
+        if (!table.exists()) {
+            return false;
+        }
+
+        try {
+            return jdbcTemplate.queryForInt("SELECT COUNT(*) FROM " + table
+                    + " WHERE " + dbSupport.quote("command") + "=?"
+                    + " AND " + dbSupport.quote("digest") + "=?"
+                    + " AND " + dbSupport.quote("installed_rank") + "=(SELECT COALESCE(MAX("
+                    + dbSupport.quote("installed_rank") + "),0) FROM " + metaDataTable + ")", command, digest) > 0;
+        } catch (SQLException e) {
+            LOG.debug("Unable to check digest in " + table + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Records that the schema was up to date with the resolved migrations at this installed rank.
+     *
+     * @param installedRank The latest installed rank at the end of the successful run.
+     */
+    public void markUpToDate(final int installedRank) {
+        try {
+            createIfNotExists();
+            new TransactionTemplate(jdbcTemplate.getConnection()).execute(new TransactionCallback<Object>() {
+                public Object doInTransaction() throws SQLException {
+                    jdbcTemplate.update("DELETE FROM " + table + " WHERE " + dbSupport.quote("command") + "=?", command);
+                    jdbcTemplate.update("INSERT INTO " + table
+                            + " (" + dbSupport.quote("command") + "," + dbSupport.quote("digest") + ","
+                            + dbSupport.quote("installed_rank") + ") VALUES (?, ?, ?)", command, digest, installedRank);
+                    return null;
+                }
+            });
+            upToDate = true;
+        } catch (SQLException e) {
+            LOG.warn("Unable to create digest table " + table + ": " + e.getMessage());
+        } catch (FlywayException e) {
+            LOG.warn("Unable to store digest in " + table + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the digest table if it doesn't exist yet.
+     *
+     * @throws SQLException when the table could not be created.
+     */
+    private void createIfNotExists() throws SQLException {
+        if (table.exists()) {
+            return;
+        }
+
+        LOG.info("Creating digest table: " + table);
+        try {
+            jdbcTemplate.execute("CREATE TABLE " + table + " ("
+                    + dbSupport.quote("command") + " VARCHAR(20) NOT NULL,"
+                    + dbSupport.quote("digest") + " VARCHAR(32) NOT NULL,"
+                    + dbSupport.quote("installed_rank") + " INT NOT NULL,"
+                    + " PRIMARY KEY (" + dbSupport.quote("command") + "))");
+        } catch (SQLException e) {
+            if (!table.exists()) {
+                throw e;
+            }
+            // Created concurrently by another node
+        }
+    }
+
+    @Override
+    public String toString() {
+        return table.toString();
+    }
+}
@@ -21,11 +21,14 @@ import org.flywaydb.core.api.resolver.ResolvedMigration;
 import org.flywaydb.core.internal.dbsupport.DbSupport;
 import org.flywaydb.core.internal.resolver.jdbc.JdbcMigrationResolver;
 import org.flywaydb.core.internal.resolver.spring.SpringJdbcMigrationResolver;
+import org.flywaydb.core.internal.resolver.sql.SqlMigrationExecutor;
 import org.flywaydb.core.internal.resolver.sql.SqlMigrationResolver;
 import org.flywaydb.core.internal.util.FeatureDetector;
 import org.flywaydb.core.internal.util.Location;
 import org.flywaydb.core.internal.util.Locations;
 import org.flywaydb.core.internal.util.PlaceholderReplacer;
+import org.flywaydb.core.internal.util.scanner.Resource;
+import org.flywaydb.core.internal.util.scanner.Scanner;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -51,31 +54,84 @@ public class CompositeMigrationResolver implements MigrationResolver {
      */
     private List<ResolvedMigration> availableMigrations;
 
+    /**
+     * The database-specific support.
+     */
+    private final DbSupport dbSupport;
+
+    /**
+     * The ClassLoader for loading migrations on the classpath.
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * The encoding of Sql migrations.
+     */
+    private final String encoding;
+
+    /**
+     * Whether to stream sql migrations instead of loading them upfront.
+     */
+    private final boolean stream;
+
+    /**
+     * The maximum number of consecutive DML statements to send to the database as a single batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The placeholder replacer to use.
+     */
+    private final PlaceholderReplacer placeholderReplacer;
+
     /**
      * Creates a new CompositeMigrationResolver.
      *
      * @param dbSupport                The database-specific support.
      * @param classLoader              The ClassLoader for loading migrations on the classpath.
+     * @param scanner                  The scanner for the locations, shared by all built-in resolvers.
      * @param locations                The locations where migrations are located.
      * @param encoding                 The encoding of Sql migrations.
+     * @param stream                   Whether to stream sql migrations instead of loading them upfront.
+     * @param batchSize                The maximum number of consecutive DML statements to send to the database as a
+     *                                 single batch. {@code 0} to execute every statement separately.
      * @param sqlMigrationPrefix       The file name prefix for sql migrations.
      * @param sqlMigrationSeparator    The file name separator for sql migrations.
      * @param sqlMigrationSuffix       The file name suffix for sql migrations.
      * @param placeholderReplacer      The placeholder replacer to use.
+     * @param cacheMigrations          Whether to share the migrations resolved by the built-in resolvers with other
+     *                                 commands through the {@link ResolvedMigrationCache}.
      * @param customMigrationResolvers Custom Migration Resolvers.
      */
-    public CompositeMigrationResolver(DbSupport dbSupport, ClassLoader classLoader, Locations locations,
-                                      String encoding,
+    public CompositeMigrationResolver(DbSupport dbSupport, ClassLoader classLoader, Scanner scanner, Locations locations,
+                                      String encoding, boolean stream, int batchSize,
                                       String sqlMigrationPrefix, String sqlMigrationSeparator, String sqlMigrationSuffix,
-                                      PlaceholderReplacer placeholderReplacer,
+                                      PlaceholderReplacer placeholderReplacer, boolean cacheMigrations,
                                       MigrationResolver... customMigrationResolvers) {
+        this.dbSupport = dbSupport;
+        this.classLoader = classLoader;
+        this.encoding = encoding;
+        this.stream = stream;
+        this.batchSize = batchSize;
+        this.placeholderReplacer = placeholderReplacer;
+
+        boolean springJdbcAvailable = new FeatureDetector(classLoader).isSpringJdbcAvailable();
         for (Location location : locations.getLocations()) {
-            migrationResolvers.add(new SqlMigrationResolver(dbSupport, classLoader, location, placeholderReplacer,
-                    encoding, sqlMigrationPrefix, sqlMigrationSeparator, sqlMigrationSuffix));
-            migrationResolvers.add(new JdbcMigrationResolver(classLoader, location));
+            List<MigrationResolver> locationResolvers = new ArrayList<MigrationResolver>();
+            locationResolvers.add(new SqlMigrationResolver(dbSupport, scanner, location, placeholderReplacer,
+                    encoding, stream, batchSize, sqlMigrationPrefix, sqlMigrationSeparator, sqlMigrationSuffix));
+            locationResolvers.add(new JdbcMigrationResolver(classLoader, location, scanner));
+
+            if (springJdbcAvailable) {
+                locationResolvers.add(new SpringJdbcMigrationResolver(classLoader, location, scanner));
+            }
 
-            if (new FeatureDetector(classLoader).isSpringJdbcAvailable()) {
-                migrationResolvers.add(new SpringJdbcMigrationResolver(classLoader, location));
+            if (cacheMigrations) {
+                String key = location + " (prefix: " + sqlMigrationPrefix + ", separator: " + sqlMigrationSeparator
+                        + ", suffix: " + sqlMigrationSuffix + ", spring: " + springJdbcAvailable + ")";
+                migrationResolvers.add(new CachingMigrationResolver(location, key, locationResolvers));
+            } else {
+                migrationResolvers.addAll(locationResolvers);
             }
         }
 
@@ -151,4 +207,86 @@ public class CompositeMigrationResolver implements MigrationResolver {
         }
     }
 
+
+    /**
+     * Binds the sql migrations among these migrations to the database-specific support and settings of this resolver.
+     * All other migrations are independent of them and are returned as is.
+     *
+     * @param migrations The migrations to bind.
+     * @param dbSupport  The database-specific support to bind to. {@code null} to detach the migrations for caching.
+     * @return The bound migrations.
+     */
+    private List<ResolvedMigration> bindSqlMigrations(List<ResolvedMigration> migrations, DbSupport dbSupport) {
+        List<ResolvedMigration> boundMigrations = new ArrayList<ResolvedMigration>(migrations.size());
+        for (ResolvedMigration migration : migrations) {
+            if (!(migration.getExecutor() instanceof SqlMigrationExecutor)) {
+                boundMigrations.add(migration);
+                continue;
+            }
+
+            Resource resource = ((SqlMigrationExecutor) migration.getExecutor()).getSqlScriptResource();
+
+            ResolvedMigrationImpl boundMigration = new ResolvedMigrationImpl();
+            boundMigration.setVersion(migration.getVersion());
+            boundMigration.setDescription(migration.getDescription());
+            boundMigration.setScript(migration.getScript());
+            boundMigration.setChecksum(migration.getChecksum());
+            boundMigration.setType(migration.getType());
+            boundMigration.setPhysicalLocation(migration.getPhysicalLocation());
+            boundMigration.setExecutor(
+                    new SqlMigrationExecutor(dbSupport, resource, placeholderReplacer, encoding, stream, batchSize));
+            boundMigrations.add(boundMigration);
+        }
+        return boundMigrations;
+    }
+
+    /**
+     * Resolves the migrations of all built-in resolvers for a single location through the
+     * {@link ResolvedMigrationCache}.
+     */
+    private class CachingMigrationResolver implements MigrationResolver {
+        /**
+         * The location to resolve the migrations from.
+         */
+        private final Location location;
+
+        /**
+         * The key of the location in the cache.
+         */
+        private final String key;
+
+        /**
+         * The built-in resolvers for the location.
+         */
+        private final List<MigrationResolver> resolvers;
+
+        /**
+         * Creates a new caching resolver.
+         *
+         * @param location  The location to resolve the migrations from.
+         * @param key       The key of the location in the cache.
+         * @param resolvers The built-in resolvers for the location.
+         */
+        CachingMigrationResolver(Location location, String key, List<MigrationResolver> resolvers) {
+            this.location = location;
+            this.key = key;
+            this.resolvers = resolvers;
+        }
+
+        public List<ResolvedMigration> resolveMigrations() {
+            List<ResolvedMigration> migrations = ResolvedMigrationCache.get(classLoader, key);
+            if (migrations == null) {
+                long resolvedAt = System.currentTimeMillis();
+                migrations = new ArrayList<ResolvedMigration>();
+                for (MigrationResolver resolver : resolvers) {
+                    migrations.addAll(resolver.resolveMigrations());
+                }
+                ResolvedMigrationCache.put(classLoader, key, bindSqlMigrations(migrations, null),
+                        ResolvedMigrationCache.getFilesToMonitor(classLoader, location, migrations), resolvedAt);
+                return migrations;
+            }
+
+            return bindSqlMigrations(migrations, dbSupport);
+        }
+    }
 }
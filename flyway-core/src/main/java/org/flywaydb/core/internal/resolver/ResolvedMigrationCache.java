@@ -0,0 +1,295 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.resolver;
+
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.util.Location;
+import org.flywaydb.core.internal.util.UrlUtils;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide cache of the migrations resolved by the built-in resolvers, shared by all Flyway instances and
+ * commands. Entries are scoped to the ClassLoader they were resolved with and keyed by location and naming settings.
+ * <p>Each entry records the last modified time and size of the files it was resolved from: the migration files
+ * themselves and the root of the location (a jar file, or a directory along with all directories below it). An entry
+ * is discarded as soon as any of these changed, which takes a few cheap file system calls instead of a full scan. New
+ * migrations are detected through the modification time of their directory, or of its parent for a new directory.
+ * Migrations are not cached if any of these files was modified shortly before or while they were being resolved, as
+ * the state recorded for the entry could then be newer than the contents that were actually resolved.
+ * Locations that can't be mapped to the file system (such as OSGi bundles or Android assets) are never cached.</p>
+ * <p>Entries are only softly referenced, so they never prevent a ClassLoader from being garbage collected.</p>
+ */
+public class ResolvedMigrationCache {
+    private static final Log LOG = LogFactory.getLog(ResolvedMigrationCache.class);
+
+    /**
+     * The minimum age of the last modification of a file, relative to the start of the resolution, for the migrations
+     * resolved from it to be cached (in ms). This covers file systems with a coarse modification time resolution.
+     */
+    private static final long MIN_AGE = 2000;
+
+    /**
+     * The cached entries, per ClassLoader and key.
+     */
+    private static final Map<ClassLoader, Map<String, SoftReference<Entry>>> ENTRIES =
+            new WeakHashMap<ClassLoader, Map<String, SoftReference<Entry>>>();
+
+    /**
+     * Prevent instantiation.
+     */
+    private ResolvedMigrationCache() {
+        // Do nothing
+    }
+
+    /**
+     * Retrieves the migrations cached for this key.
+     *
+     * @param classLoader The ClassLoader the migrations were resolved with.
+     * @param key         The key of the entry.
+     * @return The cached migrations. {@code null} if none were cached or if the files they were resolved from changed.
+     */
+    public static synchronized List<ResolvedMigration> get(ClassLoader classLoader, String key) {
+        Map<String, SoftReference<Entry>> entries = ENTRIES.get(classLoader);
+        if (entries == null) {
+            return null;
+        }
+
+        SoftReference<Entry> reference = entries.get(key);
+        Entry entry = reference == null ? null : reference.get();
+        if (entry == null) {
+            return null;
+        }
+
+        if (!entry.isCurrent()) {
+            LOG.debug("Discarding cached migrations for " + key + " as they have changed");
+            entries.remove(key);
+            return null;
+        }
+
+        LOG.debug("Using cached migrations for " + key);
+        return entry.migrations;
+    }
+
+    /**
+     * Caches these migrations for this key.
+     *
+     * @param classLoader The ClassLoader the migrations were resolved with.
+     * @param key         The key of the entry.
+     * @param migrations  The resolved migrations.
+     * @param files       The files the migrations were resolved from. {@code null} if they could not be determined, in
+     *                    which case nothing is cached.
+     * @param resolvedAt  The time at which the resolution of these migrations started (in ms since the epoch).
+     */
+    public static synchronized void put(ClassLoader classLoader, String key, List<ResolvedMigration> migrations,
+                                        Collection<File> files, long resolvedAt) {
+        if (files == null) {
+            LOG.debug("Not caching migrations for " + key + " as their location can't be monitored for changes");
+            return;
+        }
+
+        Entry entry = new Entry(migrations, files);
+        if (!entry.isOlderThan(resolvedAt - MIN_AGE)) {
+            LOG.debug("Not caching migrations for " + key + " as their files were modified while being resolved");
+            return;
+        }
+
+        Map<String, SoftReference<Entry>> entries = ENTRIES.get(classLoader);
+        if (entries == null) {
+            entries = new HashMap<String, SoftReference<Entry>>();
+            ENTRIES.put(classLoader, entries);
+        }
+        entries.put(key, new SoftReference<Entry>(entry));
+    }
+
+    /**
+     * Discards all cached migrations.
+     */
+    public static synchronized void clear() {
+        ENTRIES.clear();
+    }
+
+    /**
+     * Determines the files to monitor for changes for the migrations resolved from this location.
+     *
+     * @param classLoader The ClassLoader the migrations were resolved with.
+     * @param location    The location the migrations were resolved from.
+     * @param migrations  The resolved migrations.
+     * @return The files to monitor. {@code null} if the location can't be monitored.
+     */
+    public static Collection<File> getFilesToMonitor(ClassLoader classLoader, Location location,
+                                                     List<ResolvedMigration> migrations) {
+        Set<File> files = new LinkedHashSet<File>();
+
+        if (location.isFileSystem()) {
+            addRoot(new File(location.getPath()), files);
+        } else {
+            try {
+                Enumeration<URL> urls = classLoader.getResources(location.getPath());
+                while (urls.hasMoreElements()) {
+                    File root = toFile(urls.nextElement());
+                    if (root == null) {
+                        return null;
+                    }
+                    addRoot(root, files);
+                }
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        for (ResolvedMigration migration : migrations) {
+            String physicalLocation = migration.getPhysicalLocation();
+            if (physicalLocation != null) {
+                File file = new File(physicalLocation);
+                if (file.isFile()) {
+                    files.add(file);
+                }
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * Adds the root of a location to the files to monitor. For a directory, all directories below it are added as
+     * well, so migrations added anywhere in the location are noticed, including in previously empty directories.
+     *
+     * @param root  The root of the location. A directory or a jar file.
+     * @param files The files to monitor.
+     */
+    private static void addRoot(File root, Set<File> files) {
+        files.add(root);
+        File[] children = root.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    addRoot(child, files);
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts this location URL to the file to monitor for changes.
+     *
+     * @param url The URL of a location on the classpath.
+     * @return The directory, or the jar file containing the location. {@code null} if it isn't on the file system.
+     */
+    private static File toFile(URL url) {
+        if ("file".equals(url.getProtocol())) {
+            return new File(UrlUtils.toFilePath(url));
+        }
+
+        if ("jar".equals(url.getProtocol())) {
+            String path = url.getPath();
+            int separatorIndex = path.indexOf("!/");
+            if (separatorIndex != -1) {
+                try {
+                    URL jarUrl = new URL(path.substring(0, separatorIndex));
+                    if ("file".equals(jarUrl.getProtocol())) {
+                        return new File(UrlUtils.toFilePath(jarUrl));
+                    }
+                } catch (MalformedURLException e) {
+                    return null;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * A cache entry, along with the state of the files it was resolved from.
+     */
+    private static class Entry {
+        /**
+         * The resolved migrations.
+         */
+        private final List<ResolvedMigration> migrations;
+
+        /**
+         * The files the migrations were resolved from.
+         */
+        private final File[] files;
+
+        /**
+         * The last modified time of each file when the migrations were resolved.
+         */
+        private final long[] lastModified;
+
+        /**
+         * The size of each file when the migrations were resolved.
+         */
+        private final long[] length;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param migrations The resolved migrations.
+         * @param files      The files the migrations were resolved from.
+         */
+        Entry(List<ResolvedMigration> migrations, Collection<File> files) {
+            this.migrations = migrations;
+            this.files = files.toArray(new File[files.size()]);
+            this.lastModified = new long[this.files.length];
+            this.length = new long[this.files.length];
+            for (int i = 0; i < this.files.length; i++) {
+                lastModified[i] = this.files[i].lastModified();
+                length[i] = this.files[i].length();
+            }
+        }
+
+        /**
+         * @return {@code true} if none of the files changed since the migrations were resolved, {@code false} if not.
+         */
+        boolean isCurrent() {
+            for (int i = 0; i < files.length; i++) {
+                if ((files[i].lastModified() != lastModified[i]) || (files[i].length() != length[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param time The time to compare with (in ms since the epoch).
+         * @return {@code true} if all files were last modified before this time, {@code false} if not.
+         */
+        boolean isOlderThan(long time) {
+            for (long fileLastModified : lastModified) {
+                if (fileLastModified >= time) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
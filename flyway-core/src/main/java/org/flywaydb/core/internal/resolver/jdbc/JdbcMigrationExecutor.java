@@ -18,6 +18,7 @@ package org.flywaydb.core.internal.resolver.jdbc;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.migration.jdbc.JdbcMigration;
 import org.flywaydb.core.api.resolver.MigrationExecutor;
+import org.flywaydb.core.internal.util.ClassUtils;
 
 import java.sql.Connection;
 
@@ -28,7 +29,18 @@ public class JdbcMigrationExecutor implements MigrationExecutor {
     /**
      * The JdbcMigration to execute.
      */
-    private final JdbcMigration jdbcMigration;
+    private JdbcMigration jdbcMigration;
+
+    /**
+     * The fully qualified name of the migration class to instantiate when the migration is executed. {@code null}
+     * if the migration was supplied already instantiated.
+     */
+    private final String className;
+
+    /**
+     * The ClassLoader to instantiate the migration class with.
+     */
+    private final ClassLoader classLoader;
 
     /**
      * Creates a new JdbcMigrationExecutor.
@@ -37,12 +49,40 @@ public class JdbcMigrationExecutor implements MigrationExecutor {
      */
     public JdbcMigrationExecutor(JdbcMigration jdbcMigration) {
         this.jdbcMigration = jdbcMigration;
+        this.className = null;
+        this.classLoader = null;
+    }
+
+    /**
+     * Creates a new JdbcMigrationExecutor for a migration class that is only instantiated when the migration is executed.
+     *
+     * @param className   The fully qualified name of the migration class.
+     * @param classLoader The ClassLoader to instantiate the migration class with.
+     */
+    public JdbcMigrationExecutor(String className, ClassLoader classLoader) {
+        this.className = className;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @return The migration to execute, instantiated on first use.
+     */
+    private synchronized JdbcMigration getJdbcMigration() {
+        if (jdbcMigration == null) {
+            try {
+                jdbcMigration = ClassUtils.instantiate(className, classLoader);
+            } catch (Exception e) {
+                throw new FlywayException("Unable to instantiate class: " + className, e);
+            }
+        }
+        return jdbcMigration;
     }
 
     @Override
     public void execute(Connection connection) {
+        JdbcMigration migration = getJdbcMigration();
         try {
-            jdbcMigration.migrate(connection);
+            migration.migrate(connection);
         } catch (Exception e) {
             throw new FlywayException("Migration failed !", e);
         }
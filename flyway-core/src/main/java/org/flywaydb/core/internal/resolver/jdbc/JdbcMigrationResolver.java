@@ -51,6 +51,11 @@ public class JdbcMigrationResolver implements MigrationResolver {
      */
     private ClassLoader classLoader;
 
+    /**
+     * The scanner to use.
+     */
+    private final Scanner scanner;
+
     /**
      * Creates a new instance.
      *
@@ -58,8 +63,20 @@ public class JdbcMigrationResolver implements MigrationResolver {
      * @param classLoader The ClassLoader for loading migrations on the classpath.
      */
     public JdbcMigrationResolver(ClassLoader classLoader, Location location) {
+        this(classLoader, location, new Scanner(classLoader));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location    The base package on the classpath where to migrations are located.
+     * @param classLoader The ClassLoader for loading migrations on the classpath.
+     * @param scanner     The scanner to use, possibly shared with other resolvers.
+     */
+    public JdbcMigrationResolver(ClassLoader classLoader, Location location, Scanner scanner) {
         this.location = location;
         this.classLoader = classLoader;
+        this.scanner = scanner;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -70,13 +87,20 @@ public class JdbcMigrationResolver implements MigrationResolver {
         }
 
         try {
-            Class<?>[] classes = new Scanner(classLoader).scanForClasses(location, JdbcMigration.class);
-            for (Class<?> clazz : classes) {
-                JdbcMigration jdbcMigration = ClassUtils.instantiate(clazz.getName(), classLoader);
-
-                ResolvedMigrationImpl migrationInfo = extractMigrationInfo(jdbcMigration);
-                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(clazz));
-                migrationInfo.setExecutor(new JdbcMigrationExecutor(jdbcMigration));
+            String[] classNames = scanner.scanForClassNames(location, JdbcMigration.class);
+            for (String className : classNames) {
+                ResolvedMigrationImpl migrationInfo;
+                if (scanner.isImplementing(className, MigrationInfoProvider.class)
+                        || scanner.isImplementing(className, MigrationChecksumProvider.class)) {
+                    // Only the migration itself can supply its version or checksum
+                    JdbcMigration jdbcMigration = ClassUtils.instantiate(className, classLoader);
+                    migrationInfo = extractMigrationInfo(jdbcMigration);
+                    migrationInfo.setExecutor(new JdbcMigrationExecutor(jdbcMigration));
+                } else {
+                    migrationInfo = extractMigrationInfo(className);
+                    migrationInfo.setExecutor(new JdbcMigrationExecutor(className, classLoader));
+                }
+                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(className, classLoader));
 
                 migrations.add(migrationInfo);
             }
@@ -129,4 +153,23 @@ public class JdbcMigrationResolver implements MigrationResolver {
         resolvedMigration.setType(MigrationType.JDBC);
         return resolvedMigration;
     }
+
+    /**
+     * Extracts the migration info from the name of this migration class, without loading or instantiating it.
+     *
+     * @param className The fully qualified name of the migration class.
+     * @return The migration info.
+     */
+    /* private -> testing */ ResolvedMigrationImpl extractMigrationInfo(String className) {
+        Pair<MigrationVersion, String> info =
+                MigrationInfoHelper.extractVersionAndDescription(
+                        className.substring(className.lastIndexOf(".") + 1), "V", "__", "");
+
+        ResolvedMigrationImpl resolvedMigration = new ResolvedMigrationImpl();
+        resolvedMigration.setVersion(info.getLeft());
+        resolvedMigration.setDescription(info.getRight());
+        resolvedMigration.setScript(className);
+        resolvedMigration.setType(MigrationType.JDBC);
+        return resolvedMigration;
+    }
 }
@@ -18,6 +18,7 @@ package org.flywaydb.core.internal.resolver.spring;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.migration.spring.SpringJdbcMigration;
 import org.flywaydb.core.api.resolver.MigrationExecutor;
+import org.flywaydb.core.internal.util.ClassUtils;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
 import java.sql.Connection;
@@ -29,7 +30,18 @@ public class SpringJdbcMigrationExecutor implements MigrationExecutor {
     /**
      * The SpringJdbcMigration to execute.
      */
-    private final SpringJdbcMigration springJdbcMigration;
+    private SpringJdbcMigration springJdbcMigration;
+
+    /**
+     * The fully qualified name of the migration class to instantiate when the migration is executed. {@code null}
+     * if the migration was supplied already instantiated.
+     */
+    private final String className;
+
+    /**
+     * The ClassLoader to instantiate the migration class with.
+     */
+    private final ClassLoader classLoader;
 
     /**
      * Creates a new SpringJdbcMigrationExecutor.
@@ -38,12 +50,40 @@ public class SpringJdbcMigrationExecutor implements MigrationExecutor {
      */
     public SpringJdbcMigrationExecutor(SpringJdbcMigration springJdbcMigration) {
         this.springJdbcMigration = springJdbcMigration;
+        this.className = null;
+        this.classLoader = null;
+    }
+
+    /**
+     * Creates a new SpringJdbcMigrationExecutor for a migration class that is only instantiated when the migration is executed.
+     *
+     * @param className   The fully qualified name of the migration class.
+     * @param classLoader The ClassLoader to instantiate the migration class with.
+     */
+    public SpringJdbcMigrationExecutor(String className, ClassLoader classLoader) {
+        this.className = className;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @return The migration to execute, instantiated on first use.
+     */
+    private synchronized SpringJdbcMigration getSpringJdbcMigration() {
+        if (springJdbcMigration == null) {
+            try {
+                springJdbcMigration = ClassUtils.instantiate(className, classLoader);
+            } catch (Exception e) {
+                throw new FlywayException("Unable to instantiate class: " + className, e);
+            }
+        }
+        return springJdbcMigration;
     }
 
     @Override
     public void execute(Connection connection) {
+        SpringJdbcMigration migration = getSpringJdbcMigration();
         try {
-            springJdbcMigration.migrate(new org.springframework.jdbc.core.JdbcTemplate(
+            migration.migrate(new org.springframework.jdbc.core.JdbcTemplate(
                     new SingleConnectionDataSource(connection, true)));
         } catch (Exception e) {
             throw new FlywayException("Migration failed !", e);
@@ -52,6 +52,11 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
      */
     private ClassLoader classLoader;
 
+    /**
+     * The scanner to use.
+     */
+    private final Scanner scanner;
+
     /**
      * Creates a new instance.
      *
@@ -59,8 +64,20 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
      * @param classLoader The ClassLoader for loading migrations on the classpath.
      */
     public SpringJdbcMigrationResolver(ClassLoader classLoader, Location location) {
+        this(classLoader, location, new Scanner(classLoader));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location    The base package on the classpath where to migrations are located.
+     * @param classLoader The ClassLoader for loading migrations on the classpath.
+     * @param scanner     The scanner to use, possibly shared with other resolvers.
+     */
+    public SpringJdbcMigrationResolver(ClassLoader classLoader, Location location, Scanner scanner) {
         this.location = location;
         this.classLoader = classLoader;
+        this.scanner = scanner;
     }
 
     public Collection<ResolvedMigration> resolveMigrations() {
@@ -71,13 +88,20 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
         }
 
         try {
-            Class<?>[] classes = new Scanner(classLoader).scanForClasses(location, SpringJdbcMigration.class);
-            for (Class<?> clazz : classes) {
-                SpringJdbcMigration springJdbcMigration = ClassUtils.instantiate(clazz.getName(), classLoader);
-
-                ResolvedMigrationImpl migrationInfo = extractMigrationInfo(springJdbcMigration);
-                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(clazz));
-                migrationInfo.setExecutor(new SpringJdbcMigrationExecutor(springJdbcMigration));
+            String[] classNames = scanner.scanForClassNames(location, SpringJdbcMigration.class);
+            for (String className : classNames) {
+                ResolvedMigrationImpl migrationInfo;
+                if (scanner.isImplementing(className, MigrationInfoProvider.class)
+                        || scanner.isImplementing(className, MigrationChecksumProvider.class)) {
+                    // Only the migration itself can supply its version or checksum
+                    SpringJdbcMigration springJdbcMigration = ClassUtils.instantiate(className, classLoader);
+                    migrationInfo = extractMigrationInfo(springJdbcMigration);
+                    migrationInfo.setExecutor(new SpringJdbcMigrationExecutor(springJdbcMigration));
+                } else {
+                    migrationInfo = extractMigrationInfo(className);
+                    migrationInfo.setExecutor(new SpringJdbcMigrationExecutor(className, classLoader));
+                }
+                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(className, classLoader));
 
                 migrations.add(migrationInfo);
             }
@@ -129,4 +153,23 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
         resolvedMigration.setType(MigrationType.SPRING_JDBC);
         return resolvedMigration;
     }
+
+    /**
+     * Extracts the migration info from the name of this migration class, without loading or instantiating it.
+     *
+     * @param className The fully qualified name of the migration class.
+     * @return The migration info.
+     */
+    /* private -> testing */ ResolvedMigrationImpl extractMigrationInfo(String className) {
+        Pair<MigrationVersion, String> info =
+                MigrationInfoHelper.extractVersionAndDescription(
+                        className.substring(className.lastIndexOf(".") + 1), "V", "__", "");
+
+        ResolvedMigrationImpl resolvedMigration = new ResolvedMigrationImpl();
+        resolvedMigration.setVersion(info.getLeft());
+        resolvedMigration.setDescription(info.getRight());
+        resolvedMigration.setScript(className);
+        resolvedMigration.setType(MigrationType.SPRING_JDBC);
+        return resolvedMigration;
+    }
 }
@@ -50,6 +50,16 @@ public class SqlMigrationExecutor implements MigrationExecutor {
      */
     private final String encoding;
 
+    /**
+     * Whether to stream the sql script instead of loading it upfront.
+     */
+    private final boolean stream;
+
+    /**
+     * The maximum number of consecutive DML statements to send to the database as a single batch.
+     */
+    private final int batchSize;
+
     /**
      * Creates a new sql script migration based on this sql script.
      *
@@ -57,17 +67,30 @@ public class SqlMigrationExecutor implements MigrationExecutor {
      * @param sqlScriptResource   The resource containing the sql script.
      * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
      * @param encoding            The encoding of this Sql migration.
+     * @param stream              Whether to stream the sql script instead of loading it upfront.
+     * @param batchSize           The maximum number of consecutive DML statements to send to the database as a single
+     *                            batch. {@code 0} to execute every statement separately.
      */
-    public SqlMigrationExecutor(DbSupport dbSupport, Resource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding) {
+    public SqlMigrationExecutor(DbSupport dbSupport, Resource sqlScriptResource, PlaceholderReplacer placeholderReplacer,
+                                String encoding, boolean stream, int batchSize) {
         this.dbSupport = dbSupport;
         this.sqlScriptResource = sqlScriptResource;
         this.encoding = encoding;
         this.placeholderReplacer = placeholderReplacer;
+        this.stream = stream;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return The Resource pointing to the sql script.
+     */
+    public Resource getSqlScriptResource() {
+        return sqlScriptResource;
     }
 
     @Override
     public void execute(Connection connection) {
-        SqlScript sqlScript = new SqlScript(dbSupport, sqlScriptResource, placeholderReplacer, encoding);
+        SqlScript sqlScript = new SqlScript(dbSupport, sqlScriptResource, placeholderReplacer, encoding, stream, batchSize);
         sqlScript.execute(new JdbcTemplate(connection, 0));
     }
 
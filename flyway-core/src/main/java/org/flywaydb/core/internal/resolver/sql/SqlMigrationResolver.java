@@ -15,6 +15,7 @@
  */
 package org.flywaydb.core.internal.resolver.sql;
 
+import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.MigrationType;
 import org.flywaydb.core.api.MigrationVersion;
 import org.flywaydb.core.api.resolver.MigrationResolver;
@@ -23,22 +24,40 @@ import org.flywaydb.core.internal.dbsupport.DbSupport;
 import org.flywaydb.core.internal.resolver.MigrationInfoHelper;
 import org.flywaydb.core.internal.resolver.ResolvedMigrationComparator;
 import org.flywaydb.core.internal.resolver.ResolvedMigrationImpl;
+import org.flywaydb.core.internal.util.FileCopyUtils;
 import org.flywaydb.core.internal.util.Location;
 import org.flywaydb.core.internal.util.Pair;
 import org.flywaydb.core.internal.util.PlaceholderReplacer;
+import org.flywaydb.core.internal.util.scanner.ChecksumCache;
 import org.flywaydb.core.internal.util.scanner.Resource;
 import org.flywaydb.core.internal.util.scanner.Scanner;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.zip.CRC32;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Migration resolver for sql files on the classpath. The sql files must have names like
  * V1__Description.sql or V1_1__Description.sql.
  */
 public class SqlMigrationResolver implements MigrationResolver {
+    /**
+     * The number of resources from which on their checksums are calculated using all available processors.
+     */
+    private static final int PARALLEL_CHECKSUM_THRESHOLD = 64;
+
+    /**
+     * The size of the buffer the resources are streamed through to calculate their checksums.
+     */
+    private static final int CHECKSUM_BUFFER_SIZE = 8192;
+
     /**
      * Database-specific support.
      */
@@ -64,6 +83,16 @@ public class SqlMigrationResolver implements MigrationResolver {
      */
     private final String encoding;
 
+    /**
+     * Whether to stream sql migrations instead of loading them upfront.
+     */
+    private final boolean stream;
+
+    /**
+     * The maximum number of consecutive DML statements to send to the database as a single batch.
+     */
+    private final int batchSize;
+
     /**
      * The prefix for sql migrations
      */
@@ -87,18 +116,45 @@ public class SqlMigrationResolver implements MigrationResolver {
      * @param location              The location on the classpath where to migrations are located.
      * @param placeholderReplacer   The placeholder replacer to apply to sql migration scripts.
      * @param encoding              The encoding of Sql migrations.
+     * @param stream                Whether to stream sql migrations instead of loading them upfront.
+     * @param batchSize             The maximum number of consecutive DML statements to send to the database as a
+     *                              single batch. {@code 0} to execute every statement separately.
      * @param sqlMigrationPrefix    The prefix for sql migrations
      * @param sqlMigrationSeparator The separator for sql migrations
      * @param sqlMigrationSuffix    The suffix for sql migrations
      */
     public SqlMigrationResolver(DbSupport dbSupport, ClassLoader classLoader, Location location,
-                                PlaceholderReplacer placeholderReplacer, String encoding,
+                                PlaceholderReplacer placeholderReplacer, String encoding, boolean stream, int batchSize,
+                                String sqlMigrationPrefix, String sqlMigrationSeparator, String sqlMigrationSuffix) {
+        this(dbSupport, new Scanner(classLoader), location, placeholderReplacer, encoding, stream, batchSize,
+                sqlMigrationPrefix, sqlMigrationSeparator, sqlMigrationSuffix);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param dbSupport             The database-specific support.
+     * @param scanner               The scanner to use, possibly shared with other resolvers.
+     * @param location              The location on the classpath where to migrations are located.
+     * @param placeholderReplacer   The placeholder replacer to apply to sql migration scripts.
+     * @param encoding              The encoding of Sql migrations.
+     * @param stream                Whether to stream sql migrations instead of loading them upfront.
+     * @param batchSize             The maximum number of consecutive DML statements to send to the database as a
+     *                              single batch. {@code 0} to execute every statement separately.
+     * @param sqlMigrationPrefix    The prefix for sql migrations
+     * @param sqlMigrationSeparator The separator for sql migrations
+     * @param sqlMigrationSuffix    The suffix for sql migrations
+     */
+    public SqlMigrationResolver(DbSupport dbSupport, Scanner scanner, Location location,
+                                PlaceholderReplacer placeholderReplacer, String encoding, boolean stream, int batchSize,
                                 String sqlMigrationPrefix, String sqlMigrationSeparator, String sqlMigrationSuffix) {
         this.dbSupport = dbSupport;
-        this.scanner = new Scanner(classLoader);
+        this.scanner = scanner;
         this.location = location;
         this.placeholderReplacer = placeholderReplacer;
         this.encoding = encoding;
+        this.stream = stream;
+        this.batchSize = batchSize;
         this.sqlMigrationPrefix = sqlMigrationPrefix;
         this.sqlMigrationSeparator = sqlMigrationSeparator;
         this.sqlMigrationSuffix = sqlMigrationSuffix;
@@ -108,10 +164,12 @@ public class SqlMigrationResolver implements MigrationResolver {
         List<ResolvedMigration> migrations = new ArrayList<ResolvedMigration>();
 
         Resource[] resources = scanner.scanForResources(location, sqlMigrationPrefix, sqlMigrationSuffix);
-        for (Resource resource : resources) {
-            ResolvedMigrationImpl resolvedMigration = extractMigrationInfo(resource);
+        int[] checksums = calculateChecksums(resources);
+        for (int i = 0; i < resources.length; i++) {
+            Resource resource = resources[i];
+            ResolvedMigrationImpl resolvedMigration = extractMigrationInfo(resource, checksums[i]);
             resolvedMigration.setPhysicalLocation(resource.getLocationOnDisk());
-            resolvedMigration.setExecutor(new SqlMigrationExecutor(dbSupport, resource, placeholderReplacer, encoding));
+            resolvedMigration.setExecutor(new SqlMigrationExecutor(dbSupport, resource, placeholderReplacer, encoding, stream, batchSize));
 
             migrations.add(resolvedMigration);
         }
@@ -124,9 +182,10 @@ public class SqlMigrationResolver implements MigrationResolver {
      * Extracts the migration info for this resource.
      *
      * @param resource The resource to analyse.
+     * @param checksum The checksum of the resource.
      * @return The migration info.
      */
-    private ResolvedMigrationImpl extractMigrationInfo(Resource resource) {
+    private ResolvedMigrationImpl extractMigrationInfo(Resource resource, int checksum) {
         ResolvedMigrationImpl migration = new ResolvedMigrationImpl();
 
         Pair<MigrationVersion, String> info =
@@ -137,7 +196,7 @@ public class SqlMigrationResolver implements MigrationResolver {
 
         migration.setScript(extractScriptName(resource));
 
-        migration.setChecksum(calculateChecksum(resource.loadAsBytes()));
+        migration.setChecksum(checksum);
         migration.setType(MigrationType.SQL);
         return migration;
     }
@@ -157,14 +216,103 @@ public class SqlMigrationResolver implements MigrationResolver {
     }
 
     /**
-     * Calculates the checksum of these bytes.
+     * Calculates the checksums of these resources. Large sets of resources are spread across all available processors.
+     *
+     * @param resources The resources to calculate the checksums for.
+     * @return The crc-32 checksums, in the same order as the resources.
+     */
+    private int[] calculateChecksums(final Resource[] resources) {
+        final int[] checksums = new int[resources.length];
+
+        final int threads = Math.min(Runtime.getRuntime().availableProcessors(),
+                resources.length / (PARALLEL_CHECKSUM_THRESHOLD / 2));
+        if (resources.length < PARALLEL_CHECKSUM_THRESHOLD || threads < 2) {
+            calculateChecksums(resources, checksums, 0, 1);
+            return checksums;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "flyway-checksum");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            for (int i = 0; i < threads; i++) {
+                final int offset = i;
+                tasks.add(new Callable<Void>() {
+                    public Void call() {
+                        calculateChecksums(resources, checksums, offset, threads);
+                        return null;
+                    }
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while calculating checksums of sql migrations in " + location);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FlywayException("Unable to calculate checksums of sql migrations in " + location, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return checksums;
+    }
+
+    /**
+     * Calculates the checksums of every {@code step}th resource, starting at {@code offset}, streaming them through a
+     * single buffer.
+     *
+     * @param resources The resources to calculate the checksums for.
+     * @param checksums The array to store the checksums in, in the same order as the resources.
+     * @param offset    The index of the first resource to process.
+     * @param step      The distance between two resources to process.
+     */
+    private void calculateChecksums(Resource[] resources, int[] checksums, int offset, int step) {
+        byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+        for (int i = offset; i < resources.length; i += step) {
+            checksums[i] = calculateChecksum(resources[i], buffer);
+        }
+    }
+
+    /**
+     * Calculates the checksum of this resource, unless it is already known or cached.
      *
-     * @param bytes The bytes to calculate the checksum for.
-     * @return The crc-32 checksum of the bytes.
+     * @param resource The resource to calculate the checksum for.
+     * @param buffer   The buffer to stream the contents of the resource through.
+     * @return The crc-32 checksum of the contents of the resource.
      */
-    private static int calculateChecksum(byte[] bytes) {
-        final CRC32 crc32 = new CRC32();
-        crc32.update(bytes);
-        return (int) crc32.getValue();
+    private int calculateChecksum(Resource resource, byte[] buffer) {
+        Integer checksum = resource.getChecksum();
+        if (checksum != null) {
+            return checksum;
+        }
+
+        ChecksumCache checksumCache = scanner.getChecksumCache();
+        if (checksumCache != null) {
+            checksum = checksumCache.get(resource);
+            if (checksum != null) {
+                return checksum;
+            }
+        }
+
+        int calculated;
+        try {
+            calculated = FileCopyUtils.checksum(resource.loadAsStream(), buffer);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to calculate checksum of resource: " + resource.getLocation(), e);
+        }
+
+        if (checksumCache != null) {
+            checksumCache.put(resource, calculated);
+        }
+        return calculated;
     }
 }
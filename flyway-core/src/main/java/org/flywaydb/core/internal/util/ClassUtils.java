@@ -18,6 +18,7 @@ package org.flywaydb.core.internal.util;
 import org.flywaydb.core.api.FlywayException;
 
 import java.io.UnsupportedEncodingException;
+import java.net.URL;
 import java.net.URLDecoder;
 import java.security.ProtectionDomain;
 import java.util.ArrayList;
@@ -121,4 +122,38 @@ public class ClassUtils {
             return null;
         }
     }
+
+    /**
+     * Retrieves the physical location on disk of this class, without loading it.
+     *
+     * @param className   The fully qualified name of the class to get the location for.
+     * @param classLoader The ClassLoader to use.
+     * @return The absolute path of the jar file or classpath directory containing the class. {@code null} if it
+     * couldn't be determined.
+     */
+    public static String getLocationOnDisk(String className, ClassLoader classLoader) {
+        String resourceName = className.replace(".", "/") + ".class";
+        URL url = classLoader.getResource(resourceName);
+        if (url == null) {
+            return null;
+        }
+
+        String path = url.getPath();
+        int separatorIndex = path.indexOf("!/");
+        if (separatorIndex != -1) {
+            path = path.substring(0, separatorIndex);
+            if (path.startsWith("file:")) {
+                path = path.substring("file:".length());
+            }
+        } else if (path.endsWith(resourceName)) {
+            path = path.substring(0, path.length() - resourceName.length());
+        }
+
+        try {
+            return URLDecoder.decode(path, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            //Can never happen.
+            return null;
+        }
+    }
 }
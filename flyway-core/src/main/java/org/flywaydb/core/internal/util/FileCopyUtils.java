@@ -22,6 +22,7 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.zip.CRC32;
 
 /**
  * Utility class for copying files and their contents. Inspired by Spring's own.
@@ -69,6 +70,32 @@ public class FileCopyUtils {
         return out.toByteArray();
     }
 
+    /**
+     * Calculate the crc-32 checksum of the contents of the given InputStream, streaming through the given buffer.
+     * Closes the stream when done.
+     *
+     * @param in     the stream to calculate the checksum for
+     * @param buffer the buffer to read the stream into, which can be reused for subsequent calls on the same thread
+     * @return the crc-32 checksum of the contents
+     * @throws IOException in case of I/O errors
+     */
+    public static int checksum(InputStream in, byte[] buffer) throws IOException {
+        try {
+            CRC32 crc32 = new CRC32();
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                crc32.update(buffer, 0, bytesRead);
+            }
+            return (int) crc32.getValue();
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ex) {
+                //Ignore
+            }
+        }
+    }
+
     /**
      * Copy the contents of the given Reader to the given Writer.
      * Closes both when done.
@@ -0,0 +1,280 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner;
+
+import org.flywaydb.core.internal.util.scanner.filesystem.FileSystemResource;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persistent cache of the checksums of the resources backed by a file on disk, so that subsequent runs (typically of
+ * the command-line tool) don't need to read the contents of resources that didn't change.
+ * <p>Each entry maps the location of a resource on disk, its size and its last modification time to its checksum.
+ * An entry is only used when both the size and the last modification time still match. Resources modified too
+ * recently for a subsequent modification to be detected through their last modification time are never cached.</p>
+ * <p>The cache file only keeps the entries used during the last run. Problems reading or writing it are logged, but
+ * never fail a command: the checksums are then simply calculated again. A cache without file is only kept in memory,
+ * for long-running processes resolving the same migrations repeatedly.</p>
+ */
+public class ChecksumCache {
+    private static final Log LOG = LogFactory.getLog(ChecksumCache.class);
+
+    /**
+     * The first line of a cache file, identifying its format.
+     */
+    private static final String HEADER = "# Flyway checksum cache v1";
+
+    /**
+     * The minimum age of the last modification of a resource for its checksum to be cached (in ms). This covers
+     * file systems with a coarse modification time resolution.
+     */
+    private static final long MIN_AGE = 2000;
+
+    /**
+     * The cache file. {@code null} if the cache is only kept in memory.
+     */
+    private final File file;
+
+    /**
+     * The entries loaded from the cache file, indexed by location on disk.
+     */
+    private final Map<String, Entry> loadedEntries;
+
+    /**
+     * The entries used or added during this run, indexed by location on disk.
+     */
+    private final Map<String, Entry> usedEntries = new TreeMap<String, Entry>();
+
+    /**
+     * Whether the entries to save differ from the loaded ones.
+     */
+    private boolean modified;
+
+    /**
+     * Creates a new checksum cache that is only kept in memory.
+     */
+    public ChecksumCache() {
+        this.file = null;
+        this.loadedEntries = new HashMap<String, Entry>();
+    }
+
+    /**
+     * Creates a new checksum cache backed by this file. The file is read immediately if it exists.
+     *
+     * @param file The cache file.
+     */
+    public ChecksumCache(File file) {
+        this.file = file;
+        this.loadedEntries = load(file);
+    }
+
+    /**
+     * Loads the entries of this cache file.
+     *
+     * @param file The cache file.
+     * @return The entries, indexed by location on disk. Empty if the file doesn't exist or could not be read.
+     */
+    private static Map<String, Entry> load(File file) {
+        Map<String, Entry> entries = new HashMap<String, Entry>();
+        if (!file.isFile()) {
+            LOG.debug("No checksum cache found at " + file.getAbsolutePath());
+            return entries;
+        }
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            try {
+                if (!HEADER.equals(reader.readLine())) {
+                    LOG.warn("Ignoring checksum cache with unknown format: " + file.getAbsolutePath());
+                    return entries;
+                }
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split("\t");
+                    if (parts.length == 4) {
+                        entries.put(parts[0], new Entry(Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                                Integer.parseInt(parts[3])));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to read checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+            entries.clear();
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring corrupt checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+            entries.clear();
+        }
+
+        LOG.debug("Loaded " + entries.size() + " entries from checksum cache " + file.getAbsolutePath());
+        return entries;
+    }
+
+    /**
+     * Retrieves the cached checksum of this resource.
+     *
+     * @param resource The resource.
+     * @return The checksum. {@code null} if it isn't cached, if the resource changed or if it isn't backed by a file.
+     */
+    public synchronized Integer get(Resource resource) {
+        String key = getKey(resource);
+        if (key == null) {
+            return null;
+        }
+
+        Entry entry = usedEntries.get(key);
+        if (entry == null) {
+            entry = loadedEntries.get(key);
+        }
+        if ((entry == null) || !entry.matches(getLength(resource), getLastModified(resource))) {
+            return null;
+        }
+
+        usedEntries.put(key, entry);
+        return entry.checksum;
+    }
+
+    /**
+     * Stores the checksum of this resource.
+     *
+     * @param resource The resource.
+     * @param checksum Its checksum.
+     */
+    public synchronized void put(Resource resource, int checksum) {
+        String key = getKey(resource);
+        if (key == null) {
+            return;
+        }
+
+        long lastModified = getLastModified(resource);
+        if ((lastModified == 0) || (System.currentTimeMillis() - lastModified < MIN_AGE)) {
+            return;
+        }
+
+        usedEntries.put(key, new Entry(getLength(resource), lastModified, checksum));
+        modified = true;
+    }
+
+    /**
+     * Writes the entries used during this run back to the cache file, if they differ from the ones that were loaded.
+     */
+    public synchronized void save() {
+        if ((file == null) || !modified && (usedEntries.size() == loadedEntries.size())) {
+            return;
+        }
+
+        File tempFile = new File(file.getAbsolutePath() + ".tmp");
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+
+            Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8");
+            try {
+                writer.write(HEADER + "\n");
+                for (Map.Entry<String, Entry> entry : usedEntries.entrySet()) {
+                    Entry value = entry.getValue();
+                    writer.write(entry.getKey() + "\t" + value.length + "\t" + value.lastModified + "\t"
+                            + value.checksum + "\n");
+                }
+            } finally {
+                writer.close();
+            }
+
+            if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+                throw new IOException("Unable to rename " + tempFile.getAbsolutePath());
+            }
+            LOG.debug("Saved " + usedEntries.size() + " entries to checksum cache " + file.getAbsolutePath());
+        } catch (IOException e) {
+            LOG.warn("Unable to write checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * @param resource The resource.
+     * @return The key of this resource in the cache. {@code null} if it isn't backed by a file on disk.
+     */
+    private static String getKey(Resource resource) {
+        String locationOnDisk = resource.getLocationOnDisk();
+        if ((locationOnDisk == null) || (locationOnDisk.indexOf('\t') >= 0) || (locationOnDisk.indexOf('\n') >= 0)
+                || !new File(locationOnDisk).isFile()) {
+            return null;
+        }
+        return locationOnDisk;
+    }
+
+    /**
+     * @param resource The resource, backed by a file on disk.
+     * @return Its size in bytes.
+     */
+    private static long getLength(Resource resource) {
+        if (resource instanceof FileSystemResource) {
+            return ((FileSystemResource) resource).getLength();
+        }
+        return new File(resource.getLocationOnDisk()).length();
+    }
+
+    /**
+     * @param resource The resource, backed by a file on disk.
+     * @return Its last modification time.
+     */
+    private static long getLastModified(Resource resource) {
+        if (resource instanceof FileSystemResource) {
+            return ((FileSystemResource) resource).getLastModified();
+        }
+        return new File(resource.getLocationOnDisk()).lastModified();
+    }
+
+    /**
+     * The cached checksum of a single resource.
+     */
+    private static class Entry {
+        private final long length;
+        private final long lastModified;
+        private final int checksum;
+
+        Entry(long length, long lastModified, int checksum) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        /**
+         * @param length       The current size of the resource.
+         * @param lastModified The current last modification time of the resource.
+         * @return {@code true} if this entry is still valid for the resource, {@code false} if it changed.
+         */
+        boolean matches(long length, long lastModified) {
+            return (this.length == length) && (this.lastModified == lastModified);
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package org.flywaydb.core.internal.util.scanner;
 
+import java.io.InputStream;
+import java.io.Reader;
+
 /**
  * A loadable resource.
  */
@@ -39,6 +42,21 @@ public interface Resource {
      */
     String loadAsString(String encoding);
 
+    /**
+     * Opens this resource for reading as a stream of characters. The caller is responsible for closing the reader.
+     *
+     * @param encoding The encoding to use.
+     * @return The reader for the contents of the resource.
+     */
+    Reader loadAsReader(String encoding);
+
+    /**
+     * Opens this resource for reading as a stream of bytes. The caller is responsible for closing the stream.
+     *
+     * @return The stream for the contents of the resource.
+     */
+    InputStream loadAsStream();
+
     /**
      * Loads this resource as a byte array.
      *
@@ -46,6 +64,13 @@ public interface Resource {
      */
     byte[] loadAsBytes();
 
+    /**
+     * Retrieves the checksum of this resource if it is already known, such as when it was precomputed at build time.
+     *
+     * @return The crc-32 checksum of the contents of the resource. {@code null} if it must be calculated.
+     */
+    Integer getChecksum();
+
     /**
      * @return The filename of this resource, without the path.
      */
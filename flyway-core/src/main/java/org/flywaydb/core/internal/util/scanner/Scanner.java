@@ -24,12 +24,87 @@ import org.flywaydb.core.internal.util.scanner.filesystem.FileSystemScanner;
 
 /**
  * Scanner for Resources and Classes.
+ * <p>Classpath locations are indexed on first use, so a single instance should be shared by everything scanning the
+ * same locations within a command (migration resolvers, callbacks, ...).</p>
  */
 public class Scanner {
     private final ClassLoader classLoader;
 
+    /**
+     * Detects the features available on the classpath.
+     */
+    private final FeatureDetector featureDetector;
+
+    /**
+     * The scanner for classpath locations. Created on first use.
+     */
+    private ClassPathScanner classPathScanner;
+
+    /**
+     * The scanner for Android apps. Created on first use.
+     */
+    private AndroidScanner androidScanner;
+
+    /**
+     * The number of threads to use for walking the directory trees of filesystem locations.
+     */
+    private final int fileSystemScanThreads;
+
+    /**
+     * The persistent cache of resource checksums. {@code null} if none is used.
+     */
+    private final ChecksumCache checksumCache;
+
+    /**
+     * Creates a new scanner walking filesystem locations sequentially.
+     *
+     * @param classLoader The ClassLoader to scan.
+     */
     public Scanner(ClassLoader classLoader) {
+        this(classLoader, 1, null);
+    }
+
+    /**
+     * Creates a new scanner.
+     *
+     * @param classLoader           The ClassLoader to scan.
+     * @param fileSystemScanThreads The number of threads to use for walking the directory trees of filesystem
+     *                              locations. 1 walks them sequentially.
+     * @param checksumCache         The persistent cache of resource checksums. {@code null} to use none.
+     */
+    public Scanner(ClassLoader classLoader, int fileSystemScanThreads, ChecksumCache checksumCache) {
         this.classLoader = classLoader;
+        this.featureDetector = new FeatureDetector(classLoader);
+        this.fileSystemScanThreads = fileSystemScanThreads;
+        this.checksumCache = checksumCache;
+    }
+
+    /**
+     * @return The persistent cache of the checksums of the resources found by this scanner. {@code null} if none is
+     * used.
+     */
+    public ChecksumCache getChecksumCache() {
+        return checksumCache;
+    }
+
+    /**
+     * @return The scanner for classpath locations, sharing its index with all other scans of this scanner.
+     */
+    private ClassPathScanner getClassPathScanner() {
+        if (classPathScanner == null) {
+            classPathScanner = new ClassPathScanner(classLoader, featureDetector);
+        }
+        return classPathScanner;
+    }
+
+    /**
+     * @return The scanner for Android apps, sharing its index asset with all other scans of this scanner.
+     */
+    private AndroidScanner getAndroidScanner() {
+        if (androidScanner == null) {
+            androidScanner = new AndroidScanner(classLoader);
+        }
+        return androidScanner;
     }
 
     /**
@@ -43,14 +118,14 @@ public class Scanner {
     public Resource[] scanForResources(Location location, String prefix, String suffix) {
         try {
             if (location.isFileSystem()) {
-                return new FileSystemScanner().scanForResources(location.getPath(), prefix, suffix);
+                return new FileSystemScanner(fileSystemScanThreads).scanForResources(location.getPath(), prefix, suffix);
             }
 
-            if (new FeatureDetector(classLoader).isAndroidAvailable()) {
-                return new AndroidScanner(classLoader).scanForResources(location.getPath(), prefix, suffix);
+            if (featureDetector.isAndroidAvailable()) {
+                return getAndroidScanner().scanForResources(location.getPath(), prefix, suffix);
             }
 
-            return new ClassPathScanner(classLoader).scanForResources(location.getPath(), prefix, suffix);
+            return getClassPathScanner().scanForResources(location.getPath(), prefix, suffix);
         } catch (Exception e) {
             throw new FlywayException("Unable to scan for SQL migrations in location: " + location, e);
         }
@@ -68,10 +143,49 @@ public class Scanner {
      * @throws Exception when the location could not be scanned.
      */
     public Class<?>[] scanForClasses(Location location, Class<?> implementedInterface) throws Exception {
-        if (new FeatureDetector(classLoader).isAndroidAvailable()) {
-            return new AndroidScanner(classLoader).scanForClasses(location.getPath(), implementedInterface);
+        if (featureDetector.isAndroidAvailable()) {
+            return getAndroidScanner().scanForClasses(location.getPath(), implementedInterface);
+        }
+
+        return getClassPathScanner().scanForClasses(location.getPath(), implementedInterface);
+    }
+
+    /**
+     * Scans the classpath for concrete classes under the specified package implementing this interface, loading as
+     * few classes as possible. Non-instantiable abstract classes are filtered out.
+     *
+     * @param location             The location (package) in the classpath to start scanning.
+     *                             Subpackages are also scanned.
+     * @param implementedInterface The interface the matching classes should implement.
+     * @return The fully qualified names of the non-abstract classes that were found.
+     * @throws Exception when the location could not be scanned.
+     */
+    public String[] scanForClassNames(Location location, Class<?> implementedInterface) throws Exception {
+        if (featureDetector.isAndroidAvailable()) {
+            Class<?>[] classes = getAndroidScanner().scanForClasses(location.getPath(), implementedInterface);
+            String[] classNames = new String[classes.length];
+            for (int i = 0; i < classes.length; i++) {
+                classNames[i] = classes[i].getName();
+            }
+            return classNames;
+        }
+
+        return getClassPathScanner().scanForClassNames(location.getPath(), implementedInterface);
+    }
+
+    /**
+     * Checks whether this class implements this interface, loading it only when unavoidable.
+     *
+     * @param className            The fully qualified name of the class.
+     * @param implementedInterface The interface.
+     * @return {@code true} if it does, {@code false} if not.
+     * @throws ClassNotFoundException when the class could not be found.
+     */
+    public boolean isImplementing(String className, Class<?> implementedInterface) throws ClassNotFoundException {
+        if (featureDetector.isAndroidAvailable()) {
+            return implementedInterface.isAssignableFrom(Class.forName(className, false, classLoader));
         }
 
-        return new ClassPathScanner(classLoader).scanForClasses(location.getPath(), implementedInterface);
+        return getClassPathScanner().isImplementing(className, implementedInterface);
     }
-}
\ No newline at end of file
+}
@@ -21,7 +21,9 @@ import org.flywaydb.core.internal.util.FileCopyUtils;
 import org.flywaydb.core.internal.util.scanner.Resource;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 
 /**
  * Resource within an Android App.
@@ -31,10 +33,29 @@ public class AndroidResource implements Resource {
     private final String path;
     private final String name;
 
+    /**
+     * The precomputed checksum of this asset. {@code null} if it must be calculated from its contents.
+     */
+    private final Integer checksum;
+
     public AndroidResource(AssetManager assetManager, String path, String name) {
+        this(assetManager, path, name, null);
+    }
+
+    /**
+     * Creates a new asset resource.
+     *
+     * @param assetManager The asset manager of the app.
+     * @param path         The path of the directory containing the asset.
+     * @param name         The filename of the asset.
+     * @param checksum     The precomputed checksum of the asset, as found in the index. {@code null} if it must be
+     *                     calculated from its contents.
+     */
+    public AndroidResource(AssetManager assetManager, String path, String name, Integer checksum) {
         this.assetManager = assetManager;
         this.path = path;
         this.name = name;
+        this.checksum = checksum;
     }
 
     @Override
@@ -50,7 +71,25 @@ public class AndroidResource implements Resource {
     @Override
     public String loadAsString(String encoding) {
         try {
-            return FileCopyUtils.copyToString(new InputStreamReader(assetManager.open(getLocation()), encoding));
+            return FileCopyUtils.copyToString(loadAsReader(encoding));
+        } catch (IOException e) {
+            throw new FlywayException("Unable to load asset: " + getLocation(), e);
+        }
+    }
+
+    @Override
+    public Reader loadAsReader(String encoding) {
+        try {
+            return new InputStreamReader(assetManager.open(getLocation()), encoding);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to load asset: " + getLocation(), e);
+        }
+    }
+
+    @Override
+    public InputStream loadAsStream() {
+        try {
+            return assetManager.open(getLocation());
         } catch (IOException e) {
             throw new FlywayException("Unable to load asset: " + getLocation(), e);
         }
@@ -59,12 +98,17 @@ public class AndroidResource implements Resource {
     @Override
     public byte[] loadAsBytes() {
         try {
-            return FileCopyUtils.copyToByteArray(assetManager.open(getLocation()));
+            return FileCopyUtils.copyToByteArray(loadAsStream());
         } catch (IOException e) {
             throw new FlywayException("Unable to load asset: " + getLocation(), e);
         }
     }
 
+    @Override
+    public Integer getChecksum() {
+        return checksum;
+    }
+
     @Override
     public String getFilename() {
         return name;
@@ -24,7 +24,9 @@ import org.flywaydb.core.internal.util.ClassUtils;
 import org.flywaydb.core.internal.util.logging.Log;
 import org.flywaydb.core.internal.util.logging.LogFactory;
 import org.flywaydb.core.internal.util.scanner.Resource;
+import org.flywaydb.core.internal.util.scanner.classpath.ClassPathIndex;
 
+import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Enumeration;
@@ -32,6 +34,11 @@ import java.util.List;
 
 /**
  * Class & resource scanner for Android.
+ * <p>When the app packages a Flyway index as the asset {@link ClassPathIndex#INDEX_FILE}, the migrations and classes of
+ * the indexed locations are read from it with a single asset open, instead of listing the assets and enumerating all
+ * classes of the dex file. The index is generated at build time by the {@code flywayIndex} Gradle task, using the
+ * compiled classes and the assets directory of the app as classpath directories and the assets directory as output
+ * directory.</p>
  */
 public class AndroidScanner {
     private static final Log LOG = LogFactory.getLog(AndroidScanner.class);
@@ -40,6 +47,16 @@ public class AndroidScanner {
 
     private final PathClassLoader classLoader;
 
+    /**
+     * The index packaged as asset. {@code null} if the app has none. Loaded on first use.
+     */
+    private ClassPathIndex index;
+
+    /**
+     * Whether an attempt has already been made at loading the index.
+     */
+    private boolean indexLoaded;
+
     public AndroidScanner(ClassLoader classLoader) {
         this.classLoader = (PathClassLoader) classLoader;
         context = ContextHolder.getContext();
@@ -50,7 +67,28 @@ public class AndroidScanner {
 
     }
 
+    /**
+     * @return The index packaged as asset. {@code null} if the app has none.
+     */
+    private ClassPathIndex getIndex() {
+        if (!indexLoaded) {
+            indexLoaded = true;
+            try {
+                index = ClassPathIndex.read(context.getAssets().open(ClassPathIndex.INDEX_FILE));
+                LOG.debug("Using Flyway index asset " + ClassPathIndex.INDEX_FILE);
+            } catch (IOException e) {
+                LOG.debug("No usable Flyway index asset, falling back to enumeration: " + e.getMessage());
+            }
+        }
+        return index;
+    }
+
     public Resource[] scanForResources(String path, String prefix, String suffix) throws Exception {
+        ClassPathIndex index = getIndex();
+        if ((index != null) && index.covers(path)) {
+            return scanIndexForResources(index, path, prefix, suffix);
+        }
+
         List<Resource> resources = new ArrayList<Resource>();
 
         for (String asset : context.getAssets().list(path)) {
@@ -65,36 +103,89 @@ public class AndroidScanner {
         return resources.toArray(new Resource[resources.size()]);
     }
 
+    /**
+     * Finds the assets directly within this path in the index. Just like {@code AssetManager.list}, subdirectories
+     * aren't searched.
+     *
+     * @param index  The index packaged as asset.
+     * @param path   The path of the assets directory.
+     * @param prefix The prefix of the asset names to match.
+     * @param suffix The suffix of the asset names to match.
+     * @return The assets that were found, with the checksums from the index.
+     */
+    private Resource[] scanIndexForResources(ClassPathIndex index, String path, String prefix, String suffix) {
+        List<Resource> resources = new ArrayList<Resource>();
+
+        String dirPrefix = path.length() == 0 ? "" : path + "/";
+        for (String resourceName : index.findResourceNames(path)) {
+            String asset = resourceName.substring(dirPrefix.length());
+            if (asset.contains("/")) {
+                continue;
+            }
+            if (asset.startsWith(prefix) && asset.endsWith(suffix)
+                    && (asset.length() > (prefix + suffix).length())) {
+                resources.add(new AndroidResource(context.getAssets(), path, asset, index.getChecksum(resourceName)));
+            } else {
+                LOG.debug("Filtering out asset: " + asset);
+            }
+        }
+
+        return resources.toArray(new Resource[resources.size()]);
+    }
+
     public Class<?>[] scanForClasses(String path, Class<?> implementedInterface) throws Exception {
-        String pkg = path.replace("/", ".");
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+
+        ClassPathIndex index = getIndex();
+        if ((index != null) && index.covers(path)) {
+            for (String resourceName : index.findResourceNames(path)) {
+                if (resourceName.endsWith(".class")) {
+                    String className = resourceName.substring(0, resourceName.length() - ".class".length()).replace("/", ".");
+                    addClass(className, implementedInterface, classes);
+                }
+            }
+            return classes.toArray(new Class<?>[classes.size()]);
+        }
 
-        List<Class> classes = new ArrayList<Class>();
+        String pkg = path.replace("/", ".");
 
         DexFile dex = new DexFile(context.getApplicationInfo().sourceDir);
         Enumeration<String> entries = dex.entries();
         while (entries.hasMoreElements()) {
             String className = entries.nextElement();
             if (className.startsWith(pkg)) {
-                Class<?> clazz = classLoader.loadClass(className);
-                if (Modifier.isAbstract(clazz.getModifiers())) {
-                    LOG.debug("Skipping abstract class: " + className);
-                    continue;
-                }
+                addClass(className, implementedInterface, classes);
+            }
+        }
+        return classes.toArray(new Class<?>[classes.size()]);
+    }
 
-                if (!implementedInterface.isAssignableFrom(clazz)) {
-                    continue;
-                }
+    /**
+     * Loads this class and adds it to the classes found if it is concrete and implements this interface.
+     *
+     * @param className            The fully qualified name of the class.
+     * @param implementedInterface The interface the matching classes should implement.
+     * @param classes              The classes found so far.
+     * @throws ClassNotFoundException when the class could not be loaded.
+     */
+    private void addClass(String className, Class<?> implementedInterface, List<Class<?>> classes) throws ClassNotFoundException {
+        Class<?> clazz = classLoader.loadClass(className);
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+            LOG.debug("Skipping abstract class: " + className);
+            return;
+        }
 
-                try {
-                    ClassUtils.instantiate(className, classLoader);
-                } catch (Exception e) {
-                    throw new FlywayException("Unable to instantiate class: " + className);
-                }
+        if (!implementedInterface.isAssignableFrom(clazz)) {
+            return;
+        }
 
-                classes.add(clazz);
-                LOG.debug("Found class: " + className);
-            }
+        try {
+            ClassUtils.instantiate(className, classLoader);
+        } catch (Exception e) {
+            throw new FlywayException("Unable to instantiate class: " + className);
         }
-        return classes.toArray(new Class<?>[classes.size()]);
+
+        classes.add(clazz);
+        LOG.debug("Found class: " + className);
     }
 }
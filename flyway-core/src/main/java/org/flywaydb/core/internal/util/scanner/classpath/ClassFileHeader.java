@@ -0,0 +1,196 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The header of a class file: its access flags, name, superclass and directly implemented interfaces. It is read
+ * straight from the constant pool of the class file, without loading the class.
+ */
+public class ClassFileHeader {
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ENUM = 0x4000;
+
+    /**
+     * The access flags of the class.
+     */
+    private final int accessFlags;
+
+    /**
+     * The internal name of the class (such as {@code org/example/V1__Migration}).
+     */
+    private final String name;
+
+    /**
+     * The internal name of the superclass. {@code null} for {@code java/lang/Object}.
+     */
+    private final String superName;
+
+    /**
+     * The internal names of the directly implemented interfaces.
+     */
+    private final String[] interfaceNames;
+
+    /**
+     * Creates a new class file header.
+     *
+     * @param accessFlags    The access flags of the class.
+     * @param name           The internal name of the class.
+     * @param superName      The internal name of the superclass. {@code null} for {@code java/lang/Object}.
+     * @param interfaceNames The internal names of the directly implemented interfaces.
+     */
+    private ClassFileHeader(int accessFlags, String name, String superName, String[] interfaceNames) {
+        this.accessFlags = accessFlags;
+        this.name = name;
+        this.superName = superName;
+        this.interfaceNames = interfaceNames;
+    }
+
+    /**
+     * Reads the header of a class file.
+     *
+     * @param inputStream The stream of the class file. It is closed once read.
+     * @return The header.
+     * @throws IOException when the class file could not be read or is invalid.
+     */
+    public static ClassFileHeader read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        try {
+            if (in.readInt() != 0xCAFEBABE) {
+                throw new IOException("Invalid class file (bad magic number)");
+            }
+            in.readUnsignedShort(); // minor version
+            in.readUnsignedShort(); // major version
+
+            int constantPoolCount = in.readUnsignedShort();
+            String[] utf8s = new String[constantPoolCount];
+            int[] classNameIndexes = new int[constantPoolCount];
+            for (int i = 1; i < constantPoolCount; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8
+                        utf8s[i] = in.readUTF();
+                        break;
+                    case 7: // Class
+                        classNameIndexes[i] = in.readUnsignedShort();
+                        break;
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        skip(in, 2);
+                        break;
+                    case 15: // MethodHandle
+                        skip(in, 3);
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        skip(in, 4);
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        skip(in, 8);
+                        // Takes up two entries
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("Invalid class file (unknown constant pool tag " + tag + ")");
+                }
+            }
+
+            int accessFlags = in.readUnsignedShort();
+            String name = utf8s[classNameIndexes[in.readUnsignedShort()]];
+            int superIndex = in.readUnsignedShort();
+            String superName = superIndex == 0 ? null : utf8s[classNameIndexes[superIndex]];
+            String[] interfaceNames = new String[in.readUnsignedShort()];
+            for (int i = 0; i < interfaceNames.length; i++) {
+                interfaceNames[i] = utf8s[classNameIndexes[in.readUnsignedShort()]];
+            }
+
+            return new ClassFileHeader(accessFlags, name, superName, interfaceNames);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Skips exactly this number of bytes.
+     *
+     * @param in    The stream to skip the bytes of.
+     * @param count The number of bytes to skip.
+     * @throws IOException when the bytes could not be skipped.
+     */
+    private static void skip(DataInputStream in, int count) throws IOException {
+        int skipped = in.skipBytes(count);
+        if (skipped != count) {
+            throw new IOException("Invalid class file (unexpected end of file)");
+        }
+    }
+
+    /**
+     * @return The internal name of the class (such as {@code org/example/V1__Migration}).
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The internal name of the superclass. {@code null} for {@code java/lang/Object}.
+     */
+    public String getSuperName() {
+        return superName;
+    }
+
+    /**
+     * @return The internal names of the directly implemented interfaces.
+     */
+    public String[] getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    /**
+     * @return {@code true} if the class can be instantiated, {@code false} if it is an interface, an abstract class,
+     * an enum or an anonymous class.
+     */
+    public boolean isInstantiable() {
+        if ((accessFlags & (ACC_INTERFACE | ACC_ABSTRACT | ACC_ENUM)) != 0) {
+            return false;
+        }
+
+        // Anonymous classes are named after their enclosing class, followed by $ and a number
+        String simpleName = name.substring(name.lastIndexOf('$') + 1);
+        if ((simpleName.length() == 0) || (simpleName.length() == name.length())) {
+            return true;
+        }
+        for (int i = 0; i < simpleName.length(); i++) {
+            if (!Character.isDigit(simpleName.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
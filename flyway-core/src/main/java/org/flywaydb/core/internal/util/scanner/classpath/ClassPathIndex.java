@@ -0,0 +1,293 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.internal.util.FileCopyUtils;
+import org.flywaydb.core.internal.util.Location;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of the resources below the Flyway locations of a classpath root (a jar file or directory), generated at build
+ * time by the Maven and Gradle plugins. When present, the resources of these locations are read from the index instead
+ * of being scanned, so the cost of finding them no longer depends on the size of the jar or on the application server.
+ * <p>The index is a UTF-8 text file stored at {@link #INDEX_FILE} within the classpath root. It lists the indexed
+ * locations (lines starting with {@code @}), followed by the resources below them as tab-separated lines of name, size
+ * in bytes and crc-32 checksum (the same checksum as recorded in the metadata table for sql migrations).</p>
+ */
+public class ClassPathIndex {
+    private static final Log LOG = LogFactory.getLog(ClassPathIndex.class);
+
+    /**
+     * The location of the index file within the classpath root.
+     */
+    public static final String INDEX_FILE = "META-INF/flyway/resources.idx";
+
+    /**
+     * The paths of the locations covered by this index.
+     */
+    private final List<String> locations;
+
+    /**
+     * The checksums of the indexed resources, indexed by resource name.
+     */
+    private final Map<String, Integer> checksums;
+
+    /**
+     * Creates a new index.
+     *
+     * @param locations The paths of the locations covered by this index.
+     * @param checksums The checksums of the indexed resources, indexed by resource name.
+     */
+    private ClassPathIndex(List<String> locations, Map<String, Integer> checksums) {
+        this.locations = locations;
+        this.checksums = checksums;
+    }
+
+    /**
+     * Loads the index of the classpath root containing this location.
+     *
+     * @param locationUrl The url of the location.
+     * @param path        The path of the location on the classpath.
+     * @return The index. {@code null} if the classpath root doesn't have one or if its url can't be determined.
+     */
+    public static ClassPathIndex load(URL locationUrl, String path) {
+        String url = locationUrl.toExternalForm();
+        if (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        if (!url.endsWith(path)) {
+            return null;
+        }
+        String root = url.substring(0, url.length() - path.length());
+        if (!root.endsWith("/")) {
+            root += "/";
+        }
+
+        InputStream inputStream;
+        try {
+            URLConnection connection = new URL(root + INDEX_FILE).openConnection();
+            connection.setUseCaches(false);
+            inputStream = connection.getInputStream();
+        } catch (IOException e) {
+            return null;
+        }
+
+        try {
+            return read(inputStream);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to read Flyway index: " + root + INDEX_FILE, e);
+        }
+    }
+
+    /**
+     * Reads an index. This is also used for indexes packaged as Android assets.
+     *
+     * @param inputStream The stream to read the index from. It is closed once read.
+     * @return The index.
+     * @throws IOException when the index could not be read.
+     */
+    public static ClassPathIndex read(InputStream inputStream) throws IOException {
+        List<String> locations = new ArrayList<String>();
+        Map<String, Integer> checksums = new TreeMap<String, Integer>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if ((line.length() == 0) || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("@")) {
+                    locations.add(line.substring(1));
+                    continue;
+                }
+
+                String[] columns = line.split("\t");
+                if (columns.length != 3) {
+                    throw new IOException("Invalid line: " + line);
+                }
+                try {
+                    checksums.put(columns[0], Integer.valueOf(columns[2]));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid checksum: " + line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return new ClassPathIndex(locations, checksums);
+    }
+
+    /**
+     * Checks whether this index covers all resources below this location.
+     *
+     * @param path The path of the location on the classpath.
+     * @return {@code true} if it does, {@code false} if the location must be scanned.
+     */
+    public boolean covers(String path) {
+        for (String location : locations) {
+            if (location.length() == 0 || path.equals(location) || path.startsWith(location + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the names of the indexed resources below this location.
+     *
+     * @param path The path of the location on the classpath.
+     * @return The resource names.
+     */
+    public List<String> findResourceNames(String path) {
+        List<String> resourceNames = new ArrayList<String>();
+        for (String resourceName : checksums.keySet()) {
+            if (path.length() == 0 || resourceName.startsWith(path + "/")) {
+                resourceNames.add(resourceName);
+            }
+        }
+        return resourceNames;
+    }
+
+    /**
+     * Retrieves the precomputed checksum of this resource.
+     *
+     * @param resourceName The name of the resource.
+     * @return The crc-32 checksum of its contents. {@code null} if the resource isn't indexed.
+     */
+    public Integer getChecksum(String resourceName) {
+        return checksums.get(resourceName);
+    }
+
+    /**
+     * Generates the index of the resources below these locations at build time. The resources of a classpath root can
+     * be spread over several output directories (such as separate classes and resources directories). The index must
+     * then be packaged within the classpath root, together with the indexed resources.
+     *
+     * @param classPathDirs   The output directories making up the classpath root.
+     * @param locations       The locations to index. Locations not on the classpath are ignored.
+     * @param outputDirectory The output directory to write the index to.
+     * @return The index file.
+     * @throws FlywayException when the index could not be generated.
+     */
+    public static File generate(List<File> classPathDirs, String[] locations, File outputDirectory) {
+        List<String> paths = new ArrayList<String>();
+        Map<String, String> lines = new TreeMap<String, String>();
+        for (String descriptor : locations) {
+            Location location = new Location(descriptor);
+            if (!location.isClassPath()) {
+                LOG.debug("Not indexing location outside of the classpath: " + location);
+                continue;
+            }
+            paths.add(location.getPath());
+
+            for (File classPathDir : classPathDirs) {
+                File dir = location.getPath().length() == 0 ? classPathDir : new File(classPathDir, location.getPath());
+                if (dir.isDirectory()) {
+                    String prefix = location.getPath().length() == 0 ? "" : location.getPath() + "/";
+                    indexDirectory(dir, prefix, lines);
+                }
+            }
+        }
+
+        File indexFile = new File(outputDirectory, INDEX_FILE);
+        try {
+            File indexDir = indexFile.getParentFile();
+            if (!indexDir.isDirectory() && !indexDir.mkdirs()) {
+                throw new IOException("Unable to create directory: " + indexDir.getAbsolutePath());
+            }
+
+            Writer writer = new OutputStreamWriter(new FileOutputStream(indexFile), "UTF-8");
+            try {
+                writer.write("# Flyway classpath index. Generated at build time, do not edit.\n");
+                for (String path : paths) {
+                    writer.write("@" + path + "\n");
+                }
+                for (String line : lines.values()) {
+                    writer.write(line + "\n");
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new FlywayException("Unable to write Flyway index: " + indexFile.getAbsolutePath(), e);
+        }
+
+        LOG.info("Indexed " + lines.size() + " resources in " + paths.size() + " locations to " + indexFile.getPath());
+        return indexFile;
+    }
+
+    /**
+     * Adds the index lines of all resources in this directory and its subdirectories.
+     *
+     * @param dir    The directory to index.
+     * @param prefix The resource name prefix of the directory.
+     * @param lines  The index lines, indexed by resource name. The first resource found with a name wins.
+     * @throws FlywayException when a resource could not be read.
+     */
+    private static void indexDirectory(File dir, String prefix, Map<String, String> lines) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            throw new FlywayException("Unable to list directory: " + dir.getAbsolutePath());
+        }
+
+        for (File file : files) {
+            String resourceName = prefix + file.getName();
+            if (INDEX_FILE.equals(resourceName)) {
+                continue;
+            }
+            if (file.isDirectory()) {
+                indexDirectory(file, resourceName + "/", lines);
+            } else if (!lines.containsKey(resourceName)) {
+                lines.put(resourceName, resourceName + "\t" + file.length() + "\t" + calculateChecksum(file));
+            }
+        }
+    }
+
+    /**
+     * Calculates the checksum of the contents of this file.
+     *
+     * @param file The file.
+     * @return The crc-32 checksum of its contents.
+     * @throws FlywayException when the file could not be read.
+     */
+    private static int calculateChecksum(File file) {
+        try {
+            return FileCopyUtils.checksum(new FileInputStream(file), new byte[8192]);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to read resource: " + file.getAbsolutePath(), e);
+        }
+    }
+}
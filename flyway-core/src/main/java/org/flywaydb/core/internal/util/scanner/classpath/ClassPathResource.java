@@ -25,9 +25,12 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.net.JarURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
+import java.util.jar.JarEntry;
 
 /**
  * A resource on the classpath.
@@ -43,6 +46,11 @@ public class ClassPathResource implements Comparable<ClassPathResource>, Resourc
      */
     private ClassLoader classLoader;
 
+    /**
+     * The checksum of the resource precomputed at build time. {@code null} if unknown.
+     */
+    private Integer checksum;
+
     /**
      * Creates a new ClassPathResource.
      *
@@ -50,8 +58,20 @@ public class ClassPathResource implements Comparable<ClassPathResource>, Resourc
      * @param classLoader The ClassLoader to use.
      */
     public ClassPathResource(String location, ClassLoader classLoader) {
+        this(location, classLoader, null);
+    }
+
+    /**
+     * Creates a new ClassPathResource.
+     *
+     * @param location    The location of the resource on the classpath.
+     * @param classLoader The ClassLoader to use.
+     * @param checksum    The checksum of the resource precomputed at build time. {@code null} if unknown.
+     */
+    public ClassPathResource(String location, ClassLoader classLoader, Integer checksum) {
         this.location = location;
         this.classLoader = classLoader;
+        this.checksum = checksum;
     }
 
     public String getLocation() {
@@ -79,30 +99,70 @@ public class ClassPathResource implements Comparable<ClassPathResource>, Resourc
 
     public String loadAsString(String encoding) {
         try {
-            InputStream inputStream = classLoader.getResourceAsStream(location);
-            if (inputStream == null) {
-                throw new FlywayException("Unable to obtain inputstream for resource: " + location);
-            }
-            Reader reader = new InputStreamReader(inputStream, Charset.forName(encoding));
-
-            return FileCopyUtils.copyToString(reader);
+            return FileCopyUtils.copyToString(loadAsReader(encoding));
         } catch (IOException e) {
             throw new FlywayException("Unable to load resource: " + location + " (encoding: " + encoding + ")", e);
         }
     }
 
+    public Reader loadAsReader(String encoding) {
+        return new InputStreamReader(loadAsStream(), Charset.forName(encoding));
+    }
+
+    public InputStream loadAsStream() {
+        InputStream inputStream = classLoader.getResourceAsStream(location);
+        if (inputStream == null) {
+            throw new FlywayException("Unable to obtain inputstream for resource: " + location);
+        }
+        return inputStream;
+    }
+
     public byte[] loadAsBytes() {
         try {
-            InputStream inputStream = classLoader.getResourceAsStream(location);
-            if (inputStream == null) {
-                throw new FlywayException("Unable to obtain inputstream for resource: " + location);
-            }
-            return FileCopyUtils.copyToByteArray(inputStream);
+            return FileCopyUtils.copyToByteArray(loadAsStream());
         } catch (IOException e) {
             throw new FlywayException("Unable to load resource: " + location, e);
         }
     }
 
+    /**
+     * Retrieves the checksum of this resource if it is already known, either because it was precomputed at build time
+     * or because the resource is a jar entry, whose crc-32 checksum is stored in the jar's central directory.
+     *
+     * @return The crc-32 checksum of the contents of the resource. {@code null} if it must be calculated.
+     */
+    public Integer getChecksum() {
+        if (checksum == null) {
+            checksum = getJarEntryChecksum();
+        }
+        return checksum;
+    }
+
+    /**
+     * @return The crc-32 checksum of this resource as recorded in its jar file. {@code null} if it isn't a jar entry
+     * or if the checksum isn't available.
+     */
+    private Integer getJarEntryChecksum() {
+        URL url = getUrl();
+        if ((url == null) || !"jar".equals(url.getProtocol())) {
+            return null;
+        }
+
+        try {
+            URLConnection connection = url.openConnection();
+            if (!(connection instanceof JarURLConnection)) {
+                return null;
+            }
+            JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+            if ((entry == null) || (entry.getCrc() == -1)) {
+                return null;
+            }
+            return (int) entry.getCrc();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     public String getFilename() {
         return location.substring(location.lastIndexOf("/") + 1);
     }
@@ -26,17 +26,26 @@ import org.flywaydb.core.internal.util.scanner.classpath.jboss.JBossVFSv2UrlReso
 import org.flywaydb.core.internal.util.scanner.classpath.jboss.JBossVFSv3ClassPathLocationScanner;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 
 /**
  * ClassPath scanner.
+ * <p>The resource names found below a location are indexed by this scanner, so every location URL is only scanned
+ * once, no matter how many times (and with which prefixes and suffixes) the location is queried. Jar files are also
+ * only read once, even when they contain multiple locations. Use a single instance for all scans of a command to
+ * benefit from this.</p>
  */
 public class ClassPathScanner {
     private static final Log LOG = LogFactory.getLog(ClassPathScanner.class);
@@ -46,13 +55,62 @@ public class ClassPathScanner {
      */
     private final ClassLoader classLoader;
 
+    /**
+     * Detects the features available on the classpath.
+     */
+    private final FeatureDetector featureDetector;
+
+    /**
+     * The names of all resources below a path on the classpath, indexed by path.
+     */
+    private final Map<String, Set<String>> resourceNameIndex = new HashMap<String, Set<String>>();
+
+    /**
+     * The checksums precomputed at build time of the resources found in a {@link ClassPathIndex}, indexed by resource
+     * name. A resource present in more than one classpath root has a {@code null} checksum, as it is ambiguous.
+     */
+    private final Map<String, Integer> indexedChecksums = new HashMap<String, Integer>();
+
+    /**
+     * The internal names of all supertypes of the classes analysed so far, including themselves, indexed by internal
+     * class name.
+     */
+    private final Map<String, Set<String>> supertypeIndex = new HashMap<String, Set<String>>();
+
+    /**
+     * The location scanners created so far, indexed by url protocol.
+     */
+    private final Map<String, ClassPathLocationScanner> locationScanners = new HashMap<String, ClassPathLocationScanner>();
+
+    /**
+     * The scanner for locations inside the nested jars of executable fat jars. Created on first use.
+     */
+    private NestedJarClassPathLocationScanner nestedJarScanner;
+
+    /**
+     * The resources found inside the nested jars of executable fat jars, indexed by resource name. They are read
+     * straight from the outer jar instead of through the ClassLoader.
+     */
+    private final Map<String, ClassPathResource> nestedResources = new HashMap<String, ClassPathResource>();
+
     /**
      * Creates a new Classpath scanner.
      *
      * @param classLoader The ClassLoader for loading migrations on the classpath.
      */
     public ClassPathScanner(ClassLoader classLoader) {
+        this(classLoader, new FeatureDetector(classLoader));
+    }
+
+    /**
+     * Creates a new Classpath scanner.
+     *
+     * @param classLoader     The ClassLoader for loading migrations on the classpath.
+     * @param featureDetector Detects the features available on the classpath.
+     */
+    public ClassPathScanner(ClassLoader classLoader, FeatureDetector featureDetector) {
         this.classLoader = classLoader;
+        this.featureDetector = featureDetector;
     }
 
     /**
@@ -72,7 +130,9 @@ public class ClassPathScanner {
 
         Set<String> resourceNames = findResourceNames(path, prefix, suffix);
         for (String resourceName : resourceNames) {
-            resources.add(new ClassPathResource(resourceName, classLoader));
+            ClassPathResource nestedResource = nestedResources.get(resourceName);
+            resources.add(nestedResource != null ? nestedResource
+                    : new ClassPathResource(resourceName, classLoader, indexedChecksums.get(resourceName)));
             LOG.debug("Found resource: " + resourceName);
         }
 
@@ -90,35 +150,146 @@ public class ClassPathScanner {
      * @throws Exception when the location could not be scanned.
      */
     public Class<?>[] scanForClasses(String location, Class<?> implementedInterface) throws Exception {
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+
+        for (String className : scanForClassNames(location, implementedInterface)) {
+            Class<?> clazz = classLoader.loadClass(className);
+
+            try {
+                ClassUtils.instantiate(className, classLoader);
+            } catch (Exception e) {
+                throw new FlywayException("Unable to instantiate class: " + className, e);
+            }
+
+            classes.add(clazz);
+        }
+
+        return classes.toArray(new Class<?>[classes.size()]);
+    }
+
+    /**
+     * Scans the classpath for concrete classes under the specified package implementing this interface, without
+     * loading them. Only the headers of the class files are read. Non-instantiable abstract classes are filtered out.
+     *
+     * @param location             The location (package) in the classpath to start scanning.
+     *                             Subpackages are also scanned.
+     * @param implementedInterface The interface the matching classes should implement.
+     * @return The fully qualified names of the non-abstract classes that were found.
+     * @throws Exception when the location could not be scanned.
+     */
+    public String[] scanForClassNames(String location, Class<?> implementedInterface) throws Exception {
         LOG.debug("Scanning for classes at '" + location + "' (Implementing: '" + implementedInterface.getName() + "')");
 
-        List<Class<?>> classes = new ArrayList<Class<?>>();
+        List<String> classNames = new ArrayList<String>();
 
         Set<String> resourceNames = findResourceNames(location, "", ".class");
         for (String resourceName : resourceNames) {
             String className = toClassName(resourceName);
-            Class<?> clazz = classLoader.loadClass(className);
+            ClassFileHeader header = readClassFileHeader(resourceName);
 
-            if (Modifier.isAbstract(clazz.getModifiers()) || clazz.isEnum() || clazz.isAnonymousClass()) {
+            if ((header != null) && !header.isInstantiable()) {
                 LOG.debug("Skipping non-instantiable class: " + className);
                 continue;
             }
 
-            if (!implementedInterface.isAssignableFrom(clazz)) {
+            if (!isImplementing(className, implementedInterface)) {
                 continue;
             }
 
-            try {
-                ClassUtils.instantiate(className, classLoader);
-            } catch (Exception e) {
-                throw new FlywayException("Unable to instantiate class: " + className, e);
+            if (header == null && !isInstantiable(classLoader.loadClass(className))) {
+                LOG.debug("Skipping non-instantiable class: " + className);
+                continue;
             }
 
-            classes.add(clazz);
+            classNames.add(className);
             LOG.debug("Found class: " + className);
         }
 
-        return classes.toArray(new Class<?>[classes.size()]);
+        return classNames.toArray(new String[classNames.size()]);
+    }
+
+    /**
+     * Checks whether this class implements this interface, directly or through its superclasses and superinterfaces.
+     * The class is only loaded if its class file can't be read.
+     *
+     * @param className            The fully qualified name of the class.
+     * @param implementedInterface The interface.
+     * @return {@code true} if it does, {@code false} if not.
+     * @throws ClassNotFoundException when the class could neither be read nor loaded.
+     */
+    public boolean isImplementing(String className, Class<?> implementedInterface) throws ClassNotFoundException {
+        return getSupertypes(className.replace(".", "/")).contains(implementedInterface.getName().replace(".", "/"));
+    }
+
+    /**
+     * Retrieves the internal names of this type and all its supertypes.
+     *
+     * @param internalName The internal name of the type.
+     * @return The internal names.
+     * @throws ClassNotFoundException when the type could neither be read nor loaded.
+     */
+    private Set<String> getSupertypes(String internalName) throws ClassNotFoundException {
+        Set<String> supertypes = supertypeIndex.get(internalName);
+        if (supertypes != null) {
+            return supertypes;
+        }
+
+        supertypes = new HashSet<String>();
+        supertypes.add(internalName);
+        if (!internalName.startsWith("java/")) {
+            ClassFileHeader header = readClassFileHeader(internalName + ".class");
+            if (header == null) {
+                Class<?> clazz = Class.forName(internalName.replace("/", "."), false, classLoader);
+                if (clazz.getSuperclass() != null) {
+                    supertypes.addAll(getSupertypes(clazz.getSuperclass().getName().replace(".", "/")));
+                }
+                for (Class<?> anInterface : clazz.getInterfaces()) {
+                    supertypes.addAll(getSupertypes(anInterface.getName().replace(".", "/")));
+                }
+            } else {
+                if (header.getSuperName() != null) {
+                    supertypes.addAll(getSupertypes(header.getSuperName()));
+                }
+                for (String interfaceName : header.getInterfaceNames()) {
+                    supertypes.addAll(getSupertypes(interfaceName));
+                }
+            }
+        }
+
+        supertypeIndex.put(internalName, supertypes);
+        return supertypes;
+    }
+
+    /**
+     * Reads the header of this class file.
+     *
+     * @param resourceName The name of the class file on the classpath.
+     * @return The header. {@code null} if the class file could not be read.
+     */
+    private ClassFileHeader readClassFileHeader(String resourceName) {
+        ClassPathResource nestedResource = nestedResources.get(resourceName);
+        InputStream inputStream = nestedResource != null
+                ? nestedResource.loadAsStream() : classLoader.getResourceAsStream(resourceName);
+        if (inputStream == null) {
+            return null;
+        }
+
+        try {
+            return ClassFileHeader.read(inputStream);
+        } catch (IOException e) {
+            LOG.debug("Unable to read class file header of " + resourceName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether this class can be instantiated.
+     *
+     * @param clazz The class to check.
+     * @return {@code true} if it can, {@code false} if it is abstract, an enum or an anonymous class.
+     */
+    private static boolean isInstantiable(Class<?> clazz) {
+        return !Modifier.isAbstract(clazz.getModifiers()) && !clazz.isEnum() && !clazz.isAnonymousClass();
     }
 
     /**
@@ -143,26 +314,103 @@ public class ClassPathScanner {
      * @throws IOException when scanning this location failed.
      */
     private Set<String> findResourceNames(String path, String prefix, String suffix) throws IOException {
+        Set<String> resourceNames = resourceNameIndex.get(path);
+        if (resourceNames == null) {
+            resourceNames = findAllResourceNames(path);
+            resourceNameIndex.put(path, resourceNames);
+        } else {
+            LOG.debug("Using indexed resources for classpath location: " + path);
+        }
+
+        return filterResourceNames(resourceNames, prefix, suffix);
+    }
+
+    /**
+     * Finds the names of all resources present at this location and below on the classpath.
+     *
+     * @param path The path on the classpath to scan.
+     * @return The resource names.
+     * @throws IOException when scanning this location failed.
+     */
+    private Set<String> findAllResourceNames(String path) throws IOException {
         Set<String> resourceNames = new TreeSet<String>();
 
         List<URL> locationsUrls = getLocationUrlsForPath(path);
         for (URL locationUrl : locationsUrls) {
+            // Indexes in directories are ignored, as they are only regenerated when packaging
+            ClassPathIndex index =
+                    "file".equals(locationUrl.getProtocol()) ? null : ClassPathIndex.load(locationUrl, path);
+            if ((index != null) && index.covers(path)) {
+                LOG.debug("Using Flyway index for URL: " + locationUrl.toExternalForm());
+                for (String resourceName : index.findResourceNames(path)) {
+                    boolean ambiguous = !resourceNames.add(resourceName);
+                    indexedChecksums.put(resourceName, ambiguous ? null : index.getChecksum(resourceName));
+                }
+                continue;
+            }
+
             LOG.debug("Scanning URL: " + locationUrl.toExternalForm());
 
             UrlResolver urlResolver = createUrlResolver(locationUrl.getProtocol());
             URL resolvedUrl = urlResolver.toStandardJavaUrl(locationUrl);
 
+            if (NestedJarClassPathLocationScanner.isNested(resolvedUrl)) {
+                Map<String, ClassPathResource> resources = findNestedResources(path, resolvedUrl);
+                if (resources != null) {
+                    for (Map.Entry<String, ClassPathResource> resource : resources.entrySet()) {
+                        String resourceName = resource.getKey();
+                        if (resourceNames.add(resourceName)) {
+                            nestedResources.put(resourceName, resource.getValue());
+                        } else if (indexedChecksums.containsKey(resourceName)) {
+                            indexedChecksums.put(resourceName, null);
+                        }
+                    }
+                    continue;
+                }
+            }
+
             String protocol = resolvedUrl.getProtocol();
             ClassPathLocationScanner classPathLocationScanner = createLocationScanner(protocol);
             if (classPathLocationScanner == null) {
                 String scanRoot = UrlUtils.toFilePath(resolvedUrl);
                 LOG.warn("Unable to scan location: " + scanRoot + " (unsupported protocol: " + protocol + ")");
             } else {
-                resourceNames.addAll(classPathLocationScanner.findResourceNames(path, resolvedUrl));
+                for (String resourceName : classPathLocationScanner.findResourceNames(path, resolvedUrl)) {
+                    if (!resourceNames.add(resourceName) && indexedChecksums.containsKey(resourceName)) {
+                        indexedChecksums.put(resourceName, null);
+                    }
+                }
             }
         }
 
-        return filterResourceNames(resourceNames, prefix, suffix);
+        return resourceNames;
+    }
+
+    /**
+     * Finds the resources below this location inside a nested jar or directory of an executable fat jar, reading them
+     * straight from the outer jar.
+     *
+     * @param path        The path on the classpath to scan.
+     * @param locationUrl The url of the location inside the nested jar or directory.
+     * @return The resources, indexed by name. {@code null} if the outer or the nested jar could not be read directly,
+     * in which case the location must be scanned through the jar url instead.
+     */
+    private Map<String, ClassPathResource> findNestedResources(String path, URL locationUrl) {
+        if (nestedJarScanner == null) {
+            nestedJarScanner = new NestedJarClassPathLocationScanner();
+        }
+
+        Map<String, ClassPathResource> resources = new TreeMap<String, ClassPathResource>();
+        try {
+            for (String resourceName : nestedJarScanner.findResourceNames(path, locationUrl)) {
+                resources.put(resourceName, nestedJarScanner.createResource(resourceName, locationUrl, classLoader));
+            }
+        } catch (IOException e) {
+            LOG.debug("Unable to read nested jar directly, falling back to jar url: " + locationUrl.toExternalForm()
+                    + " (" + e.getMessage() + ")");
+            return null;
+        }
+        return resources;
     }
 
     /**
@@ -207,7 +455,7 @@ public class ClassPathScanner {
      * @return The url resolver for this protocol.
      */
     private UrlResolver createUrlResolver(String protocol) {
-        if (new FeatureDetector(classLoader).isJBossVFSv2Available() && protocol.startsWith("vfs")) {
+        if (featureDetector.isJBossVFSv2Available() && protocol.startsWith("vfs")) {
             return new JBossVFSv2UrlResolver();
         }
 
@@ -215,12 +463,28 @@ public class ClassPathScanner {
     }
 
     /**
-     * Creates an appropriate location scanner for this url protocol.
+     * Creates an appropriate location scanner for this url protocol, or reuses the one created earlier.
      *
      * @param protocol The protocol of the location url to scan.
      * @return The location scanner or {@code null} if it could not be created.
      */
     private ClassPathLocationScanner createLocationScanner(String protocol) {
+        if (locationScanners.containsKey(protocol)) {
+            return locationScanners.get(protocol);
+        }
+
+        ClassPathLocationScanner locationScanner = doCreateLocationScanner(protocol);
+        locationScanners.put(protocol, locationScanner);
+        return locationScanner;
+    }
+
+    /**
+     * Creates an appropriate location scanner for this url protocol.
+     *
+     * @param protocol The protocol of the location url to scan.
+     * @return The location scanner or {@code null} if it could not be created.
+     */
+    private ClassPathLocationScanner doCreateLocationScanner(String protocol) {
         if ("file".equals(protocol)) {
             return new FileSystemClassPathLocationScanner();
         }
@@ -232,7 +496,6 @@ public class ClassPathScanner {
             return new JarFileClassPathLocationScanner();
         }
 
-        FeatureDetector featureDetector = new FeatureDetector(classLoader);
         if (featureDetector.isJBossVFSv3Available() && "vfs".equals(protocol)) {
             return new JBossVFSv3ClassPathLocationScanner();
         }
@@ -20,7 +20,10 @@ import java.net.JarURLConnection;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.jar.JarEntry;
@@ -28,18 +31,56 @@ import java.util.jar.JarFile;
 
 /**
  * ClassPathLocationScanner for jar files.
+ * <p>The entry names of each jar file are read once and then kept for the lifetime of this scanner, so scanning
+ * multiple locations within the same jar file doesn't read it again.</p>
  */
 public class JarFileClassPathLocationScanner implements ClassPathLocationScanner {
+    /**
+     * The sorted entry names of the jar files read so far, indexed by jar file name.
+     */
+    private final Map<String, String[]> entryNameIndex = new HashMap<String, String[]>();
+
     public Set<String> findResourceNames(String location, URL locationUrl) throws IOException {
         JarFile jarFile = getJarFromUrl(locationUrl);
 
+        String[] entryNames;
         try {
-            // For Tomcat and non-expanded WARs.
-            String prefix = jarFile.getName().toLowerCase().endsWith(".war") ? "WEB-INF/classes/" : "";
-            return findResourceNamesFromJarFile(jarFile, prefix, location);
+            entryNames = entryNameIndex.get(jarFile.getName());
+            if (entryNames == null) {
+                entryNames = readEntryNames(jarFile);
+                entryNameIndex.put(jarFile.getName(), entryNames);
+            }
         } finally {
             jarFile.close();
         }
+
+        // For Tomcat and non-expanded WARs.
+        String prefix = jarFile.getName().toLowerCase().endsWith(".war") ? "WEB-INF/classes/" : "";
+        return findResourceNamesFromEntryNames(entryNames, prefix, location);
+    }
+
+    /**
+     * Reads the names of all entries of this jar file.
+     *
+     * @param jarFile The jar file.
+     * @return The sorted entry names.
+     */
+    private String[] readEntryNames(JarFile jarFile) {
+        String[] entryNames = new String[jarFile.size()];
+        int count = 0;
+
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            String entryName = entries.nextElement().getName();
+            if (count == entryNames.length) {
+                entryNames = Arrays.copyOf(entryNames, count * 2 + 1);
+            }
+            entryNames[count++] = entryName;
+        }
+
+        entryNames = Arrays.copyOf(entryNames, count);
+        Arrays.sort(entryNames);
+        return entryNames;
     }
 
     /**
@@ -82,24 +123,25 @@ public class JarFileClassPathLocationScanner implements ClassPathLocationScanner
     }
 
     /**
-     * Finds all the resource names contained in this directory within this jar file.
+     * Finds all the resource names contained in this directory within a jar file.
      *
-     * @param jarFile  The jar file.
-     * @param prefix   The prefix to ignore within the jar file.
-     * @param location The location to look under.
+     * @param entryNames The sorted entry names of the jar file.
+     * @param prefix     The prefix to ignore within the jar file.
+     * @param location   The location to look under.
      * @return The resource names.
-     * @throws java.io.IOException when reading the jar file failed.
      */
-    private Set<String> findResourceNamesFromJarFile(JarFile jarFile, String prefix, String location) throws IOException {
+    private Set<String> findResourceNamesFromEntryNames(String[] entryNames, String prefix, String location) {
         String toScan = prefix + location + (location.endsWith("/") ? "" : "/");
         Set<String> resourceNames = new TreeSet<String>();
 
-        Enumeration<JarEntry> entries = jarFile.entries();
-        while (entries.hasMoreElements()) {
-            String entryName = entries.nextElement().getName();
-            if (entryName.startsWith(toScan)) {
-                resourceNames.add(entryName.substring(prefix.length()));
-            }
+        // All entries below the location directly follow each other in sort order
+        int index = Arrays.binarySearch(entryNames, toScan);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+        while ((index < entryNames.length) && entryNames[index].startsWith(toScan)) {
+            resourceNames.add(entryNames[index].substring(prefix.length()));
+            index++;
         }
 
         return resourceNames;
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import org.flywaydb.core.internal.util.UrlUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * ClassPathLocationScanner for locations inside the nested jars and directories of executable fat jars, such as
+ * {@code jar:file:/app.jar!/BOOT-INF/lib/migrations.jar!/db/migration} or
+ * {@code jar:file:/app.jar!/BOOT-INF/classes!/db/migration}.
+ * <p>The central directory of the outer jar and of each nested jar is read once and then kept for the lifetime of
+ * this scanner. The resources found are read straight from the outer jar on disk.</p>
+ */
+public class NestedJarClassPathLocationScanner implements ClassPathLocationScanner {
+    /**
+     * The outer jars opened so far, indexed by path.
+     */
+    private final Map<String, ZipArchive> outerArchives = new HashMap<String, ZipArchive>();
+
+    /**
+     * The nested jars and directories opened so far, indexed by the url of their root.
+     */
+    private final Map<String, NestedRoot> nestedRoots = new HashMap<String, NestedRoot>();
+
+    /**
+     * Checks whether this url points inside a nested jar or directory.
+     *
+     * @param locationUrl The url of the location.
+     * @return {@code true} if it does, {@code false} if not.
+     */
+    public static boolean isNested(URL locationUrl) {
+        String urlFile = locationUrl.getFile();
+        int separatorIndex = urlFile.indexOf("!/");
+        return "jar".equals(locationUrl.getProtocol()) && urlFile.startsWith("file:") && (separatorIndex != -1)
+                && (urlFile.indexOf("!/", separatorIndex + 2) != -1);
+    }
+
+    public Set<String> findResourceNames(String location, URL locationUrl) throws IOException {
+        NestedRoot nestedRoot = getNestedRoot(locationUrl);
+
+        String toScan = nestedRoot.prefix + location + (location.endsWith("/") ? "" : "/");
+        String[] entryNames = nestedRoot.archive.getEntryNames();
+        Set<String> resourceNames = new TreeSet<String>();
+
+        // All entries below the location directly follow each other in sort order
+        int index = Arrays.binarySearch(entryNames, toScan);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+        while ((index < entryNames.length) && entryNames[index].startsWith(toScan)) {
+            if (!entryNames[index].endsWith("/")) {
+                resourceNames.add(entryNames[index].substring(nestedRoot.prefix.length()));
+            }
+            index++;
+        }
+
+        return resourceNames;
+    }
+
+    /**
+     * Creates the resource for this name found below this location url, so that it is read straight from the outer
+     * jar.
+     *
+     * @param resourceName The name of the resource on the classpath.
+     * @param locationUrl  The url of the location the resource was found under.
+     * @param classLoader  The ClassLoader to use.
+     * @return The resource.
+     * @throws IOException when the nested jar or directory could not be opened.
+     */
+    public ClassPathResource createResource(String resourceName, URL locationUrl, ClassLoader classLoader)
+            throws IOException {
+        NestedRoot nestedRoot = getNestedRoot(locationUrl);
+        return new NestedJarResource(resourceName, classLoader, nestedRoot.archive, nestedRoot.prefix + resourceName);
+    }
+
+    /**
+     * Retrieves the nested jar or directory this url points inside of, opening it if necessary.
+     *
+     * @param locationUrl The url of the location.
+     * @return The nested root.
+     * @throws IOException when the outer or the nested jar could not be read.
+     */
+    private NestedRoot getNestedRoot(URL locationUrl) throws IOException {
+        String urlFile = locationUrl.getFile();
+        int outerSeparatorIndex = urlFile.indexOf("!/");
+        int nestedSeparatorIndex = urlFile.indexOf("!/", outerSeparatorIndex + 2);
+        String rootUrl = urlFile.substring(0, nestedSeparatorIndex);
+
+        NestedRoot nestedRoot = nestedRoots.get(rootUrl);
+        if (nestedRoot != null) {
+            return nestedRoot;
+        }
+
+        String outerPath = UrlUtils.toFilePath(new URL(urlFile.substring(0, outerSeparatorIndex)));
+        ZipArchive outerArchive = outerArchives.get(outerPath);
+        if (outerArchive == null) {
+            outerArchive = ZipArchive.open(new File(outerPath));
+            outerArchives.put(outerPath, outerArchive);
+        }
+
+        String nestedName = urlFile.substring(outerSeparatorIndex + 2, nestedSeparatorIndex);
+        if (nestedName.endsWith("/")) {
+            nestedName = nestedName.substring(0, nestedName.length() - 1);
+        }
+
+        if (outerArchive.hasEntry(nestedName)) {
+            nestedRoot = new NestedRoot(outerArchive.openNested(nestedName), "");
+        } else {
+            nestedRoot = new NestedRoot(outerArchive, nestedName + "/");
+        }
+        nestedRoots.put(rootUrl, nestedRoot);
+        return nestedRoot;
+    }
+
+    /**
+     * A nested jar, or a directory of the outer jar, acting as classpath root.
+     */
+    private static class NestedRoot {
+        /**
+         * The archive containing the classpath root.
+         */
+        private final ZipArchive archive;
+
+        /**
+         * The path of the classpath root within the archive. Empty for a nested jar.
+         */
+        private final String prefix;
+
+        NestedRoot(ZipArchive archive, String prefix) {
+            this.archive = archive;
+            this.prefix = prefix;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import org.flywaydb.core.api.FlywayException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A resource on the classpath inside a nested jar (or directory) of an executable fat jar. It is read straight from the
+ * outer jar on disk instead of through the ClassLoader.
+ */
+public class NestedJarResource extends ClassPathResource {
+    /**
+     * The archive containing the resource.
+     */
+    private final ZipArchive archive;
+
+    /**
+     * The name of the entry of the resource within the archive.
+     */
+    private final String entryName;
+
+    /**
+     * Creates a new NestedJarResource.
+     *
+     * @param location    The location of the resource on the classpath.
+     * @param classLoader The ClassLoader to use.
+     * @param archive     The archive containing the resource.
+     * @param entryName   The name of the entry of the resource within the archive.
+     */
+    public NestedJarResource(String location, ClassLoader classLoader, ZipArchive archive, String entryName) {
+        super(location, classLoader, archive.getCrc(entryName));
+        this.archive = archive;
+        this.entryName = entryName;
+    }
+
+    @Override
+    public InputStream loadAsStream() {
+        try {
+            return archive.openStream(entryName);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to obtain inputstream for resource: " + getLocation(), e);
+        }
+    }
+}
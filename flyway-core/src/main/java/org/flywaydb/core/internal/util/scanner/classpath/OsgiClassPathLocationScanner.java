@@ -15,12 +15,21 @@
  */
 package org.flywaydb.core.internal.util.scanner.classpath;
 
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
 import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
 import org.osgi.framework.FrameworkUtil;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -32,15 +41,81 @@ import java.util.TreeSet;
  * The resources that this scanner returns can only be loaded if
  * Flyway's ClassLoader has access to the bundle that contains the migrations.
  * </p>
+ * <p>
+ * The entries found are cached per bundle for the whole container, so repeated commands don't walk the bundle again.
+ * The cached entries of a bundle are discarded as soon as it is updated, uninstalled or unresolved, or when its last
+ * modification time changes.
+ * </p>
  */
 public class OsgiClassPathLocationScanner implements ClassPathLocationScanner {
+    private static final Log LOG = LogFactory.getLog(OsgiClassPathLocationScanner.class);
+
+    /**
+     * The cached entries, indexed by bundle id. Guarded by itself.
+     */
+    private static final Map<Long, BundleEntries> ENTRIES = new HashMap<Long, BundleEntries>();
+
+    /**
+     * The bundle contexts the listener discarding the entries of changed bundles has been added to. Guarded by
+     * {@link #ENTRIES}.
+     */
+    private static final Set<Long> LISTENING_BUNDLES = new HashSet<Long>();
 
     public Set<String> findResourceNames(String location, URL locationUrl) throws IOException {
+        return findResourceNames(FrameworkUtil.getBundle(getClass()), locationUrl.getPath());
+    }
+
+    /**
+     * Finds the names of the resources below this path in this bundle, using the cached entries if possible.
+     *
+     * @param bundle The bundle.
+     * @param path   The path within the bundle.
+     * @return The resource names.
+     */
+    /* private -> for testing */
+    static Set<String> findResourceNames(Bundle bundle, String path) {
+        long bundleId = bundle.getBundleId();
+        long lastModified = bundle.getLastModified();
+
+        synchronized (ENTRIES) {
+            addListener(bundle);
+
+            BundleEntries bundleEntries = ENTRIES.get(bundleId);
+            if ((bundleEntries != null) && (bundleEntries.lastModified == lastModified)) {
+                Set<String> resourceNames = bundleEntries.resourceNames.get(path);
+                if (resourceNames != null) {
+                    LOG.debug("Using cached entries of bundle " + bundle.getSymbolicName() + " for path: " + path);
+                    return resourceNames;
+                }
+            }
+        }
+
+        Set<String> resourceNames = Collections.unmodifiableSet(findEntries(bundle, path));
+
+        synchronized (ENTRIES) {
+            BundleEntries bundleEntries = ENTRIES.get(bundleId);
+            if ((bundleEntries == null) || (bundleEntries.lastModified != lastModified)) {
+                bundleEntries = new BundleEntries(lastModified);
+                ENTRIES.put(bundleId, bundleEntries);
+            }
+            bundleEntries.resourceNames.put(path, resourceNames);
+        }
+
+        return resourceNames;
+    }
+
+    /**
+     * Walks the entries below this path in this bundle.
+     *
+     * @param bundle The bundle.
+     * @param path   The path within the bundle.
+     * @return The resource names.
+     */
+    private static Set<String> findEntries(Bundle bundle, String path) {
         Set<String> resourceNames = new TreeSet<String>();
 
-        Bundle bundle = FrameworkUtil.getBundle(getClass());
         @SuppressWarnings({"unchecked"})
-        Enumeration<URL> entries = bundle.findEntries(locationUrl.getPath(), "*", true);
+        Enumeration<URL> entries = bundle.findEntries(path, "*", true);
 
         if (entries != null) {
             while (entries.hasMoreElements()) {
@@ -54,9 +129,58 @@ public class OsgiClassPathLocationScanner implements ClassPathLocationScanner {
         return resourceNames;
     }
 
-    private String getPathWithoutLeadingSlash(URL entry) {
+    /**
+     * Adds the listener discarding the cached entries of bundles as soon as they change to the context of this bundle,
+     * unless it has already been added.
+     *
+     * @param bundle The bundle.
+     */
+    private static void addListener(Bundle bundle) {
+        if (LISTENING_BUNDLES.contains(bundle.getBundleId())) {
+            return;
+        }
+
+        BundleContext bundleContext = bundle.getBundleContext();
+        if (bundleContext == null) {
+            // Bundle not active: rely on the last modification time only
+            return;
+        }
+
+        bundleContext.addBundleListener(new BundleListener() {
+            public void bundleChanged(BundleEvent event) {
+                int type = event.getType();
+                if ((type == BundleEvent.UPDATED) || (type == BundleEvent.UNINSTALLED) || (type == BundleEvent.UNRESOLVED)) {
+                    synchronized (ENTRIES) {
+                        ENTRIES.remove(event.getBundle().getBundleId());
+                    }
+                }
+            }
+        });
+        LISTENING_BUNDLES.add(bundle.getBundleId());
+    }
+
+    private static String getPathWithoutLeadingSlash(URL entry) {
         final String path = entry.getPath();
 
         return path.startsWith("/") ? path.substring(1) : path;
     }
+
+    /**
+     * The cached entries of a bundle.
+     */
+    private static class BundleEntries {
+        /**
+         * The last modification time of the bundle when its entries were walked.
+         */
+        private final long lastModified;
+
+        /**
+         * The resource names, indexed by path within the bundle.
+         */
+        private final Map<String, Set<String>> resourceNames = new HashMap<String, Set<String>>();
+
+        BundleEntries(long lastModified) {
+            this.lastModified = lastModified;
+        }
+    }
 }
@@ -0,0 +1,362 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Random access to the entries of a zip file, or of a zip file stored uncompressed within another one, such as the
+ * nested jars of an executable fat jar.
+ * <p>Only the central directory is read upfront. Entries are read individually, straight from their position in the
+ * outermost file, inflating them on the fly if necessary. Nested zip files are therefore never extracted or inflated
+ * as a whole.</p>
+ * <p>Data prepended to a zip file, such as the launch script of a fully executable jar, is skipped.
+ * Zip64 archives are not supported.</p>
+ */
+public class ZipArchive {
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    /**
+     * The outermost file on disk containing this archive.
+     */
+    private final File file;
+
+    /**
+     * The position of this archive within the file.
+     */
+    private final long offset;
+
+    /**
+     * The sorted names of the entries of this archive.
+     */
+    private final String[] entryNames;
+
+    /**
+     * The entries of this archive, indexed by name.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates a new archive.
+     *
+     * @param file    The outermost file on disk containing this archive.
+     * @param offset  The position of this archive within the file.
+     * @param entries The entries of this archive, indexed by name.
+     */
+    private ZipArchive(File file, long offset, Map<String, Entry> entries) {
+        this.file = file;
+        this.offset = offset;
+        this.entries = entries;
+        this.entryNames = entries.keySet().toArray(new String[entries.size()]);
+        Arrays.sort(entryNames);
+    }
+
+    /**
+     * Opens this zip file, reading its central directory.
+     *
+     * @param file The zip file.
+     * @return The archive.
+     * @throws IOException when the central directory could not be read.
+     */
+    public static ZipArchive open(File file) throws IOException {
+        return new ZipArchive(file, 0, readCentralDirectory(file, 0, file.length()));
+    }
+
+    /**
+     * Opens the zip file stored in this entry, reading its central directory.
+     *
+     * @param name The name of the entry. It must have been stored uncompressed.
+     * @return The nested archive.
+     * @throws IOException when the entry doesn't exist, is compressed or its central directory could not be read.
+     */
+    public ZipArchive openNested(String name) throws IOException {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            throw new IOException("No such entry in " + this + ": " + name);
+        }
+        if (entry.method != STORED) {
+            throw new IOException("Unable to open compressed nested archive " + name + " in " + this
+                    + ". Nested archives must be stored uncompressed.");
+        }
+
+        long nestedOffset = getDataOffset(entry);
+        return new ZipArchive(file, nestedOffset, readCentralDirectory(file, nestedOffset, entry.compressedSize));
+    }
+
+    /**
+     * @return The sorted names of the entries of this archive.
+     */
+    public String[] getEntryNames() {
+        return entryNames;
+    }
+
+    /**
+     * Checks whether this archive has an entry with this name.
+     *
+     * @param name The name of the entry.
+     * @return {@code true} if it does, {@code false} if not.
+     */
+    public boolean hasEntry(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Retrieves the crc-32 checksum of the uncompressed contents of this entry, as recorded in the central directory.
+     *
+     * @param name The name of the entry.
+     * @return The checksum. {@code null} if there is no such entry.
+     */
+    public Integer getCrc(String name) {
+        Entry entry = entries.get(name);
+        return entry == null ? null : entry.crc;
+    }
+
+    /**
+     * Opens this entry for reading. The caller is responsible for closing the stream.
+     *
+     * @param name The name of the entry.
+     * @return The stream for the uncompressed contents of the entry.
+     * @throws IOException when the entry doesn't exist or could not be opened.
+     */
+    public InputStream openStream(String name) throws IOException {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            throw new IOException("No such entry in " + this + ": " + name);
+        }
+        if ((entry.method != STORED) && (entry.method != DEFLATED)) {
+            throw new IOException("Unsupported compression method " + entry.method + " for " + name + " in " + this);
+        }
+
+        long dataOffset = getDataOffset(entry);
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            randomAccessFile.seek(dataOffset);
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+
+        if (entry.method == STORED) {
+            return new EntryInputStream(randomAccessFile, entry.compressedSize, false);
+        }
+        return new InflaterInputStream(new EntryInputStream(randomAccessFile, entry.compressedSize, true),
+                new Inflater(true), 8192) {
+            @Override
+            public void close() throws IOException {
+                inf.end();
+                super.close();
+            }
+        };
+    }
+
+    /**
+     * Retrieves the position of the data of this entry in the file, just after its local file header.
+     *
+     * @param entry The entry.
+     * @return The position.
+     * @throws IOException when the local file header could not be read.
+     */
+    private long getDataOffset(Entry entry) throws IOException {
+        long headerOffset = offset + entry.localHeaderOffset;
+        byte[] header = new byte[LOCAL_FILE_HEADER_SIZE];
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            randomAccessFile.seek(headerOffset);
+            randomAccessFile.readFully(header);
+        } finally {
+            randomAccessFile.close();
+        }
+
+        if (readInt(header, 0) != LOCAL_FILE_HEADER_SIGNATURE) {
+            throw new IOException("Invalid local file header for " + entry.name + " in " + this);
+        }
+        return headerOffset + LOCAL_FILE_HEADER_SIZE + readShort(header, 26) + readShort(header, 28);
+    }
+
+    /**
+     * Reads the central directory of the zip file located at this position within this file.
+     *
+     * @param file   The file.
+     * @param offset The position of the zip file within the file.
+     * @param length The length of the zip file.
+     * @return The entries, indexed by name.
+     * @throws IOException when the central directory could not be read.
+     */
+    private static Map<String, Entry> readCentralDirectory(File file, long offset, long length) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            // The end of central directory record is followed by a comment of up to 64k
+            int tailLength = (int) Math.min(length, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+            byte[] tail = new byte[tailLength];
+            randomAccessFile.seek(offset + length - tailLength);
+            randomAccessFile.readFully(tail);
+
+            int end = -1;
+            for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+                if (readInt(tail, i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                    end = i;
+                    break;
+                }
+            }
+            if (end < 0) {
+                throw new IOException("Not a zip file: " + file + " (offset " + offset + ")");
+            }
+
+            int count = readShort(tail, end + 10);
+            long size = readInt(tail, end + 12) & 0xFFFFFFFFL;
+            long start = readInt(tail, end + 16) & 0xFFFFFFFFL;
+            if ((count == 0xFFFF) || (size == 0xFFFFFFFFL) || (start == 0xFFFFFFFFL)) {
+                throw new IOException("Zip64 archives are not supported: " + file + " (offset " + offset + ")");
+            }
+
+            // Data prepended to the zip file, such as the launch script of a fully executable jar, shifts all
+            // positions recorded in it. The central directory is always located right before the end record.
+            long prefix = (length - tailLength + end - size) - start;
+            if (prefix < 0) {
+                throw new IOException("Invalid central directory in " + file + " (offset " + offset + ")");
+            }
+
+            byte[] centralDirectory = new byte[(int) size];
+            randomAccessFile.seek(offset + prefix + start);
+            randomAccessFile.readFully(centralDirectory);
+
+            Map<String, Entry> entries = new HashMap<String, Entry>();
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                if (readInt(centralDirectory, position) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+                    throw new IOException("Invalid central directory in " + file + " (offset " + offset + ")");
+                }
+                int nameLength = readShort(centralDirectory, position + 28);
+                int extraLength = readShort(centralDirectory, position + 30);
+                int commentLength = readShort(centralDirectory, position + 32);
+
+                String name = new String(centralDirectory, position + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength, "UTF-8");
+                entries.put(name, new Entry(name,
+                        readShort(centralDirectory, position + 10),
+                        readInt(centralDirectory, position + 16),
+                        readInt(centralDirectory, position + 20) & 0xFFFFFFFFL,
+                        prefix + (readInt(centralDirectory, position + 42) & 0xFFFFFFFFL)));
+
+                position += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+            }
+            return entries;
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static int readShort(byte[] bytes, int position) {
+        return (bytes[position] & 0xFF) | ((bytes[position + 1] & 0xFF) << 8);
+    }
+
+    private static int readInt(byte[] bytes, int position) {
+        return readShort(bytes, position) | (readShort(bytes, position + 2) << 16);
+    }
+
+    @Override
+    public String toString() {
+        return offset == 0 ? file.getPath() : file.getPath() + " (offset " + offset + ")";
+    }
+
+    /**
+     * An entry of the central directory.
+     */
+    private static class Entry {
+        private final String name;
+        private final int method;
+        private final int crc;
+        private final long compressedSize;
+        private final long localHeaderOffset;
+
+        Entry(String name, int method, int crc, long compressedSize, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+
+    /**
+     * Stream over the raw data of an entry, closing the underlying file when closed.
+     */
+    private static class EntryInputStream extends InputStream {
+        private final RandomAccessFile randomAccessFile;
+        private long remaining;
+
+        /**
+         * Whether to append a dummy byte at the end of the data, as required by an Inflater without zlib header.
+         */
+        private boolean dummyByte;
+
+        EntryInputStream(RandomAccessFile randomAccessFile, long length, boolean dummyByte) {
+            this.randomAccessFile = randomAccessFile;
+            this.remaining = length;
+            this.dummyByte = dummyByte;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (remaining <= 0) {
+                if (dummyByte) {
+                    dummyByte = false;
+                    buffer[offset] = 0;
+                    return 1;
+                }
+                return -1;
+            }
+
+            int count = randomAccessFile.read(buffer, offset, (int) Math.min(length, remaining));
+            if (count == -1) {
+                throw new IOException("Unexpected end of zip entry data");
+            }
+            remaining -= count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            randomAccessFile.close();
+        }
+    }
+}
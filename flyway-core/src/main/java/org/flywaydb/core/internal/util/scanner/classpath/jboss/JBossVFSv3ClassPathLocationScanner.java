@@ -23,24 +23,51 @@ import org.jboss.vfs.VFS;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
 /**
  * ClassPathLocationScanner for JBoss VFS v3.
+ * <p>The resource names found in mounted archives are cached per location for the whole container, so repeated
+ * commands don't walk the virtual files again. The cached names of a location are discarded as soon as the last
+ * modification time of the archive changes. Exploded deployments are never cached, as adding a file to one of their
+ * directories doesn't change the modification time of the classpath root.</p>
  */
 public class JBossVFSv3ClassPathLocationScanner implements ClassPathLocationScanner {
     private static final Log LOG = LogFactory.getLog(JBossVFSv3ClassPathLocationScanner.class);
 
+    /**
+     * The cached resource names, indexed by location path on the VFS. Guarded by itself.
+     */
+    private static final Map<String, Listing> LISTINGS = new HashMap<String, Listing>();
+
     public Set<String> findResourceNames(String location, URL locationUrl) throws IOException {
         String filePath = UrlUtils.toFilePath(locationUrl);
         String classPathRootOnDisk = filePath.substring(0, filePath.length() - location.length());
         if (!classPathRootOnDisk.endsWith("/")) {
             classPathRootOnDisk = classPathRootOnDisk + "/";
         }
+
+        // The virtual path of an exploded deployment is its real directory on disk
+        boolean cacheable = !new File(classPathRootOnDisk).isDirectory();
+        long rootLastModified = VFS.getChild(classPathRootOnDisk).getLastModified();
+        if (cacheable) {
+            synchronized (LISTINGS) {
+                Listing listing = LISTINGS.get(filePath);
+                if ((listing != null) && (listing.rootLastModified == rootLastModified)) {
+                    LOG.debug("Using cached resources on JBoss VFS for: " + filePath);
+                    return listing.resourceNames;
+                }
+            }
+        }
+
         LOG.debug("Scanning starting at classpath root on JBoss VFS: " + classPathRootOnDisk);
 
         Set<String> resourceNames = new TreeSet<String>();
@@ -54,7 +81,32 @@ public class JBossVFSv3ClassPathLocationScanner implements ClassPathLocationScan
             resourceNames.add(file.getPathName().substring(classPathRootOnDisk.length()));
         }
 
+        resourceNames = Collections.unmodifiableSet(resourceNames);
+        if (cacheable) {
+            synchronized (LISTINGS) {
+                LISTINGS.put(filePath, new Listing(rootLastModified, resourceNames));
+            }
+        }
         return resourceNames;
     }
 
+    /**
+     * The cached resource names of a location.
+     */
+    private static class Listing {
+        /**
+         * The last modification time of the archive when the location was walked.
+         */
+        private final long rootLastModified;
+
+        /**
+         * The resource names.
+         */
+        private final Set<String> resourceNames;
+
+        Listing(long rootLastModified, Set<String> resourceNames) {
+            this.rootLastModified = rootLastModified;
+            this.resourceNames = resourceNames;
+        }
+    }
 }
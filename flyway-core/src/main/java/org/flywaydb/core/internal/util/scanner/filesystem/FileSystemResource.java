@@ -37,6 +37,16 @@ public class FileSystemResource implements Resource, Comparable<FileSystemResour
      */
     private File location;
 
+    /**
+     * The size of the resource in bytes. Captured on first access. -1 if not captured yet.
+     */
+    private long length = -1;
+
+    /**
+     * The last modification time of the resource. Captured together with the size.
+     */
+    private long lastModified;
+
     /**
      * Creates a new ClassPathResource.
      *
@@ -46,6 +56,15 @@ public class FileSystemResource implements Resource, Comparable<FileSystemResour
         this.location = new File(location);
     }
 
+    /**
+     * Creates a new FileSystemResource.
+     *
+     * @param location The location of the resource on the filesystem.
+     */
+    public FileSystemResource(File location) {
+        this.location = location;
+    }
+
     /**
      * @return The location of the resource on the classpath.
      */
@@ -70,15 +89,39 @@ public class FileSystemResource implements Resource, Comparable<FileSystemResour
      */
     public String loadAsString(String encoding) {
         try {
-            InputStream inputStream = new FileInputStream(location);
-            Reader reader = new InputStreamReader(inputStream, Charset.forName(encoding));
-
-            return FileCopyUtils.copyToString(reader);
+            return FileCopyUtils.copyToString(loadAsReader(encoding));
         } catch (IOException e) {
             throw new FlywayException("Unable to load filesystem resource: " + location.getPath() + " (encoding: " + encoding + ")", e);
         }
     }
 
+    /**
+     * Opens this resource for reading as a stream of characters. The caller is responsible for closing the reader.
+     *
+     * @param encoding The encoding to use.
+     * @return The reader for the contents of the resource.
+     */
+    public Reader loadAsReader(String encoding) {
+        try {
+            return new InputStreamReader(new FileInputStream(location), Charset.forName(encoding));
+        } catch (IOException e) {
+            throw new FlywayException("Unable to open filesystem resource: " + location.getPath(), e);
+        }
+    }
+
+    /**
+     * Opens this resource for reading as a stream of bytes. The caller is responsible for closing the stream.
+     *
+     * @return The stream for the contents of the resource.
+     */
+    public InputStream loadAsStream() {
+        try {
+            return new FileInputStream(location);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to open filesystem resource: " + location.getPath(), e);
+        }
+    }
+
     /**
      * Loads this resource as a byte array.
      *
@@ -86,13 +129,42 @@ public class FileSystemResource implements Resource, Comparable<FileSystemResour
      */
     public byte[] loadAsBytes() {
         try {
-            InputStream inputStream = new FileInputStream(location);
-            return FileCopyUtils.copyToByteArray(inputStream);
+            return FileCopyUtils.copyToByteArray(loadAsStream());
         } catch (IOException e) {
             throw new FlywayException("Unable to load filesystem resource: " + location.getPath(), e);
         }
     }
 
+    /**
+     * @return The size of this resource in bytes, as captured on first access.
+     */
+    public long getLength() {
+        captureAttributes();
+        return length;
+    }
+
+    /**
+     * @return The last modification time of this resource, as captured on first access.
+     */
+    public long getLastModified() {
+        captureAttributes();
+        return lastModified;
+    }
+
+    /**
+     * Captures the size and the last modification time of this resource, so they are consistent with each other.
+     */
+    private synchronized void captureAttributes() {
+        if (length < 0) {
+            lastModified = location.lastModified();
+            length = location.length();
+        }
+    }
+
+    public Integer getChecksum() {
+        return null;
+    }
+
     /**
      * @return The filename of this resource, without the path.
      */
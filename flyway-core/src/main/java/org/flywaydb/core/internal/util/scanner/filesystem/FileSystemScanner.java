@@ -22,15 +22,49 @@ import org.flywaydb.core.internal.util.logging.LogFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * FileSystem scanner.
+ * <p>Filenames are matched against the prefix and suffix while walking the tree, so only candidate files are checked
+ * for readability. Large trees can optionally be walked using several threads, one subdirectory at a time.</p>
  */
 public class FileSystemScanner {
     private static final Log LOG = LogFactory.getLog(FileSystemScanner.class);
 
+    /**
+     * The number of threads to use for walking the directory tree. 1 walks it sequentially on the calling thread.
+     */
+    private final int threads;
+
+    /**
+     * Creates a new filesystem scanner walking the directory tree sequentially.
+     */
+    public FileSystemScanner() {
+        this(1);
+    }
+
+    /**
+     * Creates a new filesystem scanner.
+     *
+     * @param threads The number of threads to use for walking the directory tree. 1 walks it sequentially.
+     */
+    public FileSystemScanner(int threads) {
+        if (threads < 1) {
+            throw new FlywayException("Invalid number of filesystem scan threads: " + threads + " (must be at least 1)");
+        }
+        this.threads = threads;
+    }
+
     /**
      * Scans the FileSystem for resources under the specified location, starting with the specified prefix and ending with
      * the specified suffix.
@@ -44,83 +78,186 @@ public class FileSystemScanner {
     public Resource[] scanForResources(String path, String prefix, String suffix) throws IOException {
         LOG.debug("Scanning for filesystem resources at '" + path + "' (Prefix: '" + prefix + "', Suffix: '" + suffix + "')");
 
-        if (!new File(path).isDirectory()) {
+        File root = new File(path);
+        if (!root.isDirectory()) {
             throw new FlywayException("Invalid filesystem path: " + path);
         }
 
-        Set<Resource> resources = new TreeSet<Resource>();
+        Collection<File> files;
+        if (threads == 1) {
+            files = new ArrayList<File>();
+            walk(root, prefix, suffix, files, null);
+        } else {
+            files = walkInParallel(root, prefix, suffix);
+        }
 
-        Set<String> resourceNames = findResourceNames(path, prefix, suffix);
-        for (String resourceName : resourceNames) {
-            resources.add(new FileSystemResource(resourceName));
-            LOG.debug("Found filesystem resource: " + resourceName);
+        Set<FileSystemResource> resources = new TreeSet<FileSystemResource>();
+        for (File file : files) {
+            resources.add(new FileSystemResource(file));
+            LOG.debug("Found filesystem resource: " + file.getPath());
         }
 
         return resources.toArray(new Resource[resources.size()]);
     }
 
     /**
-     * Finds the resources names present at this location and below on the classpath starting with this prefix and
-     * ending with this suffix.
+     * Walks this folder, collecting the readable files whose filename matches this prefix and this suffix.
      *
-     * @param path   The path on the classpath to scan.
+     * @param folder  The folder to look for resources under on disk.
+     * @param prefix  The filename prefix to match.
+     * @param suffix  The filename suffix to match.
+     * @param found   The collection to add the matching files to.
+     * @param subdirs The list to add the subdirectories to instead of descending into them.
+     *                {@code null} to descend into them directly.
+     */
+    private void walk(File folder, String prefix, String suffix, Collection<File> found, List<File> subdirs) {
+        LOG.debug("Scanning for resources in path: " + folder.getPath());
+
+        File[] files = folder.listFiles();
+        if (files == null) {
+            throw new FlywayException("Unable to list directory: " + folder.getPath());
+        }
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                if (!file.canRead()) {
+                    continue;
+                }
+                if (subdirs == null) {
+                    walk(file, prefix, suffix, found, null);
+                } else {
+                    subdirs.add(file);
+                }
+                continue;
+            }
+
+            String fileName = file.getName();
+            if (fileName.startsWith(prefix) && fileName.endsWith(suffix)
+                    && (fileName.length() > (prefix.length() + suffix.length()))) {
+                if (file.canRead()) {
+                    found.add(file);
+                }
+            } else {
+                LOG.debug("Filtering out resource: " + file.getPath() + " (filename: " + fileName + ")");
+            }
+        }
+    }
+
+    /**
+     * Walks the tree under this root using a pool of threads, each walking one directory at a time.
+     *
+     * @param root   The root folder of the scan.
      * @param prefix The filename prefix to match.
      * @param suffix The filename suffix to match.
-     * @return The resource names.
-     * @throws java.io.IOException when scanning this location failed.
+     * @return The matching files.
      */
-    private Set<String> findResourceNames(String path, String prefix, String suffix) throws IOException {
-        Set<String> resourceNames = findResourceNamesFromFileSystem(path, new File(path));
-        return filterResourceNames(resourceNames, prefix, suffix);
+    private Collection<File> walkInParallel(File root, String prefix, String suffix) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "flyway-fs-scan-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try {
+            return new ParallelWalk(executor, prefix, suffix).run(root);
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     /**
-     * Finds all the resource names contained in this file system folder.
-     *
-     * @param scanRootLocation The root location of the scan on disk.
-     * @param folder           The folder to look for resources under on disk.
-     * @return The resource names;
-     * @throws IOException when the folder could not be read.
+     * A directory tree walk fanning out over the subdirectories using an executor.
      */
-    @SuppressWarnings("ConstantConditions")
-    private Set<String> findResourceNamesFromFileSystem(String scanRootLocation, File folder) throws IOException {
-        LOG.debug("Scanning for resources in path: " + folder.getPath() + " (" + scanRootLocation + ")");
+    private class ParallelWalk {
+        private final ExecutorService executor;
+        private final String prefix;
+        private final String suffix;
 
-        Set<String> resourceNames = new TreeSet<String>();
+        /**
+         * The matching files found so far.
+         */
+        private final Collection<File> found = Collections.synchronizedList(new ArrayList<File>());
 
-        File[] files = folder.listFiles();
-        for (File file : files) {
-            if (file.canRead()) {
-                if (file.isDirectory()) {
-                    resourceNames.addAll(findResourceNamesFromFileSystem(scanRootLocation, file));
-                } else {
-                    resourceNames.add(file.getPath());
+        /**
+         * The number of directories submitted, but not walked yet. Guarded by this.
+         */
+        private int pending;
+
+        /**
+         * The first failure that occurred while walking. Guarded by this.
+         */
+        private RuntimeException failure;
+
+        ParallelWalk(ExecutorService executor, String prefix, String suffix) {
+            this.executor = executor;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        /**
+         * Walks the tree under this root and waits for the walk to complete.
+         *
+         * @param root The root folder of the scan.
+         * @return The matching files.
+         */
+        synchronized Collection<File> run(File root) {
+            submit(root);
+            try {
+                while (pending > 0 && failure == null) {
+                    wait();
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlywayException("Interrupted while scanning filesystem path: " + root.getPath());
             }
+            if (failure != null) {
+                throw failure;
+            }
+            return found;
         }
 
-        return resourceNames;
-    }
+        /**
+         * Submits this folder for walking.
+         *
+         * @param folder The folder.
+         */
+        private synchronized void submit(final File folder) {
+            pending++;
+            executor.execute(new Runnable() {
+                public void run() {
+                    walkFolder(folder);
+                }
+            });
+        }
 
-    /**
-     * Filters this list of resource names to only include the ones whose filename matches this prefix and this suffix.
-     *
-     * @param resourceNames The names to filter.
-     * @param prefix        The prefix to match.
-     * @param suffix        The suffix to match.
-     * @return The filtered names set.
-     */
-    private Set<String> filterResourceNames(Set<String> resourceNames, String prefix, String suffix) {
-        Set<String> filteredResourceNames = new TreeSet<String>();
-        for (String resourceName : resourceNames) {
-            String fileName = resourceName.substring(resourceName.lastIndexOf(File.separator) + 1);
-            if (fileName.startsWith(prefix) && fileName.endsWith(suffix)
-                    && (fileName.length() > (prefix + suffix).length())) {
-                filteredResourceNames.add(resourceName);
-            } else {
-                LOG.debug("Filtering out resource: " + resourceName + " (filename: " + fileName + ")");
+        /**
+         * Walks this folder and submits its subdirectories.
+         *
+         * @param folder The folder.
+         */
+        private void walkFolder(File folder) {
+            try {
+                List<File> subdirs = new ArrayList<File>();
+                walk(folder, prefix, suffix, found, subdirs);
+                for (File subdir : subdirs) {
+                    submit(subdir);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    pending--;
+                    notifyAll();
+                }
             }
         }
-        return filteredResourceNames;
     }
 }
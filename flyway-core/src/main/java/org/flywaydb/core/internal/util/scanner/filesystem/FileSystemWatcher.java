@@ -0,0 +1,111 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.filesystem;
+
+import org.flywaydb.core.internal.util.scanner.Resource;
+import org.flywaydb.core.internal.util.logging.Log;
+import org.flywaydb.core.internal.util.logging.LogFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Watches directory trees on the filesystem for files being added, modified or removed, by periodically comparing the
+ * size and last modification time of the files matching a suffix with the ones seen on the previous poll.
+ */
+public class FileSystemWatcher {
+    private static final Log LOG = LogFactory.getLog(FileSystemWatcher.class);
+
+    /**
+     * The scanner used for walking the directory trees.
+     */
+    private final FileSystemScanner fileSystemScanner;
+
+    /**
+     * The paths of the directory trees to watch.
+     */
+    private final List<String> paths;
+
+    /**
+     * The suffix of the files to watch.
+     */
+    private final String suffix;
+
+    /**
+     * The size and last modification time of every file seen on the previous poll, indexed by location.
+     */
+    private Map<String, String> snapshot;
+
+    /**
+     * Creates a new watcher. The directory trees are walked immediately to record their current state.
+     *
+     * @param fileSystemScanner The scanner to use for walking the directory trees.
+     * @param paths             The paths of the directory trees to watch.
+     * @param suffix            The suffix of the files to watch.
+     * @throws IOException when a directory tree could not be walked.
+     */
+    public FileSystemWatcher(FileSystemScanner fileSystemScanner, List<String> paths, String suffix) throws IOException {
+        this.fileSystemScanner = fileSystemScanner;
+        this.paths = paths;
+        this.suffix = suffix;
+        this.snapshot = takeSnapshot();
+    }
+
+    /**
+     * Polls the directory trees for changes since the previous poll.
+     *
+     * @return {@code true} if files were added, modified or removed, {@code false} if not.
+     * @throws IOException when a directory tree could not be walked.
+     */
+    public boolean poll() throws IOException {
+        Map<String, String> current = takeSnapshot();
+        if (current.equals(snapshot)) {
+            return false;
+        }
+
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            if (!entry.getValue().equals(snapshot.get(entry.getKey()))) {
+                LOG.debug("Detected change to " + entry.getKey());
+            }
+        }
+        for (String location : snapshot.keySet()) {
+            if (!current.containsKey(location)) {
+                LOG.debug("Detected removal of " + location);
+            }
+        }
+
+        snapshot = current;
+        return true;
+    }
+
+    /**
+     * @return The size and last modification time of every file currently matching the suffix, indexed by location.
+     * @throws IOException when a directory tree could not be walked.
+     */
+    private Map<String, String> takeSnapshot() throws IOException {
+        Map<String, String> files = new HashMap<String, String>();
+        for (String path : paths) {
+            for (Resource resource : fileSystemScanner.scanForResources(path, "", suffix)) {
+                FileSystemResource fileSystemResource = (FileSystemResource) resource;
+                files.put(fileSystemResource.getLocation(),
+                        fileSystemResource.getLength() + ":" + fileSystemResource.getLastModified());
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Medium tests for Flyway's watch mode.
+ */
+public class FlywayWatchMediumTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void watch() throws Exception {
+        File dir = temp.newFolder("migrations");
+        write(new File(dir, "V1__First.sql"), "CREATE TABLE first (id INT);");
+
+        final Flyway flyway = new Flyway();
+        flyway.setDataSource("jdbc:h2:mem:flyway_watch;DB_CLOSE_DELAY=-1", "sa", "");
+        flyway.setLocations("filesystem:" + dir.getAbsolutePath());
+        flyway.setWatchInterval(50);
+
+        final int[] applied = new int[1];
+        Thread watcher = new Thread() {
+            @Override
+            public void run() {
+                applied[0] = flyway.watch();
+            }
+        };
+        watcher.start();
+
+        try {
+            waitForVersion(flyway, "1");
+
+            write(new File(dir, "sub/V2__Second.sql"), "CREATE TABLE second (id INT);");
+            waitForVersion(flyway, "2");
+        } finally {
+            watcher.interrupt();
+            watcher.join(10000);
+        }
+
+        assertFalse(watcher.isAlive());
+        assertEquals(2, applied[0]);
+    }
+
+    @Test
+    public void watchWithLeaseAndUpToDateCheck() throws Exception {
+        File dir = temp.newFolder("migrations");
+        write(new File(dir, "V1__First.sql"), "CREATE TABLE first (id INT);");
+
+        final Flyway flyway = new Flyway();
+        flyway.setDataSource("jdbc:h2:mem:flyway_watch_lease;DB_CLOSE_DELAY=-1", "sa", "");
+        flyway.setLocations("filesystem:" + dir.getAbsolutePath());
+        flyway.setWatchInterval(50);
+        flyway.setLeaseLock(true);
+        flyway.setUpToDateCheck(true);
+
+        Thread watcher = new Thread() {
+            @Override
+            public void run() {
+                flyway.watch();
+            }
+        };
+        watcher.start();
+
+        try {
+            waitForVersion(flyway, "1");
+            waitForTable(flyway, "schema_version_lease");
+            waitForTable(flyway, "schema_version_digest");
+        } finally {
+            watcher.interrupt();
+            watcher.join(10000);
+        }
+
+        assertFalse(watcher.isAlive());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void noFileSystemLocation() {
+        Flyway flyway = new Flyway();
+        flyway.setDataSource("jdbc:h2:mem:flyway_watch_none;DB_CLOSE_DELAY=-1", "sa", "");
+        flyway.setLocations("migration/sql");
+        flyway.watch();
+    }
+
+    private static void waitForVersion(Flyway flyway, String version) throws Exception {
+        long timeout = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < timeout) {
+            MigrationInfo current = flyway.info().current();
+            if ((current != null) && version.equals(current.getVersion().toString())) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Version " + version + " was not applied in time");
+    }
+
+    private static void waitForTable(Flyway flyway, String table) throws Exception {
+        long timeout = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < timeout) {
+            Connection connection = flyway.getDataSource().getConnection();
+            try {
+                ResultSet resultSet = connection.getMetaData().getTables(null, null, table, null);
+                if (resultSet.next()) {
+                    return;
+                }
+            } finally {
+                connection.close();
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Table " + table + " was not created in time");
+    }
+
+    private static void write(File file, String content) throws Exception {
+        file.getParentFile().mkdirs();
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+}
@@ -17,6 +17,8 @@ package org.flywaydb.core.internal.dbsupport;
 
 import org.flywaydb.core.internal.dbsupport.mysql.MySQLDbSupport;
 import org.flywaydb.core.internal.util.PlaceholderReplacer;
+import org.flywaydb.core.internal.util.scanner.Resource;
+import org.flywaydb.core.internal.util.scanner.classpath.ClassPathResource;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -26,7 +28,9 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test for SqlScript.
@@ -304,6 +308,38 @@ public class SqlScriptSmallTest {
         assertEquals(2, sqlStatements.size());
     }
 
+    @Test
+    public void stream() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("schema", "myschema");
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
+        Resource resource = new ClassPathResource("migration/concurrent/V1_2__Populate_table.sql",
+                Thread.currentThread().getContextClassLoader());
+
+        List<SqlStatement> expected =
+                new SqlScript(new MySQLDbSupport(null), resource, placeholderReplacer, "UTF-8").getSqlStatements();
+        List<SqlStatement> streamed =
+                new SqlScript(new MySQLDbSupport(null), resource, placeholderReplacer, "UTF-8", true, 0).getSqlStatements();
+
+        assertEquals(2, streamed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getLineNumber(), streamed.get(i).getLineNumber());
+            assertEquals(expected.get(i).getSql(), streamed.get(i).getSql());
+        }
+        assertEquals("INSERT INTO myschema.test_user (name, id) VALUES ('Mr. Semicolon;', 2)", streamed.get(1).getSql());
+    }
+
+    @Test
+    public void isBatchable() {
+        assertTrue(SqlScript.isBatchable(new SqlStatement(1, "INSERT INTO t VALUES (1)", false)));
+        assertTrue(SqlScript.isBatchable(new SqlStatement(1, "update t set a = 1", false)));
+        assertTrue(SqlScript.isBatchable(new SqlStatement(1, "-- comment\n/* other */ DELETE FROM t", false)));
+        assertFalse(SqlScript.isBatchable(new SqlStatement(1, "CREATE TABLE t (a INT)", false)));
+        assertFalse(SqlScript.isBatchable(new SqlStatement(1, "INSERTED_ROWS()", false)));
+        assertFalse(SqlScript.isBatchable(new SqlStatement(1, "-- just a comment", false)));
+        assertFalse(SqlScript.isBatchable(new SqlStatement(1, "COPY t FROM STDIN", true)));
+    }
+
     @Ignore("Currently broken")
     @Test
     public void parseWithTrailingComment() {
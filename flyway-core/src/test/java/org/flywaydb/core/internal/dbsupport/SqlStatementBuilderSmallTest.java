@@ -155,6 +155,19 @@ public class SqlStatementBuilderSmallTest {
         assertFalse(endsWithOpenMultilineStringLiteral(new DerbySqlStatementBuilder(), "SELECT X'0123',X'0456' FROM DUAL;"));
     }
 
+    @Test
+    public void quotedIdentifier() {
+        assertFalse(endsWithOpenMultilineStringLiteral(new H2SqlStatementBuilder(), "CREATE TABLE \"it's\" (id INT);"));
+        assertFalse(endsWithOpenMultilineStringLiteral(new H2SqlStatementBuilder(), "CREATE TABLE \"say \"\"it's\"\"\" (id INT);"));
+        assertFalse(endsWithOpenMultilineStringLiteral(new H2SqlStatementBuilder(), "SELECT \"a--b\", '\"' FROM t;"));
+        assertTrue(endsWithOpenMultilineStringLiteral(new H2SqlStatementBuilder(), "CREATE TABLE \"it's"));
+
+        SqlStatementBuilder builder = new H2SqlStatementBuilder();
+        builder.addLine("CREATE TABLE \"it's\" (\"a--b\" INT);");
+        assertTrue(builder.isTerminated());
+        assertEquals("CREATE TABLE \"it's\" (\"a--b\" INT)", builder.getSqlStatement().getSql());
+    }
+
     @Test
     public void stripDelimiter() {
         StringBuilder sql = new StringBuilder("SELECT * FROM t WHERE a = 'Straßenpaß';");
@@ -197,7 +210,7 @@ public class SqlStatementBuilderSmallTest {
     }
     
     private boolean endsWithOpenMultilineStringLiteral(SqlStatementBuilder builder, String line) {
-        builder.applyStateChanges(builder.simplifyLine(line));
+        builder.applyStateChanges(line);
         return builder.endWithOpenMultilineStringLiteral();
     }
 }
@@ -17,22 +17,34 @@ package org.flywaydb.core.internal.dbsupport.h2;
 
 import org.flywaydb.core.DbCategory;
 import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.MigrationVersion;
 import org.flywaydb.core.migration.MigrationTestCase;
 import org.flywaydb.core.internal.util.jdbc.DriverDataSource;
+import org.h2.tools.Server;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
 
 import javax.sql.DataSource;
+import java.io.File;
+import java.util.Collections;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * Test to demonstrate the migration functionality using H2.
  */
 @Category(DbCategory.H2.class)
 public class H2MigrationMediumTest extends MigrationTestCase {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
     @Override
     protected DataSource createDataSource(Properties customProperties) {
         return new DriverDataSource(Thread.currentThread().getContextClassLoader(), null, "jdbc:h2:mem:flyway_db;DB_CLOSE_DELAY=-1", "sa", "");
@@ -101,4 +113,193 @@ public class H2MigrationMediumTest extends MigrationTestCase {
         flyway.clean();
         flyway.migrate();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void cleanBatch() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setCleanBatch(true);
+        flyway.setBatchSize(2);
+        flyway.migrate();
+
+        flyway.clean();
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'"));
+
+        flyway.migrate();
+    }
+
+    @Test(timeout = 60000)
+    public void cleanBatchWithoutBatchSize() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setCleanBatch(true);
+        flyway.setBatchSize(0);
+        flyway.migrate();
+
+        flyway.clean();
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'"));
+    }
+
+    @Test
+    public void cleanInParallel() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.execute("CREATE SCHEMA parallel_clean" + i);
+            jdbcTemplate.execute("CREATE TABLE parallel_clean" + i + ".test_user (id INT PRIMARY KEY)");
+        }
+        jdbcTemplate.execute("CREATE VIEW parallel_clean1.all_users AS SELECT id FROM parallel_clean2.test_user");
+        jdbcTemplate.execute("ALTER TABLE parallel_clean3.test_user ADD FOREIGN KEY (id) REFERENCES parallel_clean2.test_user(id)");
+
+        assertEquals(Collections.singleton("PARALLEL_CLEAN2"), dbSupport.getSchema("PARALLEL_CLEAN1").getReferencedSchemas());
+        assertEquals(Collections.emptySet(), dbSupport.getSchema("PARALLEL_CLEAN2").getReferencedSchemas());
+        assertEquals(Collections.singleton("PARALLEL_CLEAN2"), dbSupport.getSchema("PARALLEL_CLEAN3").getReferencedSchemas());
+
+        flyway.setSchemas("PARALLEL_CLEAN1", "PARALLEL_CLEAN2", "PARALLEL_CLEAN3");
+        flyway.setSchemaCleanThreads(3);
+        flyway.clean();
+
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA LIKE 'PARALLEL_CLEAN%'"));
+
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.execute("DROP SCHEMA parallel_clean" + i);
+        }
+    }
+
+    @Test
+    public void cleanInParallelWithCycle() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.execute("CREATE SCHEMA parallel_clean" + i);
+            jdbcTemplate.execute("CREATE TABLE parallel_clean" + i + ".test_user (id INT PRIMARY KEY)");
+        }
+        jdbcTemplate.execute("ALTER TABLE parallel_clean1.test_user ADD FOREIGN KEY (id) REFERENCES parallel_clean2.test_user(id)");
+        jdbcTemplate.execute("ALTER TABLE parallel_clean2.test_user ADD FOREIGN KEY (id) REFERENCES parallel_clean1.test_user(id)");
+        jdbcTemplate.execute("CREATE VIEW parallel_clean3.all_users AS SELECT id FROM parallel_clean1.test_user");
+
+        flyway.setSchemas("PARALLEL_CLEAN1", "PARALLEL_CLEAN2", "PARALLEL_CLEAN3");
+        flyway.setSchemaCleanThreads(3);
+        flyway.clean();
+
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA LIKE 'PARALLEL_CLEAN%'"));
+
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.execute("DROP SCHEMA parallel_clean" + i);
+        }
+    }
+
+    @Test
+    public void recreateOnClean() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setRecreateOnClean(true);
+        flyway.migrate();
+
+        flyway.clean();
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'"));
+
+        flyway.migrate();
+    }
+
+    @Test
+    public void recreateOnCleanNonPublicSchema() throws Exception {
+        jdbcTemplate.execute("CREATE SCHEMA recreate_clean");
+        jdbcTemplate.execute("CREATE TABLE recreate_clean.test_user (id INT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE SEQUENCE recreate_clean.test_seq");
+
+        flyway.setSchemas("RECREATE_CLEAN");
+        flyway.setRecreateOnClean(true);
+        flyway.clean();
+
+        assertEquals(1, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SCHEMATA WHERE SCHEMA_NAME = 'RECREATE_CLEAN'"));
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'RECREATE_CLEAN'"));
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = 'RECREATE_CLEAN'"));
+
+        jdbcTemplate.execute("DROP SCHEMA recreate_clean");
+    }
+
+    @Test
+    public void upToDateCheckWithoutMetaDataTable() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setUpToDateCheck(true);
+        flyway.migrate();
+
+        // Only the digest table remains, which must not make the schema look non-empty
+        jdbcTemplate.execute("DROP VIEW all_misters");
+        jdbcTemplate.execute("DROP TABLE couple");
+        jdbcTemplate.execute("DROP TABLE test_user");
+        jdbcTemplate.execute("DROP TABLE " + dbSupport.quote(flyway.getTable()));
+
+        flyway.migrate();
+        assertEquals("2.0", flyway.info().current().getVersion().toString());
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temp.getRoot());
+        assertFalse(flyway.restoreSnapshot());
+
+        flyway.migrate();
+        int users = jdbcTemplate.queryForInt("SELECT COUNT(*) FROM test_user");
+        flyway.snapshot();
+        flyway.clean();
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'"));
+
+        assertTrue(flyway.restoreSnapshot());
+        assertEquals("2.0", flyway.info().current().getVersion().toString());
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(users, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM test_user"));
+
+        flyway.setLocations("migration/validate");
+        assertFalse(flyway.restoreSnapshot());
+    }
+
+    @Test
+    public void snapshotWithoutRecreate() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temp.getRoot());
+        flyway.setRecreateOnClean(false);
+        flyway.migrate();
+        flyway.snapshot();
+        flyway.clean();
+
+        assertTrue(flyway.restoreSnapshot());
+        assertEquals("2.0", flyway.info().current().getVersion().toString());
+    }
+
+    @Test
+    public void snapshotPlaceholders() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temp.getRoot());
+        flyway.getPlaceholders().put("mykey", "myvalue");
+        flyway.migrate();
+        flyway.snapshot();
+
+        flyway.getPlaceholders().put("mykey", "othervalue");
+        assertFalse(flyway.restoreSnapshot());
+
+        flyway.getPlaceholders().put("mykey", "myvalue");
+        assertTrue(flyway.restoreSnapshot());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void snapshotDirWritableByOthers() throws Exception {
+        File snapshotDir = temp.newFolder("shared");
+        assumeTrue(snapshotDir.setWritable(true, false));
+
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(snapshotDir);
+        flyway.migrate();
+        flyway.snapshot();
+    }
+
+    @Test(expected = FlywayException.class)
+    public void snapshotServer() throws Exception {
+        Server server = Server.createTcpServer("-tcpPort", "0").start();
+        try {
+            Flyway flyway = new Flyway();
+            flyway.setDataSource("jdbc:h2:" + server.getURL() + "/mem:server_db;DB_CLOSE_DELAY=-1", "sa", "");
+            flyway.setLocations(BASEDIR);
+            flyway.setSnapshotDir(temp.getRoot());
+            flyway.migrate();
+            flyway.snapshot();
+        } finally {
+            server.stop();
+        }
+    }
+}
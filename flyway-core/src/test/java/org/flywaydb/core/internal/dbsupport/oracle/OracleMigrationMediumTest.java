@@ -193,6 +193,17 @@ public class OracleMigrationMediumTest extends MigrationTestCase {
         flyway.migrate();
     }
 
+    /**
+     * Tests clean with the types Oracle generates for pipelined package functions.
+     */
+    @Test
+    public void pipelined() throws FlywayException {
+        flyway.setLocations("migration/dbsupport/oracle/sql/pipelined");
+        flyway.migrate();
+        flyway.clean();
+        flyway.migrate();
+    }
+
     /**
      * Tests support for create procedure.
      */
@@ -44,6 +44,21 @@ public class OracleSqlStatementBuilderSmallTest {
         assertTrue(builder.isTerminated());
     }
 
+    @Test
+    public void packageBody() {
+        builder.addLine("CREATE OR REPLACE PACKAGE BODY PRJ_UTIL AS");
+        assertFalse(builder.isTerminated());
+        builder.addLine("  PROCEDURE CheckImportJob(pinImpJobID IN NUMBER) IS");
+        builder.addLine("  BEGIN");
+        builder.addLine("      RAISE_APPLICATION_ERROR (/*test*/-20003, 'Import job pinImpJobID=['||pinImpJobID||'] has wrong status ['||vnImportStatus||'] ');");
+        assertFalse(builder.isTerminated());
+        builder.addLine("  END CheckImportJob;");
+        builder.addLine("END PRJ_UTIL;");
+        assertFalse(builder.isTerminated());
+        builder.addLine("/");
+        assertTrue(builder.isTerminated());
+    }
+
     @Test
     public void nvarchar() {
         builder.addLine("INSERT INTO nvarchar2_test VALUES ( N'qwerty' );");
@@ -60,6 +60,46 @@ public class PostgreSQLSqlStatementBuilderSmallTest {
         assertTrue(statementBuilder.isTerminated());
     }
 
+    @Test
+    public void functionWithInlineComment() {
+        String sqlScriptSource = "CREATE FUNCTION add(integer, integer) RETURNS integer\n" +
+                "    LANGUAGE sql/*test*/ IMMUTABLE STRICT\n" +
+                "    AS $_$select $1 + $2;$_$;\n";
+
+        String[] lines = StringUtils.tokenizeToStringArray(sqlScriptSource, "\n");
+        for (String line : lines) {
+            statementBuilder.addLine(line);
+        }
+
+        assertTrue(statementBuilder.isTerminated());
+    }
+
+    @Test
+    public void functionBody() {
+        statementBuilder.addLine("CREATE FUNCTION AddData() RETURNS INTEGER");
+        assertFalse(statementBuilder.isTerminated());
+        statementBuilder.addLine("AS $$");
+        assertFalse(statementBuilder.isTerminated());
+        statementBuilder.addLine("    BEGIN");
+        statementBuilder.addLine("     INSERT INTO test_data (value) VALUES ('Hello');");
+        assertFalse(statementBuilder.isTerminated());
+        statementBuilder.addLine("     RETURN 1;");
+        statementBuilder.addLine("   END;");
+        assertFalse(statementBuilder.isTerminated());
+        statementBuilder.addLine(" $$ LANGUAGE plpgsql;");
+        assertTrue(statementBuilder.isTerminated());
+    }
+
+    @Test
+    public void dollarQuoteFollowedByText() {
+        statementBuilder.addLine("CREATE FUNCTION inc(i integer) RETURNS VARCHAR(25)");
+        statementBuilder.addLine("    LANGUAGE sql");
+        statementBuilder.addLine("    AS $$SELECT * FROM test_data$$;");
+        assertTrue(statementBuilder.isTerminated());
+        assertEquals("CREATE FUNCTION inc(i integer) RETURNS VARCHAR(25)\n    LANGUAGE sql\n    AS $$SELECT * FROM test_data$$",
+                statementBuilder.getSqlStatement().getSql());
+    }
+
     @Test
     public void ts() {
         String line = "insert into testDate values (TIMESTAMP '2004-10-19 10:23:54')";
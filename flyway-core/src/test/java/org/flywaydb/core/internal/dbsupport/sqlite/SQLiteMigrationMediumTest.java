@@ -17,6 +17,7 @@ package org.flywaydb.core.internal.dbsupport.sqlite;
 
 import org.flywaydb.core.DbCategory;
 import org.flywaydb.core.Flyway;
+import org.flywaydb.core.internal.dbsupport.FlywaySqlScriptException;
 import org.flywaydb.core.migration.MigrationTestCase;
 import org.flywaydb.core.internal.util.jdbc.DriverDataSource;
 import org.junit.Ignore;
@@ -27,8 +28,10 @@ import javax.sql.DataSource;
 import java.sql.SQLException;
 import java.util.Properties;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Test to demonstrate the migration functionality using SQLite.
@@ -60,6 +63,23 @@ public class SQLiteMigrationMediumTest extends MigrationTestCase {
         //Not supported by SQLite
     }
 
+    @Override
+    @Test
+    public void batchFailed() throws Exception {
+        flyway.setLocations("migration/batch_failed");
+        flyway.setBatch(true);
+
+        try {
+            flyway.migrate();
+            fail();
+        } catch (FlywaySqlScriptException e) {
+            // The driver reports an update count for every statement, so the whole batch is reported as failed
+            assertEquals(22, e.getLineNumber());
+            assertTrue(e.getStatement().contains("INSERT INTO batch_test (id) VALUES (1)"));
+            assertTrue(e.getMessage().contains("Lines      : 22-25"));
+        }
+    }
+
     @Test
     public void trigger() throws Exception {
         flyway.setLocations("migration/dbsupport/sqlite/sql/trigger");
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.resolver;
+
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.util.Locations;
+import org.flywaydb.core.internal.util.PlaceholderReplacer;
+import org.flywaydb.core.internal.util.scanner.Scanner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Medium test for ResolvedMigrationCache.
+ */
+public class ResolvedMigrationCacheMediumTest {
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile("flyway-cache", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        ResolvedMigrationCache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        ResolvedMigrationCache.clear();
+        delete(dir);
+    }
+
+    @Test
+    public void cacheAndInvalidate() throws Exception {
+        File script = new File(dir, "V1__First.sql");
+        write(script, "CREATE TABLE first (id INT);");
+        age(dir);
+
+        List<ResolvedMigration> migrations = resolve(true);
+        assertEquals(1, migrations.size());
+        Integer checksum = migrations.get(0).getChecksum();
+
+        // Same size and modification time: indistinguishable from the cached state
+        long lastModified = script.lastModified();
+        write(script, "CREATE TABLE other (id INT);");
+        assertTrue(script.setLastModified(lastModified));
+
+        List<ResolvedMigration> cached = resolve(true);
+        assertEquals(1, cached.size());
+        assertEquals(checksum, cached.get(0).getChecksum());
+        assertEquals("V1__First.sql", cached.get(0).getScript());
+        assertNotSame(migrations.get(0).getExecutor(), cached.get(0).getExecutor());
+
+        write(script, "CREATE TABLE first (id INT, name VARCHAR(25));");
+
+        List<ResolvedMigration> changed = resolve(true);
+        assertEquals(1, changed.size());
+        assertFalse(checksum.equals(changed.get(0).getChecksum()));
+    }
+
+    @Test
+    public void newMigrationInNestedDirectory() throws Exception {
+        write(new File(dir, "V1__First.sql"), "CREATE TABLE first (id INT);");
+        File nested = new File(new File(dir, "nested"), "empty");
+        assertTrue(nested.mkdirs());
+        // Make sure adding a file changes the modification time, even with a coarse file system timestamp resolution
+        age(dir);
+
+        assertEquals(1, resolve(true).size());
+
+        write(new File(nested, "V2__Second.sql"), "CREATE TABLE second (id INT);");
+        assertEquals(2, resolve(true).size());
+    }
+
+    @Test
+    public void recentlyModifiedNotCached() throws Exception {
+        File script = new File(dir, "V1__First.sql");
+        write(script, "CREATE TABLE first (id INT);");
+
+        // The script may have been saved while it was being resolved, so its state can't be trusted
+        Integer checksum = resolve(true).get(0).getChecksum();
+
+        long lastModified = script.lastModified();
+        write(script, "CREATE TABLE other (id INT);");
+        assertTrue(script.setLastModified(lastModified));
+
+        assertFalse(checksum.equals(resolve(true).get(0).getChecksum()));
+    }
+
+    @Test
+    public void notCachedByDefault() throws Exception {
+        File script = new File(dir, "V1__First.sql");
+        write(script, "CREATE TABLE first (id INT);");
+
+        Integer checksum = resolve(false).get(0).getChecksum();
+
+        long lastModified = script.lastModified();
+        write(script, "CREATE TABLE other (id INT);");
+        assertTrue(script.setLastModified(lastModified));
+
+        assertFalse(checksum.equals(resolve(false).get(0).getChecksum()));
+    }
+
+    private List<ResolvedMigration> resolve(boolean cacheMigrations) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return new CompositeMigrationResolver(null, classLoader, new Scanner(classLoader),
+                new Locations("filesystem:" + dir.getPath()), "UTF-8", false, 0, "V", "__", ".sql",
+                PlaceholderReplacer.NO_PLACEHOLDERS, cacheMigrations).resolveMigrations();
+    }
+
+    private static void age(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                age(child);
+            }
+        }
+        assertTrue(file.setLastModified(file.lastModified() - 10000));
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static void write(File file, String content) throws Exception {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.resolver.ResolvedMigration;
 import org.flywaydb.core.internal.resolver.jdbc.dummy.V2__InterfaceBasedMigration;
 import org.flywaydb.core.internal.resolver.jdbc.dummy.Version3dot5;
+import org.flywaydb.core.internal.resolver.jdbc.lazy.V1__Lazy;
 import org.flywaydb.core.internal.util.Location;
 import org.junit.Test;
 
@@ -79,4 +80,21 @@ public class JdbcMigrationResolverSmallTest {
         assertEquals("Three Dot Five", migrationInfo.getDescription());
         assertEquals(35, migrationInfo.getChecksum().intValue());
     }
+
+    @Test
+    public void lazyInstantiation() throws Exception {
+        JdbcMigrationResolver jdbcMigrationResolver =
+                new JdbcMigrationResolver(Thread.currentThread().getContextClassLoader(), new Location("org/flywaydb/core/internal/resolver/jdbc/lazy"));
+        List<ResolvedMigration> migrations = jdbcMigrationResolver.resolveMigrations();
+
+        assertEquals(1, migrations.size());
+        assertEquals("1", migrations.get(0).getVersion().toString());
+        assertEquals("Lazy", migrations.get(0).getDescription());
+        assertEquals(V1__Lazy.class.getName(), migrations.get(0).getScript());
+        assertEquals(0, V1__Lazy.instantiated);
+
+        migrations.get(0).getExecutor().execute(null);
+        migrations.get(0).getExecutor().execute(null);
+        assertEquals(1, V1__Lazy.instantiated);
+    }
 }
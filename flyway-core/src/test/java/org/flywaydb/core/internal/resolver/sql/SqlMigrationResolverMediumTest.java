@@ -18,13 +18,17 @@ package org.flywaydb.core.internal.resolver.sql;
 import org.flywaydb.core.api.resolver.ResolvedMigration;
 import org.flywaydb.core.internal.util.Location;
 import org.flywaydb.core.internal.util.PlaceholderReplacer;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.zip.CRC32;
 
 import static org.junit.Assert.assertEquals;
 
@@ -32,6 +36,8 @@ import static org.junit.Assert.assertEquals;
  * Medium test for SqlMigrationResolver.
  */
 public class SqlMigrationResolverMediumTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
 
     @Test
     public void resolveMigrations() throws Exception {
@@ -41,7 +47,7 @@ public class SqlMigrationResolverMediumTest {
         SqlMigrationResolver sqlMigrationResolver =
                 new SqlMigrationResolver(null, Thread.currentThread().getContextClassLoader(),
                         new Location("filesystem:" + new File(path).getPath()), PlaceholderReplacer.NO_PLACEHOLDERS,
-                        "UTF-8", "V", "__", ".sql");
+                        "UTF-8", false, 0, "V", "__", ".sql");
         Collection<ResolvedMigration> migrations = sqlMigrationResolver.resolveMigrations();
 
         assertEquals(3, migrations.size());
@@ -56,4 +62,41 @@ public class SqlMigrationResolverMediumTest {
         assertEquals("V1_1__Populate_table.sql", migrationList.get(1).getScript());
         assertEquals("dir2/V2_0__Add_foreign_key.sql", migrationList.get(2).getScript());
     }
+
+    @Test
+    public void checksums() throws Exception {
+        File dir = temp.newFolder("migrations");
+        int count = 200;
+        int[] expected = new int[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sql = new StringBuilder();
+            for (int j = 0; j <= i * 50; j++) {
+                sql.append("INSERT INTO t VALUES (").append(j).append(");\n");
+            }
+            byte[] bytes = sql.toString().getBytes("UTF-8");
+
+            FileOutputStream outputStream = new FileOutputStream(new File(dir, "V" + (i + 1) + "__Migration.sql"));
+            try {
+                outputStream.write(bytes);
+            } finally {
+                outputStream.close();
+            }
+
+            CRC32 crc32 = new CRC32();
+            crc32.update(bytes);
+            expected[i] = (int) crc32.getValue();
+        }
+
+        SqlMigrationResolver sqlMigrationResolver =
+                new SqlMigrationResolver(null, Thread.currentThread().getContextClassLoader(),
+                        new Location("filesystem:" + dir.getPath()), PlaceholderReplacer.NO_PLACEHOLDERS,
+                        "UTF-8", false, 0, "V", "__", ".sql");
+        List<ResolvedMigration> migrations = sqlMigrationResolver.resolveMigrations();
+
+        assertEquals(count, migrations.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals("V" + (i + 1) + "__Migration.sql", migrations.get(i).getScript());
+            assertEquals(Integer.valueOf(expected[i]), migrations.get(i).getChecksum());
+        }
+    }
 }
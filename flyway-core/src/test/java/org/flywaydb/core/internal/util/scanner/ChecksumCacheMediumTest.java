@@ -0,0 +1,105 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner;
+
+import org.flywaydb.core.internal.util.scanner.filesystem.FileSystemResource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Medium test for ChecksumCache.
+ */
+public class ChecksumCacheMediumTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void persistent() throws Exception {
+        File cacheFile = new File(temp.getRoot(), "cache/checksums");
+        File migration = write("V1__First.sql", "CREATE TABLE t1 (id INT);", 10000);
+
+        ChecksumCache checksumCache = new ChecksumCache(cacheFile);
+        assertNull(checksumCache.get(new FileSystemResource(migration)));
+        checksumCache.put(new FileSystemResource(migration), 42);
+        checksumCache.save();
+
+        assertEquals(Integer.valueOf(42), new ChecksumCache(cacheFile).get(new FileSystemResource(migration)));
+    }
+
+    @Test
+    public void changed() throws Exception {
+        File cacheFile = new File(temp.getRoot(), "checksums");
+        File migration = write("V1__First.sql", "CREATE TABLE t1 (id INT);", 10000);
+
+        ChecksumCache checksumCache = new ChecksumCache(cacheFile);
+        checksumCache.put(new FileSystemResource(migration), 42);
+        checksumCache.save();
+
+        write("V1__First.sql", "CREATE TABLE t2 (id INT);", 20000);
+        assertNull(new ChecksumCache(cacheFile).get(new FileSystemResource(migration)));
+    }
+
+    @Test
+    public void recentlyModified() throws Exception {
+        File cacheFile = new File(temp.getRoot(), "checksums");
+        File migration = write("V1__First.sql", "CREATE TABLE t1 (id INT);", 0);
+
+        ChecksumCache checksumCache = new ChecksumCache(cacheFile);
+        checksumCache.put(new FileSystemResource(migration), 42);
+        checksumCache.save();
+
+        assertFalse(cacheFile.exists());
+    }
+
+    @Test
+    public void corrupt() throws Exception {
+        File cacheFile = write("checksums", "# Flyway checksum cache v1\nfoo\t1\tbar\t3\n", 0);
+        File migration = write("V1__First.sql", "CREATE TABLE t1 (id INT);", 10000);
+
+        assertNull(new ChecksumCache(cacheFile).get(new FileSystemResource(migration)));
+    }
+
+    /**
+     * Writes this file.
+     *
+     * @param name     The name of the file.
+     * @param contents The contents of the file.
+     * @param age      How long ago the file should appear to have been modified (in ms).
+     * @return The file.
+     */
+    private File write(String name, String contents, long age) throws IOException {
+        File file = new File(temp.getRoot(), name);
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(contents.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+        if (age > 0) {
+            file.setLastModified(System.currentTimeMillis() - age);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import org.flywaydb.core.internal.resolver.jdbc.dummy.DummyAbstractJdbcMigration;
+import org.flywaydb.core.internal.resolver.jdbc.dummy.SabotageEnum;
+import org.flywaydb.core.internal.resolver.jdbc.dummy.V4__DummyExtendedAbstractJdbcMigration;
+import org.flywaydb.core.internal.resolver.jdbc.dummy.Version3dot5;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for ClassFileHeader.
+ */
+public class ClassFileHeaderSmallTest {
+    @Test
+    public void read() throws Exception {
+        ClassFileHeader header = read(Version3dot5.class);
+
+        assertEquals("org/flywaydb/core/internal/resolver/jdbc/dummy/Version3dot5", header.getName());
+        assertEquals("org/flywaydb/core/internal/resolver/jdbc/dummy/DummyAbstractJdbcMigration", header.getSuperName());
+        assertEquals(Arrays.asList("org/flywaydb/core/api/migration/MigrationInfoProvider",
+                "org/flywaydb/core/api/migration/MigrationChecksumProvider"), Arrays.asList(header.getInterfaceNames()));
+        assertTrue(header.isInstantiable());
+    }
+
+    @Test
+    public void superclass() throws Exception {
+        ClassFileHeader header = read(V4__DummyExtendedAbstractJdbcMigration.class);
+
+        assertEquals("org/flywaydb/core/internal/resolver/jdbc/dummy/DummyAbstractJdbcMigration", header.getSuperName());
+        assertEquals(0, header.getInterfaceNames().length);
+        assertTrue(header.isInstantiable());
+
+        header = read(DummyAbstractJdbcMigration.class);
+        assertEquals("java/lang/Object", header.getSuperName());
+        assertEquals(Arrays.asList("org/flywaydb/core/api/migration/jdbc/JdbcMigration"),
+                Arrays.asList(header.getInterfaceNames()));
+    }
+
+    @Test
+    public void nonInstantiable() throws Exception {
+        assertFalse(read(DummyAbstractJdbcMigration.class).isInstantiable());
+        assertFalse(read(SabotageEnum.class).isInstantiable());
+        assertFalse(read(Runnable.class).isInstantiable());
+        assertFalse(read(new Runnable() {
+            public void run() {
+            }
+        }.getClass()).isInstantiable());
+    }
+
+    private static ClassFileHeader read(Class<?> clazz) throws Exception {
+        return ClassFileHeader.read(clazz.getClassLoader() == null
+                ? ClassLoader.getSystemResourceAsStream(clazz.getName().replace(".", "/") + ".class")
+                : clazz.getClassLoader().getResourceAsStream(clazz.getName().replace(".", "/") + ".class"));
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import org.flywaydb.core.internal.util.scanner.Resource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Medium test for ClassPathIndex.
+ */
+public class ClassPathIndexMediumTest {
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile("flyway-index", "");
+        assertTrue(dir.delete() && dir.mkdir());
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    @Test
+    public void indexedJar() throws Exception {
+        File classes = new File(dir, "classes");
+        write(new File(classes, "db/migration/V1__First.sql"), "CREATE TABLE first (id INT);");
+        write(new File(classes, "db/migration/sub/V2__Second.sql"), "CREATE TABLE second (id INT);");
+        write(new File(classes, "db/other/V1__Other.sql"), "CREATE TABLE other (id INT);");
+
+        File indexFile = ClassPathIndex.generate(Arrays.asList(classes), new String[]{"db.migration"}, classes);
+        assertEquals(new File(classes, ClassPathIndex.INDEX_FILE), indexFile);
+
+        // Added after indexing: only found if the jar is scanned instead of the index being used
+        write(new File(classes, "db/migration/V3__Unindexed.sql"), "CREATE TABLE third (id INT);");
+
+        File jar = new File(dir, "migrations.jar");
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            addToJar(jarOutputStream, classes, "");
+        } finally {
+            jarOutputStream.close();
+        }
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+        ClassPathScanner classPathScanner = new ClassPathScanner(classLoader);
+
+        Resource[] resources = classPathScanner.scanForResources("db/migration", "V", ".sql");
+        assertEquals(2, resources.length);
+        assertEquals("db/migration/V1__First.sql", resources[0].getLocation());
+        assertEquals("db/migration/sub/V2__Second.sql", resources[1].getLocation());
+        assertEquals(Integer.valueOf(checksum("CREATE TABLE first (id INT);")), resources[0].getChecksum());
+        assertEquals(Integer.valueOf(checksum("CREATE TABLE second (id INT);")), resources[1].getChecksum());
+
+        // Not covered by the index: the checksum is read from the jar entry instead
+        resources = classPathScanner.scanForResources("db/other", "V", ".sql");
+        assertEquals(1, resources.length);
+        assertEquals(Integer.valueOf(checksum("CREATE TABLE other (id INT);")), resources[0].getChecksum());
+    }
+
+    private static int checksum(String content) throws Exception {
+        CRC32 crc32 = new CRC32();
+        crc32.update(content.getBytes("UTF-8"));
+        return (int) crc32.getValue();
+    }
+
+    private static void addToJar(JarOutputStream jarOutputStream, File file, String name) throws Exception {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                addToJar(jarOutputStream, child, name + child.getName() + (child.isDirectory() ? "/" : ""));
+            }
+            if (name.length() > 0) {
+                jarOutputStream.putNextEntry(new JarEntry(name));
+                jarOutputStream.closeEntry();
+            }
+            return;
+        }
+
+        jarOutputStream.putNextEntry(new JarEntry(name));
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                jarOutputStream.write(buffer, 0, count);
+            }
+        } finally {
+            inputStream.close();
+        }
+        jarOutputStream.closeEntry();
+    }
+
+    private static void write(File file, String content) throws Exception {
+        file.getParentFile().mkdirs();
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
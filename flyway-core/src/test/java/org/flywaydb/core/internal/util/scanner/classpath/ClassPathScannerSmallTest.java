@@ -129,6 +129,18 @@ public class ClassPathScannerSmallTest {
         assertEquals("org/junit/AfterClass.class", resources[1].getLocation());
     }
 
+    @Test
+    public void scanForResourcesIndexed() throws Exception {
+        assertEquals(4, classPathScanner.scanForResources("migration/sql", "V", ".sql").length);
+        assertEquals(0, classPathScanner.scanForResources("migration/sql", "R", ".sql").length);
+        assertEquals(4, classPathScanner.scanForResources("migration/sql", "", ".sql").length);
+
+        assertEquals(2, classPathScanner.scanForResources("org/junit", "Af", ".class").length);
+        Resource[] resources = classPathScanner.scanForResources("org/junit/runner", "JUnit", ".class");
+        assertEquals(1, resources.length);
+        assertEquals("org/junit/runner/JUnitCore.class", resources[0].getLocation());
+    }
+
     @Test
     public void scanForClasses() throws Exception {
         Class<?>[] classes = classPathScanner.scanForClasses("org/flywaydb/core/internal/resolver/jdbc/dummy", JdbcMigration.class);
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import org.flywaydb.core.internal.util.scanner.Resource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Medium test for NestedJarClassPathLocationScanner.
+ */
+public class NestedJarClassPathLocationScannerMediumTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void scanForResources() throws Exception {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            large.append("INSERT INTO first VALUES (").append(i).append(");\n");
+        }
+
+        ByteArrayOutputStream nestedJar = new ByteArrayOutputStream();
+        ZipOutputStream nested = new ZipOutputStream(nestedJar);
+        addEntry(nested, "db/", null, false);
+        addEntry(nested, "db/migration/", null, false);
+        addEntry(nested, "db/migration/V1__First.sql", large.toString().getBytes("UTF-8"), false);
+        addEntry(nested, "db/migration/sub/V2__Second.sql", "CREATE TABLE second (id INT);".getBytes("UTF-8"), true);
+        addEntry(nested, "db/other/V9__Other.sql", "CREATE TABLE other (id INT);".getBytes("UTF-8"), false);
+        nested.close();
+
+        File fatJar = temp.newFile("app.jar");
+        ZipOutputStream outer = new ZipOutputStream(new FileOutputStream(fatJar));
+        addEntry(outer, "BOOT-INF/classes/db/migration/V3__Third.sql", "CREATE TABLE third (id INT);".getBytes("UTF-8"), false);
+        addEntry(outer, "BOOT-INF/lib/migrations.jar", nestedJar.toByteArray(), true);
+        outer.close();
+
+        String base = "jar:" + fatJar.toURI().toURL().toExternalForm() + "!/";
+        final URL[] urls = new URL[]{
+                new URL(base + "BOOT-INF/classes!/db/migration"),
+                new URL(base + "BOOT-INF/lib/migrations.jar!/db/migration")};
+        assertTrue(NestedJarClassPathLocationScanner.isNested(urls[0]));
+        assertTrue(NestedJarClassPathLocationScanner.isNested(urls[1]));
+
+        ClassLoader classLoader = new ClassLoader(null) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                return Collections.enumeration(Arrays.asList(urls));
+            }
+        };
+
+        Resource[] resources = new ClassPathScanner(classLoader).scanForResources("db/migration", "V", ".sql");
+        assertEquals(3, resources.length);
+        assertEquals("db/migration/V1__First.sql", resources[0].getLocation());
+        assertEquals("db/migration/V3__Third.sql", resources[1].getLocation());
+        assertEquals("db/migration/sub/V2__Second.sql", resources[2].getLocation());
+
+        assertEquals(large.toString(), resources[0].loadAsString("UTF-8"));
+        assertEquals("CREATE TABLE third (id INT);", resources[1].loadAsString("UTF-8"));
+        assertEquals("CREATE TABLE second (id INT);", resources[2].loadAsString("UTF-8"));
+
+        assertEquals(Integer.valueOf(checksum(large.toString().getBytes("UTF-8"))), resources[0].getChecksum());
+        assertEquals(Integer.valueOf(checksum("CREATE TABLE second (id INT);".getBytes("UTF-8"))),
+                resources[2].getChecksum());
+    }
+
+    @Test
+    public void scanForResourcesWithLaunchScript() throws Exception {
+        ByteArrayOutputStream nestedJar = new ByteArrayOutputStream();
+        ZipOutputStream nested = new ZipOutputStream(nestedJar);
+        addEntry(nested, "db/migration/V1__First.sql", "CREATE TABLE first (id INT);".getBytes("UTF-8"), false);
+        nested.close();
+
+        // Fully executable jars start with a launch script, which isn't accounted for in the offsets of the zip file
+        File fatJar = temp.newFile("exec.jar");
+        FileOutputStream fileOutputStream = new FileOutputStream(fatJar);
+        fileOutputStream.write("#!/bin/bash\nexec java -jar \"$0\" \"$@\"\n".getBytes("UTF-8"));
+        ZipOutputStream outer = new ZipOutputStream(fileOutputStream);
+        addEntry(outer, "BOOT-INF/classes/db/migration/V2__Second.sql", "CREATE TABLE second (id INT);".getBytes("UTF-8"), false);
+        addEntry(outer, "BOOT-INF/lib/migrations.jar", nestedJar.toByteArray(), true);
+        outer.close();
+
+        String base = "jar:" + fatJar.toURI().toURL().toExternalForm() + "!/";
+        final URL[] urls = new URL[]{
+                new URL(base + "BOOT-INF/classes!/db/migration"),
+                new URL(base + "BOOT-INF/lib/migrations.jar!/db/migration")};
+
+        ClassLoader classLoader = new ClassLoader(null) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                return Collections.enumeration(Arrays.asList(urls));
+            }
+        };
+
+        Resource[] resources = new ClassPathScanner(classLoader).scanForResources("db/migration", "V", ".sql");
+        assertEquals(2, resources.length);
+        assertEquals("db/migration/V1__First.sql", resources[0].getLocation());
+        assertEquals("db/migration/V2__Second.sql", resources[1].getLocation());
+
+        assertEquals("CREATE TABLE first (id INT);", resources[0].loadAsString("UTF-8"));
+        assertEquals("CREATE TABLE second (id INT);", resources[1].loadAsString("UTF-8"));
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes);
+        return (int) crc32.getValue();
+    }
+
+    private static void addEntry(ZipOutputStream zipOutputStream, String name, byte[] bytes, boolean stored)
+            throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (bytes == null) {
+            bytes = new byte[0];
+        }
+        if (stored) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCompressedSize(bytes.length);
+            CRC32 crc32 = new CRC32();
+            crc32.update(bytes);
+            entry.setCrc(crc32.getValue());
+        }
+        zipOutputStream.putNextEntry(entry);
+        zipOutputStream.write(bytes);
+        zipOutputStream.closeEntry();
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util.scanner.classpath;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgi.framework.Bundle;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for OsgiClassPathLocationScanner.
+ */
+public class OsgiClassPathLocationScannerSmallTest {
+    @Test
+    public void cachedPerBundle() throws Exception {
+        Bundle bundle = mock(Bundle.class);
+        when(bundle.getBundleId()).thenReturn(4711L);
+        when(bundle.getLastModified()).thenReturn(1000L);
+        when(bundle.findEntries("/db/migration", "*", true)).thenAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return Collections.enumeration(Arrays.asList(new URL("file:/db/migration/V1__First.sql")));
+            }
+        });
+
+        Set<String> resourceNames = OsgiClassPathLocationScanner.findResourceNames(bundle, "/db/migration");
+        assertEquals(1, resourceNames.size());
+        assertTrue(resourceNames.contains("db/migration/V1__First.sql"));
+
+        assertEquals(resourceNames, OsgiClassPathLocationScanner.findResourceNames(bundle, "/db/migration"));
+        verify(bundle, times(1)).findEntries("/db/migration", "*", true);
+
+        // Updated bundle
+        when(bundle.getLastModified()).thenReturn(2000L);
+        assertEquals(resourceNames, OsgiClassPathLocationScanner.findResourceNames(bundle, "/db/migration"));
+        verify(bundle, times(2)).findEntries("/db/migration", "*", true);
+    }
+}
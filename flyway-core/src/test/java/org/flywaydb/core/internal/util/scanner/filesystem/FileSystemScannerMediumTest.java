@@ -16,14 +16,95 @@
 package org.flywaydb.core.internal.util.scanner.filesystem;
 
 import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.internal.util.scanner.Resource;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
 
 /**
  * Test for FileSystemScanner.
  */
 public class FileSystemScannerMediumTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
     @Test(expected = FlywayException.class)
     public void nonExistentDirectory() throws Exception {
         new FileSystemScanner().scanForResources("/invalid-path", "", "");
     }
+
+    @Test
+    public void scanForResources() throws Exception {
+        File root = createTree();
+
+        Resource[] resources = new FileSystemScanner().scanForResources(root.getPath(), "V", ".sql");
+
+        assertEquals(3, resources.length);
+        assertEquals("V1__First.sql", resources[0].getFilename());
+        assertEquals("V2__Second.sql", resources[1].getFilename());
+        assertEquals("V4__Fourth.sql", resources[2].getFilename());
+    }
+
+    @Test
+    public void scanForResourcesParallel() throws Exception {
+        File root = createTree();
+
+        Resource[] sequential = new FileSystemScanner().scanForResources(root.getPath(), "V", ".sql");
+        Resource[] parallel = new FileSystemScanner(4).scanForResources(root.getPath(), "V", ".sql");
+
+        assertEquals(sequential.length, parallel.length);
+        for (int i = 0; i < sequential.length; i++) {
+            assertEquals(sequential[i].getLocation(), parallel[i].getLocation());
+        }
+    }
+
+    @Test
+    public void attributes() throws Exception {
+        File root = createTree();
+
+        FileSystemResource resource =
+                (FileSystemResource) new FileSystemScanner().scanForResources(root.getPath(), "V1", ".sql")[0];
+
+        assertEquals(new File(root, "V1__First.sql").length(), resource.getLength());
+        assertEquals(new File(root, "V1__First.sql").lastModified(), resource.getLastModified());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void invalidThreads() throws Exception {
+        new FileSystemScanner(0);
+    }
+
+    /**
+     * Creates a small tree of files, some matching V*.sql and some not (including a directory).
+     *
+     * @return The root of the tree.
+     */
+    private File createTree() throws IOException {
+        File root = temp.newFolder("migrations");
+        write(new File(root, "V1__First.sql"));
+        write(new File(root, "V.sql"));
+        write(new File(root, "R1__Other.sql"));
+        write(new File(root, "a/V2__Second.sql"));
+        write(new File(root, "a/V2__Second.txt"));
+        write(new File(root, "a/b/V4__Fourth.sql"));
+        write(new File(root, "V3__Third.sql/V5__Nested.txt"));
+        write(new File(root, "c/d/e/readme.txt"));
+        return root;
+    }
+
+    private void write(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(("-- " + file.getName()).getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
 }
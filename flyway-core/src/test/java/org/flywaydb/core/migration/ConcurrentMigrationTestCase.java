@@ -16,6 +16,7 @@
 package org.flywaydb.core.migration;
 
 import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.callback.BaseFlywayCallback;
 import org.flywaydb.core.internal.dbsupport.DbSupportFactory;
 import org.flywaydb.core.internal.dbsupport.JdbcTemplate;
 import org.flywaydb.core.internal.util.jdbc.JdbcUtils;
@@ -32,6 +33,7 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -96,10 +98,41 @@ public abstract class ConcurrentMigrationTestCase {
 
     @Test
     public void migrateConcurrently() throws Exception {
+        migrateConcurrently(false, false, false);
+    }
+
+    @Test
+    public void migrateConcurrentlyWithLease() throws Exception {
+        migrateConcurrently(true, false, false);
+    }
+
+    @Test
+    public void migrateConcurrentlyWithAdvisoryLock() throws Exception {
+        migrateConcurrently(false, true, false);
+    }
+
+    @Test
+    public void migrateConcurrentlyAsFollowers() throws Exception {
+        migrateConcurrently(true, false, true);
+    }
+
+    private void migrateConcurrently(final boolean leaseLock, final boolean advisoryLock, final boolean followerMode)
+            throws Exception {
+        final AtomicInteger afterMigrateCount = new AtomicInteger();
         Runnable runnable = new Runnable() {
             public void run() {
                 try {
-                    createFlyway().migrate();
+                    Flyway concurrentFlyway = createFlyway();
+                    concurrentFlyway.setLeaseLock(leaseLock);
+                    concurrentFlyway.setAdvisoryLock(advisoryLock);
+                    concurrentFlyway.setFollowerMode(followerMode);
+                    concurrentFlyway.setCallbacks(new BaseFlywayCallback() {
+                        @Override
+                        public void afterMigrate(Connection connection) {
+                            afterMigrateCount.incrementAndGet();
+                        }
+                    });
+                    concurrentFlyway.migrate();
                 } catch (Exception e) {
                     LOG.error("Migrate failed", e);
                     failed = true;
@@ -119,6 +152,7 @@ public abstract class ConcurrentMigrationTestCase {
         }
 
         assertFalse(failed);
+        assertEquals(NUM_THREADS, afterMigrateCount.get());
         assertEquals(6, flyway.info().applied().length);
         assertEquals("2.0", flyway.info().current().getVersion().toString());
         assertEquals(0, flyway.migrate());
@@ -19,6 +19,8 @@ import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.*;
 import org.flywaydb.core.api.resolver.ResolvedMigration;
 import org.flywaydb.core.internal.dbsupport.*;
+import org.flywaydb.core.internal.metadatatable.AppliedMigration;
+import org.flywaydb.core.internal.metadatatable.MetaDataTableImpl;
 import org.flywaydb.core.internal.resolver.sql.SqlMigrationResolver;
 import org.flywaydb.core.internal.util.Location;
 import org.flywaydb.core.internal.util.PlaceholderReplacer;
@@ -32,6 +34,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -176,6 +179,87 @@ public abstract class MigrationTestCase {
         assertEquals("2.0", flyway.info().current().getVersion().toString());
     }
 
+    @Test
+    public void upToDateCheck() throws Exception {
+        flyway.setLocations(getBasedir());
+        flyway.setUpToDateCheck(true);
+
+        flyway.setTarget(MigrationVersion.fromVersion("1.2"));
+        flyway.migrate();
+        assertEquals("1.2", flyway.info().current().getVersion().toString());
+        assertTrue(dbSupport.getSchema(flyway.getSchemas()[0]).getTable(flyway.getTable() + "_digest").exists());
+        assertEquals(0, flyway.migrate());
+
+        flyway.setTarget(MigrationVersion.LATEST);
+        flyway.migrate();
+        assertEquals("2.0", flyway.info().current().getVersion().toString());
+        assertEquals(0, flyway.migrate());
+        flyway.validate();
+        flyway.validate();
+
+        // Rows changed in place don't invalidate the digest, so only the fast path still considers the schema valid
+        Table table = dbSupport.getSchema(flyway.getSchemas()[0]).getTable(flyway.getTable());
+        jdbcTemplate.update("UPDATE " + table + " SET " + dbSupport.quote("checksum") + "="
+                + dbSupport.quote("checksum") + "+1 WHERE " + dbSupport.quote("version") + "='1.1'");
+        assertEquals(0, flyway.migrate());
+        flyway.validate();
+
+        flyway.setUpToDateCheck(false);
+        try {
+            flyway.validate();
+            fail();
+        } catch (FlywayException e) {
+            //Expected
+        }
+
+        // A new migration invalidates the digest
+        flyway.setUpToDateCheck(true);
+        flyway.setLocations(getBasedir(), "migration/outoforder");
+        try {
+            flyway.validate();
+            fail();
+        } catch (FlywayException e) {
+            //Expected
+        }
+
+        // So does a change of the installed migrations
+        flyway.setLocations(getBasedir());
+        flyway.validate();
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE " + dbSupport.quote("version") + "='2.0'");
+        try {
+            flyway.validate();
+            fail();
+        } catch (FlywayException e) {
+            //Expected
+        }
+    }
+
+    @Test
+    public void batch() throws Exception {
+        flyway.setLocations("migration/batch");
+        flyway.setBatch(true);
+        flyway.setBatchSize(2);
+        flyway.migrate();
+
+        assertEquals(4, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM batch_test"));
+        assertEquals("Uno", jdbcTemplate.queryForString("SELECT name FROM batch_test WHERE id=1"));
+        assertEquals("Two; or not", jdbcTemplate.queryForString("SELECT name FROM batch_test WHERE id=2"));
+    }
+
+    @Test
+    public void batchFailed() throws Exception {
+        flyway.setLocations("migration/batch_failed");
+        flyway.setBatch(true);
+
+        try {
+            flyway.migrate();
+            fail();
+        } catch (FlywaySqlScriptException e) {
+            assertEquals(24, e.getLineNumber());
+            assertEquals("INSERT INTO batch_test (id) VALUES (1)", e.getStatement());
+        }
+    }
+
     @Test
     public void customTableName() throws Exception {
         flyway.setLocations(getBasedir());
@@ -195,7 +279,7 @@ public abstract class MigrationTestCase {
                 dbSupport, Thread.currentThread().getContextClassLoader(),
                 new Location(getBasedir()),
                 PlaceholderReplacer.NO_PLACEHOLDERS,
-                "UTF-8",
+                "UTF-8", false, 0,
                 "V", "__", ".sql");
         List<ResolvedMigration> migrations = sqlMigrationResolver.resolveMigrations();
         for (ResolvedMigration migration : migrations) {
@@ -278,6 +362,29 @@ public abstract class MigrationTestCase {
         }
     }
 
+    @Test
+    public void failedFirstMigrationWithLease() throws Exception {
+        flyway.setLeaseLock(true);
+        flyway.setLocations("migration/failed");
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("tableName", dbSupport.quote("before_the_error"));
+        flyway.setPlaceholders(placeholders);
+
+        try {
+            flyway.migrate();
+            fail();
+        } catch (FlywaySqlScriptException e) {
+            //Expected
+        }
+
+        if (dbSupport.supportsDdlTransactions()) {
+            // Only the lease table remains, which must not make the schema look non-empty
+            flyway.setLocations(getBasedir());
+            flyway.migrate();
+            assertEquals(0, flyway.info().pending().length);
+        }
+    }
+
     @Test
     public void futureFailedMigration() throws Exception {
         flyway.setValidateOnMigrate(false);
@@ -557,6 +664,59 @@ public abstract class MigrationTestCase {
         assertEquals(org.flywaydb.core.api.MigrationState.OUT_OF_ORDER, flyway.info().all()[2].getState());
     }
 
+    @Test
+    public void outOfOrderVersionRanks() throws Exception {
+        flyway.setLocations("migration/sql");
+        flyway.migrate();
+
+        Table table = dbSupport.getSchema(flyway.getSchemas()[0]).getTable(flyway.getTable());
+        List<String> storedRanksBefore = jdbcTemplate.queryForStringList("SELECT " + dbSupport.quote("version_rank")
+                + " FROM " + table + " ORDER BY " + dbSupport.quote("installed_rank"));
+
+        flyway.setLocations("migration/sql", "migration/outoforder");
+        flyway.setOutOfOrder(true);
+        flyway.migrate();
+
+        List<String> storedRanksAfter = jdbcTemplate.queryForStringList("SELECT " + dbSupport.quote("version_rank")
+                + " FROM " + table + " ORDER BY " + dbSupport.quote("installed_rank"));
+        assertEquals(storedRanksBefore, storedRanksAfter.subList(0, storedRanksBefore.size()));
+
+        List<AppliedMigration> appliedMigrations = new MetaDataTableImpl(dbSupport, table).allAppliedMigrations();
+        List<String> versionsByRank = new ArrayList<String>();
+        for (int i = 0; i < appliedMigrations.size(); i++) {
+            assertEquals(i + 1, appliedMigrations.get(i).getVersionRank());
+            versionsByRank.add(appliedMigrations.get(i).getVersion().toString());
+        }
+        assertTrue(versionsByRank.indexOf("1.1.1") < versionsByRank.indexOf("1.2"));
+    }
+
+    @Test
+    public void outOfOrderLegacyVersionRanks() throws Exception {
+        flyway.setLegacyVersionRank(true);
+        flyway.setLocations("migration/sql");
+        flyway.migrate();
+
+        flyway.setLocations("migration/sql", "migration/outoforder");
+        flyway.setOutOfOrder(true);
+        flyway.migrate();
+
+        Table table = dbSupport.getSchema(flyway.getSchemas()[0]).getTable(flyway.getTable());
+        List<String> versionsByStoredRank = jdbcTemplate.queryForStringList("SELECT " + dbSupport.quote("version")
+                + " FROM " + table + " ORDER BY " + dbSupport.quote("version_rank"));
+        List<String> storedRanks = jdbcTemplate.queryForStringList("SELECT " + dbSupport.quote("version_rank")
+                + " FROM " + table + " ORDER BY " + dbSupport.quote("version_rank"));
+        List<AppliedMigration> appliedMigrations = new MetaDataTableImpl(dbSupport, table).allAppliedMigrations();
+
+        assertEquals(appliedMigrations.size(), versionsByStoredRank.size());
+        for (int i = 0; i < appliedMigrations.size(); i++) {
+            AppliedMigration appliedMigration = appliedMigrations.get(i);
+            assertEquals(i + 1, appliedMigration.getVersionRank());
+            assertEquals(String.valueOf(i + 1), storedRanks.get(i));
+            assertEquals(appliedMigration.getVersion().toString(), versionsByStoredRank.get(i));
+        }
+        assertTrue(versionsByStoredRank.indexOf("1.1.1") < versionsByStoredRank.indexOf("1.2"));
+    }
+
     @Test
     public void schemaExists() throws SQLException {
         assertTrue(dbSupport.getOriginalSchema().exists());
@@ -0,0 +1,30 @@
+--
+-- Copyright 2010-2015 Axel Fontaine
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--         http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+CREATE TABLE batch_test (
+  id INT NOT NULL,
+  name VARCHAR(25),
+  PRIMARY KEY (id)
+);
+
+INSERT INTO batch_test (id, name) VALUES (1, 'One');
+INSERT INTO batch_test (id, name) VALUES (2, 'Two; or not');
+-- comment between statements
+INSERT INTO batch_test (id, name) VALUES (3, 'Three');
+UPDATE batch_test SET name = 'Uno' WHERE id = 1;
+DELETE FROM batch_test WHERE id = 3;
+INSERT INTO batch_test (id, name) VALUES (4, 'Four');
+INSERT INTO batch_test (id, name) VALUES (5, 'Five');
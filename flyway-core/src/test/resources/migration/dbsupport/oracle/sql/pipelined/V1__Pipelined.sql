@@ -0,0 +1,37 @@
+--
+-- Copyright 2010-2015 Axel Fontaine
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--         http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+CREATE OR REPLACE PACKAGE pipelined_pkg AS
+  TYPE number_row IS RECORD (n NUMBER);
+  TYPE number_table IS TABLE OF number_row;
+  FUNCTION numbers(max_n NUMBER) RETURN number_table PIPELINED;
+END pipelined_pkg;
+/
+
+CREATE OR REPLACE PACKAGE BODY pipelined_pkg AS
+  FUNCTION numbers(max_n NUMBER) RETURN number_table PIPELINED IS
+    r number_row;
+  BEGIN
+    FOR i IN 1 .. max_n LOOP
+      r.n := i;
+      PIPE ROW (r);
+    END LOOP;
+    RETURN;
+  END numbers;
+END pipelined_pkg;
+/
+
+CREATE VIEW pipelined_view AS SELECT n FROM TABLE(pipelined_pkg.numbers(3));
@@ -16,11 +16,13 @@
 package org.flywaydb.gradle;
 
 import org.flywaydb.gradle.task.FlywayCleanTask;
+import org.flywaydb.gradle.task.FlywayIndexTask;
 import org.flywaydb.gradle.task.FlywayInfoTask;
 import org.flywaydb.gradle.task.FlywayBaselineTask;
 import org.flywaydb.gradle.task.FlywayMigrateTask;
 import org.flywaydb.gradle.task.FlywayRepairTask;
 import org.flywaydb.gradle.task.FlywayValidateTask;
+import org.flywaydb.gradle.task.FlywayWatchTask;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 
@@ -40,5 +42,7 @@ public class FlywayPlugin implements Plugin<Project> {
         project.getTasks().create("flywayValidate", FlywayValidateTask.class);
         project.getTasks().create("flywayInfo", FlywayInfoTask.class);
         project.getTasks().create("flywayRepair", FlywayRepairTask.class);
+        project.getTasks().create("flywayIndex", FlywayIndexTask.class);
+        project.getTasks().create("flywayWatch", FlywayWatchTask.class);
     }
 }
@@ -84,7 +84,9 @@ abstract class AbstractFlywayTask extends DefaultTask {
     /** Creates a new, configured flyway instance */
     protected def createFlyway() {
         def flyway = new Flyway()
-        flyway.setDataSource(new DriverDataSource(Thread.currentThread().getContextClassLoader(), prop("driver"), prop("url"), prop("user"), prop("password")))
+        if (prop("url") != null) {
+            flyway.setDataSource(new DriverDataSource(Thread.currentThread().getContextClassLoader(), prop("driver"), prop("url"), prop("user"), prop("password")))
+        }
 
         propSet(flyway, 'table')
 
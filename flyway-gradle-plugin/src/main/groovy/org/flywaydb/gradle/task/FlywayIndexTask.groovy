@@ -0,0 +1,55 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.gradle.task
+
+import org.flywaydb.core.Flyway
+import org.flywaydb.core.internal.util.scanner.classpath.ClassPathIndex
+
+/**
+ * Generates an index of the migrations and callbacks in the configured classpath locations of the main source set.
+ * It is written to the resources output directory, so it gets packaged along with them. Add
+ * {@code jar.dependsOn flywayIndex} to the build script to generate it for every jar.
+ * <p>For Android apps, set {@code classPathDirs} to the compiled classes and the assets directory and
+ * {@code outputDir} to the assets directory, so the index gets packaged as an asset.</p>
+ */
+class FlywayIndexTask extends AbstractFlywayTask {
+  /**
+   * The directories making up the classpath root to index. (default: the classes and resources output directories of
+   * the main source set)
+   */
+  def classPathDirs
+
+  /**
+   * The directory to write the index to. (default: the resources output directory of the main source set)
+   */
+  def outputDir
+
+  FlywayIndexTask() {
+    description = 'Generates the index of the migrations on the classpath, so they needn\'t be scanned at runtime.'
+  }
+
+  def run(Flyway flyway) {
+    ClassPathIndex.generate(classPathDirs != null ? classPathDirs.collect { project.file(it) } : [mainOutput().classesDir, mainOutput().resourcesDir],
+        flyway.locations, outputDir != null ? project.file(outputDir) : mainOutput().resourcesDir)
+  }
+
+  /**
+   * @return The output of the main source set. Only looked up when needed, as Android projects don't have one.
+   */
+  private def mainOutput() {
+    project.sourceSets.main.output
+  }
+}
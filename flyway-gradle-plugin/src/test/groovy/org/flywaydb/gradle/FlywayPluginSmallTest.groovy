@@ -50,6 +50,8 @@ class FlywayPluginSmallTest {
         assert project.tasks.findByName('flywayMigrate')
         assert project.tasks.findByName('flywayRepair')
         assert project.tasks.findByName('flywayValidate')
+        assert project.tasks.findByName('flywayIndex')
+        assert project.tasks.findByName('flywayWatch')
     }
 
     @Test
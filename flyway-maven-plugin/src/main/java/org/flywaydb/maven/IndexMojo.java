@@ -0,0 +1,39 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.maven;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.internal.util.scanner.classpath.ClassPathIndex;
+
+import java.io.File;
+import java.util.Collections;
+
+/**
+ * Maven goal that generates an index of the migrations and callbacks in the configured classpath locations of the
+ * project's output directory. It is packaged along with them, so Flyway can read the index at runtime instead of
+ * scanning the classpath. Only takes effect in packaged jars and wars.
+ *
+ * @phase prepare-package
+ * @goal index
+ */
+@SuppressWarnings({"JavaDoc", "UnusedDeclaration"})
+public class IndexMojo extends AbstractFlywayMojo {
+    @Override
+    protected void doExecute(Flyway flyway) throws Exception {
+        File outputDirectory = new File(mavenProject.getBuild().getOutputDirectory());
+        ClassPathIndex.generate(Collections.singletonList(outputDirectory), flyway.getLocations(), outputDirectory);
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2010-2015 Axel Fontaine
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.maven;
+
+import org.flywaydb.core.Flyway;
+
+/**
+ * Maven goal that migrates the configured database, then keeps watching the filesystem locations and migrates the
+ * database again whenever migrations are added or modified. Meant for development. Stop it using Ctrl-C.
+ *
+ * @goal watch
+ */
+@SuppressWarnings({"UnusedDeclaration", "JavaDoc"})
+public class WatchMojo extends AbstractFlywayMojo {
+    @Override
+    protected void doExecute(Flyway flyway) throws Exception {
+        flyway.watch();
+    }
+}